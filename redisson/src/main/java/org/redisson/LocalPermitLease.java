@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.util.Timeout;
+import org.redisson.api.LocalLeaseOptions;
+import org.redisson.api.RFuture;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reserves batches of permits in Redis and serves acquisitions from memory.
+ * Unused permits are returned after lease expiration or once lease is replaced.
+ * Size of the next batch is based on consumption rate observed by previous leases.
+ * Only one reservation is sent at a time, concurrent acquisitions wait for it.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public abstract class LocalPermitLease {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalPermitLease.class);
+
+    static final class Lease {
+
+        private final AtomicLong remaining;
+        private final byte[] token;
+        private final long reserved;
+        private final long expireAt;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile Timeout timeout;
+
+        Lease(byte[] token, long reserved, long remaining, long expireAt) {
+            this.token = token;
+            this.reserved = reserved;
+            this.remaining = new AtomicLong(remaining);
+            this.expireAt = expireAt;
+        }
+
+        boolean tryAcquire(long permits) {
+            if (System.currentTimeMillis() >= expireAt) {
+                return false;
+            }
+
+            while (true) {
+                long current = remaining.get();
+                if (current < permits) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - permits)) {
+                    return true;
+                }
+            }
+        }
+
+        long close() {
+            return remaining.getAndSet(-1);
+        }
+
+    }
+
+    static final class Reservation {
+
+        private final long permits;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        Reservation(long permits) {
+            this.permits = permits;
+        }
+
+    }
+
+    private final ConnectionManager connectionManager;
+    private final LocalLeaseOptions options;
+    private final AtomicReference<Lease> current = new AtomicReference<>();
+    private final AtomicReference<Reservation> reservation = new AtomicReference<>();
+
+    private volatile double rate;
+    private volatile boolean closed;
+    private volatile long maxLeaseTime = Long.MAX_VALUE;
+
+    public LocalPermitLease(ConnectionManager connectionManager, LocalLeaseOptions options) {
+        this.connectionManager = connectionManager;
+        this.options = options;
+    }
+
+    /**
+     * Reserves at least <code>permits</code> and up to <code>desired</code> permits.
+     * Reserved amount is limited by <code>fairShare</code> of available permits
+     * unless it's less than <code>permits</code>.
+     *
+     * @param token - unique id of reservation
+     * @param permits - required amount of permits
+     * @param desired - desired amount of permits
+     * @param fairShare - maximal share of available permits
+     * @return amount of reserved permits or <code>0</code> if required permits aren't available
+     */
+    protected abstract RFuture<Long> reserveAsync(byte[] token, long permits, long desired, double fairShare);
+
+    /**
+     * Returns unused permits of reservation.
+     *
+     * @param token - unique id of reservation
+     * @param reserved - amount of reserved permits
+     * @param unused - amount of unused permits
+     * @return void
+     */
+    protected abstract RFuture<Void> returnAsync(byte[] token, long reserved, long unused);
+
+    /**
+     * Limits lease lifetime by time during which reserved permits are valid.
+     *
+     * @param leaseTime - maximal lease lifetime in milliseconds
+     */
+    protected void limitLeaseTime(long leaseTime) {
+        this.maxLeaseTime = leaseTime;
+    }
+
+    private long getLeaseTime() {
+        return Math.min(options.getLeaseTimeInMillis(), maxLeaseTime);
+    }
+
+    public RFuture<Boolean> tryAcquireAsync(long permits) {
+        return new CompletableFutureWrapper<>(tryAcquire(permits));
+    }
+
+    private CompletionStage<Boolean> tryAcquire(long permits) {
+        Lease lease = current.get();
+        if (lease != null && lease.tryAcquire(permits)) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        Reservation pending = reservation.get();
+        if (pending != null) {
+            return await(pending, permits);
+        }
+
+        Reservation newReservation = new Reservation(permits);
+        if (!reservation.compareAndSet(null, newReservation)) {
+            return tryAcquire(permits);
+        }
+        Lease newLease = current.get();
+        if (newLease != lease) {
+            // lease has been replaced by reservation completed in the meantime
+            complete(newReservation, true);
+            return tryAcquire(permits);
+        }
+        if (lease != null) {
+            expire(lease);
+        }
+
+        byte[] token = new byte[8];
+        ThreadLocalRandom.current().nextBytes(token);
+        long desired = nextSize(permits);
+        long startTime = System.currentTimeMillis();
+        RFuture<Long> future = reserveAsync(token, permits, desired, options.getFairShare());
+        return future.handle((reserved, e) -> {
+            if (e != null) {
+                reservation.compareAndSet(newReservation, null);
+                newReservation.future.completeExceptionally(e);
+                throw new CompletionException(e);
+            }
+
+            if (reserved > permits) {
+                addLease(token, reserved, reserved - permits, startTime + getLeaseTime());
+            }
+            complete(newReservation, reserved >= permits);
+            return reserved >= permits;
+        });
+    }
+
+    /*
+     * Waits for reservation in progress instead of sending another one
+     * and retries acquisition from lease created by it.
+     */
+    private CompletionStage<Boolean> await(Reservation pending, long permits) {
+        return pending.future.thenCompose(available -> {
+            if (!available && permits >= pending.permits) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return tryAcquire(permits);
+        });
+    }
+
+    private void complete(Reservation reservation, boolean available) {
+        this.reservation.compareAndSet(reservation, null);
+        reservation.future.complete(available);
+    }
+
+    private void addLease(byte[] token, long reserved, long remaining, long expireAt) {
+        Lease newLease = new Lease(token, reserved, remaining, expireAt);
+        Lease oldLease = current.getAndSet(newLease);
+        if (oldLease != null) {
+            expire(oldLease);
+        }
+        newLease.timeout = connectionManager.newTimeout(t -> expire(newLease),
+                                                Math.max(0, expireAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        if (closed) {
+            expire(newLease);
+        }
+    }
+
+    private long nextSize(long permits) {
+        long size = (long) Math.ceil(rate * getLeaseTime());
+        size = Math.min(size, options.getMaxPermits());
+        size = Math.max(size, options.getMinPermits());
+        return Math.max(size, permits);
+    }
+
+    private void expire(Lease lease) {
+        long unused = lease.close();
+        if (unused < 0) {
+            return;
+        }
+
+        current.compareAndSet(lease, null);
+        Timeout timeout = lease.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - lease.createdAt);
+        double observed = (double) (lease.reserved - unused) / elapsed;
+        if (rate == 0) {
+            rate = observed;
+        } else {
+            rate = (rate + observed) / 2;
+        }
+
+        returnAsync(lease.token, lease.reserved, unused).whenComplete((r, e) -> {
+            if (e != null) {
+                log.error("Unable to return " + unused + " unused permits", e);
+            }
+        });
+    }
+
+    /**
+     * Returns unused permits and stops serving acquisitions from memory.
+     */
+    public void close() {
+        closed = true;
+        Lease lease = current.get();
+        if (lease != null) {
+            expire(lease);
+        }
+    }
+
+}
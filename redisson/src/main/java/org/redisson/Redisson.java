@@ -24,6 +24,7 @@ import org.redisson.command.CommandSyncService;
 import org.redisson.config.Config;
 import org.redisson.config.ConfigSupport;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.ReplicaConsistencySession;
 import org.redisson.eviction.EvictionScheduler;
 import org.redisson.liveobject.core.RedissonObjectBuilder;
 import org.redisson.redisnode.RedissonClusterNodes;
@@ -262,6 +263,31 @@ public class Redisson implements RedissonClient {
                 options, evictionScheduler, this, writeBehindService);
     }
 
+    @Override
+    public <K, V> RLocalCachedMapCache<K, V> getLocalCachedMapCache(String name, LocalCachedMapOptions<K, V> options) {
+        return new RedissonLocalCachedMapCache<K, V>(evictionScheduler, commandExecutor, name, this, options);
+    }
+
+    @Override
+    public <K, V> RLocalCachedMapCache<K, V> getLocalCachedMapCache(String name, Codec codec, LocalCachedMapOptions<K, V> options) {
+        return new RedissonLocalCachedMapCache<K, V>(codec, evictionScheduler, commandExecutor, name, this, options);
+    }
+
+    @Override
+    public <V> RLocalCachedSetCache<V> getLocalCachedSetCache(String name, LocalCachedMapOptions<?, ?> options) {
+        return new RedissonLocalCachedSetCache<V>(evictionScheduler, commandExecutor, name, this, options);
+    }
+
+    @Override
+    public <V> RLocalCachedSetCache<V> getLocalCachedSetCache(String name, Codec codec, LocalCachedMapOptions<?, ?> options) {
+        return new RedissonLocalCachedSetCache<V>(codec, evictionScheduler, commandExecutor, name, this, options);
+    }
+
+    @Override
+    public <V> RLocalCachedJsonBucket<V> getLocalCachedJsonBucket(String name, JsonCodec<V> codec, LocalCachedMapOptions<?, ?> options) {
+        return new RedissonLocalCachedJsonBucket<>(codec, commandExecutor, name, options, evictionScheduler);
+    }
+
     @Override
     public <K, V> RMap<K, V> getMap(String name) {
         return new RedissonMap<K, V>(commandExecutor, name, this, null, null);
@@ -648,6 +674,71 @@ public class Redisson implements RedissonClient {
         return new RedissonBloomFilter<V>(codec, commandExecutor, name);
     }
 
+    @Override
+    public <V> RPartitionedBloomFilter<V> getPartitionedBloomFilter(String name) {
+        return new RedissonPartitionedBloomFilter<V>(commandExecutor, name);
+    }
+
+    @Override
+    public <V> RPartitionedBloomFilter<V> getPartitionedBloomFilter(String name, Codec codec) {
+        return new RedissonPartitionedBloomFilter<V>(codec, commandExecutor, name);
+    }
+
+    @Override
+    public <V> RScalableBloomFilter<V> getScalableBloomFilter(String name) {
+        return new RedissonScalableBloomFilter<V>(commandExecutor, name);
+    }
+
+    @Override
+    public <V> RScalableBloomFilter<V> getScalableBloomFilter(String name, Codec codec) {
+        return new RedissonScalableBloomFilter<V>(codec, commandExecutor, name);
+    }
+
+    @Override
+    public <V> RCuckooFilter<V> getCuckooFilter(String name) {
+        return new RedissonCuckooFilter<V>(commandExecutor, name);
+    }
+
+    @Override
+    public <V> RCuckooFilter<V> getCuckooFilter(String name, Codec codec) {
+        return new RedissonCuckooFilter<V>(codec, commandExecutor, name);
+    }
+
+    @Override
+    public <V> RCountMinSketch<V> getCountMinSketch(String name) {
+        return new RedissonCountMinSketch<V>(commandExecutor, name);
+    }
+
+    @Override
+    public <V> RCountMinSketch<V> getCountMinSketch(String name, Codec codec) {
+        return new RedissonCountMinSketch<V>(codec, commandExecutor, name);
+    }
+
+    @Override
+    public <V> RTopK<V> getTopK(String name) {
+        return new RedissonTopK<V>(commandExecutor, name);
+    }
+
+    @Override
+    public <V> RTopK<V> getTopK(String name, Codec codec) {
+        return new RedissonTopK<V>(codec, commandExecutor, name);
+    }
+
+    @Override
+    public RRoaringBitmap getRoaringBitmap(String name) {
+        return new RedissonRoaringBitmap(commandExecutor, name);
+    }
+
+    @Override
+    public <K> RWindowCounter<K> getWindowCounter(String name) {
+        return new RedissonWindowCounter<K>(commandExecutor, name);
+    }
+
+    @Override
+    public <K> RWindowCounter<K> getWindowCounter(String name, Codec codec) {
+        return new RedissonWindowCounter<K>(codec, commandExecutor, name);
+    }
+
     @Override
     public RIdGenerator getIdGenerator(String name) {
         return new RedissonIdGenerator(commandExecutor, name);
@@ -673,6 +764,13 @@ public class Redisson implements RedissonClient {
         return createBatch(BatchOptions.defaults());
     }
 
+    @Override
+    public ConsistencySession createConsistencySession() {
+        ConsistencySession session = new ReplicaConsistencySession();
+        session.bind();
+        return session;
+    }
+
     @Override
     public RLiveObjectService getLiveObjectService() {
         return new RedissonLiveObjectService(liveObjectClassCache, commandExecutor);
@@ -23,8 +23,12 @@ import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.command.CommandBatchService;
+import org.redisson.misc.CompletableFutureWrapper;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * 
@@ -33,6 +37,9 @@ import java.util.*;
  */
 public class RedissonBitSet extends RedissonExpirable implements RBitSet {
 
+    private static final int BITFIELD_BATCH_SIZE = 1000;
+    private static final int GETRANGE_CHUNK_SIZE = 1024 * 1024;
+
     public RedissonBitSet(CommandAsyncExecutor connectionManager, String name) {
         super(null, connectionManager, name);
     }
@@ -373,22 +380,143 @@ public class RedissonBitSet extends RedissonExpirable implements RBitSet {
 
     @Override
     public BitSet asBitSet() {
-        return fromByteArrayReverse(toByteArray());
+        return fromByteArrayReverse(asByteBuffer());
     }
 
-    //Copied from: https://github.com/xetorthio/jedis/issues/301
-    private static BitSet fromByteArrayReverse(byte[] bytes) {
-        if (bytes == null) {
-            return new BitSet();
+    @Override
+    public boolean[] get(long... bitIndexes) {
+        return get(getAsync(bitIndexes));
+    }
+
+    @Override
+    public RFuture<boolean[]> getAsync(long... bitIndexes) {
+        if (bitIndexes.length == 0) {
+            return new CompletableFutureWrapper<>(new boolean[0]);
+        }
+
+        CommandBatchService executorService = new CommandBatchService(commandExecutor);
+        for (int i = 0; i < bitIndexes.length; i += BITFIELD_BATCH_SIZE) {
+            int end = Math.min(bitIndexes.length, i + BITFIELD_BATCH_SIZE);
+            List<Object> params = new ArrayList<>((end - i) * 3 + 1);
+            params.add(getRawName());
+            for (int j = i; j < end; j++) {
+                params.add("GET");
+                params.add("u1");
+                params.add(bitIndexes[j]);
+            }
+            executorService.readAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.BITFIELD_LONGS, params.toArray());
+        }
+
+        CompletionStage<boolean[]> f = executorService.executeAsync().thenApply(res -> {
+            boolean[] result = new boolean[bitIndexes.length];
+            int index = 0;
+            for (Object response : res.getResponses()) {
+                for (Long value : (List<Long>) response) {
+                    result[index++] = value == 1;
+                }
+            }
+            return result;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public void set(long[] bitIndexes) {
+        get(setAsync(bitIndexes));
+    }
+
+    @Override
+    public RFuture<Void> setAsync(long[] bitIndexes) {
+        return setAsync(bitIndexes, true);
+    }
+
+    @Override
+    public void set(long[] bitIndexes, boolean value) {
+        get(setAsync(bitIndexes, value));
+    }
+
+    @Override
+    public RFuture<Void> setAsync(long[] bitIndexes, boolean value) {
+        if (bitIndexes.length == 0) {
+            return new CompletableFutureWrapper<>((Void) null);
         }
 
-        BitSet bits = new BitSet();
-        for (int i = 0; i < bytes.length * 8; i++) {
-            if ((bytes[i / 8] & (1 << (7 - (i % 8)))) != 0) {
-                bits.set(i);
+        int val = toInt(value);
+        CommandBatchService executorService = new CommandBatchService(commandExecutor);
+        for (int i = 0; i < bitIndexes.length; i += BITFIELD_BATCH_SIZE) {
+            int end = Math.min(bitIndexes.length, i + BITFIELD_BATCH_SIZE);
+            List<Object> params = new ArrayList<>((end - i) * 4 + 1);
+            params.add(getRawName());
+            for (int j = i; j < end; j++) {
+                params.add("SET");
+                params.add("u1");
+                params.add(bitIndexes[j]);
+                params.add(val);
+            }
+            executorService.writeAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.BITFIELD_LONGS, params.toArray());
+        }
+        return executorService.executeAsyncVoid();
+    }
+
+    @Override
+    public void clear(long[] bitIndexes) {
+        get(clearAsync(bitIndexes));
+    }
+
+    @Override
+    public RFuture<Void> clearAsync(long[] bitIndexes) {
+        return setAsync(bitIndexes, false);
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return get(asByteBufferAsync());
+    }
+
+    @Override
+    public RFuture<ByteBuffer> asByteBufferAsync() {
+        RFuture<byte[]> firstFuture = commandExecutor.readAsync(getRawName(), ByteArrayCodec.INSTANCE,
+                                                RedisCommands.GETRANGE, getRawName(), 0, GETRANGE_CHUNK_SIZE - 1);
+        CompletionStage<ByteBuffer> f = firstFuture.thenCompose(first -> {
+            if (first == null) {
+                return CompletableFuture.completedFuture(ByteBuffer.allocate(0).asReadOnlyBuffer());
             }
+            if (first.length < GETRANGE_CHUNK_SIZE) {
+                return CompletableFuture.completedFuture(ByteBuffer.wrap(first).asReadOnlyBuffer());
+            }
+
+            // the rest is read in parallel, so chunks may reflect different states of the object
+            RFuture<Long> sizeFuture = commandExecutor.readAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.STRLEN, getRawName());
+            return sizeFuture.thenCompose(size -> {
+                byte[] result = new byte[(int) Math.max(size, first.length)];
+                System.arraycopy(first, 0, result, 0, first.length);
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (long start = GETRANGE_CHUNK_SIZE; start < result.length; start += GETRANGE_CHUNK_SIZE) {
+                    long end = Math.min(result.length, start + GETRANGE_CHUNK_SIZE) - 1;
+                    int offset = (int) start;
+                    RFuture<byte[]> chunkFuture = commandExecutor.readAsync(getRawName(), ByteArrayCodec.INSTANCE,
+                                                        RedisCommands.GETRANGE, getRawName(), start, end);
+                    futures.add(chunkFuture.thenAccept(chunk -> {
+                        if (chunk != null) {
+                            System.arraycopy(chunk, 0, result, offset, Math.min(chunk.length, result.length - offset));
+                        }
+                    }).toCompletableFuture());
+                }
+                return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                                        .thenApply(r -> ByteBuffer.wrap(result).asReadOnlyBuffer());
+            });
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private static BitSet fromByteArrayReverse(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        // Redis stores bits starting from the most significant bit of each byte
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (Integer.reverse(bytes[i]) >>> 24);
         }
-        return bits;
+        return BitSet.valueOf(bytes);
     }
 
     //Copied from: https://github.com/xetorthio/jedis/issues/301
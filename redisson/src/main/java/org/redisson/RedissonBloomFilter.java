@@ -32,7 +32,6 @@ import io.netty.buffer.ByteBuf;
 import org.redisson.api.RBitSetAsync;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RFuture;
-import org.redisson.client.RedisException;
 import org.redisson.client.codec.*;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
@@ -44,9 +43,8 @@ import org.redisson.misc.CompletableFutureWrapper;
 import org.redisson.misc.Hash;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
@@ -59,6 +57,11 @@ import java.util.concurrent.TimeUnit;
  */
 public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomFilter<T> {
 
+    private static final String CONFIG_CHECK_SCRIPT =
+            "local size = redis.call('hget', KEYS[2], 'size');" +
+            "local hashIterations = redis.call('hget', KEYS[2], 'hashIterations');" +
+            "assert(size == ARGV[1] and hashIterations == ARGV[2], 'Bloom filter config has been changed');";
+
     private volatile long size;
     private volatile int hashIterations;
 
@@ -77,18 +80,18 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
         this.configName = suffixName(getRawName(), "config");
     }
 
-    private int optimalNumOfHashFunctions(long n, long m) {
+    static int optimalNumOfHashFunctions(long n, long m) {
         return Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
       }
 
-    private long optimalNumOfBits(long n, double p) {
+    static long optimalNumOfBits(long n, double p) {
         if (p == 0) {
             p = Double.MIN_VALUE;
         }
         return (long) (-n * Math.log(p) / (Math.log(2) * Math.log(2)));
     }
     
-    private long[] hash(Object object) {
+    long[] hash(Object object) {
         ByteBuf state = encode(object);
         try {
             return Hash.hash128(state);
@@ -99,39 +102,25 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
 
     @Override
     public boolean add(T object) {
-        long[] hashes = hash(object);
-
-        while (true) {
-            if (size == 0) {
-                readConfig();
-            }
-
-            int hashIterations = this.hashIterations;
-            long size = this.size;
+        return add(Collections.singletonList(object)) > 0;
+    }
 
-            long[] indexes = hash(hashes[0], hashes[1], hashIterations, size);
+    @Override
+    public long add(Collection<T> objects) {
+        if (size == 0) {
+            readConfig();
+        }
+        return get(addAsync(objects));
+    }
 
-            CommandBatchService executorService = new CommandBatchService(commandExecutor);
-            addConfigCheck(hashIterations, size, executorService);
-            RBitSetAsync bs = createBitSet(executorService);
-            for (int i = 0; i < indexes.length; i++) {
-                bs.setAsync(indexes[i]);
-            }
-            try {
-                List<Boolean> result = (List<Boolean>) executorService.execute().getResponses();
+    @Override
+    public RFuture<Boolean> addAsync(T object) {
+        return new CompletableFutureWrapper<>(addAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
 
-                for (Boolean val : result.subList(1, result.size()-1)) {
-                    if (!val) {
-                        return true;
-                    }
-                }
-                return false;
-            } catch (RedisException e) {
-                if (e.getMessage() == null || !e.getMessage().contains("Bloom filter config has been changed")) {
-                    throw e;
-                }
-            }
-        }
+    @Override
+    public RFuture<Long> addAsync(Collection<T> objects) {
+        return executeAsync(objects, true);
     }
 
     private long[] hash(long hash1, long hash2, int iterations, long size) {
@@ -150,66 +139,149 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
 
     @Override
     public boolean contains(T object) {
-        long[] hashes = hash(object);
+        return contains(Collections.singletonList(object)) > 0;
+    }
 
-        while (true) {
-            if (size == 0) {
-                readConfig();
-            }
+    @Override
+    public long contains(Collection<T> objects) {
+        if (size == 0) {
+            readConfig();
+        }
+        return get(containsAsync(objects));
+    }
 
-            int hashIterations = this.hashIterations;
-            long size = this.size;
+    @Override
+    public RFuture<Boolean> containsAsync(T object) {
+        return new CompletableFutureWrapper<>(containsAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
 
-            long[] indexes = hash(hashes[0], hashes[1], hashIterations, size);
+    @Override
+    public RFuture<Long> containsAsync(Collection<T> objects) {
+        return executeAsync(objects, false);
+    }
 
-            CommandBatchService executorService = new CommandBatchService(commandExecutor);
-            addConfigCheck(hashIterations, size, executorService);
-            RBitSetAsync bs = createBitSet(executorService);
-            for (int i = 0; i < indexes.length; i++) {
-                bs.getAsync(indexes[i]);
-            }
-            try {
-                List<Boolean> result = (List<Boolean>) executorService.execute().getResponses();
+    private RFuture<Long> executeAsync(Collection<T> objects, boolean add) {
+        if (objects.isEmpty()) {
+            return new CompletableFutureWrapper<>(0L);
+        }
 
-                for (Boolean val : result.subList(1, result.size()-1)) {
-                    if (!val) {
-                        return false;
-                    }
-                }
+        List<long[]> hashes = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            hashes.add(hash(object));
+        }
+        return executeHashesAsync(hashes, add);
+    }
 
-                return true;
-            } catch (RedisException e) {
-                if (e.getMessage() == null || !e.getMessage().contains("Bloom filter config has been changed")) {
-                    throw e;
-                }
+    RFuture<Long> executeHashesAsync(List<long[]> hashes, boolean add) {
+        CompletionStage<Void> configFuture = CompletableFuture.completedFuture(null);
+        if (size == 0) {
+            configFuture = readConfigAsync();
+        }
+        CompletionStage<Long> f = configFuture.thenCompose(r -> executeScriptAsync(hashes, add));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    /*
+     * All bit indexes of all elements are passed to a single script call
+     * which checks config and sets or gets bits of each element.
+     * Request is repeated with actual config if config has been changed.
+     */
+    private CompletionStage<Long> executeScriptAsync(List<long[]> hashes, boolean add) {
+        int hashIterations = this.hashIterations;
+        long size = this.size;
+
+        List<Object> params = new ArrayList<>(2 + hashes.size() * hashIterations);
+        params.add(size);
+        params.add(hashIterations);
+        for (long[] hash : hashes) {
+            for (long index : hash(hash[0], hash[1], hashIterations, size)) {
+                params.add(index);
             }
         }
+
+        RFuture<Long> future;
+        if (add) {
+            future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    CONFIG_CHECK_SCRIPT +
+                    "local iterations = tonumber(ARGV[2]); " +
+                    "local result = 0; " +
+                    "for i = 3, #ARGV, iterations do " +
+                        "local added = 0; " +
+                        "for j = i, i + iterations - 1 do " +
+                            "if redis.call('setbit', KEYS[1], ARGV[j], 1) == 0 then " +
+                                "added = 1; " +
+                            "end; " +
+                        "end; " +
+                        "result = result + added; " +
+                    "end; " +
+                    "return result; ",
+                    Arrays.<Object>asList(getRawName(), configName), params.toArray());
+        } else {
+            future = commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    CONFIG_CHECK_SCRIPT +
+                    "local iterations = tonumber(ARGV[2]); " +
+                    "local result = 0; " +
+                    "for i = 3, #ARGV, iterations do " +
+                        "local present = 1; " +
+                        "for j = i, i + iterations - 1 do " +
+                            "if redis.call('getbit', KEYS[1], ARGV[j]) == 0 then " +
+                                "present = 0; " +
+                                "break; " +
+                            "end; " +
+                        "end; " +
+                        "result = result + present; " +
+                    "end; " +
+                    "return result; ",
+                    Arrays.<Object>asList(getRawName(), configName), params.toArray());
+        }
+
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        future.whenComplete((res, e) -> {
+            if (e == null) {
+                result.complete(res);
+                return;
+            }
+            if (e.getMessage() == null || !e.getMessage().contains("Bloom filter config has been changed")) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            readConfigAsync()
+                    .thenCompose(r -> executeScriptAsync(hashes, add))
+                    .whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                            return;
+                        }
+                        result.complete(r);
+                    });
+        });
+        return result;
     }
 
     protected RBitSetAsync createBitSet(CommandBatchService executorService) {
         return new RedissonBitSet(executorService, getRawName());
     }
 
-    private void addConfigCheck(int hashIterations, long size, CommandBatchService executorService) {
-        executorService.evalReadAsync(configName, codec, RedisCommands.EVAL_VOID,
-                "local size = redis.call('hget', KEYS[1], 'size');" +
-                        "local hashIterations = redis.call('hget', KEYS[1], 'hashIterations');" +
-                        "assert(size == ARGV[1] and hashIterations == ARGV[2], 'Bloom filter config has been changed')",
-                        Arrays.<Object>asList(configName), size, hashIterations);
+    @Override
+    public long count() {
+        return get(countAsync());
     }
 
     @Override
-    public long count() {
+    public RFuture<Long> countAsync() {
         CommandBatchService executorService = new CommandBatchService(commandExecutor);
         RFuture<Map<String, String>> configFuture = executorService.readAsync(configName, StringCodec.INSTANCE,
                 new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
         RBitSetAsync bs = createBitSet(executorService);
         RFuture<Long> cardinalityFuture = bs.cardinalityAsync();
-        executorService.execute();
-
-        readConfig(commandExecutor.getNow(configFuture.toCompletableFuture()));
+        CompletionStage<Long> f = executorService.executeAsync().thenApply(r -> {
+            readConfig(commandExecutor.getNow(configFuture.toCompletableFuture()));
 
-        return Math.round(-size / ((double) hashIterations) * Math.log(1 - commandExecutor.getNow(cardinalityFuture.toCompletableFuture()) / ((double) size)));
+            long cardinality = commandExecutor.getNow(cardinalityFuture.toCompletableFuture());
+            return Math.round(-size / ((double) hashIterations) * Math.log(1 - cardinality / ((double) size)));
+        });
+        return new CompletableFutureWrapper<>(f);
     }
 
     @Override
@@ -231,6 +303,12 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
         readConfig(config);
     }
 
+    private CompletionStage<Void> readConfigAsync() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        return future.thenAccept(config -> readConfig(config));
+    }
+
     private void readConfig(Map<String, String> config) {
         if (config.get("hashIterations") == null
                 || config.get("size") == null) {
@@ -246,6 +324,11 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
     
     @Override
     public boolean tryInit(long expectedInsertions, double falseProbability) {
+        return get(tryInitAsync(expectedInsertions, falseProbability));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability) {
         if (falseProbability > 1) {
             throw new IllegalArgumentException("Bloom filter false probability can't be greater than 1");
         }
@@ -253,14 +336,16 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
             throw new IllegalArgumentException("Bloom filter false probability can't be negative");
         }
 
-        size = optimalNumOfBits(expectedInsertions, falseProbability);
+        long size = optimalNumOfBits(expectedInsertions, falseProbability);
         if (size == 0) {
             throw new IllegalArgumentException("Bloom filter calculated size is " + size);
         }
         if (size > getMaxSize()) {
             throw new IllegalArgumentException("Bloom filter size can't be greater than " + getMaxSize() + ". But calculated size is " + size);
         }
-        hashIterations = optimalNumOfHashFunctions(expectedInsertions, size);
+        int hashIterations = optimalNumOfHashFunctions(expectedInsertions, size);
+        this.size = size;
+        this.hashIterations = hashIterations;
 
         CommandBatchService executorService = new CommandBatchService(commandExecutor);
         executorService.evalReadAsync(configName, codec, RedisCommands.EVAL_VOID,
@@ -272,17 +357,27 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
                                                 new RedisCommand<Void>("HMSET", new VoidReplayConvertor()), configName,
                 "size", size, "hashIterations", hashIterations,
                 "expectedInsertions", expectedInsertions, "falseProbability", BigDecimal.valueOf(falseProbability).toPlainString());
-        try {
-            executorService.execute();
-        } catch (RedisException e) {
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        executorService.executeAsync().whenComplete((res, e) -> {
+            if (e == null) {
+                result.complete(true);
+                return;
+            }
             if (e.getMessage() == null || !e.getMessage().contains("Bloom filter config has been changed")) {
-                throw e;
+                result.completeExceptionally(e);
+                return;
             }
-            readConfig();
-            return false;
-        }
 
-        return true;
+            readConfigAsync().whenComplete((r, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                    return;
+                }
+                result.complete(false);
+            });
+        });
+        return new CompletableFutureWrapper<>(result);
     }
 
     @Override
@@ -306,24 +401,49 @@ public class RedissonBloomFilter<T> extends RedissonExpirable implements RBloomF
         return check(result);
     }
 
+    @Override
+    public RFuture<Long> getExpectedInsertionsAsync() {
+        return readSettingAsync(LongCodec.INSTANCE, "expectedInsertions");
+    }
+
     @Override
     public double getFalseProbability() {
         Double result = get(commandExecutor.readAsync(configName, DoubleCodec.INSTANCE, RedisCommands.HGET, configName, "falseProbability"));
         return check(result);
     }
 
+    @Override
+    public RFuture<Double> getFalseProbabilityAsync() {
+        return readSettingAsync(DoubleCodec.INSTANCE, "falseProbability");
+    }
+
     @Override
     public long getSize() {
         Long result = get(commandExecutor.readAsync(configName, LongCodec.INSTANCE, RedisCommands.HGET, configName, "size"));
         return check(result);
     }
 
+    @Override
+    public RFuture<Long> getSizeAsync() {
+        return readSettingAsync(LongCodec.INSTANCE, "size");
+    }
+
     @Override
     public int getHashIterations() {
         Integer result = get(commandExecutor.readAsync(configName, IntegerCodec.INSTANCE, RedisCommands.HGET, configName, "hashIterations"));
         return check(result);
     }
 
+    @Override
+    public RFuture<Integer> getHashIterationsAsync() {
+        return readSettingAsync(IntegerCodec.INSTANCE, "hashIterations");
+    }
+
+    private <V> RFuture<V> readSettingAsync(Codec codec, String settingName) {
+        RFuture<V> future = commandExecutor.readAsync(configName, codec, RedisCommands.HGET, configName, settingName);
+        return new CompletableFutureWrapper<>(future.thenApply(r -> check(r)));
+    }
+
     @Override
     public RFuture<Boolean> isExistsAsync() {
         return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.EXISTS, getRawName(), configName);
@@ -97,7 +97,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
                     Collections.singletonList(getRawName()));
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.GETSET, getRawName(), encode(newValue));
+        return commandExecutor.writeAsync(getEncodedName(), codec, RedisCommands.GETSET, getEncodedName(), encode(newValue));
     }
 
     @Override
@@ -137,7 +137,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
 
     @Override
     public RFuture<V> getAsync() {
-        return commandExecutor.readAsync(getRawName(), codec, RedisCommands.GET, getRawName());
+        return commandExecutor.readAsync(getEncodedName(), codec, RedisCommands.GET, getEncodedName());
     }
     
     @Override
@@ -161,7 +161,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
     
     @Override
     public RFuture<Long> sizeAsync() {
-        return commandExecutor.readAsync(getRawName(), codec, RedisCommands.STRLEN, getRawName());
+        return commandExecutor.readAsync(getEncodedName(), codec, RedisCommands.STRLEN, getEncodedName());
     }
 
     @Override
@@ -175,7 +175,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
             return commandExecutor.writeAsync(getRawName(), RedisCommands.DEL_VOID, getRawName());
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.SET, getRawName(), encode(value));
+        return commandExecutor.writeAsync(getEncodedName(), codec, RedisCommands.SET, getEncodedName(), encode(value));
     }
 
     @Override
@@ -189,7 +189,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
             return commandExecutor.writeAsync(getRawName(), RedisCommands.DEL_VOID, getRawName());
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.PSETEX, getRawName(), timeUnit.toMillis(timeToLive), encode(value));
+        return commandExecutor.writeAsync(getEncodedName(), codec, RedisCommands.PSETEX, getEncodedName(), timeUnit.toMillis(timeToLive), encode(value));
     }
 
     @Override
@@ -198,7 +198,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
             return commandExecutor.readAsync(getRawName(), codec, RedisCommands.NOT_EXISTS, getRawName());
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.SETNX, getRawName(), encode(value));
+        return commandExecutor.writeAsync(getEncodedName(), codec, RedisCommands.SETNX, getEncodedName(), encode(value));
     }
 
     @Override
@@ -235,7 +235,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
             return commandExecutor.readAsync(getRawName(), codec, RedisCommands.NOT_EXISTS, getRawName());
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.SETNX, getRawName(), encode(value));
+        return commandExecutor.writeAsync(getEncodedName(), codec, RedisCommands.SETNX, getEncodedName(), encode(value));
     }
 
     @Override
@@ -278,7 +278,7 @@ public class RedissonBucket<V> extends RedissonExpirable implements RBucket<V> {
             return commandExecutor.writeAsync(getRawName(), RedisCommands.DEL_VOID, getRawName());
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.SET, getRawName(), encode(value), "KEEPTTL");
+        return commandExecutor.writeAsync(getEncodedName(), codec, RedisCommands.SET, getEncodedName(), encode(value), "KEEPTTL");
     }
 
     @Override
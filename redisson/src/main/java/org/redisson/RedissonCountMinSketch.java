@@ -0,0 +1,534 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.api.RCountMinSketch;
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.IntegerCodec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.ObjectMapReplayDecoder;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.misc.Hash;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-min sketch based on Highway 128-bit hash.
+ * <p>
+ * Counters are stored as signed 64-bit integers in Redis string
+ * and accessed with BITFIELD command. Counter offsets of each element
+ * are calculated on client side.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> type of object
+ */
+public class RedissonCountMinSketch<V> extends RedissonExpirable implements RCountMinSketch<V> {
+
+    private static final String OBJECT_NAME = "Count-min sketch";
+
+    private static final String CONFIG_CHECK_SCRIPT = configCheckScript(OBJECT_NAME);
+
+    /*
+     * Fails script if width and depth stored in KEYS[2] differ from ARGV[1] and ARGV[2].
+     * Error message is checked by configChanged method.
+     */
+    static String configCheckScript(String objectName) {
+        return "local width = redis.call('hget', KEYS[2], 'width'); " +
+               "local depth = redis.call('hget', KEYS[2], 'depth'); " +
+               "assert(width == ARGV[1] and depth == ARGV[2], '" + objectName + " config has been changed'); " +
+               "local rows = tonumber(ARGV[2]); ";
+    }
+
+    static boolean configChanged(Throwable e, String objectName) {
+        return e.getMessage() != null
+                && e.getMessage().contains(objectName + " config has been changed");
+    }
+
+    /*
+     * Increments counters defined by ARGV[i + 1 .. i + rows] offsets
+     * by ARGV[i] value and stores min counter value in estimate variable.
+     */
+    static final String INCREMENT_SCRIPT =
+            "local args = {'OVERFLOW', 'SAT'}; " +
+            "for j = 1, rows do " +
+                "table.insert(args, 'INCRBY'); " +
+                "table.insert(args, 'i64'); " +
+                "table.insert(args, '#' .. ARGV[offset + j]); " +
+                "table.insert(args, ARGV[i]); " +
+            "end; " +
+            "local values = redis.call('bitfield', KEYS[1], unpack(args)); " +
+            "local estimate = values[1]; " +
+            "for j = 2, #values do " +
+                "estimate = math.min(estimate, values[j]); " +
+            "end; ";
+
+    private volatile int width;
+    private volatile int depth;
+
+    private String configName;
+
+    protected RedissonCountMinSketch(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+        this.configName = suffixName(getRawName(), "config");
+    }
+
+    protected RedissonCountMinSketch(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+        this.configName = suffixName(getRawName(), "config");
+    }
+
+    static long[] offsets(long[] hash, int width, int depth) {
+        long[] offsets = new long[depth];
+        long h = hash[0];
+        for (int i = 0; i < depth; i++) {
+            offsets[i] = (long) i * width + (h & Long.MAX_VALUE) % width;
+            h += hash[1];
+        }
+        return offsets;
+    }
+
+    static void checkDimensions(long width, long depth, long maxSize) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Count-min sketch width and depth should be greater than 0");
+        }
+        if (width * depth * Long.SIZE > maxSize) {
+            throw new IllegalArgumentException("Count-min sketch size can't be greater than " + maxSize
+                                                    + ". But calculated size is " + width * depth * Long.SIZE);
+        }
+    }
+
+    protected long getMaxSize() {
+        return Integer.MAX_VALUE*2L;
+    }
+
+    @Override
+    public boolean tryInit(int width, int depth) {
+        return get(tryInitAsync(width, depth));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(int width, int depth) {
+        checkDimensions(width, depth, getMaxSize());
+
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(configName, StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', KEYS[1]) == 1 then " +
+                    "return 0; " +
+                "end; " +
+                "redis.call('hmset', KEYS[1], 'width', ARGV[1], 'depth', ARGV[2], 'count', 0); " +
+                "return 1; ",
+                Collections.singletonList(configName), width, depth);
+        CompletionStage<Boolean> f = future.thenCompose(res -> {
+            if (!res) {
+                return readConfigAsync().thenApply(r -> false);
+            }
+
+            this.width = width;
+            this.depth = depth;
+            return CompletableFuture.completedFuture(true);
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public boolean tryInitByProbability(double error, double probability) {
+        return get(tryInitByProbabilityAsync(error, probability));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitByProbabilityAsync(double error, double probability) {
+        if (error <= 0 || error >= 1) {
+            throw new IllegalArgumentException("Count-min sketch error should be in range (0, 1)");
+        }
+        if (probability <= 0 || probability >= 1) {
+            throw new IllegalArgumentException("Count-min sketch probability should be in range (0, 1)");
+        }
+
+        long width = (long) Math.ceil(Math.E / error);
+        long depth = (long) Math.ceil(Math.log(1 / probability));
+        checkDimensions(width, depth, getMaxSize());
+        return tryInitAsync((int) width, (int) depth);
+    }
+
+    @Override
+    public long add(V object) {
+        return incrementBy(object, 1);
+    }
+
+    @Override
+    public RFuture<Long> addAsync(V object) {
+        return incrementByAsync(object, 1);
+    }
+
+    @Override
+    public long incrementBy(V object, long increment) {
+        return incrementBy(Collections.singletonMap(object, increment)).get(object);
+    }
+
+    @Override
+    public RFuture<Long> incrementByAsync(V object, long increment) {
+        return new CompletableFutureWrapper<>(incrementByAsync(Collections.singletonMap(object, increment)).thenApply(r -> r.get(object)));
+    }
+
+    @Override
+    public Map<V, Long> incrementBy(Map<V, Long> increments) {
+        if (width == 0) {
+            readConfig();
+        }
+        return get(incrementByAsync(increments));
+    }
+
+    @Override
+    public RFuture<Map<V, Long>> incrementByAsync(Map<V, Long> increments) {
+        List<V> objects = new ArrayList<>(increments.keySet());
+        return executeAsync(objects, true, increments);
+    }
+
+    @Override
+    public long estimate(V object) {
+        return estimate(Collections.singletonList(object)).get(object);
+    }
+
+    @Override
+    public RFuture<Long> estimateAsync(V object) {
+        return new CompletableFutureWrapper<>(estimateAsync(Collections.singletonList(object)).thenApply(r -> r.get(object)));
+    }
+
+    @Override
+    public Map<V, Long> estimate(Collection<V> objects) {
+        if (width == 0) {
+            readConfig();
+        }
+        return get(estimateAsync(objects));
+    }
+
+    @Override
+    public RFuture<Map<V, Long>> estimateAsync(Collection<V> objects) {
+        return executeAsync(new ArrayList<>(objects), false, null);
+    }
+
+    private RFuture<Map<V, Long>> executeAsync(List<V> objects, boolean increment, Map<V, Long> increments) {
+        if (objects.isEmpty()) {
+            return new CompletableFutureWrapper<>(Collections.emptyMap());
+        }
+
+        List<long[]> hashes = new ArrayList<>(objects.size());
+        for (V object : objects) {
+            ByteBuf state = encode(object);
+            try {
+                hashes.add(Hash.hash128(state));
+            } finally {
+                state.release();
+            }
+        }
+
+        CompletionStage<Void> configFuture = CompletableFuture.completedFuture(null);
+        if (width == 0) {
+            configFuture = readConfigAsync();
+        }
+        CompletionStage<Map<V, Long>> f = configFuture
+                .thenCompose(r -> executeScriptAsync(objects, hashes, increment, increments))
+                .thenApply(res -> {
+                    Map<V, Long> result = new LinkedHashMap<>(objects.size());
+                    for (int i = 0; i < objects.size(); i++) {
+                        result.put(objects.get(i), (Long) res.get(i));
+                    }
+                    return result;
+                });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    /*
+     * Counter offsets of all elements are passed to a single script call.
+     * Request is repeated with actual config if config has been changed.
+     */
+    private CompletionStage<List<Object>> executeScriptAsync(List<V> objects, List<long[]> hashes,
+                                                             boolean increment, Map<V, Long> increments) {
+        int width = this.width;
+        int depth = this.depth;
+
+        List<Object> params = new ArrayList<>(2 + hashes.size() * (depth + 1));
+        params.add(width);
+        params.add(depth);
+        for (int i = 0; i < objects.size(); i++) {
+            if (increment) {
+                params.add(increments.get(objects.get(i)));
+            }
+            for (long offset : offsets(hashes.get(i), width, depth)) {
+                params.add(offset);
+            }
+        }
+
+        RFuture<List<Object>> future;
+        if (increment) {
+            future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                    CONFIG_CHECK_SCRIPT +
+                    "local result = {}; " +
+                    "local total = 0; " +
+                    "for i = 3, #ARGV, rows + 1 do " +
+                        "local offset = i; " +
+                        INCREMENT_SCRIPT +
+                        "table.insert(result, estimate); " +
+                        "total = total + tonumber(ARGV[i]); " +
+                    "end; " +
+                    "redis.call('hincrby', KEYS[2], 'count', total); " +
+                    "return result; ",
+                    Arrays.<Object>asList(getRawName(), configName), params.toArray());
+        } else {
+            future = commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                    CONFIG_CHECK_SCRIPT +
+                    "local result = {}; " +
+                    "for i = 3, #ARGV, rows do " +
+                        "local args = {}; " +
+                        "for j = 0, rows - 1 do " +
+                            "table.insert(args, 'GET'); " +
+                            "table.insert(args, 'i64'); " +
+                            "table.insert(args, '#' .. ARGV[i + j]); " +
+                        "end; " +
+                        "local values = redis.call('bitfield', KEYS[1], unpack(args)); " +
+                        "local estimate = values[1]; " +
+                        "for j = 2, #values do " +
+                            "estimate = math.min(estimate, values[j]); " +
+                        "end; " +
+                        "table.insert(result, estimate); " +
+                    "end; " +
+                    "return result; ",
+                    Arrays.<Object>asList(getRawName(), configName), params.toArray());
+        }
+
+        CompletableFuture<List<Object>> result = new CompletableFuture<>();
+        future.whenComplete((res, e) -> {
+            if (e == null) {
+                result.complete(res);
+                return;
+            }
+            if (!configChanged(e, OBJECT_NAME)) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            readConfigAsync()
+                    .thenCompose(r -> executeScriptAsync(objects, hashes, increment, increments))
+                    .whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                            return;
+                        }
+                        result.complete(r);
+                    });
+        });
+        return result;
+    }
+
+    @Override
+    public void mergeWith(String... sketchNames) {
+        get(mergeWithAsync(sketchNames));
+    }
+
+    @Override
+    public RFuture<Void> mergeWithAsync(String... sketchNames) {
+        List<Object> keys = new ArrayList<>(2 + sketchNames.length * 2);
+        keys.add(getRawName());
+        keys.add(configName);
+        for (String sketchName : sketchNames) {
+            String name = commandExecutor.getConnectionManager().getConfig().getNameMapper().map(sketchName);
+            keys.add(name);
+            keys.add(suffixName(name, "config"));
+        }
+
+        return commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "local width = redis.call('hget', KEYS[2], 'width'); " +
+                "local depth = redis.call('hget', KEYS[2], 'depth'); " +
+                "assert(width ~= false and depth ~= false, 'Count-min sketch is not initialized'); " +
+                "local counters = tonumber(width) * tonumber(depth); " +
+                "for k = 3, #KEYS, 2 do " +
+                    "assert(redis.call('hget', KEYS[k + 1], 'width') == width " +
+                            "and redis.call('hget', KEYS[k + 1], 'depth') == depth, " +
+                            "'Count-min sketch ' .. KEYS[k] .. ' has different dimensions'); " +
+                    "for start = 0, counters - 1, 1000 do " +
+                        "local args = {}; " +
+                        "for c = start, math.min(start + 999, counters - 1) do " +
+                            "table.insert(args, 'GET'); " +
+                            "table.insert(args, 'i64'); " +
+                            "table.insert(args, '#' .. c); " +
+                        "end; " +
+                        "local values = redis.call('bitfield', KEYS[k], unpack(args)); " +
+                        "args = {'OVERFLOW', 'SAT'}; " +
+                        "for n, value in ipairs(values) do " +
+                            "if value ~= 0 then " +
+                                "table.insert(args, 'INCRBY'); " +
+                                "table.insert(args, 'i64'); " +
+                                "table.insert(args, '#' .. (start + n - 1)); " +
+                                "table.insert(args, string.format('%d', value)); " +
+                            "end; " +
+                        "end; " +
+                        "if #args > 2 then " +
+                            "redis.call('bitfield', KEYS[1], unpack(args)); " +
+                        "end; " +
+                    "end; " +
+                    "local count = redis.call('hget', KEYS[k + 1], 'count'); " +
+                    "redis.call('hincrby', KEYS[2], 'count', tonumber(count)); " +
+                "end; ",
+                keys);
+    }
+
+    private void readConfig() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        Map<String, String> config = commandExecutor.get(future);
+
+        readConfig(config);
+    }
+
+    private CompletionStage<Void> readConfigAsync() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        return future.thenAccept(config -> readConfig(config));
+    }
+
+    private void readConfig(Map<String, String> config) {
+        if (config.get("width") == null
+                || config.get("depth") == null) {
+            throw new IllegalStateException("Count-min sketch is not initialized!");
+        }
+        width = Integer.valueOf(config.get("width"));
+        depth = Integer.valueOf(config.get("depth"));
+    }
+
+    @Override
+    public long count() {
+        Long result = get(commandExecutor.readAsync(configName, LongCodec.INSTANCE, RedisCommands.HGET, configName, "count"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Long> countAsync() {
+        return readSettingAsync(LongCodec.INSTANCE, "count");
+    }
+
+    @Override
+    public int getWidth() {
+        Integer result = get(commandExecutor.readAsync(configName, IntegerCodec.INSTANCE, RedisCommands.HGET, configName, "width"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Integer> getWidthAsync() {
+        return readSettingAsync(IntegerCodec.INSTANCE, "width");
+    }
+
+    @Override
+    public int getDepth() {
+        Integer result = get(commandExecutor.readAsync(configName, IntegerCodec.INSTANCE, RedisCommands.HGET, configName, "depth"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Integer> getDepthAsync() {
+        return readSettingAsync(IntegerCodec.INSTANCE, "depth");
+    }
+
+    private <T> RFuture<T> readSettingAsync(Codec codec, String settingName) {
+        RFuture<T> future = commandExecutor.readAsync(configName, codec, RedisCommands.HGET, configName, settingName);
+        return new CompletableFutureWrapper<>(future.thenApply(r -> check(r)));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return deleteAsync(getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        List<Object> keys = Arrays.<Object>asList(getRawName(), configName);
+        return super.sizeInMemoryAsync(keys);
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return super.expireAsync(timeToLive, timeUnit, param, getRawName(), configName);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return super.expireAtAsync(timestamp, param, getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        return clearExpireAsync(getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Boolean> isExistsAsync() {
+        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.EXISTS, getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        String newConfigName = suffixName(newName, "config");
+        RFuture<Void> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                     "if redis.call('exists', KEYS[1]) == 1 then " +
+                              "redis.call('rename', KEYS[1], ARGV[1]); " +
+                          "end; " +
+                          "return redis.call('rename', KEYS[2], ARGV[2]); ",
+                Arrays.<Object>asList(getRawName(), configName), newName, newConfigName);
+        CompletionStage<Void> f = future.thenApply(value -> {
+            setName(newName);
+            this.configName = newConfigName;
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        String newConfigName = suffixName(newName, "config");
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "local r = redis.call('renamenx', KEYS[1], ARGV[1]); "
+                        + "if r == 0 then "
+                        + "  return 0; "
+                        + "else  "
+                        + "  return redis.call('renamenx', KEYS[2], ARGV[2]); "
+                        + "end; ",
+                Arrays.asList(getRawName(), configName), newName, newConfigName);
+        CompletionStage<Boolean> f = future.thenApply(value -> {
+            if (value) {
+                setName(newName);
+                this.configName = newConfigName;
+            }
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private <T> T check(T result) {
+        if (result == null) {
+            throw new IllegalStateException("Count-min sketch is not initialized!");
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,563 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.api.RCuckooFilter;
+import org.redisson.api.RFuture;
+import org.redisson.client.codec.*;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.ObjectMapReplayDecoder;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.misc.Hash;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuckoo filter based on Highway 128-bit hash.
+ * <p>
+ * Buckets are stored in Redis string and accessed with BITFIELD command.
+ * Each bucket holds 4 fingerprints. Alternate bucket index is calculated
+ * from current index and fingerprint, so fingerprints are relocated by script
+ * without access to original elements. Fingerprint which can't be relocated
+ * is stored in config as victim and the next insertion fails.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> type of object
+ */
+public class RedissonCuckooFilter<T> extends RedissonExpirable implements RCuckooFilter<T> {
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int MAX_KICKS = 500;
+    // keeps product of fingerprint and multiplier exact in Lua numbers
+    private static final long ALT_INDEX_MULTIPLIER = 40503;
+
+    private static final String BUCKETS_SCRIPT =
+            "local size = redis.call('hget', KEYS[2], 'size'); " +
+            "local fingerprintBits = redis.call('hget', KEYS[2], 'fingerprintBits'); " +
+            "assert(size == ARGV[1] and fingerprintBits == ARGV[2], 'Cuckoo filter config has been changed'); " +
+            "local buckets = tonumber(ARGV[1]); " +
+            "local bucketSize = tonumber(ARGV[3]); " +
+            "local slotType = 'u' .. ARGV[2]; " +
+            "local getBucket = function(i) " +
+                "local args = {}; " +
+                "for s = 0, bucketSize - 1 do " +
+                    "table.insert(args, 'GET'); " +
+                    "table.insert(args, slotType); " +
+                    "table.insert(args, '#' .. (i * bucketSize + s)); " +
+                "end; " +
+                "return redis.call('bitfield', KEYS[1], unpack(args)); " +
+            "end; " +
+            "local setSlot = function(i, s, fp) " +
+                "return redis.call('bitfield', KEYS[1], 'SET', slotType, '#' .. (i * bucketSize + s), fp)[1]; " +
+            "end; " +
+            "local altIndex = function(i, fp) " +
+                "return bit.bxor(i, (fp * " + ALT_INDEX_MULTIPLIER + ") % buckets); " +
+            "end; " +
+            "local indexOf = function(bucket, fp) " +
+                "for s = 1, #bucket do " +
+                    "if bucket[s] == fp then " +
+                        "return s - 1; " +
+                    "end; " +
+                "end; " +
+                "return -1; " +
+            "end; " +
+            "local victim = redis.call('hmget', KEYS[2], 'victimIndex', 'victimFingerprint'); " +
+            "local victimIndex = tonumber(victim[1]); " +
+            "local victimFingerprint = tonumber(victim[2]); " +
+            "local find = function(i1, i2, fp) " +
+                "if indexOf(getBucket(i1), fp) >= 0 or indexOf(getBucket(i2), fp) >= 0 then " +
+                    "return true; " +
+                "end; " +
+                "return victimFingerprint == fp and (victimIndex == i1 or victimIndex == i2); " +
+            "end; ";
+
+    private volatile long size;
+    private volatile int fingerprintBits;
+
+    private String configName;
+
+    protected RedissonCuckooFilter(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+        this.configName = suffixName(getRawName(), "config");
+    }
+
+    protected RedissonCuckooFilter(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+        this.configName = suffixName(getRawName(), "config");
+    }
+
+    private static long optimalNumOfBuckets(long n) {
+        long buckets = Math.max(1, (long) Math.ceil(n / (BUCKET_SIZE * 0.95)));
+        if (Long.bitCount(buckets) == 1) {
+            return buckets;
+        }
+        return Long.highestOneBit(buckets) << 1;
+    }
+
+    private static int optimalFingerprintBits(double p) {
+        if (p == 0) {
+            p = Double.MIN_VALUE;
+        }
+        int bits = (int) Math.ceil(Math.log(2 * BUCKET_SIZE / p) / Math.log(2));
+        return Math.min(32, Math.max(4, bits));
+    }
+
+    protected long getMaxSize() {
+        return Integer.MAX_VALUE*2L;
+    }
+
+    private long[] hash(Object object) {
+        ByteBuf state = encode(object);
+        try {
+            return Hash.hash128(state);
+        } finally {
+            state.release();
+        }
+    }
+
+    @Override
+    public boolean add(T object) {
+        return add(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long add(Collection<T> objects) {
+        if (size == 0) {
+            readConfig();
+        }
+        return get(addAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> addAsync(T object) {
+        return new CompletableFutureWrapper<>(addAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> addAsync(Collection<T> objects) {
+        return executeAsync(objects, true,
+                "local result = 0; " +
+                "for i = 4, #ARGV, 2 do " +
+                    "local i1 = tonumber(ARGV[i]); " +
+                    "local fp = tonumber(ARGV[i + 1]); " +
+                    "local i2 = altIndex(i1, fp); " +
+                    "if not find(i1, i2, fp) then " +
+                        "if victimFingerprint ~= nil then " +
+                            "if result > 0 then " +
+                                "redis.call('hincrby', KEYS[2], 'count', result); " +
+                            "end; " +
+                            "return redis.error_reply('Cuckoo filter is full'); " +
+                        "end; " +
+                        "local stored = false; " +
+                        "for _, index in ipairs({i1, i2}) do " +
+                            "local e = indexOf(getBucket(index), 0); " +
+                            "if e >= 0 then " +
+                                "setSlot(index, e, fp); " +
+                                "stored = true; " +
+                                "break; " +
+                            "end; " +
+                        "end; " +
+                        "if not stored then " +
+                            "local index = i2; " +
+                            "for n = 1, " + MAX_KICKS + " do " +
+                                "fp = setSlot(index, n % bucketSize, fp); " +
+                                "index = altIndex(index, fp); " +
+                                "local e = indexOf(getBucket(index), 0); " +
+                                "if e >= 0 then " +
+                                    "setSlot(index, e, fp); " +
+                                    "stored = true; " +
+                                    "break; " +
+                                "end; " +
+                            "end; " +
+                            "if not stored then " +
+                                "victimIndex = index; " +
+                                "victimFingerprint = fp; " +
+                                "redis.call('hmset', KEYS[2], 'victimIndex', index, 'victimFingerprint', fp); " +
+                            "end; " +
+                        "end; " +
+                        "result = result + 1; " +
+                    "end; " +
+                "end; " +
+                "if result > 0 then " +
+                    "redis.call('hincrby', KEYS[2], 'count', result); " +
+                "end; " +
+                "return result; ");
+    }
+
+    @Override
+    public boolean contains(T object) {
+        return contains(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long contains(Collection<T> objects) {
+        if (size == 0) {
+            readConfig();
+        }
+        return get(containsAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> containsAsync(T object) {
+        return new CompletableFutureWrapper<>(containsAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> containsAsync(Collection<T> objects) {
+        return executeAsync(objects, false,
+                "local result = 0; " +
+                "for i = 4, #ARGV, 2 do " +
+                    "local i1 = tonumber(ARGV[i]); " +
+                    "local fp = tonumber(ARGV[i + 1]); " +
+                    "if find(i1, altIndex(i1, fp), fp) then " +
+                        "result = result + 1; " +
+                    "end; " +
+                "end; " +
+                "return result; ");
+    }
+
+    @Override
+    public boolean remove(T object) {
+        return remove(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long remove(Collection<T> objects) {
+        if (size == 0) {
+            readConfig();
+        }
+        return get(removeAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> removeAsync(T object) {
+        return new CompletableFutureWrapper<>(removeAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> removeAsync(Collection<T> objects) {
+        return executeAsync(objects, true,
+                "local result = 0; " +
+                "for i = 4, #ARGV, 2 do " +
+                    "local i1 = tonumber(ARGV[i]); " +
+                    "local fp = tonumber(ARGV[i + 1]); " +
+                    "local i2 = altIndex(i1, fp); " +
+                    "local removed = false; " +
+                    "for _, index in ipairs({i1, i2}) do " +
+                        "local s = indexOf(getBucket(index), fp); " +
+                        "if s >= 0 then " +
+                            "setSlot(index, s, 0); " +
+                            "removed = true; " +
+                            "break; " +
+                        "end; " +
+                    "end; " +
+                    "if not removed and victimFingerprint == fp and (victimIndex == i1 or victimIndex == i2) then " +
+                        "victimIndex = nil; " +
+                        "victimFingerprint = nil; " +
+                        "redis.call('hdel', KEYS[2], 'victimIndex', 'victimFingerprint'); " +
+                        "removed = true; " +
+                    "end; " +
+                    "if removed then " +
+                        "result = result + 1; " +
+                    "end; " +
+                    // victim takes released slot
+                    "if removed and victimFingerprint ~= nil then " +
+                        "for _, index in ipairs({victimIndex, altIndex(victimIndex, victimFingerprint)}) do " +
+                            "local e = indexOf(getBucket(index), 0); " +
+                            "if e >= 0 then " +
+                                "setSlot(index, e, victimFingerprint); " +
+                                "victimIndex = nil; " +
+                                "victimFingerprint = nil; " +
+                                "redis.call('hdel', KEYS[2], 'victimIndex', 'victimFingerprint'); " +
+                                "break; " +
+                            "end; " +
+                        "end; " +
+                    "end; " +
+                "end; " +
+                "if result > 0 then " +
+                    "redis.call('hincrby', KEYS[2], 'count', -result); " +
+                "end; " +
+                "return result; ");
+    }
+
+    private RFuture<Long> executeAsync(Collection<T> objects, boolean write, String script) {
+        if (objects.isEmpty()) {
+            return new CompletableFutureWrapper<>(0L);
+        }
+
+        List<long[]> hashes = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            hashes.add(hash(object));
+        }
+
+        CompletionStage<Void> configFuture = CompletableFuture.completedFuture(null);
+        if (size == 0) {
+            configFuture = readConfigAsync();
+        }
+        CompletionStage<Long> f = configFuture.thenCompose(r -> executeScriptAsync(hashes, write, script));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    /*
+     * Bucket index and fingerprint of each element are passed to a single script call.
+     * Request is repeated with actual config if config has been changed.
+     */
+    private CompletionStage<Long> executeScriptAsync(List<long[]> hashes, boolean write, String script) {
+        long size = this.size;
+        int fingerprintBits = this.fingerprintBits;
+
+        List<Object> params = new ArrayList<>(3 + hashes.size() * 2);
+        params.add(size);
+        params.add(fingerprintBits);
+        params.add(BUCKET_SIZE);
+        long maxFingerprint = (1L << fingerprintBits) - 1;
+        for (long[] hash : hashes) {
+            params.add(hash[0] & (size - 1));
+            params.add((hash[1] & Long.MAX_VALUE) % maxFingerprint + 1);
+        }
+
+        RFuture<Long> future;
+        if (write) {
+            future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    BUCKETS_SCRIPT + script, Arrays.<Object>asList(getRawName(), configName), params.toArray());
+        } else {
+            future = commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    BUCKETS_SCRIPT + script, Arrays.<Object>asList(getRawName(), configName), params.toArray());
+        }
+
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        future.whenComplete((res, e) -> {
+            if (e == null) {
+                result.complete(res);
+                return;
+            }
+            if (e.getMessage() == null || !e.getMessage().contains("Cuckoo filter config has been changed")) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            readConfigAsync()
+                    .thenCompose(r -> executeScriptAsync(hashes, write, script))
+                    .whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                            return;
+                        }
+                        result.complete(r);
+                    });
+        });
+        return result;
+    }
+
+    private void readConfig() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        Map<String, String> config = commandExecutor.get(future);
+
+        readConfig(config);
+    }
+
+    private CompletionStage<Void> readConfigAsync() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        return future.thenAccept(config -> readConfig(config));
+    }
+
+    private void readConfig(Map<String, String> config) {
+        if (config.get("size") == null
+                || config.get("fingerprintBits") == null) {
+            throw new IllegalStateException("Cuckoo filter is not initialized!");
+        }
+        size = Long.valueOf(config.get("size"));
+        fingerprintBits = Integer.valueOf(config.get("fingerprintBits"));
+    }
+
+    @Override
+    public boolean tryInit(long expectedInsertions, double falseProbability) {
+        return get(tryInitAsync(expectedInsertions, falseProbability));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability) {
+        if (falseProbability > 1) {
+            throw new IllegalArgumentException("Cuckoo filter false probability can't be greater than 1");
+        }
+        if (falseProbability < 0) {
+            throw new IllegalArgumentException("Cuckoo filter false probability can't be negative");
+        }
+
+        long size = optimalNumOfBuckets(expectedInsertions);
+        int fingerprintBits = optimalFingerprintBits(falseProbability);
+        long bits = size * BUCKET_SIZE * fingerprintBits;
+        if (bits > getMaxSize()) {
+            throw new IllegalArgumentException("Cuckoo filter size can't be greater than " + getMaxSize() + ". But calculated size is " + bits);
+        }
+
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(configName, StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', KEYS[1]) == 1 then " +
+                    "return 0; " +
+                "end; " +
+                "redis.call('hmset', KEYS[1], 'size', ARGV[1], 'fingerprintBits', ARGV[2], " +
+                            "'expectedInsertions', ARGV[3], 'falseProbability', ARGV[4], 'count', 0); " +
+                "return 1; ",
+                Collections.singletonList(configName),
+                size, fingerprintBits, expectedInsertions, BigDecimal.valueOf(falseProbability).toPlainString());
+        CompletionStage<Boolean> f = future.thenCompose(res -> {
+            if (!res) {
+                return readConfigAsync().thenApply(r -> false);
+            }
+
+            this.size = size;
+            this.fingerprintBits = fingerprintBits;
+            return CompletableFuture.completedFuture(true);
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public long count() {
+        Long result = get(commandExecutor.readAsync(configName, LongCodec.INSTANCE, RedisCommands.HGET, configName, "count"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Long> countAsync() {
+        return readSettingAsync(LongCodec.INSTANCE, "count");
+    }
+
+    @Override
+    public long getExpectedInsertions() {
+        Long result = get(commandExecutor.readAsync(configName, LongCodec.INSTANCE, RedisCommands.HGET, configName, "expectedInsertions"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Long> getExpectedInsertionsAsync() {
+        return readSettingAsync(LongCodec.INSTANCE, "expectedInsertions");
+    }
+
+    @Override
+    public double getFalseProbability() {
+        Double result = get(commandExecutor.readAsync(configName, DoubleCodec.INSTANCE, RedisCommands.HGET, configName, "falseProbability"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Double> getFalseProbabilityAsync() {
+        return readSettingAsync(DoubleCodec.INSTANCE, "falseProbability");
+    }
+
+    @Override
+    public long getSize() {
+        readConfig();
+        return size * BUCKET_SIZE * fingerprintBits;
+    }
+
+    @Override
+    public RFuture<Long> getSizeAsync() {
+        return new CompletableFutureWrapper<>(readConfigAsync().thenApply(r -> size * BUCKET_SIZE * fingerprintBits));
+    }
+
+    private <V> RFuture<V> readSettingAsync(Codec codec, String settingName) {
+        RFuture<V> future = commandExecutor.readAsync(configName, codec, RedisCommands.HGET, configName, settingName);
+        return new CompletableFutureWrapper<>(future.thenApply(r -> check(r)));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return deleteAsync(getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        List<Object> keys = Arrays.<Object>asList(getRawName(), configName);
+        return super.sizeInMemoryAsync(keys);
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return super.expireAsync(timeToLive, timeUnit, param, getRawName(), configName);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return super.expireAtAsync(timestamp, param, getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        return clearExpireAsync(getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Boolean> isExistsAsync() {
+        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.EXISTS, getRawName(), configName);
+    }
+
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        String newConfigName = suffixName(newName, "config");
+        RFuture<Void> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                     "if redis.call('exists', KEYS[1]) == 1 then " +
+                              "redis.call('rename', KEYS[1], ARGV[1]); " +
+                          "end; " +
+                          "return redis.call('rename', KEYS[2], ARGV[2]); ",
+                Arrays.<Object>asList(getRawName(), configName), newName, newConfigName);
+        CompletionStage<Void> f = future.thenApply(value -> {
+            setName(newName);
+            this.configName = newConfigName;
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        String newConfigName = suffixName(newName, "config");
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "local r = redis.call('renamenx', KEYS[1], ARGV[1]); "
+                        + "if r == 0 then "
+                        + "  return 0; "
+                        + "else  "
+                        + "  return redis.call('renamenx', KEYS[2], ARGV[2]); "
+                        + "end; ",
+                Arrays.asList(getRawName(), configName), newName, newConfigName);
+        CompletionStage<Boolean> f = future.thenApply(value -> {
+            if (value) {
+                setName(newName);
+                this.configName = newConfigName;
+            }
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private <V> V check(V result) {
+        if (result == null) {
+            throw new IllegalStateException("Cuckoo filter is not initialized!");
+        }
+        return result;
+    }
+
+}
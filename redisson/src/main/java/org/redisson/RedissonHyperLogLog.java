@@ -19,9 +19,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.redisson.api.RFuture;
 import org.redisson.api.RHyperLogLog;
+import org.redisson.api.RHyperLogLogAccumulator;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
@@ -101,4 +103,9 @@ public class RedissonHyperLogLog<V> extends RedissonExpirable implements RHyperL
         return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.PFMERGE, args.toArray());
     }
 
+    @Override
+    public RHyperLogLogAccumulator<V> createAccumulator(long flushInterval, TimeUnit unit) {
+        return new RedissonHyperLogLogAccumulator<>(this, unit.toMillis(flushInterval));
+    }
+
 }
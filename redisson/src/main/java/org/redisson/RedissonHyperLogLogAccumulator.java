@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Timeout;
+import org.redisson.api.RFuture;
+import org.redisson.api.RHyperLogLogAccumulator;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps HyperLogLog registers locally using the same hash function
+ * and register layout as Redis. Registers are serialized in Redis dense format
+ * and merged into target object through PFMERGE command.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> value
+ */
+public class RedissonHyperLogLogAccumulator<V> implements RHyperLogLogAccumulator<V> {
+
+    private static final Logger log = LoggerFactory.getLogger(RedissonHyperLogLogAccumulator.class);
+
+    private static final int HLL_P = 14;
+    private static final int HLL_Q = 64 - HLL_P;
+    private static final int HLL_REGISTERS = 1 << HLL_P;
+    private static final int HLL_BITS = 6;
+    private static final int HLL_HEADER_SIZE = 16;
+    private static final int HLL_DENSE_SIZE = HLL_HEADER_SIZE + (HLL_REGISTERS * HLL_BITS + 7) / 8;
+    private static final long HLL_SEED = 0xadc83b19L;
+
+    private final RedissonHyperLogLog<V> hyperLogLog;
+    private final long flushInterval;
+
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(HLL_REGISTERS);
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final AtomicLong flushes = new AtomicLong();
+
+    private volatile Timeout timeout;
+    private volatile boolean destroyed;
+
+    public RedissonHyperLogLogAccumulator(RedissonHyperLogLog<V> hyperLogLog, long flushInterval) {
+        this.hyperLogLog = hyperLogLog;
+        this.flushInterval = flushInterval;
+        if (flushInterval > 0) {
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (destroyed) {
+            return;
+        }
+
+        timeout = hyperLogLog.commandExecutor.getConnectionManager().newTimeout(t -> {
+            flushAsync().whenComplete((r, e) -> {
+                if (e != null) {
+                    log.error("Unable to flush registers to " + hyperLogLog.getName() + " object", e);
+                }
+                scheduleFlush();
+            });
+        }, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean add(V obj) {
+        ByteBuf state = hyperLogLog.encode(obj);
+        try {
+            byte[] bytes = new byte[state.readableBytes()];
+            state.getBytes(state.readerIndex(), bytes);
+            return addHash(murmurHash64A(bytes, HLL_SEED));
+        } finally {
+            state.release();
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<V> objects) {
+        boolean result = false;
+        for (V obj : objects) {
+            result |= add(obj);
+        }
+        return result;
+    }
+
+    private boolean addHash(long hash) {
+        int index = (int) (hash & (HLL_REGISTERS - 1));
+        hash >>>= HLL_P;
+        hash |= 1L << HLL_Q;
+        int count = Long.numberOfTrailingZeros(hash) + 1;
+
+        while (true) {
+            int current = registers.get(index);
+            if (current >= count) {
+                return false;
+            }
+            if (registers.compareAndSet(index, current, count)) {
+                changed.set(true);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        hyperLogLog.get(flushAsync());
+    }
+
+    @Override
+    public RFuture<Void> flushAsync() {
+        if (!changed.getAndSet(false)) {
+            return new CompletableFutureWrapper<>((Void) null);
+        }
+
+        byte[] state = toDense();
+        flushes.incrementAndGet();
+        RFuture<Void> future = hyperLogLog.commandExecutor.evalWriteAsync(hyperLogLog.getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "redis.call('set', KEYS[2], ARGV[1]); " +
+                "redis.call('pfmerge', KEYS[1], KEYS[2]); " +
+                "redis.call('del', KEYS[2]); ",
+                Arrays.asList(hyperLogLog.getRawName(), RedissonObject.suffixName(hyperLogLog.getRawName(), "accumulator")),
+                state);
+        CompletableFuture<Void> f = future.toCompletableFuture().whenComplete((r, e) -> {
+            if (e != null) {
+                changed.set(true);
+            }
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    byte[] toDense() {
+        byte[] result = new byte[HLL_DENSE_SIZE];
+        result[0] = 'H';
+        result[1] = 'Y';
+        result[2] = 'L';
+        result[3] = 'L';
+        // invalidates cached cardinality
+        result[HLL_HEADER_SIZE - 1] = (byte) 0x80;
+
+        for (int i = 0; i < HLL_REGISTERS; i++) {
+            int value = registers.get(i);
+            if (value == 0) {
+                continue;
+            }
+
+            int bytePos = i * HLL_BITS / 8;
+            int bitPos = i * HLL_BITS & 7;
+            result[HLL_HEADER_SIZE + bytePos] |= (byte) (value << bitPos);
+            if (bitPos > 8 - HLL_BITS) {
+                result[HLL_HEADER_SIZE + bytePos + 1] |= (byte) (value >>> (8 - bitPos));
+            }
+        }
+        return result;
+    }
+
+    static long murmurHash64A(byte[] data, long seed) {
+        long m = 0xc6a4a7935bd1e995L;
+        int r = 47;
+        int length = data.length;
+
+        long h = seed ^ (length * m);
+
+        int blocks = length / 8;
+        for (int i = 0; i < blocks; i++) {
+            int offset = i * 8;
+            long k = (data[offset] & 0xffL)
+                    | (data[offset + 1] & 0xffL) << 8
+                    | (data[offset + 2] & 0xffL) << 16
+                    | (data[offset + 3] & 0xffL) << 24
+                    | (data[offset + 4] & 0xffL) << 32
+                    | (data[offset + 5] & 0xffL) << 40
+                    | (data[offset + 6] & 0xffL) << 48
+                    | (data[offset + 7] & 0xffL) << 56;
+
+            k *= m;
+            k ^= k >>> r;
+            k *= m;
+
+            h ^= k;
+            h *= m;
+        }
+
+        int tail = blocks * 8;
+        int remaining = length & 7;
+        if (remaining > 0) {
+            for (int i = 0; i < remaining; i++) {
+                h ^= (data[tail + i] & 0xffL) << (8 * i);
+            }
+            h *= m;
+        }
+
+        h ^= h >>> r;
+        h *= m;
+        h ^= h >>> r;
+        return h;
+    }
+
+    @Override
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    @Override
+    public void destroy() {
+        destroyed = true;
+        Timeout t = timeout;
+        if (t != null) {
+            t.cancel();
+        }
+        flush();
+    }
+
+}
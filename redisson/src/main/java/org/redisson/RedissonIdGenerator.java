@@ -27,12 +27,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  *
@@ -69,79 +67,119 @@ public class RedissonIdGenerator extends RedissonExpirable implements RIdGenerat
                 Arrays.asList(getRawName(), getAllocationSizeName()), value, allocationSize);
     }
 
-    private final AtomicLong start = new AtomicLong();
-    private final AtomicLong counter = new AtomicLong();
-    private final Queue<CompletableFuture<Long>> queue = new ConcurrentLinkedQueue<>();
-    private final AtomicBoolean isWorkerActive = new AtomicBoolean();
+    private static final long TARGET_RANGE_DURATION = 1000;
 
-    private void send() {
-        if (!isWorkerActive.compareAndSet(false, true)
-                || commandExecutor.getConnectionManager().getExecutor().isShutdown()) {
-            return;
+    private static final class Range {
+
+        private final long start;
+        private final long end;
+        private final AtomicLong next;
+        // time when range became current, used to measure consumption rate
+        private volatile long createdAt = System.currentTimeMillis();
+
+        Range(long start, long size) {
+            this.start = start;
+            this.end = start + size;
+            this.next = new AtomicLong(start);
         }
 
-        commandExecutor.getConnectionManager().getExecutor().execute(() -> {
-            while (true) {
-                if (queue.peek() == null) {
-                    isWorkerActive.set(false);
-                    if (!queue.isEmpty()) {
-                        send();
-                    }
-                    break;
-                }
+    }
 
-                long v = counter.decrementAndGet();
-                if (v >= 0) {
-                    CompletableFuture<Long> pp = queue.poll();
-                    pp.complete(start.incrementAndGet());
-                } else {
-                    try {
-                        RFuture<List<Object>> future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
-                              "local allocationSize = redis.call('get', KEYS[2]); " +
-                                    "if allocationSize == false then " +
-                                        "allocationSize = 5000; " +
-                                        "redis.call('set', KEYS[2], allocationSize);" +
-                                    "end;" +
-                                    "local value = redis.call('get', KEYS[1]); " +
-                                    "if value == false then " +
-                                        "redis.call('incr', KEYS[1]);" +
-                                        "value = 1; " +
-                                    "end; " +
-                                    "redis.call('incrby', KEYS[1], allocationSize); " +
-                                    "return {value, allocationSize}; ",
-                            Arrays.asList(getRawName(), getAllocationSizeName()));
-                        List<Object> res = get(future);
-
-                        long value = (long) res.get(0);
-                        long allocationSize = (long) res.get(1);
-                        start.set(value);
-                        counter.set(allocationSize);
-
-                        CompletableFuture<Long> pp = queue.poll();
-                        counter.decrementAndGet();
-                        pp.complete(start.get());
-                    } catch (Exception e) {
-                        if (e instanceof RedissonShutdownException) {
-                            break;
-                        }
+    private final AtomicReference<Range> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Range>> prefetched = new AtomicReference<>();
 
-                        log.error(e.getMessage(), e);
+    private volatile double lowWaterMark;
+    private volatile long maxAllocationSize;
 
-                        isWorkerActive.set(false);
-                        send();
-                        break;
-                    }
+    @Override
+    public void enablePrefetch(double lowWaterMark, long maxAllocationSize) {
+        if (lowWaterMark < 0 || lowWaterMark >= 1) {
+            throw new IllegalArgumentException("lowWaterMark should be in range [0, 1)");
+        }
+        if (maxAllocationSize <= 0) {
+            throw new IllegalArgumentException("maxAllocationSize should be greater than zero");
+        }
+        this.maxAllocationSize = maxAllocationSize;
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    @Override
+    public RFuture<Long> nextIdAsync() {
+        return new CompletableFutureWrapper<>(allocateAsync());
+    }
+
+    private CompletableFuture<Long> allocateAsync() {
+        Range range = current.get();
+        if (range != null) {
+            long id = range.next.getAndIncrement();
+            if (id < range.end) {
+                double mark = lowWaterMark;
+                if (mark > 0
+                        && range.end - id - 1 == (long) ((range.end - range.start) * mark)) {
+                    prefetchAsync(range).whenComplete((r, e) -> {
+                        if (e != null) {
+                            log.error("Unable to prefetch values range", e);
+                        }
+                    });
                 }
+                return CompletableFuture.completedFuture(id);
             }
+        }
+
+        CompletableFuture<Range> f = prefetchAsync(range);
+        return f.thenCompose(nextRange -> {
+            if (current.compareAndSet(range, nextRange)) {
+                nextRange.createdAt = System.currentTimeMillis();
+                prefetched.compareAndSet(f, null);
+            }
+            return allocateAsync();
         });
     }
 
-    @Override
-    public RFuture<Long> nextIdAsync() {
-        CompletableFuture<Long> promise = new CompletableFuture<>();
-        queue.add(promise);
-        send();
-        return new CompletableFutureWrapper<>(promise);
+    private CompletableFuture<Range> prefetchAsync(Range range) {
+        CompletableFuture<Range> f = prefetched.get();
+        if (f != null) {
+            return f;
+        }
+
+        CompletableFuture<Range> newFuture = new CompletableFuture<>();
+        if (!prefetched.compareAndSet(null, newFuture)) {
+            return prefetchAsync(range);
+        }
+
+        long size = 0;
+        long maxSize = maxAllocationSize;
+        if (maxSize > 0 && range != null) {
+            long elapsed = Math.max(1, System.currentTimeMillis() - range.createdAt);
+            long consumed = Math.min(range.next.get(), range.end) - range.start;
+            size = Math.min(maxSize, (long) Math.ceil((double) consumed * TARGET_RANGE_DURATION / elapsed));
+        }
+
+        RFuture<List<Object>> future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+              "local allocationSize = redis.call('get', KEYS[2]); " +
+                    "if allocationSize == false then " +
+                        "allocationSize = 5000; " +
+                        "redis.call('set', KEYS[2], allocationSize);" +
+                    "end;" +
+                    "allocationSize = math.max(tonumber(allocationSize), tonumber(ARGV[1])); " +
+                    "local value = redis.call('get', KEYS[1]); " +
+                    "if value == false then " +
+                        "redis.call('incr', KEYS[1]);" +
+                        "value = 1; " +
+                    "end; " +
+                    "redis.call('incrby', KEYS[1], allocationSize); " +
+                    "return {value, allocationSize}; ",
+            Arrays.asList(getRawName(), getAllocationSizeName()), size);
+        future.whenComplete((res, e) -> {
+            if (e != null) {
+                prefetched.compareAndSet(newFuture, null);
+                newFuture.completeExceptionally(e);
+                return;
+            }
+
+            newFuture.complete(new Range((long) res.get(0), (long) res.get(1)));
+        });
+        return newFuture;
     }
 
     @Override
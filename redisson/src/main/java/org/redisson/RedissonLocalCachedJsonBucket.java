@@ -0,0 +1,473 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLocalCachedJsonBucket;
+import org.redisson.cache.CacheKey;
+import org.redisson.cache.CacheValue;
+import org.redisson.cache.LocalCacheSupport;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.codec.JsonCodec;
+import org.redisson.codec.JsonCodecWrapper;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.eviction.EvictionScheduler;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.misc.Hash;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Json data holder with local cache of read documents and paths.
+ * <p>
+ * Paths are reduced to their leading <code>$.a.b</code> part.
+ * Change of a path invalidates cached values read by the same path,
+ * by its parent paths and by its nested paths. Paths with filters, wildcards,
+ * array indexes or recursive descent are reduced to the part before them.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> the type of object
+ */
+public class RedissonLocalCachedJsonBucket<V> extends RedissonJsonBucket<V> implements RLocalCachedJsonBucket<V> {
+
+    private static final String ROOT = "$";
+
+    // node path hash -> keys of values read by this path
+    private final Map<CacheKey, Set<CacheKey>> nodeIndex = new ConcurrentHashMap<>();
+    // tree path hash -> keys of values read by this path or by its nested paths
+    private final Map<CacheKey, Set<CacheKey>> treeIndex = new ConcurrentHashMap<>();
+
+    private LocalCacheSupport<Object, Object> localCache;
+    private boolean storeCacheMiss;
+
+    public RedissonLocalCachedJsonBucket(JsonCodec<V> codec, CommandAsyncExecutor connectionManager, String name,
+                                         LocalCachedMapOptions<?, ?> options, EvictionScheduler evictionScheduler) {
+        super(codec, connectionManager, name);
+        storeCacheMiss = options.isStoreCacheMiss();
+        localCache = new LocalCacheSupport<Object, Object>(this, commandExecutor, options, evictionScheduler) {
+            @Override
+            protected void invalidate(CacheKey key) {
+                invalidateIndexed(key);
+            }
+        };
+    }
+
+    static List<String> parsePath(String path) {
+        List<String> result = new ArrayList<>();
+        String p = path.trim();
+        if (p.startsWith(ROOT)) {
+            p = p.substring(1);
+        }
+        if (p.startsWith(".")) {
+            p = p.substring(1);
+        }
+        if (p.isEmpty()) {
+            return result;
+        }
+
+        for (String segment : p.split("\\.", -1)) {
+            if (!isPlainSegment(segment)) {
+                break;
+            }
+            result.add(segment);
+        }
+        return result;
+    }
+
+    private static boolean isPlainSegment(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '[' || c == '*' || c == '?' || c == '@' || c == '(' || c == '\'' || c == '"') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toPath(List<String> segments, int length) {
+        StringBuilder result = new StringBuilder(ROOT);
+        for (int i = 0; i < length; i++) {
+            result.append('.').append(segments.get(i));
+        }
+        return result.toString();
+    }
+
+    private static CacheKey hash(String value) {
+        ByteBuf buf = Unpooled.wrappedBuffer(value.getBytes(StandardCharsets.UTF_8));
+        try {
+            return new CacheKey(Hash.hash128toArray(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static CacheKey nodeHash(String path) {
+        return hash("n:" + path);
+    }
+
+    private static CacheKey treeHash(String path) {
+        return hash("t:" + path);
+    }
+
+    private void invalidateIndexed(CacheKey key) {
+        localCache.getCache().remove(key);
+        Set<CacheKey> nodeKeys = nodeIndex.remove(key);
+        if (nodeKeys != null) {
+            for (CacheKey k : nodeKeys) {
+                localCache.getCache().remove(k);
+            }
+        }
+        Set<CacheKey> treeKeys = treeIndex.remove(key);
+        if (treeKeys != null) {
+            for (CacheKey k : treeKeys) {
+                localCache.getCache().remove(k);
+            }
+        }
+    }
+
+    private void index(CacheKey key, String[] paths) {
+        if (paths.length == 0) {
+            index(key, Collections.emptyList());
+            return;
+        }
+        for (String path : paths) {
+            index(key, parsePath(path));
+        }
+    }
+
+    private void index(CacheKey key, List<String> segments) {
+        nodeIndex.computeIfAbsent(nodeHash(toPath(segments, segments.size())), k -> ConcurrentHashMap.newKeySet()).add(key);
+        for (int i = 0; i <= segments.size(); i++) {
+            treeIndex.computeIfAbsent(treeHash(toPath(segments, i)), k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    /*
+     * Change of a path affects values read by this path, by its nested paths and by its parent paths.
+     */
+    private <T> RFuture<T> invalidate(RFuture<T> future, String path) {
+        List<String> segments = parsePath(path);
+        CacheKey[] keys = new CacheKey[segments.size() + 1];
+        keys[0] = treeHash(toPath(segments, segments.size()));
+        for (int i = 0; i < segments.size(); i++) {
+            keys[i + 1] = nodeHash(toPath(segments, i));
+        }
+        return localCache.invalidate(future, keys);
+    }
+
+    private <T> RFuture<T> invalidate(RFuture<T> future) {
+        return invalidate(future, ROOT);
+    }
+
+    private <T> RFuture<T> getCachedAsync(Object codecKey, Codec codec, String... paths) {
+        StringBuilder id = new StringBuilder(codecKey.getClass().getName());
+        for (String path : paths) {
+            id.append('\0').append(path);
+        }
+        CacheKey cacheKey = hash(id.toString());
+        CacheValue cacheValue = localCache.get(cacheKey);
+        // values decoded by other codec instance aren't used
+        if (cacheValue != null && cacheValue.getKey() == codecKey
+                && (storeCacheMiss || cacheValue.getValue() != null)) {
+            return new CompletableFutureWrapper<>((T) cacheValue.getValue());
+        }
+
+        RFuture<List<Object>> future = commandExecutor.evalReadAsync(getRawName(), codec, RedisCommands.EVAL_LIST,
+                "local v = redis.call('json.get', KEYS[1], unpack(ARGV)); "
+                    + "return {redis.call('pttl', KEYS[1]), v}; ",
+                Collections.singletonList(getRawName()), (Object[]) paths);
+        CompletionStage<T> f = future.thenApply(res -> {
+            long ttl = ((Number) res.get(0)).longValue();
+            T value = null;
+            if (res.size() > 1) {
+                value = (T) res.get(1);
+            }
+            if (value == null && !storeCacheMiss) {
+                return null;
+            }
+
+            long expireTime = 0;
+            if (ttl > 0) {
+                expireTime = System.currentTimeMillis() + ttl;
+            }
+            index(cacheKey, paths);
+            localCache.put(cacheKey, codecKey, value, expireTime);
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<V> getAsync() {
+        return getCachedAsync(codec, codec);
+    }
+
+    @Override
+    public <T> RFuture<T> getAsync(JsonCodec<T> codec, String... paths) {
+        return getCachedAsync(codec, new JsonCodecWrapper(codec), paths);
+    }
+
+    @Override
+    public RFuture<V> getAndDeleteAsync() {
+        return invalidate(super.getAndDeleteAsync());
+    }
+
+    @Override
+    public RFuture<Boolean> setIfAbsentAsync(V value, Duration duration) {
+        return invalidate(super.setIfAbsentAsync(value, duration));
+    }
+
+    @Override
+    public RFuture<Boolean> setIfAbsentAsync(String path, Object value) {
+        return invalidate(super.setIfAbsentAsync(path, value), path);
+    }
+
+    @Override
+    public RFuture<Boolean> trySetAsync(String path, Object value) {
+        return invalidate(super.trySetAsync(path, value), path);
+    }
+
+    @Override
+    public RFuture<Boolean> trySetAsync(V value, long timeToLive, TimeUnit timeUnit) {
+        return invalidate(super.trySetAsync(value, timeToLive, timeUnit));
+    }
+
+    @Override
+    public RFuture<Boolean> setIfExistsAsync(String path, Object value) {
+        return invalidate(super.setIfExistsAsync(path, value), path);
+    }
+
+    @Override
+    public RFuture<Boolean> setIfExistsAsync(V value, long timeToLive, TimeUnit timeUnit) {
+        return invalidate(super.setIfExistsAsync(value, timeToLive, timeUnit));
+    }
+
+    @Override
+    public RFuture<Boolean> compareAndSetAsync(V expect, V update) {
+        return invalidate(super.compareAndSetAsync(expect, update));
+    }
+
+    @Override
+    public RFuture<Boolean> compareAndSetAsync(String path, Object expect, Object update) {
+        return invalidate(super.compareAndSetAsync(path, expect, update), path);
+    }
+
+    @Override
+    public RFuture<V> getAndSetAsync(V newValue) {
+        return invalidate(super.getAndSetAsync(newValue));
+    }
+
+    @Override
+    public <T> RFuture<T> getAndSetAsync(JsonCodec<T> codec, String path, Object newValue) {
+        if (newValue == null) {
+            // whole document is deleted
+            return invalidate(super.getAndSetAsync(codec, path, newValue));
+        }
+        return invalidate(super.getAndSetAsync(codec, path, newValue), path);
+    }
+
+    @Override
+    public RFuture<V> getAndSetAsync(V value, long timeToLive, TimeUnit timeUnit) {
+        return invalidate(super.getAndSetAsync(value, timeToLive, timeUnit));
+    }
+
+    @Override
+    public RFuture<V> getAndExpireAsync(Duration duration) {
+        return invalidate(super.getAndExpireAsync(duration));
+    }
+
+    @Override
+    public RFuture<V> getAndExpireAsync(Instant time) {
+        return invalidate(super.getAndExpireAsync(time));
+    }
+
+    @Override
+    public RFuture<V> getAndClearExpireAsync() {
+        return invalidate(super.getAndClearExpireAsync());
+    }
+
+    @Override
+    public RFuture<Void> setAsync(String path, Object value) {
+        return invalidate(super.setAsync(path, value), path);
+    }
+
+    @Override
+    public RFuture<Void> setAsync(V value, long timeToLive, TimeUnit timeUnit) {
+        return invalidate(super.setAsync(value, timeToLive, timeUnit));
+    }
+
+    @Override
+    public RFuture<Void> setAndKeepTTLAsync(V value) {
+        return invalidate(super.setAndKeepTTLAsync(value));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return invalidate(super.deleteAsync());
+    }
+
+    @Override
+    public RFuture<Long> deleteAsync(String path) {
+        return invalidate(super.deleteAsync(path), path);
+    }
+
+    @Override
+    public RFuture<Long> stringAppendAsync(String path, Object value) {
+        return invalidate(super.stringAppendAsync(path, value), path);
+    }
+
+    @Override
+    public RFuture<List<Long>> stringAppendMultiAsync(String path, Object value) {
+        return invalidate(super.stringAppendMultiAsync(path, value), path);
+    }
+
+    @Override
+    public RFuture<Long> arrayAppendAsync(String path, Object... values) {
+        return invalidate(super.arrayAppendAsync(path, values), path);
+    }
+
+    @Override
+    public RFuture<List<Long>> arrayAppendMultiAsync(String path, Object... values) {
+        return invalidate(super.arrayAppendMultiAsync(path, values), path);
+    }
+
+    @Override
+    public RFuture<Long> arrayInsertAsync(String path, long index, Object... values) {
+        return invalidate(super.arrayInsertAsync(path, index, values), path);
+    }
+
+    @Override
+    public RFuture<List<Long>> arrayInsertMultiAsync(String path, long index, Object... values) {
+        return invalidate(super.arrayInsertMultiAsync(path, index, values), path);
+    }
+
+    @Override
+    public <T> RFuture<T> arrayPollLastAsync(JsonCodec<T> codec, String path) {
+        return invalidate(super.arrayPollLastAsync(codec, path), path);
+    }
+
+    @Override
+    public <T> RFuture<List<T>> arrayPollLastMultiAsync(JsonCodec<T> codec, String path) {
+        return invalidate(super.arrayPollLastMultiAsync(codec, path), path);
+    }
+
+    @Override
+    public <T> RFuture<T> arrayPollFirstAsync(JsonCodec<T> codec, String path) {
+        return invalidate(super.arrayPollFirstAsync(codec, path), path);
+    }
+
+    @Override
+    public <T> RFuture<List<T>> arrayPollFirstMultiAsync(JsonCodec<T> codec, String path) {
+        return invalidate(super.arrayPollFirstMultiAsync(codec, path), path);
+    }
+
+    @Override
+    public <T> RFuture<T> arrayPopAsync(JsonCodec<T> codec, String path, long index) {
+        return invalidate(super.arrayPopAsync(codec, path, index), path);
+    }
+
+    @Override
+    public <T> RFuture<List<T>> arrayPopMultiAsync(JsonCodec<T> codec, String path, long index) {
+        return invalidate(super.arrayPopMultiAsync(codec, path, index), path);
+    }
+
+    @Override
+    public RFuture<Long> arrayTrimAsync(String path, long start, long end) {
+        return invalidate(super.arrayTrimAsync(path, start, end), path);
+    }
+
+    @Override
+    public RFuture<List<Long>> arrayTrimMultiAsync(String path, long start, long end) {
+        return invalidate(super.arrayTrimMultiAsync(path, start, end), path);
+    }
+
+    @Override
+    public RFuture<Long> clearAsync() {
+        return invalidate(super.clearAsync());
+    }
+
+    @Override
+    public RFuture<Long> clearAsync(String path) {
+        return invalidate(super.clearAsync(path), path);
+    }
+
+    @Override
+    public <T extends Number> RFuture<T> incrementAndGetAsync(String path, T delta) {
+        return invalidate(super.incrementAndGetAsync(path, delta), path);
+    }
+
+    @Override
+    public <T extends Number> RFuture<List<T>> incrementAndGetMultiAsync(String path, T delta) {
+        return invalidate(super.incrementAndGetMultiAsync(path, delta), path);
+    }
+
+    @Override
+    public RFuture<Boolean> toggleAsync(String path) {
+        return invalidate(super.toggleAsync(path), path);
+    }
+
+    @Override
+    public RFuture<List<Boolean>> toggleMultiAsync(String path) {
+        return invalidate(super.toggleMultiAsync(path), path);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return invalidate(super.expireAsync(timeToLive, timeUnit, param, keys));
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return invalidate(super.expireAtAsync(timestamp, param, keys));
+    }
+
+    @Override
+    protected RFuture<Boolean> clearExpireAsync(String... keys) {
+        return invalidate(super.clearExpireAsync(keys));
+    }
+
+    @Override
+    public RFuture<Void> clearLocalCacheAsync() {
+        return localCache.clearLocalCacheAsync();
+    }
+
+    @Override
+    public void clearLocalCache() {
+        get(clearLocalCacheAsync());
+    }
+
+    @Override
+    public void destroy() {
+        localCache.destroy();
+        nodeIndex.clear();
+        treeIndex.clear();
+    }
+
+}
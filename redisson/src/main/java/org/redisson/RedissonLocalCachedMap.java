@@ -16,9 +16,14 @@
 package org.redisson;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.Timeout;
 import org.redisson.api.LocalCachedMapOptions;
 import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
+import org.redisson.api.LocalCachedMapStats;
 import org.redisson.api.LocalCachedMapOptions.SyncStrategy;
+import org.redisson.api.LocalCachedMapOptions.UpdateMode;
 import org.redisson.api.RFuture;
 import org.redisson.api.RLocalCachedMap;
 import org.redisson.api.RedissonClient;
@@ -36,11 +41,17 @@ import org.redisson.client.protocol.decoder.ObjectSetReplayDecoder;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.eviction.EvictionScheduler;
 import org.redisson.misc.CompletableFutureWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SuppressWarnings("serial")
 public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements RLocalCachedMap<K, V> {
@@ -52,17 +63,32 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     private static final RedisCommand<Set<Object>> ALL_VALUES = new RedisCommand<Set<Object>>("EVAL", new MapValueDecoder(new ObjectSetReplayDecoder<Object>()));
     private static final RedisCommand<Set<Entry<Object, Object>>> ALL_ENTRIES = new RedisCommand<>("EVAL", new ObjectMapEntryReplayDecoder());
     private static final RedisCommand<Map<Object, Object>> ALL_MAP = new RedisCommand<Map<Object, Object>>("EVAL", new ObjectMapReplayDecoder());
+
+    private static final Logger log = LoggerFactory.getLogger(RedissonLocalCachedMap.class);
+
+    private static final int SNAPSHOT_BATCH_SIZE = 500;
+    private static final int STATS_MEMORY_SAMPLE_SIZE = 100;
     
     private long cacheUpdateLogTime = TimeUnit.MINUTES.toMillis(10);
     private byte[] instanceId;
     private ConcurrentMap<CacheKey, CacheValue> cache;
     private int invalidateEntryOnChange;
     private SyncStrategy syncStrategy;
+    private UpdateMode updateMode;
+    private int updateCompressionThreshold;
     private LocalCachedMapOptions.StoreMode storeMode;
     private boolean storeCacheMiss;
 
     private LocalCacheListener listener;
     private LocalCacheView<K, V> localCacheView;
+    private InvalidationCoalescer invalidationCoalescer;
+    private int updatesStreamMaxLength;
+    private File snapshotFile;
+    private volatile Timeout snapshotTimeout;
+    private volatile boolean snapshotStopped;
+    // keys invalidated while snapshot is loaded
+    private volatile Set<CacheKey> snapshotInvalidatedKeys;
+    private final AtomicLong cacheClears = new AtomicLong();
     
     public RedissonLocalCachedMap(CommandAsyncExecutor commandExecutor, String name, LocalCachedMapOptions<K, V> options, 
             EvictionScheduler evictionScheduler, RedissonClient redisson, WriteBehindService writeBehindService) {
@@ -78,6 +104,8 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
     private void init(LocalCachedMapOptions<K, V> options, RedissonClient redisson, EvictionScheduler evictionScheduler) {
         syncStrategy = options.getSyncStrategy();
+        updateMode = options.getUpdateMode();
+        updateCompressionThreshold = options.getUpdateCompressionThreshold();
         storeMode = options.getStoreMode();
         storeCacheMiss = options.isStoreCacheMiss();
 
@@ -93,6 +121,36 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 cachePut(cacheKey, key, value);
             }
 
+            @Override
+            protected void invalidate(CacheKey key) {
+                snapshotKeyInvalidated(key);
+                super.invalidate(key);
+            }
+
+            @Override
+            public void clearCache() {
+                cacheClears.incrementAndGet();
+                super.clearCache();
+            }
+
+            @Override
+            protected byte[] getCachedValueState(byte[] key) {
+                ByteBuf keyBuf = Unpooled.wrappedBuffer(key);
+                CacheKey cacheKey = localCacheView.toCacheKey(keyBuf);
+                keyBuf.release();
+
+                CacheValue value = cache.get(cacheKey);
+                if (value == null || value.getValue() == null) {
+                    return null;
+                }
+                ByteBuf valueBuf = encodeMapValue(value.getValue());
+                try {
+                    return ByteBufUtil.getBytes(valueBuf);
+                } finally {
+                    valueBuf.release();
+                }
+            }
+
         };
         listener.add(cache);
         instanceId = listener.getInstanceId();
@@ -104,13 +162,277 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             invalidateEntryOnChange = 2;
             evictionScheduler.schedule(listener.getUpdatesLogName(), cacheUpdateLogTime + TimeUnit.MINUTES.toMillis(1));
         }
+        if (options.getReconnectionStrategy() == ReconnectionStrategy.STREAM) {
+            invalidateEntryOnChange = 3;
+            updatesStreamMaxLength = options.getUpdatesStreamMaxLength();
+        }
+        if (options.getSyncStrategy() == SyncStrategy.INVALIDATE
+                && options.getInvalidationBatchWindowInMillis() > 0) {
+            invalidationCoalescer = new InvalidationCoalescer(commandExecutor.getConnectionManager(),
+                                            options.getInvalidationBatchWindowInMillis(), options.getInvalidationBatchSize()) {
+                @Override
+                protected void publish(byte[][] keyHashes) {
+                    publishInvalidation(keyHashes);
+                }
+            };
+        }
+        if (options.getSnapshotDirectory() != null) {
+            snapshotFile = LocalCacheSnapshot.getFile(options.getSnapshotDirectory(), getRawName());
+            snapshotInvalidatedKeys = ConcurrentHashMap.newKeySet();
+            // decoding and validation are executed in background to keep map creation fast
+            commandExecutor.getConnectionManager().getExecutor().execute(this::loadSnapshot);
+            if (options.getSnapshotIntervalInMillis() > 0) {
+                scheduleSnapshot(options.getSnapshotIntervalInMillis());
+            }
+        }
+    }
+
+    private void scheduleSnapshot(long interval) {
+        snapshotTimeout = commandExecutor.getConnectionManager().newTimeout(t -> {
+            // encoding and file I/O are executed outside of timer thread
+            commandExecutor.getConnectionManager().getExecutor().execute(() -> {
+                if (snapshotStopped) {
+                    return;
+                }
+
+                try {
+                    writeSnapshot();
+                } catch (Exception e) {
+                    log.error("Unable to save local cache snapshot to {}", snapshotFile, e);
+                }
+                if (!snapshotStopped) {
+                    scheduleSnapshot(interval);
+                }
+            });
+        }, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void loadSnapshot() {
+        LocalCacheSnapshot snapshot;
+        try {
+            snapshot = LocalCacheSnapshot.read(snapshotFile, codec.getClass().getName());
+        } catch (IOException e) {
+            log.error("Unable to read local cache snapshot from {}", snapshotFile, e);
+            snapshotInvalidatedKeys = null;
+            return;
+        }
+        if (snapshot == null) {
+            snapshotInvalidatedKeys = null;
+            return;
+        }
+
+        List<LocalCacheSnapshot.Entry> entries = snapshot.getEntries();
+        List<Map.Entry<CacheKey, CacheValue>> values = new ArrayList<>(entries.size());
+        for (LocalCacheSnapshot.Entry entry : entries) {
+            ByteBuf keyBuf = Unpooled.wrappedBuffer(entry.getKey());
+            ByteBuf valueBuf = Unpooled.wrappedBuffer(entry.getValue());
+            try {
+                CacheKey cacheKey = localCacheView.toCacheKey(keyBuf);
+                Object key = codec.getMapKeyDecoder().decode(keyBuf, null);
+                Object value = codec.getMapValueDecoder().decode(valueBuf, null);
+                values.add(new AbstractMap.SimpleEntry<>(cacheKey, new CacheValue(key, value)));
+            } catch (IOException e) {
+                log.error("Unable to decode local cache snapshot entry from {}", snapshotFile, e);
+                snapshotInvalidatedKeys = null;
+                return;
+            } finally {
+                keyBuf.release();
+                valueBuf.release();
+            }
+        }
+
+        if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
+            long clears = cacheClears.get();
+            for (Map.Entry<CacheKey, CacheValue> value : values) {
+                cacheSnapshotEntry(value, clears);
+            }
+            snapshotInvalidatedKeys = null;
+            return;
+        }
+
+        validateSnapshot(entries, values, 0);
+    }
+
+    /*
+     * Snapshot entry is loaded into local cache only if digest of its value
+     * is equal to digest of value stored in Redis.
+     */
+    private void validateSnapshot(List<LocalCacheSnapshot.Entry> entries, List<Map.Entry<CacheKey, CacheValue>> values, int offset) {
+        if (offset >= entries.size()) {
+            snapshotInvalidatedKeys = null;
+            return;
+        }
+
+        int end = Math.min(offset + SNAPSHOT_BATCH_SIZE, entries.size());
+        List<Object> params = new ArrayList<>((end - offset) * 2);
+        for (int i = offset; i < end; i++) {
+            LocalCacheSnapshot.Entry entry = entries.get(i);
+            params.add(entry.getKey());
+            params.add(digest(entry.getValue()));
+        }
+
+        RFuture<List<Object>> future = commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local result = {}; "
+              + "for i = 1, #ARGV, 2 do "
+                  + "local v = redis.call('hget', KEYS[1], ARGV[i]); "
+                  + "if v ~= false and redis.sha1hex(v) == ARGV[i+1] then "
+                      + "table.insert(result, (i + 1) / 2); "
+                  + "end; "
+              + "end; "
+              + "return result;",
+                Collections.singletonList(getRawName()), params.toArray());
+        long clears = cacheClears.get();
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                log.error("Unable to validate local cache snapshot entries", e);
+                snapshotInvalidatedKeys = null;
+                return;
+            }
+
+            for (Object index : r) {
+                Map.Entry<CacheKey, CacheValue> value = values.get(offset + ((Number) index).intValue() - 1);
+                cacheSnapshotEntry(value, clears);
+            }
+            validateSnapshot(entries, values, end);
+        });
+    }
+
+    /*
+     * Entry is put before invalidations are checked and removed if its key has been
+     * invalidated or cache has been cleared since validation, because invalidation
+     * is recorded before cached entry is removed.
+     */
+    private void cacheSnapshotEntry(Map.Entry<CacheKey, CacheValue> entry, long clears) {
+        Set<CacheKey> invalidatedKeys = snapshotInvalidatedKeys;
+        if (invalidatedKeys == null || invalidatedKeys.contains(entry.getKey())) {
+            return;
+        }
+
+        CacheValue value = entry.getValue();
+        if (cachePutIfAbsent(entry.getKey(), value.getKey(), value.getValue()) != null) {
+            return;
+        }
+        if (invalidatedKeys.contains(entry.getKey()) || cacheClears.get() != clears) {
+            cache.remove(entry.getKey(), value);
+        }
+    }
+
+    private void snapshotKeyInvalidated(CacheKey key) {
+        Set<CacheKey> invalidatedKeys = snapshotInvalidatedKeys;
+        if (invalidatedKeys != null) {
+            invalidatedKeys.add(key);
+        }
+    }
+
+    private CacheValue cacheRemove(CacheKey cacheKey) {
+        snapshotKeyInvalidated(cacheKey);
+        return cache.remove(cacheKey);
+    }
+
+    private static String digest(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return ByteBufUtil.hexDump(digest.digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        List<LocalCacheSnapshot.Entry> entries = new ArrayList<>(cache.size());
+        for (CacheValue value : cache.values()) {
+            if (value == null || value.getValue() == null) {
+                continue;
+            }
+
+            ByteBuf key = encodeMapKey(value.getKey());
+            ByteBuf val = encodeMapValue(value.getValue());
+            try {
+                entries.add(new LocalCacheSnapshot.Entry(ByteBufUtil.getBytes(key), ByteBufUtil.getBytes(val)));
+            } finally {
+                key.release();
+                val.release();
+            }
+        }
+
+        new LocalCacheSnapshot(System.currentTimeMillis(), entries).write(snapshotFile, codec.getClass().getName());
+    }
+
+    @Override
+    public void saveCacheSnapshot() {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("snapshotDirectory isn't defined in LocalCachedMapOptions");
+        }
+
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to save local cache snapshot to " + snapshotFile, e);
+        }
+    }
+
+    private void publishInvalidation(byte[][] keyHashes) {
+        listener.publishInvalidation(keyHashes);
+    }
+
+    /*
+     * Update log entry argument is a score of sorted set entry for LOAD reconnection strategy
+     * and max length of stream for STREAM reconnection strategy.
+     */
+    private long updateLogArg() {
+        if (invalidateEntryOnChange == 3) {
+            return updatesStreamMaxLength;
+        }
+        return System.currentTimeMillis();
+    }
+
+    /*
+     * Invalidation messages aren't published by write scripts
+     * if coalescer is used. Coalescer publishes them once write completed.
+     */
+    private int invalidateEntryOnWrite() {
+        if (invalidationCoalescer != null) {
+            return 0;
+        }
+        return invalidateEntryOnChange;
+    }
+
+    private <T> RFuture<T> coalesceInvalidation(RFuture<T> future, byte[]... keyHashes) {
+        if (invalidationCoalescer == null) {
+            return future;
+        }
+
+        future.whenComplete((r, e) -> {
+            if (e == null) {
+                invalidationCoalescer.add(keyHashes);
+            }
+        });
+        return future;
+    }
+
+    private void publishInvalidation(CacheKey cacheKey) {
+        if (invalidationCoalescer != null) {
+            invalidationCoalescer.add(cacheKey.getKeyHash());
+            return;
+        }
+
+        LocalCachedMapInvalidate msg = new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash());
+        listener.getInvalidationTopic().publishAsync(msg);
     }
 
     public LocalCacheView<K, V> getLocalCacheView() {
         return localCacheView;
     }
 
+    public LocalCacheListener getLocalCacheListener() {
+        return listener;
+    }
+
     private void broadcastLocalCacheStore(V value, ByteBuf mapKey, CacheKey cacheKey) {
+        broadcastLocalCacheStore(value, mapKey, cacheKey, null);
+    }
+
+    private void broadcastLocalCacheStore(V value, ByteBuf mapKey, CacheKey cacheKey, CacheValue prevValue) {
         if (storeMode != LocalCachedMapOptions.StoreMode.LOCALCACHE) {
             return;
         }
@@ -119,7 +441,12 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             Object msg;
             if (syncStrategy == SyncStrategy.UPDATE) {
                 ByteBuf mapValue = encodeMapValue(value);
-                msg = new LocalCachedMapUpdate(instanceId, mapKey, mapValue);
+                msg = new LocalCachedMapUpdate(instanceId, createUpdateEntry(mapKey, mapValue, prevValue));
+                mapValue.release();
+            } else if (invalidationCoalescer != null) {
+                invalidationCoalescer.add(cacheKey.getKeyHash());
+                mapKey.release();
+                return;
             } else {
                 msg = new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash());
             }
@@ -128,11 +455,30 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         mapKey.release();
     }
 
+    /*
+     * Previous value is used to create diff in DELTA update mode.
+     */
+    private LocalCachedMapUpdate.Entry createUpdateEntry(ByteBuf mapKey, ByteBuf mapValue, CacheValue prevValue) {
+        ByteBuf prevState = null;
+        if (updateMode == UpdateMode.DELTA
+                && prevValue != null && prevValue.getValue() != null) {
+            prevState = encodeMapValue(prevValue.getValue());
+        }
+        try {
+            return LocalCachedMapDelta.createEntry(mapKey, mapValue, prevState, updateCompressionThreshold);
+        } finally {
+            if (prevState != null) {
+                prevState.release();
+            }
+        }
+    }
+
     private CacheValue cachePut(CacheKey cacheKey, Object key, Object value) {
         if (listener.isDisabled(cacheKey)) {
             return null;
         }
         
+        localCacheView.recordPut();
         return cache.put(cacheKey, new CacheValue(key, value));
     }
 
@@ -141,7 +487,11 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             return null;
         }
 
-        return cache.putIfAbsent(cacheKey, new CacheValue(key, value));
+        CacheValue prevValue = cache.putIfAbsent(cacheKey, new CacheValue(key, value));
+        if (prevValue == null) {
+            localCacheView.recordPut();
+        }
+        return prevValue;
     }
 
     private CacheValue cachePutIfExists(CacheKey cacheKey, Object key, Object value) {
@@ -153,6 +503,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             CacheValue v = cache.get(cacheKey);
             if (v != null) {
                 if (cache.replace(cacheKey, v, new CacheValue(key, value))) {
+                    localCacheView.recordPut();
                     return v;
                 }
             } else {
@@ -200,13 +551,16 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         CacheKey cacheKey = localCacheView.toCacheKey(key);
         CacheValue cacheValue = cache.get(cacheKey);
         if (cacheValue == null) {
+            localCacheView.recordMiss();
             if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
                 if (hasNoLoader()) {
                     return new CompletableFutureWrapper<>(false);
                 }
 
+                long startTime = System.nanoTime();
                 CompletableFuture<V> future = loadValue((K) key, false);
                 CompletableFuture<Boolean> f = future.thenApply(value -> {
+                    localCacheView.recordLoad(System.nanoTime() - startTime);
                     if (storeCacheMiss || value != null) {
                         cachePut(cacheKey, key, value);
                     }
@@ -215,8 +569,10 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 return new CompletableFutureWrapper<>(f);
             }
 
+            long startTime = System.nanoTime();
             CompletableFuture<V> promise = new CompletableFuture<>();
             promise.thenAccept(value -> {
+                localCacheView.recordLoad(System.nanoTime() - startTime);
                 if (storeCacheMiss || value != null) {
                     cachePut(cacheKey, key, value);
                 }
@@ -224,6 +580,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             return containsKeyAsync(key, promise);
         }
 
+        localCacheView.recordHit();
         return new CompletableFutureWrapper<>(cacheValue.getValue() != null);
     }
 
@@ -249,9 +606,12 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         CacheKey cacheKey = localCacheView.toCacheKey(key);
         CacheValue cacheValue = cache.get(cacheKey);
         if (cacheValue != null && (storeCacheMiss || cacheValue.getValue() != null)) {
+            localCacheView.recordHit();
             return new CompletableFutureWrapper<>((V) cacheValue.getValue());
         }
 
+        localCacheView.recordMiss();
+        long startTime = System.nanoTime();
         if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
             if (hasNoLoader()) {
                 return new CompletableFutureWrapper((Void) null);
@@ -259,6 +619,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
             CompletableFuture<V> future = loadValue((K) key, false);
             CompletableFuture<V> f = future.thenApply(value -> {
+                localCacheView.recordLoad(System.nanoTime() - startTime);
                 if (storeCacheMiss || value != null) {
                     cachePut(cacheKey, key, value);
                 }
@@ -269,6 +630,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
         RFuture<V> future = super.getAsync((K) key);
         CompletionStage<V> result = future.thenApply(value -> {
+            localCacheView.recordLoad(System.nanoTime() - startTime);
             if (storeCacheMiss || value != null) {
                 cachePut(cacheKey, key, value);
             }
@@ -278,14 +640,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     }
     
     protected static byte[] generateLogEntryId(byte[] keyHash) {
-        byte[] result = new byte[keyHash.length + 1 + 8];
-        result[16] = ':';
-        byte[] id = new byte[8];
-        ThreadLocalRandom.current().nextBytes(id);
-        
-        System.arraycopy(keyHash, 0, result, 0, keyHash.length);
-        System.arraycopy(id, 0, result, 17, id.length);
-        return result;
+        return LocalCacheListener.generateLogEntryId(keyHash);
     }
 
 
@@ -294,7 +649,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         ByteBuf mapKey = encodeMapKey(key);
         CacheKey cacheKey = localCacheView.toCacheKey(mapKey);
         CacheValue prevValue = cachePut(cacheKey, key, value);
-        broadcastLocalCacheStore(value, mapKey, cacheKey);
+        broadcastLocalCacheStore(value, mapKey, cacheKey, prevValue);
 
         if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
             V val = null;
@@ -306,8 +661,8 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
         ByteBuf mapValue = encodeMapValue(value);
         byte[] entryId = generateLogEntryId(cacheKey.getKeyHash());
-        ByteBuf msg = createSyncMessage(mapKey, mapValue, cacheKey);
-        return commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_MAP_VALUE,
+        ByteBuf msg = createSyncMessage(mapKey, mapValue, cacheKey, prevValue);
+        RFuture<V> future = commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_MAP_VALUE,
                   "local v = redis.call('hget', KEYS[1], ARGV[1]); "
                 + "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]); "
                 + "if ARGV[4] == '1' then "
@@ -317,14 +672,27 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                     + "redis.call('zadd', KEYS[3], ARGV[5], ARGV[6]);"
                     + "redis.call('publish', KEYS[2], ARGV[3]); "
                 + "end;"
+                + "if ARGV[4] == '3' then "
+                    + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[5], '*', 'h', ARGV[6]);"
+                    + "redis.call('publish', KEYS[2], ARGV[3]); "
+                + "end;"
                 + "return v; ",
                 Arrays.<Object>asList(getRawName(), listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-                mapKey, mapValue, msg, invalidateEntryOnChange, System.currentTimeMillis(), entryId);
+                mapKey, mapValue, msg, invalidateEntryOnWrite(), updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
 
     protected ByteBuf createSyncMessage(ByteBuf mapKey, ByteBuf mapValue, CacheKey cacheKey) {
+        CacheValue prevValue = null;
+        if (syncStrategy == SyncStrategy.UPDATE && updateMode == UpdateMode.DELTA) {
+            prevValue = cache.get(cacheKey);
+        }
+        return createSyncMessage(mapKey, mapValue, cacheKey, prevValue);
+    }
+
+    protected ByteBuf createSyncMessage(ByteBuf mapKey, ByteBuf mapValue, CacheKey cacheKey, CacheValue prevValue) {
         if (syncStrategy == SyncStrategy.UPDATE) {
-            return encode(new LocalCachedMapUpdate(instanceId, mapKey, mapValue));
+            return encode(new LocalCachedMapUpdate(instanceId, createUpdateEntry(mapKey, mapValue, prevValue)));
         }
         return encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
     }
@@ -335,16 +703,16 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         CacheKey cacheKey = localCacheView.toCacheKey(encodedKey);
 
         CacheValue prevValue = cachePut(cacheKey, key, value);
-        broadcastLocalCacheStore(value, encodedKey, cacheKey);
+        broadcastLocalCacheStore(value, encodedKey, cacheKey, prevValue);
         if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
             return new CompletableFutureWrapper<>(prevValue == null);
         }
 
         ByteBuf encodedValue = encodeMapValue(value);
         byte[] entryId = generateLogEntryId(cacheKey.getKeyHash());
-        ByteBuf msg = createSyncMessage(encodedKey, encodedValue, cacheKey);
+        ByteBuf msg = createSyncMessage(encodedKey, encodedValue, cacheKey, prevValue);
 
-        return commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_BOOLEAN,
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_BOOLEAN,
                   "if ARGV[4] == '1' then "
                     + "redis.call('publish', KEYS[2], ARGV[3]); "
                 + "end;"
@@ -352,17 +720,37 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                     + "redis.call('zadd', KEYS[3], ARGV[5], ARGV[6]);"
                     + "redis.call('publish', KEYS[2], ARGV[3]); "
                 + "end;"
+                + "if ARGV[4] == '3' then "
+                    + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[5], '*', 'h', ARGV[6]);"
+                    + "redis.call('publish', KEYS[2], ARGV[3]); "
+                + "end;"
                 + "if redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) == 0 then "
                   + "return 0; "
                 + "end; "
                 + "return 1; ",
                 Arrays.<Object>asList(getRawName(), listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-                encodedKey, encodedValue, msg, invalidateEntryOnChange, System.currentTimeMillis(), entryId);
+                encodedKey, encodedValue, msg, invalidateEntryOnWrite(), updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
     
     @Override
     public void destroy() {
         super.destroy();
+        if (invalidationCoalescer != null) {
+            invalidationCoalescer.flush();
+        }
+        if (snapshotFile != null) {
+            snapshotStopped = true;
+            Timeout timeout = snapshotTimeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            try {
+                writeSnapshot();
+            } catch (Exception e) {
+                log.error("Unable to save local cache snapshot to {}", snapshotFile, e);
+            }
+        }
         cache.clear();
         listener.remove();
     }
@@ -371,12 +759,11 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     protected RFuture<V> removeOperationAsync(K key) {
         ByteBuf keyEncoded = encodeMapKey(key);
         CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-        CacheValue value = cache.remove(cacheKey);
+        CacheValue value = cacheRemove(cacheKey);
 
         if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
             keyEncoded.release();
-            LocalCachedMapInvalidate msg = new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash());
-            listener.getInvalidationTopic().publishAsync(msg);
+            publishInvalidation(cacheKey);
 
             V val = null;
             if (value != null) {
@@ -388,7 +775,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         byte[] entryId = generateLogEntryId(cacheKey.getKeyHash());
         ByteBuf msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
 
-        return commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_MAP_VALUE,
+        RFuture<V> future = commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_MAP_VALUE,
                 "local v = redis.call('hget', KEYS[1], ARGV[1]); "
                 + "if redis.call('hdel', KEYS[1], ARGV[1]) == 1 then "
                     + "if ARGV[3] == '1' then "
@@ -398,10 +785,15 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                         + "redis.call('zadd', KEYS[3], ARGV[4], ARGV[5]);"
                         + "redis.call('publish', KEYS[2], ARGV[2]); "
                     + "end;"
+                    + "if ARGV[3] == '3' then "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[4], '*', 'h', ARGV[5]);"
+                        + "redis.call('publish', KEYS[2], ARGV[2]); "
+                    + "end;"
                 + "end; "
                 + "return v",
                 Arrays.<Object>asList(getRawName(), listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-                keyEncoded, msgEncoded, invalidateEntryOnChange, System.currentTimeMillis(), entryId);
+                keyEncoded, msgEncoded, invalidateEntryOnWrite(), updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
 
     @Override
@@ -410,14 +802,14 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             return new CompletableFutureWrapper<>(Collections.emptyList());
         }
 
-            if (invalidateEntryOnChange == 1) {
+            if (invalidateEntryOnWrite() == 1) {
                 List<Object> params = new ArrayList<Object>(keys.length*2);
                 for (K k : keys) {
                     ByteBuf keyEncoded = encodeMapKey(k);
                     params.add(keyEncoded);
                     
                     CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-                    cache.remove(cacheKey);
+                    cacheRemove(cacheKey);
                     ByteBuf msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
                     params.add(msgEncoded);
                 }
@@ -436,15 +828,16 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                                 params.toArray());            
             }
             
-            if (invalidateEntryOnChange == 2) {
-                List<Object> params = new ArrayList<Object>(keys.length*3);
-                params.add(System.currentTimeMillis());
+            if (invalidateEntryOnWrite() >= 2) {
+                List<Object> params = new ArrayList<Object>(keys.length*3 + 2);
+                params.add(invalidateEntryOnWrite());
+                params.add(updateLogArg());
                 for (K k : keys) {
                     ByteBuf keyEncoded = encodeMapKey(k);
                     params.add(keyEncoded);
                     
                     CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-                    cache.remove(cacheKey);
+                    cacheRemove(cacheKey);
                     ByteBuf msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
                     params.add(msgEncoded);
                     
@@ -454,10 +847,14 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
                                 "local result = {}; " + 
-                                "for j = 2, #ARGV, 3 do "
+                                "for j = 3, #ARGV, 3 do "
                                 + "local val = redis.call('hdel', KEYS[1], ARGV[j]);" 
                                 + "if val == 1 then "
-                                    + "redis.call('zadd', KEYS[3], ARGV[1], ARGV[j+2]);"                                
+                                    + "if ARGV[1] == '2' then "
+                                        + "redis.call('zadd', KEYS[3], ARGV[2], ARGV[j+2]);"
+                                    + "else "
+                                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[2], '*', 'h', ARGV[j+2]);"
+                                    + "end;"
                                     + "redis.call('publish', KEYS[2], ARGV[j+1]); "
                                 + "end;"
                                 + "table.insert(result, val);"
@@ -468,12 +865,15 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             }
     
         List<Object> params = new ArrayList<Object>(keys.length);
+        byte[][] hashes = new byte[keys.length][];
+        int i = 0;
         for (K k : keys) {
             ByteBuf keyEncoded = encodeMapKey(k);
             params.add(keyEncoded);
             
             CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-            cache.remove(cacheKey);
+            cacheRemove(cacheKey);
+            hashes[i++] = cacheKey.getKeyHash();
         }
     
         RFuture<List<Long>> future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
@@ -485,7 +885,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                     + "return result;",
                       Arrays.<Object>asList(getRawName()),
                       params.toArray());
-        return future;
+        return coalesceInvalidation(future, hashes);
     }
     
     @Override
@@ -494,24 +894,23 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             long count = 0;
             for (K k : keys) {
                 CacheKey cacheKey = localCacheView.toCacheKey(k);
-                CacheValue val = cache.remove(cacheKey);
+                CacheValue val = cacheRemove(cacheKey);
                 if (val != null) {
                     count++;
-                    LocalCachedMapInvalidate msg = new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash());
-                    listener.getInvalidationTopic().publishAsync(msg);
+                    publishInvalidation(cacheKey);
                 }
             }
             return new CompletableFutureWrapper<>(count);
         }
 
-            if (invalidateEntryOnChange == 1) {
+            if (invalidateEntryOnWrite() == 1) {
                 List<Object> params = new ArrayList<Object>(keys.length*2);
                 for (K k : keys) {
                     ByteBuf keyEncoded = encodeMapKey(k);
                     params.add(keyEncoded);
                     
                     CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-                    cache.remove(cacheKey);
+                    cacheRemove(cacheKey);
                     ByteBuf msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
                     params.add(msgEncoded);
                 }
@@ -529,15 +928,16 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                                 params.toArray());            
             }
             
-            if (invalidateEntryOnChange == 2) {
-                List<Object> params = new ArrayList<Object>(keys.length*3);
-                params.add(System.currentTimeMillis());
+            if (invalidateEntryOnWrite() >= 2) {
+                List<Object> params = new ArrayList<Object>(keys.length*3 + 2);
+                params.add(invalidateEntryOnWrite());
+                params.add(updateLogArg());
                 for (K k : keys) {
                     ByteBuf keyEncoded = encodeMapKey(k);
                     params.add(keyEncoded);
                     
                     CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-                    cache.remove(cacheKey);
+                    cacheRemove(cacheKey);
                     ByteBuf msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
                     params.add(msgEncoded);
                     
@@ -547,9 +947,13 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                 
                 return commandExecutor.evalWriteAsync(getRawName(), codec, RedisCommands.EVAL_LONG,
                                 "local counter = 0; " + 
-                                "for j = 2, #ARGV, 3 do " 
+                                "for j = 3, #ARGV, 3 do " 
                                 + "if redis.call('hdel', KEYS[1], ARGV[j]) == 1 then "
-                                    + "redis.call('zadd', KEYS[3], ARGV[1], ARGV[j+2]);"                                
+                                    + "if ARGV[1] == '2' then "
+                                        + "redis.call('zadd', KEYS[3], ARGV[2], ARGV[j+2]);"
+                                    + "else "
+                                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[2], '*', 'h', ARGV[j+2]);"
+                                    + "end;"
                                     + "redis.call('publish', KEYS[2], ARGV[j+1]); "
                                     + "counter = counter + 1;"
                                 + "end;"
@@ -561,15 +965,19 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
         List<Object> params = new ArrayList<Object>(keys.length + 1);
         params.add(getRawName());
+        byte[][] hashes = new byte[keys.length][];
+        int i = 0;
         for (K k : keys) {
             ByteBuf keyEncoded = encodeMapKey(k);
             params.add(keyEncoded);
             
             CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-            cache.remove(cacheKey);
+            cacheRemove(cacheKey);
+            hashes[i++] = cacheKey.getKeyHash();
         }
 
-        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.HDEL, params.toArray());
+        RFuture<Long> future = commandExecutor.writeAsync(getRawName(), codec, RedisCommands.HDEL, params.toArray());
+        return coalesceInvalidation(future, hashes);
     }
 
     @Override
@@ -580,7 +988,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     
     @Override
     public RFuture<Boolean> deleteAsync() {
-        cache.clear();
+        listener.clearCache();
         ByteBuf msgEncoded = encode(new LocalCachedMapClear(instanceId, listener.generateId(), false));
         return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if redis.call('del', KEYS[1], KEYS[3]) > 0 and ARGV[2] ~= '0' then "
@@ -606,15 +1014,19 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             CacheKey cacheKey = localCacheView.toCacheKey(key);
             CacheValue value = cache.get(cacheKey);
             if (value != null) {
+                localCacheView.recordHit();
                 if (value.getValue() != null) {
                     result.put(key, (V) value.getValue());
                 }
                 iterator.remove();
             } else {
+                localCacheView.recordMiss();
                 missedKeys.add(key);
             }
         }
 
+        long startTime = System.nanoTime();
+
         if (storeMode == LocalCachedMapOptions.StoreMode.LOCALCACHE) {
             if (hasNoLoader()) {
                 return new CompletableFutureWrapper<>(result);
@@ -623,6 +1035,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             if (!missedKeys.isEmpty()) {
                 CompletionStage<Map<K, V>> f = loadAllMapAsync(missedKeys.spliterator(), false, 1);
                 CompletionStage<Map<K, V>> ff = f.thenApply(map -> {
+                    localCacheView.recordLoad(System.nanoTime() - startTime);
                     result.putAll(map);
                     return result;
                 });
@@ -633,6 +1046,9 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
 
         RFuture<Map<K, V>> future = super.getAllAsync(missedKeys);
         CompletionStage<Map<K, V>> f = future.thenApply(map -> {
+            if (!missedKeys.isEmpty()) {
+                localCacheView.recordLoad(System.nanoTime() - startTime);
+            }
             result.putAll(map);
             cacheMap(map);
 
@@ -662,15 +1078,16 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
                 ByteBuf keyEncoded = encodeMapKey(entry.getKey());
                 CacheKey cacheKey = localCacheView.toCacheKey(keyEncoded);
-                cachePut(cacheKey, entry.getKey(), entry.getValue());
+                CacheValue prevValue = cachePut(cacheKey, entry.getKey(), entry.getValue());
 
-                broadcastLocalCacheStore(entry.getValue(), keyEncoded, cacheKey);
+                broadcastLocalCacheStore(entry.getValue(), keyEncoded, cacheKey, prevValue);
             }
             return new CompletableFutureWrapper((Void) null);
         }
 
         List<Object> params = new ArrayList<Object>(map.size()*3);
-        params.add(invalidateEntryOnChange);
+        int invalidateEntryOnWrite = invalidateEntryOnWrite();
+        params.add(invalidateEntryOnWrite);
         params.add(map.size()*2);
         byte[][] hashes = new byte[map.size()][];
         int i = 0;
@@ -691,19 +1108,23 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
             for (int j = 2; j < params.size(); j += 2) {
                 ByteBuf key = (ByteBuf) params.get(j);
                 ByteBuf value = (ByteBuf) params.get(j+1);
-                entries.add(new LocalCachedMapUpdate.Entry(key, value));
-                
+                CacheValue prevValue = null;
+                if (updateMode == UpdateMode.DELTA) {
+                    prevValue = cache.get(new CacheKey(hashes[j/2 - 1]));
+                }
+                entries.add(createUpdateEntry(key, value, prevValue));
+
             }
             msgEncoded = encode(new LocalCachedMapUpdate(instanceId, entries));
-        } else if (syncStrategy == SyncStrategy.INVALIDATE) {
+        } else if (syncStrategy == SyncStrategy.INVALIDATE && invalidationCoalescer == null) {
             msgEncoded = encode(new LocalCachedMapInvalidate(instanceId, hashes));
         }
         
-        if (invalidateEntryOnChange == 2) {
-            long time = System.currentTimeMillis();
+        if (invalidateEntryOnWrite >= 2) {
+            long logArg = updateLogArg();
             for (byte[] hash : hashes) {
                 byte[] entryId = generateLogEntryId(hash);
-                params.add(time);
+                params.add(logArg);
                 params.add(entryId);
             }
         }
@@ -724,9 +1145,16 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                         + "redis.call('zadd', KEYS[3], unpack(ARGV, i, math.min(i+4999, #ARGV - 1))); "
                     + "end; "
                     + "redis.call('publish', KEYS[2], ARGV[#ARGV]); "
+                + "end;"
+                + "if ARGV[1] == '3' then "
+                    + "for i=tonumber(ARGV[2]) + 2 + 1, #ARGV - 1, 2 do "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[i], '*', 'h', ARGV[i+1]); "
+                    + "end; "
+                    + "redis.call('publish', KEYS[2], ARGV[#ARGV]); "
                 + "end;",
                 Arrays.asList(getRawName(), listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
                 params.toArray());
+        coalesceInvalidation(future, hashes);
 
         CompletionStage<Void> f = future.thenApply(res -> {
             cacheMap(map);
@@ -751,9 +1179,14 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                    + "redis.call('zadd', KEYS[3], ARGV[5], ARGV[6]);"
                    + "redis.call('publish', KEYS[2], ARGV[4]); "
               + "end;"
+              + "if ARGV[3] == '3' then "
+                   + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[5], '*', 'h', ARGV[6]);"
+                   + "redis.call('publish', KEYS[2], ARGV[4]); "
+              + "end;"
               + "return result; ",
               Arrays.<Object>asList(getRawName(), listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-              keyState, new BigDecimal(value.toString()).toPlainString(), invalidateEntryOnChange, msg, System.currentTimeMillis(), entryId);
+              keyState, new BigDecimal(value.toString()).toPlainString(), invalidateEntryOnWrite(), msg, updateLogArg(), entryId);
+        coalesceInvalidation(future, cacheKey.getKeyHash());
 
         CompletionStage<V> f = future.thenApply(res -> {
             if (res != null) {
@@ -1002,7 +1435,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         byte[] entryId = generateLogEntryId(cacheKey.getKeyHash());
         ByteBuf msg = createSyncMessage(keyState, valueState, cacheKey);
         String name = getRawName(key);
-        return commandExecutor.evalWriteAsync(name, codec, RedisCommands.EVAL_BOOLEAN,
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(name, codec, RedisCommands.EVAL_BOOLEAN,
                 "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then "
                     + "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]); "
                     
@@ -1013,13 +1446,18 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                         + "redis.call('zadd', KEYS[3], ARGV[5], ARGV[6]);"
                         + "redis.call('publish', KEYS[2], ARGV[4]); "
                     + "end;"
+                    + "if ARGV[3] == '3' then "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[5], '*', 'h', ARGV[6]);"
+                        + "redis.call('publish', KEYS[2], ARGV[4]); "
+                    + "end;"
 
                     + "return 1; "
                 + "else "
                     + "return 0; "
                 + "end",
                 Arrays.<Object>asList(name, listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-                keyState, valueState, invalidateEntryOnChange, msg, System.currentTimeMillis(), entryId);
+                keyState, valueState, invalidateEntryOnWrite(), msg, updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
     
     @Override
@@ -1030,7 +1468,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         byte[] entryId = generateLogEntryId(cacheKey.getKeyHash());
         ByteBuf msg = createSyncMessage(keyState, valueState, cacheKey);
         String name = getRawName(key);
-        return commandExecutor.evalWriteAsync(name, codec, RedisCommands.EVAL_MAP_VALUE,
+        RFuture<V> future = commandExecutor.evalWriteAsync(name, codec, RedisCommands.EVAL_MAP_VALUE,
                 "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then "
                     + "local v = redis.call('hget', KEYS[1], ARGV[1]); "
                     + "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]); "
@@ -1042,13 +1480,18 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                         + "redis.call('zadd', KEYS[3], ARGV[5], ARGV[6]);"
                         + "redis.call('publish', KEYS[2], ARGV[4]); "
                     + "end;"
+                    + "if ARGV[3] == '3' then "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[5], '*', 'h', ARGV[6]);"
+                        + "redis.call('publish', KEYS[2], ARGV[4]); "
+                    + "end;"
 
                     + "return v; "
                 + "else "
                     + "return nil; "
                 + "end",
                 Arrays.<Object>asList(name, listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-                keyState, valueState, invalidateEntryOnChange, msg, System.currentTimeMillis(), entryId);
+                keyState, valueState, invalidateEntryOnWrite(), msg, updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
     
     @Override
@@ -1084,9 +1527,9 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         ByteBuf newValueState = encodeMapValue(newValue);
         CacheKey cacheKey = localCacheView.toCacheKey(keyState);
         byte[] entryId = generateLogEntryId(cacheKey.getKeyHash());
-        ByteBuf msg = createSyncMessage(keyState, newValueState, cacheKey);
+        ByteBuf msg = createSyncMessage(keyState, newValueState, cacheKey, new CacheValue(key, oldValue));
         String name = getRawName(key);
-        return commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then "
                     + "redis.call('hset', KEYS[1], ARGV[1], ARGV[3]); "
                     + "if ARGV[4] == '1' then "
@@ -1096,12 +1539,17 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                         + "redis.call('zadd', KEYS[3], ARGV[6], ARGV[7]);"
                         + "redis.call('publish', KEYS[2], ARGV[5]); "
                     + "end;"
+                    + "if ARGV[4] == '3' then "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[6], '*', 'h', ARGV[7]);"
+                        + "redis.call('publish', KEYS[2], ARGV[5]); "
+                    + "end;"
                     + "return 1; "
                 + "else "
                     + "return 0; "
                 + "end",
                 Arrays.<Object>asList(name, listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-                keyState, oldValueState, newValueState, invalidateEntryOnChange, msg, System.currentTimeMillis(), entryId);
+                keyState, oldValueState, newValueState, invalidateEntryOnWrite(), msg, updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
 
     @Override
@@ -1138,7 +1586,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         ByteBuf msg = encode(new LocalCachedMapInvalidate(instanceId, cacheKey.getKeyHash()));
 
         String name = getRawName(key);
-        return commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
                 "if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then "
                     + "if ARGV[3] == '1' then "
                         + "redis.call('publish', KEYS[2], ARGV[4]); "
@@ -1147,12 +1595,17 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
                         + "redis.call('zadd', KEYS[3], ARGV[5], ARGV[6]);"
                         + "redis.call('publish', KEYS[2], ARGV[4]); "
                     + "end;"
+                    + "if ARGV[3] == '3' then "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[5], '*', 'h', ARGV[6]);"
+                        + "redis.call('publish', KEYS[2], ARGV[4]); "
+                    + "end;"
                     + "return redis.call('hdel', KEYS[1], ARGV[1]) "
                 + "else "
                     + "return 0 "
                 + "end",
             Arrays.<Object>asList(name, listener.getInvalidationTopicName(), listener.getUpdatesLogName()),
-            keyState, valueState, invalidateEntryOnChange, msg, System.currentTimeMillis(), entryId);
+            keyState, valueState, invalidateEntryOnWrite(), msg, updateLogArg(), entryId);
+        return coalesceInvalidation(future, cacheKey.getKeyHash());
     }
     
     @Override
@@ -1173,7 +1626,7 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
         CompletionStage<Boolean> f = future.thenApply(res -> {
             if (res) {
                 CacheKey cacheKey = localCacheView.toCacheKey(key);
-                cache.remove(cacheKey);
+                cacheRemove(cacheKey);
             }
             return res;
         });
@@ -1260,5 +1713,47 @@ public class RedissonLocalCachedMap<K, V> extends RedissonMap<K, V> implements R
     public Map<K, V> getCachedMap() {
         return localCacheView.getCachedMap();
     }
+
+    @Override
+    public LocalCachedMapStats getCacheStats() {
+        LocalCachedMapStats stats = localCacheView.getStats();
+        stats.setInvalidationsReceived(listener.getInvalidationsReceived());
+        stats.setInvalidationsSent(listener.getInvalidationsSent());
+        stats.setClearsReceived(listener.getClearsReceived());
+        if (invalidationCoalescer != null) {
+            stats.setInvalidationBatches(invalidationCoalescer.getPublishedMessages());
+            stats.setInvalidationBatchedKeys(invalidationCoalescer.getPublishedKeys());
+            stats.setInvalidationRequests(invalidationCoalescer.getInvalidatedKeys());
+        }
+        stats.setEstimatedMemory(estimateMemory(stats.getSize()));
+        return stats;
+    }
+
+    private long estimateMemory(int size) {
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (CacheValue value : cache.values()) {
+            if (sampled == STATS_MEMORY_SAMPLE_SIZE) {
+                break;
+            }
+
+            ByteBuf keyBuf = encodeMapKey(value.getKey());
+            sampledBytes += keyBuf.readableBytes();
+            keyBuf.release();
+            if (value.getValue() != null) {
+                ByteBuf valueBuf = encodeMapValue(value.getValue());
+                sampledBytes += valueBuf.readableBytes();
+                valueBuf.release();
+            }
+            // key hash
+            sampledBytes += 16;
+            sampled++;
+        }
+
+        if (sampled == 0) {
+            return 0;
+        }
+        return sampledBytes * size / sampled;
+    }
     
 }
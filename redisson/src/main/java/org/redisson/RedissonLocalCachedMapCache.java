@@ -0,0 +1,331 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLocalCachedMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.cache.CacheKey;
+import org.redisson.cache.CacheValue;
+import org.redisson.cache.LocalCacheSupport;
+import org.redisson.cache.LocalCacheView;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.eviction.EvictionScheduler;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map-based cache with local entry cache support.
+ * <p>
+ * Local entries expire according to ttl and maxIdle of Redis entries.
+ * Local reads don't update last access time of Redis entries,
+ * so maxIdle timeout isn't prolonged by them.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+@SuppressWarnings("serial")
+public class RedissonLocalCachedMapCache<K, V> extends RedissonMapCache<K, V> implements RLocalCachedMapCache<K, V> {
+
+    private LocalCacheSupport<K, V> localCache;
+    private LocalCacheView<K, V> localCacheView;
+    private boolean storeCacheMiss;
+
+    public RedissonLocalCachedMapCache(EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor,
+                                       String name, RedissonClient redisson, LocalCachedMapOptions<K, V> options) {
+        super(evictionScheduler, commandExecutor, name, redisson, options, null);
+        init(evictionScheduler, options);
+    }
+
+    public RedissonLocalCachedMapCache(Codec codec, EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor,
+                                       String name, RedissonClient redisson, LocalCachedMapOptions<K, V> options) {
+        super(codec, evictionScheduler, commandExecutor, name, redisson, options, null);
+        init(evictionScheduler, options);
+    }
+
+    private void init(EvictionScheduler evictionScheduler, LocalCachedMapOptions<K, V> options) {
+        storeCacheMiss = options.isStoreCacheMiss();
+        localCache = new LocalCacheSupport<>(this, commandExecutor, options, evictionScheduler);
+        localCacheView = localCache.getLocalCacheView();
+    }
+
+    private CacheKey[] toCacheKeys(Collection<?> keys) {
+        CacheKey[] result = new CacheKey[keys.size()];
+        int i = 0;
+        for (Object key : keys) {
+            result[i++] = localCache.toCacheKey(key);
+        }
+        return result;
+    }
+
+    private CacheKey[] toCacheKeys(K[] keys) {
+        return toCacheKeys(Arrays.asList(keys));
+    }
+
+    @Override
+    public RFuture<V> getOperationAsync(K key) {
+        CacheKey cacheKey = localCache.toCacheKey(key);
+        CacheValue cacheValue = localCache.get(cacheKey);
+        if (cacheValue != null && (storeCacheMiss || cacheValue.getValue() != null)) {
+            return new CompletableFutureWrapper<>((V) cacheValue.getValue());
+        }
+
+        String name = getRawName(key);
+        RFuture<List<Object>> future = commandExecutor.evalWriteAsync(name, codec, RedisCommands.EVAL_MAP_VALUE_LIST,
+                "local value = redis.call('hget', KEYS[1], ARGV[2]); "
+                        + "if value == false then "
+                            + "return {}; "
+                        + "end; "
+                        + "local t, val = struct.unpack('dLc0', value); "
+                        + "local expireDate = 92233720368547758; " +
+                        "local expireDateScore = redis.call('zscore', KEYS[2], ARGV[2]); "
+                        + "if expireDateScore ~= false then "
+                            + "expireDate = tonumber(expireDateScore) "
+                        + "end; "
+                        + "if t ~= 0 then "
+                            + "local expireIdle = redis.call('zscore', KEYS[3], ARGV[2]); "
+                            + "if expireIdle ~= false then "
+                                + "if tonumber(expireIdle) <= tonumber(ARGV[1]) then "
+                                    + "return {}; "
+                                + "end; "
+                                + "redis.call('zadd', KEYS[3], t + tonumber(ARGV[1]), ARGV[2]); "
+                                + "expireDate = math.min(expireDate, t + tonumber(ARGV[1])) "
+                            + "end; "
+                        + "end; "
+                        + "if expireDate <= tonumber(ARGV[1]) then "
+                            + "return {}; "
+                        + "end; "
+                        + "local maxSize = tonumber(redis.call('hget', KEYS[5], 'max-size')); " +
+                        "if maxSize ~= nil and maxSize ~= 0 then " +
+                            "local mode = redis.call('hget', KEYS[5], 'mode'); " +
+                            "if mode == false or mode == 'LRU' then " +
+                                "redis.call('zadd', KEYS[4], tonumber(ARGV[1]), ARGV[2]); " +
+                            "else " +
+                                "redis.call('zincrby', KEYS[4], 1, ARGV[2]); " +
+                            "end; " +
+                        "end; "
+                        + "if expireDate == 92233720368547758 then "
+                            + "expireDate = 0; "
+                        + "end; "
+                        + "local ttl = redis.call('pttl', KEYS[1]); "
+                        + "if ttl > 0 and (expireDate == 0 or expireDate > tonumber(ARGV[1]) + ttl) then "
+                            + "expireDate = tonumber(ARGV[1]) + ttl; "
+                        + "end; "
+                        + "return {expireDate, val}; ",
+                Arrays.asList(name, getTimeoutSetName(name), getIdleSetName(name), getLastAccessTimeSetName(name), getOptionsName(name)),
+                System.currentTimeMillis(), encodeMapKey(key));
+        CompletionStage<V> f = future.thenApply(res -> {
+            if (res.isEmpty()) {
+                if (storeCacheMiss) {
+                    localCache.put(cacheKey, key, null, 0);
+                }
+                return null;
+            }
+
+            long expireDate = ((Number) res.get(0)).longValue();
+            V value = (V) res.get(1);
+            localCache.put(cacheKey, key, value, expireDate);
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    protected RFuture<Boolean> containsKeyOperationAsync(String name, Object key) {
+        CacheKey cacheKey = localCache.toCacheKey(key);
+        CacheValue cacheValue = localCache.get(cacheKey);
+        if (cacheValue != null && cacheValue.getValue() != null) {
+            return new CompletableFutureWrapper<>(true);
+        }
+        return super.containsKeyOperationAsync(name, key);
+    }
+
+    @Override
+    protected RFuture<V> putOperationAsync(K key, V value) {
+        return localCache.invalidate(super.putOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<V> putOperationAsync(K key, V value, long ttlTimeout, long maxIdleTimeout,
+                                           long maxIdleDelta, long ttlTimeoutDelta) {
+        return localCache.invalidate(super.putOperationAsync(key, value, ttlTimeout, maxIdleTimeout, maxIdleDelta, ttlTimeoutDelta),
+                                        localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<V> putIfExistsOperationAsync(K key, V value) {
+        return localCache.invalidate(super.putIfExistsOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<V> putIfAbsentOperationAsync(K key, V value) {
+        return localCache.invalidate(super.putIfAbsentOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    public RFuture<V> putIfAbsentAsync(K key, V value, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return localCache.invalidate(super.putIfAbsentAsync(key, value, ttl, ttlUnit, maxIdleTime, maxIdleUnit),
+                                        localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Boolean> fastPutOperationAsync(K key, V value) {
+        return localCache.invalidate(super.fastPutOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Boolean> fastPutOperationAsync(K key, V value, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return localCache.invalidate(super.fastPutOperationAsync(key, value, ttl, ttlUnit, maxIdleTime, maxIdleUnit),
+                                        localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Boolean> fastPutIfExistsOperationAsync(K key, V value) {
+        return localCache.invalidate(super.fastPutIfExistsOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Boolean> fastPutIfAbsentOperationAsync(K key, V value) {
+        return localCache.invalidate(super.fastPutIfAbsentOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    public RFuture<Boolean> fastPutIfAbsentAsync(K key, V value, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return localCache.invalidate(super.fastPutIfAbsentAsync(key, value, ttl, ttlUnit, maxIdleTime, maxIdleUnit),
+                                        localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Void> putAllOperationAsync(Map<? extends K, ? extends V> map) {
+        return localCache.invalidate(super.putAllOperationAsync(map), toCacheKeys(map.keySet()));
+    }
+
+    @Override
+    public RFuture<Void> putAllAsync(Map<? extends K, ? extends V> map, long ttl, TimeUnit ttlUnit) {
+        return localCache.invalidate(super.putAllAsync(map, ttl, ttlUnit), toCacheKeys(map.keySet()));
+    }
+
+    @Override
+    protected RFuture<V> addAndGetOperationAsync(K key, Number value) {
+        return localCache.invalidate(super.addAndGetOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    public RFuture<Boolean> updateEntryExpirationAsync(K key, long ttl, TimeUnit ttlUnit, long maxIdleTime, TimeUnit maxIdleUnit) {
+        return localCache.invalidate(super.updateEntryExpirationAsync(key, ttl, ttlUnit, maxIdleTime, maxIdleUnit),
+                                        localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<V> removeOperationAsync(K key) {
+        return localCache.invalidate(super.removeOperationAsync(key), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Boolean> removeOperationAsync(Object key, Object value) {
+        return localCache.invalidate(super.removeOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Long> fastRemoveOperationAsync(K... keys) {
+        return localCache.invalidate(super.fastRemoveOperationAsync(keys), toCacheKeys(keys));
+    }
+
+    @Override
+    protected RFuture<List<Long>> fastRemoveOperationBatchAsync(K... keys) {
+        return localCache.invalidate(super.fastRemoveOperationBatchAsync(keys), toCacheKeys(keys));
+    }
+
+    @Override
+    protected RFuture<Boolean> replaceOperationAsync(K key, V oldValue, V newValue) {
+        return localCache.invalidate(super.replaceOperationAsync(key, oldValue, newValue), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<V> replaceOperationAsync(K key, V value) {
+        return localCache.invalidate(super.replaceOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    protected RFuture<Boolean> fastReplaceOperationAsync(K key, V value) {
+        return localCache.invalidate(super.fastReplaceOperationAsync(key, value), localCache.toCacheKey(key));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return localCache.clear(super.deleteAsync());
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return localCache.clear(super.expireAsync(timeToLive, timeUnit, param, keys));
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return localCache.clear(super.expireAtAsync(timestamp, param, keys));
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        return localCache.clear(super.clearExpireAsync());
+    }
+
+    @Override
+    public RFuture<Void> clearLocalCacheAsync() {
+        return localCache.clearLocalCacheAsync();
+    }
+
+    @Override
+    public void clearLocalCache() {
+        get(clearLocalCacheAsync());
+    }
+
+    @Override
+    public Set<K> cachedKeySet() {
+        return localCacheView.cachedKeySet();
+    }
+
+    @Override
+    public Collection<V> cachedValues() {
+        return localCacheView.cachedValues();
+    }
+
+    @Override
+    public Set<Entry<K, V>> cachedEntrySet() {
+        return localCacheView.cachedEntrySet();
+    }
+
+    @Override
+    public Map<K, V> getCachedMap() {
+        return localCacheView.getCachedMap();
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        localCache.destroy();
+    }
+
+}
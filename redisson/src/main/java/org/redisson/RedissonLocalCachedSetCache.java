@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLocalCachedSetCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.cache.CacheKey;
+import org.redisson.cache.CacheValue;
+import org.redisson.cache.LocalCacheSupport;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.eviction.EvictionScheduler;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set-based cache with local cache of {@link #contains(Object)} results.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> value
+ */
+public class RedissonLocalCachedSetCache<V> extends RedissonSetCache<V> implements RLocalCachedSetCache<V> {
+
+    private static final long MAX_TTL_SCORE = 92233720368547758L / 2;
+
+    private LocalCacheSupport<V, Boolean> localCache;
+    private boolean storeCacheMiss;
+
+    public RedissonLocalCachedSetCache(EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor,
+                                       String name, RedissonClient redisson, LocalCachedMapOptions<?, ?> options) {
+        super(evictionScheduler, commandExecutor, name, redisson);
+        init(evictionScheduler, options);
+    }
+
+    public RedissonLocalCachedSetCache(Codec codec, EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor,
+                                       String name, RedissonClient redisson, LocalCachedMapOptions<?, ?> options) {
+        super(codec, evictionScheduler, commandExecutor, name, redisson);
+        init(evictionScheduler, options);
+    }
+
+    private void init(EvictionScheduler evictionScheduler, LocalCachedMapOptions<?, ?> options) {
+        storeCacheMiss = options.isStoreCacheMiss();
+        localCache = new LocalCacheSupport<>(this, commandExecutor, options, evictionScheduler);
+    }
+
+    private CacheKey toCacheKey(Object value) {
+        ByteBuf encoded = encode(value);
+        try {
+            return localCache.toCacheKey(encoded);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    private CacheKey[] toCacheKeys(Collection<?> values) {
+        CacheKey[] keys = new CacheKey[values.size()];
+        int i = 0;
+        for (Object value : values) {
+            keys[i++] = toCacheKey(value);
+        }
+        return keys;
+    }
+
+    @Override
+    public RFuture<Boolean> containsAsync(Object o) {
+        ByteBuf encoded = encode(o);
+        CacheKey cacheKey = localCache.toCacheKey(encoded);
+        CacheValue cacheValue = localCache.get(cacheKey);
+        if (cacheValue != null) {
+            encoded.release();
+            return new CompletableFutureWrapper<>((Boolean) cacheValue.getValue());
+        }
+
+        String name = getRawName(o);
+        RFuture<Long> future = commandExecutor.evalReadAsync(name, codec, RedisCommands.EVAL_LONG,
+                    "local expireDateScore = redis.call('zscore', KEYS[1], ARGV[2]); " +
+                    "if expireDateScore == false or tonumber(expireDateScore) <= tonumber(ARGV[1]) then " +
+                        "return -1; " +
+                    "end; " +
+                    "local expireDate = tonumber(expireDateScore); " +
+                    "if expireDate > tonumber(ARGV[3]) then " +
+                        "expireDate = 0; " +
+                    "end; " +
+                    "local ttl = redis.call('pttl', KEYS[1]); " +
+                    "if ttl > 0 and (expireDate == 0 or expireDate > tonumber(ARGV[1]) + ttl) then " +
+                        "expireDate = tonumber(ARGV[1]) + ttl; " +
+                    "end; " +
+                    "return expireDate; ",
+               Arrays.<Object>asList(name), System.currentTimeMillis(), encoded, MAX_TTL_SCORE);
+        CompletionStage<Boolean> f = future.thenApply(expireDate -> {
+            if (expireDate < 0) {
+                if (storeCacheMiss) {
+                    localCache.put(cacheKey, o, false, 0);
+                }
+                return false;
+            }
+            localCache.put(cacheKey, o, true, expireDate);
+            return true;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> addAsync(V value, long ttl, TimeUnit unit) {
+        CacheKey cacheKey = toCacheKey(value);
+        return localCache.invalidate(super.addAsync(value, ttl, unit), cacheKey);
+    }
+
+    @Override
+    public RFuture<Boolean> tryAddAsync(long ttl, TimeUnit unit, V... values) {
+        CacheKey[] keys = toCacheKeys(Arrays.asList(values));
+        return localCache.invalidate(super.tryAddAsync(ttl, unit, values), keys);
+    }
+
+    @Override
+    public RFuture<Boolean> removeAsync(Object o) {
+        CacheKey cacheKey = toCacheKey(o);
+        return localCache.invalidate(super.removeAsync(o), cacheKey);
+    }
+
+    @Override
+    public RFuture<Boolean> addAllAsync(Collection<? extends V> c) {
+        CacheKey[] keys = toCacheKeys(c);
+        return localCache.invalidate(super.addAllAsync(c), keys);
+    }
+
+    @Override
+    public RFuture<Boolean> removeAllAsync(Collection<?> c) {
+        CacheKey[] keys = toCacheKeys(c);
+        return localCache.invalidate(super.removeAllAsync(c), keys);
+    }
+
+    @Override
+    public RFuture<Boolean> retainAllAsync(Collection<?> c) {
+        return localCache.clear(super.retainAllAsync(c));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return localCache.clear(super.deleteAsync());
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return localCache.clear(super.expireAsync(timeToLive, timeUnit, param, keys));
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return localCache.clear(super.expireAtAsync(timestamp, param, keys));
+    }
+
+    @Override
+    protected RFuture<Boolean> clearExpireAsync(String... keys) {
+        return localCache.clear(super.clearExpireAsync(keys));
+    }
+
+    @Override
+    public RFuture<Void> clearLocalCacheAsync() {
+        return localCache.clearLocalCacheAsync();
+    }
+
+    @Override
+    public void clearLocalCache() {
+        get(clearLocalCacheAsync());
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        localCache.destroy();
+    }
+
+}
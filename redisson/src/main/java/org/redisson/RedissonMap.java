@@ -20,6 +20,7 @@ import io.netty.util.ReferenceCountUtil;
 import org.redisson.api.*;
 import org.redisson.api.MapOptions.WriteMode;
 import org.redisson.api.mapreduce.RMapReduce;
+import org.redisson.client.EncodedName;
 import org.redisson.client.RedisClient;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
@@ -67,6 +68,8 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
     final MapOptions<K, V> options;
     final WriteBehindService writeBehindService;
     final MapWriteBehindTask writeBehindTask;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> loadingValues = new ConcurrentHashMap<>();
     
     public RedissonMap(CommandAsyncExecutor commandExecutor, String name, RedissonClient redisson, MapOptions<K, V> options, WriteBehindService writeBehindService) {
         super(commandExecutor, name);
@@ -497,7 +500,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
 
     @Override
     public RFuture<Integer> sizeAsync() {
-        return commandExecutor.readAsync(getRawName(), codec, RedisCommands.HLEN, getRawName());
+        return commandExecutor.readAsync(getEncodedName(), codec, RedisCommands.HLEN, getEncodedName());
     }
 
     @Override
@@ -1156,7 +1159,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
     
 
     public RFuture<V> getOperationAsync(K key) {
-        String name = getRawName(key);
+        EncodedName name = getEncodedName(key);
         return commandExecutor.readAsync(name, codec, RedisCommands.HGET, name, encodeMapKey(key));
     }
     
@@ -1172,7 +1175,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
         long threadId = Thread.currentThread().getId();
         CompletionStage<V> f = future.thenCompose(res -> {
             if (res == null) {
-                return loadValue(key, false, threadId);
+                return loadValueOnce(key, threadId);
             }
             return CompletableFuture.completedFuture(res);
         });
@@ -1377,7 +1380,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
     }
 
     protected RFuture<Boolean> fastPutOperationAsync(K key, V value) {
-        String name = getRawName(key);
+        EncodedName name = getEncodedName(key);
         return commandExecutor.writeAsync(name, codec, RedisCommands.HSET, name, encodeMapKey(key), encodeMapValue(value));
     }
 
@@ -1701,6 +1704,39 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
         }).toCompletableFuture();
     }
     
+    /**
+     * Stores value loaded by {@link org.redisson.api.map.MapLoader}
+     * or {@link org.redisson.api.map.MapLoaderAsync}.
+     *
+     * @param key - map key
+     * @param value - loaded value
+     * @return previous value
+     */
+    protected RFuture<V> putLoadedValueOperationAsync(K key, V value) {
+        return putOperationAsync(key, value);
+    }
+
+    /*
+     * Concurrent loads of the same key made by this instance share single load.
+     */
+    protected CompletableFuture<V> loadValueOnce(K key, long threadId) {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        CompletableFuture<V> prevResult = loadingValues.putIfAbsent(key, result);
+        if (prevResult != null) {
+            return prevResult;
+        }
+
+        loadValue(key, false, threadId).whenComplete((r, e) -> {
+            loadingValues.remove(key, result);
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
+            }
+            result.complete(r);
+        });
+        return result;
+    }
+
     private CompletableFuture<V> loadValue(K key, RLock lock, long threadId) {
         if (options.getLoader() != null) {
             CompletableFuture<V> result = new CompletableFuture<>();
@@ -1736,7 +1772,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
                         return;
                     }
 
-                    putOperationAsync(key, value)
+                    putLoadedValueOperationAsync(key, value)
                             .whenComplete((res, e) -> {
                                 if (e != null) {
                                     lock.unlockAsync(threadId);
@@ -1773,7 +1809,7 @@ public class RedissonMap<K, V> extends RedissonExpirable implements RMap<K, V> {
         }).thenCompose(f -> f)
           .thenCompose(value -> {
             if (value != null) {
-                return (CompletionStage<V>) putOperationAsync(key, (V) value).handle((r, ex) -> {
+                return (CompletionStage<V>) putLoadedValueOperationAsync(key, (V) value).handle((r, ex) -> {
                     RFuture<Void> f = lock.unlockAsync(threadId);
                     if (ex != null) {
                         log.error("Unable to store value by key " + key + " for map " + getRawName(), ex);
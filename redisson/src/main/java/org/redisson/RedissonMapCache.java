@@ -20,6 +20,7 @@ import org.redisson.api.*;
 import org.redisson.api.listener.MessageListener;
 import org.redisson.api.map.event.*;
 import org.redisson.client.RedisClient;
+import org.redisson.client.EncodedName;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.LongCodec;
 import org.redisson.client.codec.StringCodec;
@@ -33,11 +34,14 @@ import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.connection.decoder.MapGetAllDecoder;
 import org.redisson.eviction.EvictionScheduler;
 import org.redisson.misc.CompletableFutureWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -62,13 +66,17 @@ import java.util.function.Function;
  */
 public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCache<K, V> {
 
+    private static final Logger log = LoggerFactory.getLogger(RedissonMapCache.class);
+
     private EvictionScheduler evictionScheduler;
+    private final Set<K> refreshingKeys = ConcurrentHashMap.newKeySet();
     
     public RedissonMapCache(EvictionScheduler evictionScheduler, CommandAsyncExecutor commandExecutor,
                             String name, RedissonClient redisson, MapOptions<K, V> options, WriteBehindService writeBehindService) {
         super(commandExecutor, name, redisson, options, writeBehindService);
         if (evictionScheduler != null) {
-            evictionScheduler.schedule(getRawName(), getTimeoutSetName(), getIdleSetName(), getExpiredChannelName(), getLastAccessTimeSetName());
+            evictionScheduler.schedule(getRawName(), getTimeoutSetName().toString(), getIdleSetName().toString(),
+                                        getExpiredChannelName(), getLastAccessTimeSetName().toString());
         }
         this.evictionScheduler = evictionScheduler;
     }
@@ -77,7 +85,8 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                             String name, RedissonClient redisson, MapOptions<K, V> options, WriteBehindService writeBehindService) {
         super(codec, commandExecutor, name, redisson, options, writeBehindService);
         if (evictionScheduler != null) {
-            evictionScheduler.schedule(getRawName(), getTimeoutSetName(), getIdleSetName(), getExpiredChannelName(), getLastAccessTimeSetName());
+            evictionScheduler.schedule(getRawName(), getTimeoutSetName().toString(), getIdleSetName().toString(),
+                                        getExpiredChannelName(), getLastAccessTimeSetName().toString());
         }
         this.evictionScheduler = evictionScheduler;
     }
@@ -510,6 +519,147 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
                 System.currentTimeMillis(), encodeMapKey(key));
     }
 
+    @Override
+    public RFuture<V> getAsync(K key) {
+        if (getRefreshAheadWindow() == 0 || hasNoLoader()) {
+            return super.getAsync(key);
+        }
+
+        checkKey(key);
+
+        long threadId = Thread.currentThread().getId();
+        RFuture<List<Object>> future = getWithExpireDateOperationAsync(key);
+        CompletionStage<V> f = future.thenCompose(res -> {
+            if (res.isEmpty()) {
+                return loadValueOnce(key, threadId);
+            }
+
+            long expireDate = ((Number) res.get(0)).longValue();
+            if (expireDate > 0
+                    && expireDate - System.currentTimeMillis() <= getRefreshAheadWindow()) {
+                refreshValue(key, threadId);
+            }
+            return CompletableFuture.completedFuture((V) res.get(1));
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private long getRefreshAheadWindow() {
+        if (options instanceof MapCacheOptions) {
+            return ((MapCacheOptions<K, V>) options).getRefreshAheadWindowInMillis();
+        }
+        return 0;
+    }
+
+    /*
+     * Returns empty list if there is no value or {expireDate, value} list.
+     * Expire date is 0 if entry has no time to live.
+     */
+    private RFuture<List<Object>> getWithExpireDateOperationAsync(K key) {
+        String name = getRawName(key);
+        return commandExecutor.evalWriteAsync(name, codec, RedisCommands.EVAL_LIST,
+                "local value = redis.call('hget', KEYS[1], ARGV[2]); "
+                        + "if value == false then "
+                            + "return {}; "
+                        + "end; "
+                        + "local t, val = struct.unpack('dLc0', value); "
+                        + "local ttlDate = 0; "
+                        + "local expireDate = 92233720368547758; " +
+                        "local expireDateScore = redis.call('zscore', KEYS[2], ARGV[2]); "
+                        + "if expireDateScore ~= false then "
+                            + "expireDate = tonumber(expireDateScore); "
+                            + "ttlDate = expireDate; "
+                        + "end; "
+                        + "if t ~= 0 then "
+                            + "local expireIdle = redis.call('zscore', KEYS[3], ARGV[2]); "
+                            + "if expireIdle ~= false then "
+                                + "if tonumber(expireIdle) > tonumber(ARGV[1]) then "
+                                    + "redis.call('zadd', KEYS[3], t + tonumber(ARGV[1]), ARGV[2]); "
+                                + "end; "
+                                + "expireDate = math.min(expireDate, tonumber(expireIdle)) "
+                            + "end; "
+                        + "end; "
+                        + "if expireDate <= tonumber(ARGV[1]) then "
+                            + "return {}; "
+                        + "end; "
+                        + "local maxSize = tonumber(redis.call('hget', KEYS[5], 'max-size')); " +
+                        "if maxSize ~= nil and maxSize ~= 0 then " +
+                            "local mode = redis.call('hget', KEYS[5], 'mode'); " +
+                            "if mode == false or mode == 'LRU' then " +
+                                "redis.call('zadd', KEYS[4], tonumber(ARGV[1]), ARGV[2]); " +
+                            "else " +
+                                "redis.call('zincrby', KEYS[4], 1, ARGV[2]); " +
+                            "end; " +
+                        "end; "
+                        + "return {ttlDate, val}; ",
+                Arrays.asList(name, getTimeoutSetName(name), getIdleSetName(name), getLastAccessTimeSetName(name), getOptionsName(name)),
+                System.currentTimeMillis(), encodeMapKey(key));
+    }
+
+    /*
+     * Value is reloaded only by instance which acquired loading lease for the key.
+     * Other instances and concurrent readers of this instance keep current value.
+     * Reloaded value is stored under the same key lock as used by loadValue method.
+     */
+    private void refreshValue(K key, long threadId) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+
+        MapCacheOptions<K, V> mapCacheOptions = (MapCacheOptions<K, V>) options;
+        String leaseName = getLockByMapKey(key, "refresh");
+        String leaseId = commandExecutor.getConnectionManager().getId() + ":" + threadId;
+        RFuture<Boolean> leaseFuture = commandExecutor.writeAsync(leaseName, StringCodec.INSTANCE, RedisCommands.SET_BOOLEAN,
+                                            leaseName, leaseId, "PX", mapCacheOptions.getLoadingLeaseTimeInMillis(), "NX");
+        leaseFuture.thenCompose(acquired -> {
+            if (!acquired) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            RLock lock = getLock(key);
+            return lock.lockAsync(threadId).thenCompose(l -> loadFromLoader(key).thenCompose(value -> {
+                if (value == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return putLoadedValueOperationAsync(key, value);
+            }).whenComplete((r, e) -> {
+                lock.unlockAsync(threadId);
+            })).whenComplete((r, e) -> {
+                commandExecutor.evalWriteAsync(leaseName, StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                        "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                            + "redis.call('del', KEYS[1]); "
+                            + "return 1; "
+                        + "end; "
+                        + "return 0; ",
+                        Collections.singletonList(leaseName), leaseId);
+            });
+        }).whenComplete((r, e) -> {
+            refreshingKeys.remove(key);
+            if (e != null) {
+                log.error("Unable to refresh value by key " + key + " for map " + getRawName(), e);
+            }
+        });
+    }
+
+    private CompletionStage<V> loadFromLoader(K key) {
+        if (options.getLoader() != null) {
+            return CompletableFuture.supplyAsync(() -> options.getLoader().load(key),
+                                                    commandExecutor.getConnectionManager().getExecutor());
+        }
+        return options.getLoaderAsync().load(key);
+    }
+
+    @Override
+    protected RFuture<V> putLoadedValueOperationAsync(K key, V value) {
+        if (options instanceof MapCacheOptions) {
+            long ttl = ((MapCacheOptions<K, V>) options).getLoaderTimeToLiveInMillis();
+            if (ttl > 0) {
+                return putOperationAsync(key, value, System.currentTimeMillis() + ttl, 0, 0, ttl);
+            }
+        }
+        return super.putLoadedValueOperationAsync(key, value);
+    }
+
     @Override
     public V put(K key, V value, long ttl, TimeUnit unit) {
         return get(putAsync(key, value, ttl, unit));
@@ -1282,9 +1432,10 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
             return future;
         }
 
+        long threadId = Thread.currentThread().getId();
         CompletionStage<V> f = future.thenCompose(res -> {
             if (res == null) {
-                return loadValue(key, false);
+                return loadValueOnce(key, threadId);
             }
             return CompletableFuture.completedFuture(res);
         });
@@ -1337,24 +1488,24 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
         return prefixName("redisson__timeout__set", name);
     }
 
-    String getTimeoutSetName() {
-        return prefixName("redisson__timeout__set", getRawName());
+    EncodedName getTimeoutSetName() {
+        return getEncodedPrefixedName("redisson__timeout__set");
     }
     
     String getLastAccessTimeSetName(String name) {
         return prefixName("redisson__map_cache__last_access__set", name);
     }
 
-    String getLastAccessTimeSetName() {
-        return prefixName("redisson__map_cache__last_access__set", getRawName());
+    EncodedName getLastAccessTimeSetName() {
+        return getEncodedPrefixedName("redisson__map_cache__last_access__set");
     }
 
     String getIdleSetName(String name) {
         return prefixName("redisson__idle__set", name);
     }
 
-    String getIdleSetName() {
-        return prefixName("redisson__idle__set", getRawName());
+    EncodedName getIdleSetName() {
+        return getEncodedPrefixedName("redisson__idle__set");
     }
 
     String getOptionsName() {
@@ -2355,13 +2506,13 @@ public class RedissonMapCache<K, V> extends RedissonMap<K, V> implements RMapCac
 
     @Override
     public void clear() {
-        RFuture<Boolean> future = deleteAsync(getRawName(), getTimeoutSetName(), getIdleSetName(), getLastAccessTimeSetName());
+        RFuture<Boolean> future = deleteAsync(getRawName(), getTimeoutSetName().toString(), getIdleSetName().toString(), getLastAccessTimeSetName().toString());
         get(future);
     }
 
     @Override
     public RFuture<Boolean> deleteAsync() {
-        return deleteAsync(getRawName(), getTimeoutSetName(), getIdleSetName(), getLastAccessTimeSetName(), getOptionsName());
+        return deleteAsync(getRawName(), getTimeoutSetName().toString(), getIdleSetName().toString(), getLastAccessTimeSetName().toString(), getOptionsName());
     }
 
     @Override
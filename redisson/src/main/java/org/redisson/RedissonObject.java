@@ -18,6 +18,7 @@ package org.redisson;
 import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCountUtil;
 import org.redisson.api.*;
+import org.redisson.client.EncodedName;
 import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
@@ -44,6 +45,7 @@ public abstract class RedissonObject implements RObject {
 
     protected final CommandAsyncExecutor commandExecutor;
     protected String name;
+    private EncodedName encodedName;
     protected final Codec codec;
 
     public RedissonObject(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
@@ -104,8 +106,42 @@ public abstract class RedissonObject implements RObject {
         return getRawName();
     }
 
+    /**
+     * Returns raw name with cached encoded bytes and slot.
+     *
+     * @return encoded name
+     */
+    protected final EncodedName getEncodedName() {
+        EncodedName n = encodedName;
+        if (n == null) {
+            n = new EncodedName(name, commandExecutor.getConnectionManager().calcSlot(name));
+            encodedName = n;
+        }
+        return n;
+    }
+
+    protected EncodedName getEncodedName(Object o) {
+        String name = getRawName(o);
+        EncodedName n = getEncodedName();
+        if (name.equals(n.toString())) {
+            return n;
+        }
+        return new EncodedName(name, commandExecutor.getConnectionManager().calcSlot(name));
+    }
+
+    /**
+     * Returns cached name built with {@link #prefixName(String, String)} method.
+     *
+     * @param prefix - name prefix
+     * @return encoded name
+     */
+    protected final EncodedName getEncodedPrefixedName(String prefix) {
+        return getEncodedName().derive(prefix, n -> prefixName(prefix, n));
+    }
+
     protected final void setName(String name) {
         this.name = commandExecutor.getConnectionManager().getConfig().getNameMapper().map(name);
+        encodedName = null;
     }
 
     @Override
@@ -0,0 +1,394 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RPartitionedBloomFilter;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.DoubleCodec;
+import org.redisson.client.codec.IntegerCodec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Bloom filter which bit space is split across partitions.
+ * Each partition is a {@link RedissonBloomFilter} stored under own name
+ * without hash tag, so partitions are distributed across Redis cluster slots.
+ * Partitions config is stored in Redis hash under name of this object.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> type of object
+ */
+public class RedissonPartitionedBloomFilter<T> extends RedissonExpirable implements RPartitionedBloomFilter<T> {
+
+    private volatile List<RedissonBloomFilter<T>> partitions;
+
+    protected RedissonPartitionedBloomFilter(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+    }
+
+    protected RedissonPartitionedBloomFilter(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+    }
+
+    private List<RedissonBloomFilter<T>> createPartitions(int amount) {
+        List<RedissonBloomFilter<T>> result = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            result.add(new RedissonBloomFilter<>(codec, commandExecutor, getName() + ":" + i));
+        }
+        return result;
+    }
+
+    private List<RedissonBloomFilter<T>> partitions() {
+        List<RedissonBloomFilter<T>> result = partitions;
+        if (result == null) {
+            Integer amount = get(commandExecutor.readAsync(getRawName(), IntegerCodec.INSTANCE, RedisCommands.HGET, getRawName(), "partitions"));
+            result = createPartitions(check(amount));
+            partitions = result;
+        }
+        return result;
+    }
+
+    private CompletionStage<List<RedissonBloomFilter<T>>> partitionsAsync() {
+        List<RedissonBloomFilter<T>> result = partitions;
+        if (result != null) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        RFuture<Integer> future = commandExecutor.readAsync(getRawName(), IntegerCodec.INSTANCE, RedisCommands.HGET, getRawName(), "partitions");
+        return future.thenApply(amount -> {
+            List<RedissonBloomFilter<T>> r = createPartitions(check(amount));
+            partitions = r;
+            return r;
+        });
+    }
+
+    private int getPartitionIndex(long[] hash, int amount) {
+        return (int) (((Long.rotateLeft(hash[0], 32) ^ hash[1]) & Long.MAX_VALUE) % amount);
+    }
+
+    @Override
+    public boolean add(T object) {
+        return add(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long add(Collection<T> objects) {
+        partitions();
+        return get(addAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> addAsync(T object) {
+        return new CompletableFutureWrapper<>(addAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> addAsync(Collection<T> objects) {
+        return executeAsync(objects, true);
+    }
+
+    @Override
+    public boolean contains(T object) {
+        return contains(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long contains(Collection<T> objects) {
+        partitions();
+        return get(containsAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> containsAsync(T object) {
+        return new CompletableFutureWrapper<>(containsAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> containsAsync(Collection<T> objects) {
+        return executeAsync(objects, false);
+    }
+
+    /*
+     * Elements are grouped by partition and each group
+     * is sent to its partition in a single request.
+     */
+    private RFuture<Long> executeAsync(Collection<T> objects, boolean add) {
+        if (objects.isEmpty()) {
+            return new CompletableFutureWrapper<>(0L);
+        }
+
+        CompletionStage<Long> f = partitionsAsync().thenCompose(filters -> {
+            Map<Integer, List<long[]>> groups = new HashMap<>();
+            for (T object : objects) {
+                long[] hash = filters.get(0).hash(object);
+                int index = getPartitionIndex(hash, filters.size());
+                groups.computeIfAbsent(index, k -> new ArrayList<>()).add(hash);
+            }
+
+            List<CompletableFuture<Long>> futures = new ArrayList<>(groups.size());
+            for (Map.Entry<Integer, List<long[]>> entry : groups.entrySet()) {
+                RedissonBloomFilter<T> filter = filters.get(entry.getKey());
+                futures.add(filter.executeHashesAsync(entry.getValue(), add).toCompletableFuture());
+            }
+            return reduce(futures, 0L, Long::sum);
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private <R> CompletionStage<R> reduce(List<CompletableFuture<R>> futures, R identity, BinaryOperator<R> accumulator) {
+        CompletableFuture<Void> f = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        return f.thenApply(r -> {
+            R result = identity;
+            for (CompletableFuture<R> future : futures) {
+                result = accumulator.apply(result, future.join());
+            }
+            return result;
+        });
+    }
+
+    private <R> CompletionStage<R> reducePartitions(Function<RedissonBloomFilter<T>, RFuture<R>> mapper,
+                                                    R identity, BinaryOperator<R> accumulator) {
+        return partitionsAsync().thenCompose(filters -> {
+            List<CompletableFuture<R>> futures = new ArrayList<>(filters.size());
+            for (RedissonBloomFilter<T> filter : filters) {
+                futures.add(mapper.apply(filter).toCompletableFuture());
+            }
+            return reduce(futures, identity, accumulator);
+        });
+    }
+
+    @Override
+    public boolean tryInit(long expectedInsertions, double falseProbability) {
+        return get(tryInitAsync(expectedInsertions, falseProbability));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability) {
+        int partitions = commandExecutor.getConnectionManager().getEntrySet().size();
+        return tryInitAsync(expectedInsertions, falseProbability, Math.max(1, partitions));
+    }
+
+    @Override
+    public boolean tryInit(long expectedInsertions, double falseProbability, int partitions) {
+        return get(tryInitAsync(expectedInsertions, falseProbability, partitions));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Bloom filter partitions amount can't be less than 1");
+        }
+        if (falseProbability > 1) {
+            throw new IllegalArgumentException("Bloom filter false probability can't be greater than 1");
+        }
+        if (falseProbability < 0) {
+            throw new IllegalArgumentException("Bloom filter false probability can't be negative");
+        }
+
+        List<RedissonBloomFilter<T>> filters = createPartitions(partitions);
+        long partitionInsertions = (expectedInsertions + partitions - 1) / partitions;
+        long size = RedissonBloomFilter.optimalNumOfBits(partitionInsertions, falseProbability);
+        if (size == 0) {
+            throw new IllegalArgumentException("Bloom filter partition calculated size is " + size);
+        }
+        long maxSize = filters.get(0).getMaxSize();
+        if (size > maxSize) {
+            throw new IllegalArgumentException("Bloom filter partition size can't be greater than " + maxSize
+                                                    + ". But calculated size is " + size);
+        }
+
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', KEYS[1]) == 1 then " +
+                    "return 0; " +
+                "end; " +
+                "redis.call('hmset', KEYS[1], 'partitions', ARGV[1], 'expectedInsertions', ARGV[2], 'falseProbability', ARGV[3]); " +
+                "return 1; ",
+                Collections.singletonList(getRawName()),
+                partitions, expectedInsertions, BigDecimal.valueOf(falseProbability).toPlainString());
+        CompletionStage<Boolean> f = future.thenCompose(res -> {
+            if (!res) {
+                this.partitions = null;
+                return partitionsAsync().thenApply(r -> false);
+            }
+
+            this.partitions = filters;
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(filters.size());
+            for (RedissonBloomFilter<T> filter : filters) {
+                futures.add(filter.tryInitAsync(partitionInsertions, falseProbability).toCompletableFuture());
+            }
+            return reduce(futures, true, Boolean::logicalAnd);
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public long count() {
+        partitions();
+        return get(countAsync());
+    }
+
+    @Override
+    public RFuture<Long> countAsync() {
+        return new CompletableFutureWrapper<>(reducePartitions(RedissonBloomFilter::countAsync, 0L, Long::sum));
+    }
+
+    @Override
+    public long getExpectedInsertions() {
+        Long result = get(commandExecutor.readAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.HGET, getRawName(), "expectedInsertions"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Long> getExpectedInsertionsAsync() {
+        RFuture<Long> future = commandExecutor.readAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.HGET, getRawName(), "expectedInsertions");
+        return new CompletableFutureWrapper<>(future.thenApply(r -> check(r)));
+    }
+
+    @Override
+    public double getFalseProbability() {
+        Double result = get(commandExecutor.readAsync(getRawName(), DoubleCodec.INSTANCE, RedisCommands.HGET, getRawName(), "falseProbability"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Double> getFalseProbabilityAsync() {
+        RFuture<Double> future = commandExecutor.readAsync(getRawName(), DoubleCodec.INSTANCE, RedisCommands.HGET, getRawName(), "falseProbability");
+        return new CompletableFutureWrapper<>(future.thenApply(r -> check(r)));
+    }
+
+    @Override
+    public long getSize() {
+        return partitions().size() * partitions().get(0).getSize();
+    }
+
+    @Override
+    public RFuture<Long> getSizeAsync() {
+        CompletionStage<Long> f = partitionsAsync().thenCompose(filters ->
+                                    filters.get(0).getSizeAsync().thenApply(size -> size * filters.size()));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public int getHashIterations() {
+        return partitions().get(0).getHashIterations();
+    }
+
+    @Override
+    public RFuture<Integer> getHashIterationsAsync() {
+        CompletionStage<Integer> f = partitionsAsync().thenCompose(filters -> filters.get(0).getHashIterationsAsync());
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public int getPartitions() {
+        return partitions().size();
+    }
+
+    @Override
+    public RFuture<Integer> getPartitionsAsync() {
+        return new CompletableFutureWrapper<>(partitionsAsync().thenApply(filters -> filters.size()));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        CompletionStage<Boolean> f = reducePartitions(RedissonBloomFilter::deleteAsync, false, Boolean::logicalOr)
+                .handle((r, e) -> r != null && r)
+                .thenCompose(r -> super.deleteAsync().thenApply(res -> {
+                    partitions = null;
+                    return res || r;
+                }));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        CompletionStage<Long> f = reducePartitions(RedissonBloomFilter::sizeInMemoryAsync, 0L, Long::sum)
+                .thenCompose(r -> super.sizeInMemoryAsync().thenApply(res -> res + r));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        CompletionStage<Boolean> f = reducePartitions(filter -> filter.expireAsync(timeToLive, timeUnit, param), false, Boolean::logicalOr)
+                .thenCompose(r -> super.expireAsync(timeToLive, timeUnit, param, getRawName()).thenApply(res -> res || r));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        CompletionStage<Boolean> f = reducePartitions(filter -> filter.expireAtAsync(timestamp, param), false, Boolean::logicalOr)
+                .thenCompose(r -> super.expireAtAsync(timestamp, param, getRawName()).thenApply(res -> res || r));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        CompletionStage<Boolean> f = reducePartitions(RedissonBloomFilter::clearExpireAsync, false, Boolean::logicalOr)
+                .thenCompose(r -> super.clearExpireAsync().thenApply(res -> res || r));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    /*
+     * Partitions are renamed after this object, since they are stored in different slots.
+     */
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        CompletionStage<Void> f = partitionsAsync().thenCompose(filters ->
+                                    super.renameAsync(newName).thenCompose(r -> renamePartitions(filters, newName)));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        CompletionStage<Boolean> f = partitionsAsync().thenCompose(filters ->
+                                        super.renamenxAsync(newName).thenCompose(r -> {
+                                            if (!r) {
+                                                return CompletableFuture.completedFuture(false);
+                                            }
+                                            return renamePartitions(filters, newName).thenApply(v -> true);
+                                        }));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private CompletionStage<Void> renamePartitions(List<RedissonBloomFilter<T>> filters, String newName) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(filters.size());
+        for (int i = 0; i < filters.size(); i++) {
+            futures.add(filters.get(i).renameAsync(newName + ":" + i).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private <V> V check(V result) {
+        if (result == null) {
+            throw new IllegalStateException("Bloom filter is not initialized!");
+        }
+        return result;
+    }
+
+}
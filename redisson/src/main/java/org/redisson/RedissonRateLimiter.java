@@ -39,6 +39,8 @@ import java.util.concurrent.TimeUnit;
  */
 public class RedissonRateLimiter extends RedissonExpirable implements RRateLimiter {
 
+    private volatile LocalPermitLease lease;
+
     public RedissonRateLimiter(CommandAsyncExecutor commandExecutor, String name) {
         super(commandExecutor, name);
     }
@@ -71,14 +73,141 @@ public class RedissonRateLimiter extends RedissonExpirable implements RRateLimit
     
     @Override
     public boolean tryAcquire(long permits) {
-        return get(tryAcquireAsync(RedisCommands.EVAL_NULL_BOOLEAN, permits));
+        return get(tryAcquireAsync(permits));
     }
     
     @Override
     public RFuture<Boolean> tryAcquireAsync(long permits) {
+        LocalPermitLease l = lease;
+        if (l != null) {
+            return l.tryAcquireAsync(permits);
+        }
         return tryAcquireAsync(RedisCommands.EVAL_NULL_BOOLEAN, permits);
     }
 
+    @Override
+    public void enableLocalLease(LocalLeaseOptions options) {
+        LocalPermitLease newLease = new LocalPermitLease(commandExecutor.getConnectionManager(), options) {
+            @Override
+            protected RFuture<Long> reserveAsync(byte[] token, long permits, long desired, double fairShare) {
+                RFuture<List<Long>> future = RedissonRateLimiter.this.reserveAsync(token, permits, desired, fairShare);
+                CompletionStage<Long> f = future.thenApply(r -> {
+                    // reserved permits are released by rate interval
+                    limitLeaseTime(r.get(1));
+                    return r.get(0);
+                });
+                return new CompletableFutureWrapper<>(f);
+            }
+
+            @Override
+            protected RFuture<Void> returnAsync(byte[] token, long reserved, long unused) {
+                if (unused == 0) {
+                    return new CompletableFutureWrapper<>((Void) null);
+                }
+                return RedissonRateLimiter.this.returnAsync(token, reserved, unused);
+            }
+        };
+
+        LocalPermitLease oldLease = lease;
+        lease = newLease;
+        if (oldLease != null) {
+            oldLease.close();
+        }
+    }
+
+    @Override
+    public void disableLocalLease() {
+        LocalPermitLease oldLease = lease;
+        lease = null;
+        if (oldLease != null) {
+            oldLease.close();
+        }
+    }
+
+    private RFuture<List<Long>> reserveAsync(byte[] token, long permits, long desired, double fairShare) {
+        return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local rate = redis.call('hget', KEYS[1], 'rate');"
+              + "local interval = redis.call('hget', KEYS[1], 'interval');"
+              + "local type = redis.call('hget', KEYS[1], 'type');"
+              + "assert(rate ~= false and interval ~= false and type ~= false, 'RateLimiter is not initialized')"
+
+              + "local valueName = KEYS[2];"
+              + "local permitsName = KEYS[4];"
+              + "if type == '1' then "
+                  + "valueName = KEYS[3];"
+                  + "permitsName = KEYS[5];"
+              + "end;"
+
+              + "assert(tonumber(rate) >= tonumber(ARGV[1]), 'Requested permits amount could not exceed defined rate'); "
+
+              + "local currentValue = redis.call('get', valueName); "
+              + "if currentValue == false then "
+                     + "currentValue = tonumber(rate); "
+              + "else "
+                     + "local expiredValues = redis.call('zrangebyscore', permitsName, 0, tonumber(ARGV[4]) - interval); "
+                     + "local released = 0; "
+                     + "for i, v in ipairs(expiredValues) do "
+                          + "local random, permits = struct.unpack('Bc0I', v);"
+                          + "released = released + permits;"
+                     + "end; "
+
+                     + "if released > 0 then "
+                          + "redis.call('zremrangebyscore', permitsName, 0, tonumber(ARGV[4]) - interval); "
+                          + "if tonumber(currentValue) + released > tonumber(rate) then "
+                               + "currentValue = tonumber(rate) - redis.call('zcard', permitsName); "
+                          + "else "
+                               + "currentValue = tonumber(currentValue) + released; "
+                          + "end; "
+                     + "end;"
+                     + "currentValue = tonumber(currentValue); "
+              + "end;"
+
+              + "if currentValue < tonumber(ARGV[1]) then "
+                  + "redis.call('set', valueName, currentValue);"
+                  + "return {0, tonumber(interval)}; "
+              + "end; "
+
+              + "local share = math.floor(currentValue * tonumber(ARGV[3])); "
+              + "local reserved = math.max(tonumber(ARGV[1]), math.min(tonumber(ARGV[2]), share)); "
+              + "redis.call('zadd', permitsName, ARGV[4], struct.pack('Bc0I', string.len(ARGV[5]), ARGV[5], reserved)); "
+              + "redis.call('set', valueName, currentValue - reserved);"
+
+              + "local ttl = redis.call('pttl', KEYS[1]); "
+              + "if ttl > 0 then "
+                  + "redis.call('pexpire', valueName, ttl); "
+                  + "redis.call('pexpire', permitsName, ttl); "
+              + "end; "
+              + "return {reserved, tonumber(interval)};",
+                Arrays.asList(getRawName(), getValueName(), getClientValueName(), getPermitsName(), getClientPermitsName()),
+                permits, desired, fairShare, System.currentTimeMillis(), token);
+    }
+
+    private RFuture<Void> returnAsync(byte[] token, long reserved, long unused) {
+        return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "local type = redis.call('hget', KEYS[1], 'type');"
+              + "local valueName = KEYS[2];"
+              + "local permitsName = KEYS[4];"
+              + "if type == '1' then "
+                  + "valueName = KEYS[3];"
+                  + "permitsName = KEYS[5];"
+              + "end;"
+
+              + "local value = struct.pack('Bc0I', string.len(ARGV[1]), ARGV[1], ARGV[2]); "
+              + "local score = redis.call('zscore', permitsName, value); "
+              + "if score == false then "
+                  + "return; "
+              + "end; "
+
+              + "redis.call('zrem', permitsName, value); "
+              + "local used = tonumber(ARGV[2]) - tonumber(ARGV[3]); "
+              + "if used > 0 then "
+                  + "redis.call('zadd', permitsName, score, struct.pack('Bc0I', string.len(ARGV[1]), ARGV[1], used)); "
+              + "end; "
+              + "redis.call('incrby', valueName, ARGV[3]); ",
+                Arrays.asList(getRawName(), getValueName(), getClientValueName(), getPermitsName(), getClientPermitsName()),
+                token, reserved, unused);
+    }
+
     @Override
     public void acquire() {
         get(acquireAsync());
@@ -526,6 +526,26 @@ public class RedissonReactive implements RedissonReactiveClient {
         return ReactiveProxyBuilder.create(commandExecutor, new RedissonBitSet(commandExecutor, name), RBitSetReactive.class);
     }
 
+    @Override
+    public <V> RBloomFilterReactive<V> getBloomFilter(String name) {
+        return ReactiveProxyBuilder.create(commandExecutor, new RedissonBloomFilter<V>(commandExecutor, name), RBloomFilterReactive.class);
+    }
+
+    @Override
+    public <V> RBloomFilterReactive<V> getBloomFilter(String name, Codec codec) {
+        return ReactiveProxyBuilder.create(commandExecutor, new RedissonBloomFilter<V>(codec, commandExecutor, name), RBloomFilterReactive.class);
+    }
+
+    @Override
+    public <V> RCuckooFilterReactive<V> getCuckooFilter(String name) {
+        return ReactiveProxyBuilder.create(commandExecutor, new RedissonCuckooFilter<V>(commandExecutor, name), RCuckooFilterReactive.class);
+    }
+
+    @Override
+    public <V> RCuckooFilterReactive<V> getCuckooFilter(String name, Codec codec) {
+        return ReactiveProxyBuilder.create(commandExecutor, new RedissonCuckooFilter<V>(codec, commandExecutor, name), RCuckooFilterReactive.class);
+    }
+
     @Override
     public RFunctionReactive getFunction() {
         return ReactiveProxyBuilder.create(commandExecutor, new RedissonFuction(commandExecutor), RFunctionReactive.class);
@@ -0,0 +1,628 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RRoaringBitmap;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.codec.CompositeCodec;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.*;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Stores values in Roaring containers. Each chunk of 65536 values is stored
+ * as a hash field named by high 16 bits of values. Container with less than 4096 values
+ * is stored as sorted array of 16-bit big-endian values, otherwise
+ * as 8192 bytes bitmap prefixed with 2 bytes of cardinality minus one.
+ * Both formats are distinguished by length. Bitmap container is converted back
+ * to array container only if its cardinality drops below 2048 after removal.
+ * <p>
+ * Small batches of added or removed values update stored container in place.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class RedissonRoaringBitmap extends RedissonExpirable implements RRoaringBitmap {
+
+    private static final long MAX_VALUE = 0xFFFFFFFFL;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int ARRAY_CONTAINER_LIMIT = 4096;
+    private static final int BITMAP_SIZE = 8192;
+    private static final int BITMAP_CONTAINER_SIZE = BITMAP_SIZE + 2;
+    // bitmap container is converted back to array container below this cardinality
+    private static final int BITMAP_CONTAINER_MIN = ARRAY_CONTAINER_LIMIT / 2;
+
+    static final String CONTAINER_FUNCTIONS =
+            "local pop; " +
+            "local function popTable() " +
+                "if pop then " +
+                    "return pop; " +
+                "end; " +
+                "pop = {}; " +
+                "for i = 0, 255 do " +
+                    "local c = 0; " +
+                    "local v = i; " +
+                    "while v > 0 do " +
+                        "c = c + bit.band(v, 1); " +
+                        "v = bit.rshift(v, 1); " +
+                    "end; " +
+                    "pop[i] = c; " +
+                "end; " +
+                "return pop; " +
+            "end; " +
+
+            "local function card(s) " +
+                "if not s then " +
+                    "return 0; " +
+                "end; " +
+                "if #s == " + BITMAP_CONTAINER_SIZE + " then " +
+                    "return string.byte(s, 1) * 256 + string.byte(s, 2) + 1; " +
+                "end; " +
+                "return #s / 2; " +
+            "end; " +
+
+            "local function toBits(s) " +
+                "local bits = {}; " +
+                "if s and #s == " + BITMAP_CONTAINER_SIZE + " then " +
+                    "for i = 1, " + BITMAP_SIZE + " do " +
+                        "bits[i] = string.byte(s, i + 2); " +
+                    "end; " +
+                    "return bits; " +
+                "end; " +
+                "for i = 1, " + BITMAP_SIZE + " do " +
+                    "bits[i] = 0; " +
+                "end; " +
+                "if s then " +
+                    "for i = 1, #s, 2 do " +
+                        "local v = string.byte(s, i) * 256 + string.byte(s, i + 1); " +
+                        "local p = math.floor(v / 8) + 1; " +
+                        "bits[p] = bit.bor(bits[p], bit.lshift(1, v % 8)); " +
+                    "end; " +
+                "end; " +
+                "return bits; " +
+            "end; " +
+
+            "local function bitsToArray(bits) " +
+                "local parts = {}; " +
+                "for i = 1, " + BITMAP_SIZE + " do " +
+                    "local b = bits[i]; " +
+                    "if b ~= 0 then " +
+                        "for j = 0, 7 do " +
+                            "if bit.band(b, bit.lshift(1, j)) ~= 0 then " +
+                                "local v = (i - 1) * 8 + j; " +
+                                "parts[#parts + 1] = string.char(math.floor(v / 256), v % 256); " +
+                            "end; " +
+                        "end; " +
+                    "end; " +
+                "end; " +
+                "return table.concat(parts); " +
+            "end; " +
+
+            "local function bitsToBitmap(bits, c) " +
+                "local parts = {string.char(math.floor((c - 1) / 256), (c - 1) % 256)}; " +
+                "for i = 1, " + BITMAP_SIZE + ", 1024 do " +
+                    "parts[#parts + 1] = string.char(unpack(bits, i, i + 1023)); " +
+                "end; " +
+                "return table.concat(parts); " +
+            "end; " +
+
+            "local function store(key, field, bits) " +
+                "local pop = popTable(); " +
+                "local c = 0; " +
+                "for i = 1, " + BITMAP_SIZE + " do " +
+                    "c = c + pop[bits[i]]; " +
+                "end; " +
+                "if c == 0 then " +
+                    "redis.call('hdel', key, field); " +
+                    "return 0; " +
+                "end; " +
+                "if c < " + ARRAY_CONTAINER_LIMIT + " then " +
+                    "redis.call('hset', key, field, bitsToArray(bits)); " +
+                "else " +
+                    "redis.call('hset', key, field, bitsToBitmap(bits, c)); " +
+                "end; " +
+                "return c; " +
+            "end; " +
+
+            "local function apply(op, bits, other) " +
+                "for i = 1, " + BITMAP_SIZE + " do " +
+                    "if op == 'or' then " +
+                        "bits[i] = bit.bor(bits[i], other[i]); " +
+                    "elseif op == 'and' then " +
+                        "bits[i] = bit.band(bits[i], other[i]); " +
+                    "else " +
+                        "bits[i] = bit.band(bits[i], bit.bnot(other[i])); " +
+                    "end; " +
+                "end; " +
+            "end; ";
+
+    /*
+     * Adds or removes sorted values encoded as array container
+     * without expanding container stored in KEYS[1] hash field.
+     * Bitmap container bytes are changed in place, array container values
+     * are inserted or deleted at positions found by binary search.
+     * Returns amount of changed values.
+     */
+    static final String UPDATE_FUNCTION =
+            "local function findValue(s, v) " +
+                "local lo = 0; " +
+                "local hi = #s / 2 - 1; " +
+                "while lo <= hi do " +
+                    "local mid = math.floor((lo + hi) / 2); " +
+                    "local x = string.byte(s, mid * 2 + 1) * 256 + string.byte(s, mid * 2 + 2); " +
+                    "if x == v then " +
+                        "return true, mid; " +
+                    "elseif x < v then " +
+                        "lo = mid + 1; " +
+                    "else " +
+                        "hi = mid - 1; " +
+                    "end; " +
+                "end; " +
+                "return false, lo; " +
+            "end; " +
+
+            "local function updateBitmap(s, values, add, parts) " +
+                "local changed = 0; " +
+                "local prev = 3; " +
+                "local i = 1; " +
+                "while i <= #values do " +
+                    "local pos = math.floor((string.byte(values, i) * 256 + string.byte(values, i + 1)) / 8) + 3; " +
+                    "local b = string.byte(s, pos); " +
+                    "local nb = b; " +
+                    "while i <= #values do " +
+                        "local v = string.byte(values, i) * 256 + string.byte(values, i + 1); " +
+                        "if math.floor(v / 8) + 3 ~= pos then " +
+                            "break; " +
+                        "end; " +
+                        "if add then " +
+                            "nb = bit.bor(nb, bit.lshift(1, v % 8)); " +
+                        "else " +
+                            "nb = bit.band(nb, bit.bnot(bit.lshift(1, v % 8))); " +
+                        "end; " +
+                        "i = i + 2; " +
+                    "end; " +
+                    "if nb ~= b then " +
+                        "local diff = bit.bxor(nb, b); " +
+                        "while diff > 0 do " +
+                            "changed = changed + bit.band(diff, 1); " +
+                            "diff = bit.rshift(diff, 1); " +
+                        "end; " +
+                        "parts[#parts + 1] = string.sub(s, prev, pos - 1); " +
+                        "parts[#parts + 1] = string.char(nb); " +
+                        "prev = pos + 1; " +
+                    "end; " +
+                "end; " +
+                "parts[#parts + 1] = string.sub(s, prev); " +
+                "return changed; " +
+            "end; " +
+
+            "local function updateArray(s, values, add, parts) " +
+                "local changed = 0; " +
+                "local prev = 1; " +
+                "for i = 1, #values, 2 do " +
+                    "local found, index = findValue(s, string.byte(values, i) * 256 + string.byte(values, i + 1)); " +
+                    "local pos = index * 2 + 1; " +
+                    "if add and not found then " +
+                        "parts[#parts + 1] = string.sub(s, prev, pos - 1); " +
+                        "parts[#parts + 1] = string.sub(values, i, i + 1); " +
+                        "prev = pos; " +
+                        "changed = changed + 1; " +
+                    "elseif found and not add then " +
+                        "parts[#parts + 1] = string.sub(s, prev, pos - 1); " +
+                        "prev = pos + 2; " +
+                        "changed = changed + 1; " +
+                    "end; " +
+                "end; " +
+                "parts[#parts + 1] = string.sub(s, prev); " +
+                "return changed; " +
+            "end; " +
+
+            "local function update(key, field, s, values, add) " +
+                "local parts = {}; " +
+                "local result; " +
+                "if s and #s == " + BITMAP_CONTAINER_SIZE + " then " +
+                    "local changed = updateBitmap(s, values, add, parts); " +
+                    "if changed == 0 then " +
+                        "return 0; " +
+                    "end; " +
+                    "local c = card(s) - changed; " +
+                    "if add then " +
+                        "c = card(s) + changed; " +
+                    "end; " +
+                    "if c == 0 then " +
+                        "redis.call('hdel', key, field); " +
+                        "return changed; " +
+                    "end; " +
+                    "result = string.char(math.floor((c - 1) / 256), (c - 1) % 256) .. table.concat(parts); " +
+                    "if c < " + BITMAP_CONTAINER_MIN + " then " +
+                        "result = bitsToArray(toBits(result)); " +
+                    "end; " +
+                    "redis.call('hset', key, field, result); " +
+                    "return changed; " +
+                "end; " +
+
+                "local changed = updateArray(s or '', values, add, parts); " +
+                "if changed == 0 then " +
+                    "return 0; " +
+                "end; " +
+                "result = table.concat(parts); " +
+                "if #result == 0 then " +
+                    "redis.call('hdel', key, field); " +
+                    "return changed; " +
+                "end; " +
+                "if #result / 2 >= " + ARRAY_CONTAINER_LIMIT + " then " +
+                    "result = bitsToBitmap(toBits(result), #result / 2); " +
+                "end; " +
+                "redis.call('hset', key, field, result); " +
+                "return changed; " +
+            "end; ";
+
+    public RedissonRoaringBitmap(CommandAsyncExecutor commandExecutor, String name) {
+        super(StringCodec.INSTANCE, commandExecutor, name);
+    }
+
+    private static long checkValue(long value) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Value should be in range from 0 to " + MAX_VALUE + " but was " + value);
+        }
+        return value;
+    }
+
+    static byte[] encodeContainer(int[] values, int size) {
+        if (size < ARRAY_CONTAINER_LIMIT) {
+            byte[] result = new byte[size * 2];
+            for (int i = 0; i < size; i++) {
+                result[i * 2] = (byte) (values[i] >>> 8);
+                result[i * 2 + 1] = (byte) values[i];
+            }
+            return result;
+        }
+
+        byte[] result = new byte[BITMAP_CONTAINER_SIZE];
+        result[0] = (byte) ((size - 1) >>> 8);
+        result[1] = (byte) (size - 1);
+        for (int i = 0; i < size; i++) {
+            result[2 + (values[i] >>> 3)] |= 1 << (values[i] & 7);
+        }
+        return result;
+    }
+
+    static int cardinality(byte[] container) {
+        if (container.length == BITMAP_CONTAINER_SIZE) {
+            return ((container[0] & 0xFF) << 8 | container[1] & 0xFF) + 1;
+        }
+        return container.length / 2;
+    }
+
+    static int decodeContainer(long high, byte[] container, long[] result, int offset) {
+        long base = high << CHUNK_BITS;
+        if (container.length == BITMAP_CONTAINER_SIZE) {
+            for (int i = 0; i < BITMAP_SIZE; i++) {
+                int b = container[i + 2] & 0xFF;
+                for (int j = 0; j < 8; j++) {
+                    if ((b & (1 << j)) != 0) {
+                        result[offset++] = base + i * 8 + j;
+                    }
+                }
+            }
+            return offset;
+        }
+
+        for (int i = 0; i < container.length; i += 2) {
+            result[offset++] = base + ((container[i] & 0xFF) << 8 | container[i + 1] & 0xFF);
+        }
+        return offset;
+    }
+
+    private List<Object> toContainers(long... values) {
+        long[] sorted = values.clone();
+        for (long value : sorted) {
+            checkValue(value);
+        }
+        Arrays.sort(sorted);
+
+        List<Object> args = new ArrayList<>();
+        int[] chunk = new int[Math.min(sorted.length, CHUNK_MASK + 1)];
+        int i = 0;
+        while (i < sorted.length) {
+            long high = sorted[i] >>> CHUNK_BITS;
+            int size = 0;
+            for (; i < sorted.length && sorted[i] >>> CHUNK_BITS == high; i++) {
+                int low = (int) (sorted[i] & CHUNK_MASK);
+                if (size == 0 || chunk[size - 1] != low) {
+                    chunk[size++] = low;
+                }
+            }
+            args.add(high);
+            args.add(encodeContainer(chunk, size));
+        }
+        return args;
+    }
+
+    private RFuture<Long> mergeAsync(String op, long... values) {
+        if (values.length == 0) {
+            return new CompletableFutureWrapper<>(0L);
+        }
+
+        List<Object> args = toContainers(values);
+        args.add(0, op);
+        return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                CONTAINER_FUNCTIONS + UPDATE_FUNCTION +
+                "local result = 0; " +
+                "local add = ARGV[1] == 'or'; " +
+                "for i = 2, #ARGV, 2 do " +
+                    "local s = redis.call('hget', KEYS[1], ARGV[i]); " +
+                    "if s or add then " +
+                        "if #ARGV[i + 1] == " + BITMAP_CONTAINER_SIZE + " then " +
+                            "local before = card(s); " +
+                            "local bits = toBits(s); " +
+                            "apply(ARGV[1], bits, toBits(ARGV[i + 1])); " +
+                            "local after = store(KEYS[1], ARGV[i], bits); " +
+                            "result = result + math.abs(after - before); " +
+                        "else " +
+                            "result = result + update(KEYS[1], ARGV[i], s, ARGV[i + 1], add); " +
+                        "end; " +
+                    "end; " +
+                "end; " +
+                "return result; ",
+                Collections.singletonList(getRawName()), args.toArray());
+    }
+
+    @Override
+    public boolean add(long value) {
+        return get(addAsync(value));
+    }
+
+    @Override
+    public RFuture<Boolean> addAsync(long value) {
+        RFuture<Long> f = addAllAsync(value);
+        CompletionStage<Boolean> s = f.thenApply(r -> r > 0);
+        return new CompletableFutureWrapper<>(s);
+    }
+
+    @Override
+    public long addAll(long... values) {
+        return get(addAllAsync(values));
+    }
+
+    @Override
+    public RFuture<Long> addAllAsync(long... values) {
+        return mergeAsync("or", values);
+    }
+
+    @Override
+    public boolean remove(long value) {
+        return get(removeAsync(value));
+    }
+
+    @Override
+    public RFuture<Boolean> removeAsync(long value) {
+        RFuture<Long> f = removeAllAsync(value);
+        CompletionStage<Boolean> s = f.thenApply(r -> r > 0);
+        return new CompletableFutureWrapper<>(s);
+    }
+
+    @Override
+    public long removeAll(long... values) {
+        return get(removeAllAsync(values));
+    }
+
+    @Override
+    public RFuture<Long> removeAllAsync(long... values) {
+        return mergeAsync("andnot", values);
+    }
+
+    @Override
+    public boolean contains(long value) {
+        return get(containsAsync(value));
+    }
+
+    @Override
+    public RFuture<Boolean> containsAsync(long value) {
+        checkValue(value);
+        return commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "local s = redis.call('hget', KEYS[1], ARGV[1]); " +
+                "if not s then " +
+                    "return 0; " +
+                "end; " +
+                "local v = tonumber(ARGV[2]); " +
+                "if #s == " + BITMAP_CONTAINER_SIZE + " then " +
+                    "local b = string.byte(s, math.floor(v / 8) + 3); " +
+                    "if bit.band(b, bit.lshift(1, v % 8)) ~= 0 then " +
+                        "return 1; " +
+                    "end; " +
+                    "return 0; " +
+                "end; " +
+                "local lo = 0; " +
+                "local hi = #s / 2 - 1; " +
+                "while lo <= hi do " +
+                    "local mid = math.floor((lo + hi) / 2); " +
+                    "local x = string.byte(s, mid * 2 + 1) * 256 + string.byte(s, mid * 2 + 2); " +
+                    "if x == v then " +
+                        "return 1; " +
+                    "elseif x < v then " +
+                        "lo = mid + 1; " +
+                    "else " +
+                        "hi = mid - 1; " +
+                    "end; " +
+                "end; " +
+                "return 0; ",
+                Collections.singletonList(getRawName()), value >>> CHUNK_BITS, value & CHUNK_MASK);
+    }
+
+    @Override
+    public long cardinality() {
+        return get(cardinalityAsync());
+    }
+
+    @Override
+    public RFuture<Long> cardinalityAsync() {
+        return commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                CONTAINER_FUNCTIONS +
+                "local result = 0; " +
+                "for _, s in ipairs(redis.call('hvals', KEYS[1])) do " +
+                    "result = result + card(s); " +
+                "end; " +
+                "return result; ",
+                Collections.singletonList(getRawName()));
+    }
+
+    @Override
+    public long rank(long value) {
+        return get(rankAsync(value));
+    }
+
+    @Override
+    public RFuture<Long> rankAsync(long value) {
+        checkValue(value);
+        return commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                CONTAINER_FUNCTIONS +
+                "local pop = popTable(); " +
+                "local high = tonumber(ARGV[1]); " +
+                "local v = tonumber(ARGV[2]); " +
+                "local result = 0; " +
+                "local entries = redis.call('hgetall', KEYS[1]); " +
+                "for i = 1, #entries, 2 do " +
+                    "local h = tonumber(entries[i]); " +
+                    "local s = entries[i + 1]; " +
+                    "if h < high then " +
+                        "result = result + card(s); " +
+                    "elseif h == high then " +
+                        "if #s == " + BITMAP_CONTAINER_SIZE + " then " +
+                            "local p = math.floor(v / 8); " +
+                            "for j = 1, p do " +
+                                "result = result + pop[string.byte(s, j + 2)]; " +
+                            "end; " +
+                            "local b = string.byte(s, p + 3); " +
+                            "result = result + pop[bit.band(b, bit.lshift(1, v % 8 + 1) - 1)]; " +
+                        "else " +
+                            "for j = 1, #s, 2 do " +
+                                "if string.byte(s, j) * 256 + string.byte(s, j + 1) > v then " +
+                                    "break; " +
+                                "end; " +
+                                "result = result + 1; " +
+                            "end; " +
+                        "end; " +
+                    "end; " +
+                "end; " +
+                "return result; ",
+                Collections.singletonList(getRawName()), value >>> CHUNK_BITS, value & CHUNK_MASK);
+    }
+
+    private RFuture<Void> opAsync(String op, String... bitmapNames) {
+        List<Object> keys = new ArrayList<>(bitmapNames.length + 1);
+        keys.add(getRawName());
+        keys.addAll(Arrays.asList(bitmapNames));
+        return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                CONTAINER_FUNCTIONS +
+                "local op = ARGV[1]; " +
+                "if op == 'or' then " +
+                    "for k = 2, #KEYS do " +
+                        "local entries = redis.call('hgetall', KEYS[k]); " +
+                        "for i = 1, #entries, 2 do " +
+                            "local bits = toBits(redis.call('hget', KEYS[1], entries[i])); " +
+                            "apply(op, bits, toBits(entries[i + 1])); " +
+                            "store(KEYS[1], entries[i], bits); " +
+                        "end; " +
+                    "end; " +
+                    "return; " +
+                "end; " +
+                "for _, f in ipairs(redis.call('hkeys', KEYS[1])) do " +
+                    "local bits = toBits(redis.call('hget', KEYS[1], f)); " +
+                    "for k = 2, #KEYS do " +
+                        "local s = redis.call('hget', KEYS[k], f); " +
+                        "if s then " +
+                            "apply(op, bits, toBits(s)); " +
+                        "elseif op == 'and' then " +
+                            "bits = nil; " +
+                            "break; " +
+                        "end; " +
+                    "end; " +
+                    "if bits then " +
+                        "store(KEYS[1], f, bits); " +
+                    "else " +
+                        "redis.call('hdel', KEYS[1], f); " +
+                    "end; " +
+                "end; ",
+                keys, op);
+    }
+
+    @Override
+    public void and(String... bitmapNames) {
+        get(andAsync(bitmapNames));
+    }
+
+    @Override
+    public RFuture<Void> andAsync(String... bitmapNames) {
+        return opAsync("and", bitmapNames);
+    }
+
+    @Override
+    public void or(String... bitmapNames) {
+        get(orAsync(bitmapNames));
+    }
+
+    @Override
+    public RFuture<Void> orAsync(String... bitmapNames) {
+        return opAsync("or", bitmapNames);
+    }
+
+    @Override
+    public void andNot(String... bitmapNames) {
+        get(andNotAsync(bitmapNames));
+    }
+
+    @Override
+    public RFuture<Void> andNotAsync(String... bitmapNames) {
+        return opAsync("andnot", bitmapNames);
+    }
+
+    @Override
+    public long[] toArray() {
+        return get(toArrayAsync());
+    }
+
+    @Override
+    public RFuture<long[]> toArrayAsync() {
+        CompositeCodec codec = new CompositeCodec(StringCodec.INSTANCE, ByteArrayCodec.INSTANCE);
+        RFuture<Map<Object, Object>> f = commandExecutor.readAsync(getRawName(), codec, RedisCommands.HGETALL, getRawName());
+        CompletionStage<long[]> s = f.thenApply(containers -> {
+            TreeMap<Long, byte[]> sorted = new TreeMap<>();
+            int size = 0;
+            for (Map.Entry<Object, Object> entry : containers.entrySet()) {
+                byte[] container = (byte[]) entry.getValue();
+                sorted.put(Long.valueOf(entry.getKey().toString()), container);
+                size += cardinality(container);
+            }
+
+            long[] result = new long[size];
+            int offset = 0;
+            for (Map.Entry<Long, byte[]> entry : sorted.entrySet()) {
+                offset = decodeContainer(entry.getKey(), entry.getValue(), result, offset);
+            }
+            return result;
+        });
+        return new CompletableFutureWrapper<>(s);
+    }
+
+}
@@ -505,6 +505,26 @@ public class RedissonRx implements RedissonRxClient {
         return RxProxyBuilder.create(commandExecutor, new RedissonBitSet(commandExecutor, name), RBitSetRx.class);
     }
 
+    @Override
+    public <V> RBloomFilterRx<V> getBloomFilter(String name) {
+        return RxProxyBuilder.create(commandExecutor, new RedissonBloomFilter<V>(commandExecutor, name), RBloomFilterRx.class);
+    }
+
+    @Override
+    public <V> RBloomFilterRx<V> getBloomFilter(String name, Codec codec) {
+        return RxProxyBuilder.create(commandExecutor, new RedissonBloomFilter<V>(codec, commandExecutor, name), RBloomFilterRx.class);
+    }
+
+    @Override
+    public <V> RCuckooFilterRx<V> getCuckooFilter(String name) {
+        return RxProxyBuilder.create(commandExecutor, new RedissonCuckooFilter<V>(commandExecutor, name), RCuckooFilterRx.class);
+    }
+
+    @Override
+    public <V> RCuckooFilterRx<V> getCuckooFilter(String name, Codec codec) {
+        return RxProxyBuilder.create(commandExecutor, new RedissonCuckooFilter<V>(codec, commandExecutor, name), RCuckooFilterRx.class);
+    }
+
     @Override
     public RFunctionRx getFunction() {
         return RxProxyBuilder.create(commandExecutor, new RedissonFuction(commandExecutor), RFunctionRx.class);
@@ -0,0 +1,558 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScalableBloomFilter;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.IntegerCodec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.decoder.ObjectMapReplayDecoder;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.misc.Hash;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalable Bloom filter based on Highway 128-bit hash.
+ * <p>
+ * Config is stored in Redis hash under name of this object.
+ * Filter with index <code>i</code> has capacity <code>expectedInsertions * 2^i</code>
+ * and false probability <code>falseProbability / 2^(i+1)</code>.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> type of object
+ */
+public class RedissonScalableBloomFilter<T> extends RedissonExpirable implements RScalableBloomFilter<T> {
+
+    private static final String CONFIG_CHECK_SCRIPT =
+            "local filters = tonumber(redis.call('hget', KEYS[1], 'filters')); " +
+            "assert(filters ~= nil, 'Bloom filter is not initialized'); " +
+            "assert(filters == tonumber(ARGV[1]), 'Bloom filter config has been changed'); " +
+            "local total = 0; " +
+            "for j = 1, filters do " +
+                "total = total + tonumber(ARGV[2 + j]); " +
+            "end; ";
+
+    /*
+     * Checks presence of element in each filter.
+     * Bit indexes of element in all filters are started from ARGV[i]
+     */
+    private static final String PRESENCE_CHECK_SCRIPT =
+            "local present = 0; " +
+            "local pos = i; " +
+            "for j = 1, filters do " +
+                "local iterations = tonumber(ARGV[2 + j]); " +
+                "local found = 1; " +
+                "for p = pos, pos + iterations - 1 do " +
+                    "if redis.call('getbit', KEYS[1 + j], ARGV[p]) == 0 then " +
+                        "found = 0; " +
+                        "break; " +
+                    "end; " +
+                "end; " +
+                "if found == 1 then " +
+                    "present = 1; " +
+                    "break; " +
+                "end; " +
+                "pos = pos + iterations; " +
+            "end; ";
+
+    static final class Filter {
+
+        private final long capacity;
+        private final long size;
+        private final int hashIterations;
+
+        Filter(long capacity, long size, int hashIterations) {
+            this.capacity = capacity;
+            this.size = size;
+            this.hashIterations = hashIterations;
+        }
+
+    }
+
+    private volatile long expectedInsertions;
+    private volatile double falseProbability;
+    private volatile int filters;
+
+    protected RedissonScalableBloomFilter(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+    }
+
+    protected RedissonScalableBloomFilter(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+    }
+
+    protected long getMaxSize() {
+        return Integer.MAX_VALUE*2L;
+    }
+
+    private Filter getFilter(int index) {
+        long capacity = expectedInsertions;
+        for (int i = 0; i < index && capacity < Long.MAX_VALUE / 2; i++) {
+            capacity *= 2;
+        }
+        double probability = falseProbability / Math.pow(2, index + 1);
+        long size = RedissonBloomFilter.optimalNumOfBits(capacity, probability);
+        if (size > getMaxSize()) {
+            size = getMaxSize();
+            if (probability == 0) {
+                probability = Double.MIN_VALUE;
+            }
+            capacity = Math.max(1, (long) (-size * Math.log(2) * Math.log(2) / Math.log(probability)));
+        }
+        int hashIterations = RedissonBloomFilter.optimalNumOfHashFunctions(capacity, size);
+        return new Filter(capacity, size, hashIterations);
+    }
+
+    private String getFilterName(int index) {
+        return suffixName(getRawName(), "filter:" + index);
+    }
+
+    private List<Object> getKeys(int filters) {
+        List<Object> keys = new ArrayList<>(filters + 1);
+        keys.add(getRawName());
+        for (int i = 0; i < filters; i++) {
+            keys.add(getFilterName(i));
+        }
+        return keys;
+    }
+
+    private long[] hash(Object object) {
+        ByteBuf state = encode(object);
+        try {
+            return Hash.hash128(state);
+        } finally {
+            state.release();
+        }
+    }
+
+    private long[] hash(long hash1, long hash2, int iterations, long size) {
+        long[] indexes = new long[iterations];
+        long hash = hash1;
+        for (int i = 0; i < iterations; i++) {
+            indexes[i] = (hash & Long.MAX_VALUE) % size;
+            if (i % 2 == 0) {
+                hash += hash2;
+            } else {
+                hash += hash1;
+            }
+        }
+        return indexes;
+    }
+
+    @Override
+    public boolean add(T object) {
+        return add(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long add(Collection<T> objects) {
+        if (filters == 0) {
+            readConfig();
+        }
+        return get(addAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> addAsync(T object) {
+        return new CompletableFutureWrapper<>(addAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> addAsync(Collection<T> objects) {
+        return executeAsync(objects, true);
+    }
+
+    @Override
+    public boolean contains(T object) {
+        return contains(Collections.singletonList(object)) > 0;
+    }
+
+    @Override
+    public long contains(Collection<T> objects) {
+        if (filters == 0) {
+            readConfig();
+        }
+        return get(containsAsync(objects));
+    }
+
+    @Override
+    public RFuture<Boolean> containsAsync(T object) {
+        return new CompletableFutureWrapper<>(containsAsync(Collections.singletonList(object)).thenApply(r -> r > 0));
+    }
+
+    @Override
+    public RFuture<Long> containsAsync(Collection<T> objects) {
+        return executeAsync(objects, false);
+    }
+
+    private RFuture<Long> executeAsync(Collection<T> objects, boolean add) {
+        if (objects.isEmpty()) {
+            return new CompletableFutureWrapper<>(0L);
+        }
+
+        List<long[]> hashes = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            hashes.add(hash(object));
+        }
+
+        CompletionStage<Void> configFuture = CompletableFuture.completedFuture(null);
+        if (filters == 0) {
+            configFuture = readConfigAsync();
+        }
+        CompletionStage<Long> f = configFuture.thenCompose(r -> executeScriptAsync(hashes, add));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    /*
+     * Bit indexes of each element are passed for all filters.
+     * Element is added to the last filter if it's not present in any filter.
+     * Amount of filters is increased once insertions into the last filter reach its capacity.
+     * Request is repeated with actual config if amount of filters has been changed.
+     */
+    private CompletionStage<Long> executeScriptAsync(List<long[]> hashes, boolean add) {
+        int filters = this.filters;
+        List<Filter> layers = new ArrayList<>(filters);
+        int totalIterations = 0;
+        for (int i = 0; i < filters; i++) {
+            Filter filter = getFilter(i);
+            layers.add(filter);
+            totalIterations += filter.hashIterations;
+        }
+
+        List<Object> params = new ArrayList<>(2 + filters + hashes.size() * totalIterations);
+        params.add(filters);
+        params.add(layers.get(filters - 1).capacity);
+        for (Filter filter : layers) {
+            params.add(filter.hashIterations);
+        }
+        for (long[] hash : hashes) {
+            for (Filter filter : layers) {
+                for (long index : hash(hash[0], hash[1], filter.hashIterations, filter.size)) {
+                    params.add(index);
+                }
+            }
+        }
+
+        RFuture<Long> future;
+        if (add) {
+            future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    CONFIG_CHECK_SCRIPT +
+                    "local last = tonumber(ARGV[2 + filters]); " +
+                    "local result = 0; " +
+                    "for i = 3 + filters, #ARGV, total do " +
+                        PRESENCE_CHECK_SCRIPT +
+                        "if present == 0 then " +
+                            "for p = i + total - last, i + total - 1 do " +
+                                "redis.call('setbit', KEYS[1 + filters], ARGV[p], 1); " +
+                            "end; " +
+                            "result = result + 1; " +
+                        "end; " +
+                    "end; " +
+                    "if result > 0 then " +
+                        "redis.call('hincrby', KEYS[1], 'insertions', result); " +
+                        "local count = redis.call('hincrby', KEYS[1], 'count', result); " +
+                        "if count >= tonumber(ARGV[2]) then " +
+                            "redis.call('hmset', KEYS[1], 'filters', filters + 1, 'count', 0); " +
+                        "end; " +
+                    "end; " +
+                    "return result; ",
+                    getKeys(filters), params.toArray());
+        } else {
+            future = commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    CONFIG_CHECK_SCRIPT +
+                    "local result = 0; " +
+                    "for i = 3 + filters, #ARGV, total do " +
+                        PRESENCE_CHECK_SCRIPT +
+                        "result = result + present; " +
+                    "end; " +
+                    "return result; ",
+                    getKeys(filters), params.toArray());
+        }
+
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        future.whenComplete((res, e) -> {
+            if (e == null) {
+                result.complete(res);
+                return;
+            }
+            if (e.getMessage() == null || !e.getMessage().contains("Bloom filter config has been changed")) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            readConfigAsync()
+                    .thenCompose(r -> executeScriptAsync(hashes, add))
+                    .whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                            return;
+                        }
+                        result.complete(r);
+                    });
+        });
+        return result;
+    }
+
+    private void readConfig() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(getRawName(), StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), getRawName());
+        Map<String, String> config = commandExecutor.get(future);
+
+        readConfig(config);
+    }
+
+    private CompletionStage<Void> readConfigAsync() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(getRawName(), StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), getRawName());
+        return future.thenAccept(config -> readConfig(config));
+    }
+
+    private void readConfig(Map<String, String> config) {
+        if (config.get("filters") == null
+                || config.get("expectedInsertions") == null
+                    || config.get("falseProbability") == null) {
+            throw new IllegalStateException("Bloom filter is not initialized!");
+        }
+        expectedInsertions = Long.valueOf(config.get("expectedInsertions"));
+        falseProbability = Double.valueOf(config.get("falseProbability"));
+        filters = Integer.valueOf(config.get("filters"));
+    }
+
+    @Override
+    public boolean tryInit(long expectedInsertions, double falseProbability) {
+        return get(tryInitAsync(expectedInsertions, falseProbability));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability) {
+        if (falseProbability > 1) {
+            throw new IllegalArgumentException("Bloom filter false probability can't be greater than 1");
+        }
+        if (falseProbability < 0) {
+            throw new IllegalArgumentException("Bloom filter false probability can't be negative");
+        }
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Bloom filter expected insertions should be greater than 0");
+        }
+
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', KEYS[1]) == 1 then " +
+                    "return 0; " +
+                "end; " +
+                "redis.call('hmset', KEYS[1], 'expectedInsertions', ARGV[1], 'falseProbability', ARGV[2], " +
+                                        "'filters', 1, 'count', 0, 'insertions', 0); " +
+                "return 1; ",
+                Collections.singletonList(getRawName()),
+                expectedInsertions, BigDecimal.valueOf(falseProbability).toPlainString());
+        CompletionStage<Boolean> f = future.thenCompose(res -> {
+            if (!res) {
+                return readConfigAsync().thenApply(r -> false);
+            }
+
+            this.expectedInsertions = expectedInsertions;
+            this.falseProbability = falseProbability;
+            this.filters = 1;
+            return CompletableFuture.completedFuture(true);
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public long count() {
+        return readSetting("insertions");
+    }
+
+    @Override
+    public RFuture<Long> countAsync() {
+        return readSettingAsync("insertions");
+    }
+
+    @Override
+    public long getExpectedInsertions() {
+        return readSetting("expectedInsertions");
+    }
+
+    @Override
+    public RFuture<Long> getExpectedInsertionsAsync() {
+        return readSettingAsync("expectedInsertions");
+    }
+
+    @Override
+    public double getFalseProbability() {
+        readConfig();
+        return falseProbability;
+    }
+
+    @Override
+    public RFuture<Double> getFalseProbabilityAsync() {
+        return new CompletableFutureWrapper<>(readConfigAsync().thenApply(r -> falseProbability));
+    }
+
+    @Override
+    public int getFilters() {
+        readConfig();
+        return filters;
+    }
+
+    @Override
+    public RFuture<Integer> getFiltersAsync() {
+        return new CompletableFutureWrapper<>(readConfigAsync().thenApply(r -> filters));
+    }
+
+    @Override
+    public long getSize() {
+        readConfig();
+        return calcSize();
+    }
+
+    @Override
+    public RFuture<Long> getSizeAsync() {
+        return new CompletableFutureWrapper<>(readConfigAsync().thenApply(r -> calcSize()));
+    }
+
+    private long calcSize() {
+        long size = 0;
+        for (int i = 0; i < filters; i++) {
+            size += getFilter(i).size;
+        }
+        return size;
+    }
+
+    private long readSetting(String settingName) {
+        Long result = get(commandExecutor.readAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.HGET, getRawName(), settingName));
+        if (result == null) {
+            throw new IllegalStateException("Bloom filter is not initialized!");
+        }
+        return result;
+    }
+
+    private RFuture<Long> readSettingAsync(String settingName) {
+        RFuture<Long> future = commandExecutor.readAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.HGET, getRawName(), settingName);
+        return new CompletableFutureWrapper<>(future.thenApply(r -> {
+            if (r == null) {
+                throw new IllegalStateException("Bloom filter is not initialized!");
+            }
+            return r;
+        }));
+    }
+
+    private CompletionStage<String[]> getAllKeysAsync() {
+        RFuture<Integer> future = commandExecutor.readAsync(getRawName(), IntegerCodec.INSTANCE, RedisCommands.HGET, getRawName(), "filters");
+        return future.thenApply(filters -> {
+            int amount = 0;
+            if (filters != null) {
+                amount = filters;
+            }
+            return getKeys(amount).toArray(new String[0]);
+        });
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        CompletionStage<Boolean> f = getAllKeysAsync().thenCompose(keys -> deleteAsync(keys));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        CompletionStage<Long> f = getAllKeysAsync().thenCompose(keys -> super.sizeInMemoryAsync(Arrays.asList(keys)));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        CompletionStage<Boolean> f = getAllKeysAsync().thenCompose(allKeys -> super.expireAsync(timeToLive, timeUnit, param, allKeys));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        CompletionStage<Boolean> f = getAllKeysAsync().thenCompose(allKeys -> super.expireAtAsync(timestamp, param, allKeys));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        CompletionStage<Boolean> f = getAllKeysAsync().thenCompose(keys -> clearExpireAsync(keys));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        CompletionStage<Void> f = getAllKeysAsync().thenCompose(keys -> {
+            RFuture<Void> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                    "local filters = tonumber(redis.call('hget', KEYS[1], 'filters')); " +
+                    "assert(filters == #KEYS - 1, 'Bloom filter config has been changed'); " +
+                    "redis.call('rename', KEYS[1], ARGV[1]); " +
+                    "for i = 2, #KEYS do " +
+                        "if redis.call('exists', KEYS[i]) == 1 then " +
+                            "redis.call('rename', KEYS[i], ARGV[i]); " +
+                        "end; " +
+                    "end; ",
+                    Arrays.<Object>asList(keys), getNewKeys(newName, keys.length));
+            return future.thenAccept(r -> setName(newName));
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        CompletionStage<Boolean> f = getAllKeysAsync().thenCompose(keys -> {
+            RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                    "local filters = tonumber(redis.call('hget', KEYS[1], 'filters')); " +
+                    "assert(filters == #KEYS - 1, 'Bloom filter config has been changed'); " +
+                    "if redis.call('renamenx', KEYS[1], ARGV[1]) == 0 then " +
+                        "return 0; " +
+                    "end; " +
+                    "for i = 2, #KEYS do " +
+                        "if redis.call('exists', KEYS[i]) == 1 then " +
+                            "redis.call('rename', KEYS[i], ARGV[i]); " +
+                        "end; " +
+                    "end; " +
+                    "return 1; ",
+                    Arrays.<Object>asList(keys), getNewKeys(newName, keys.length));
+            return future.thenApply(r -> {
+                if (r) {
+                    setName(newName);
+                }
+                return r;
+            });
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private Object[] getNewKeys(String newName, int amount) {
+        Object[] result = new Object[amount];
+        result[0] = newName;
+        for (int i = 1; i < amount; i++) {
+            result[i] = suffixName(newName, "filter:" + (i - 1));
+        }
+        return result;
+    }
+
+}
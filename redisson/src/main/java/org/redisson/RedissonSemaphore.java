@@ -17,6 +17,7 @@ package org.redisson;
 
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
+import org.redisson.api.LocalLeaseOptions;
 import org.redisson.api.RFuture;
 import org.redisson.api.RSemaphore;
 import org.redisson.client.codec.LongCodec;
@@ -30,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -51,6 +53,8 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
 
     final CommandAsyncExecutor commandExecutor;
 
+    private volatile LocalPermitLease lease;
+
     public RedissonSemaphore(CommandAsyncExecutor commandExecutor, String name) {
         super(commandExecutor, name);
         this.commandExecutor = commandExecutor;
@@ -60,6 +64,28 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
     String getChannelName() {
         return getChannelName(getRawName());
     }
+
+    String getLeasesName() {
+        return suffixName(getRawName(), "leases");
+    }
+
+    /*
+     * Returns permits of local leases which weren't returned before deadline.
+     * KEYS[1] - value, KEYS[2] - leases, KEYS[3] - channel
+     */
+    private static String reclaimLeases(String time) {
+        return "local expiredLeases = redis.call('zrangebyscore', KEYS[2], 0, " + time + "); " +
+               "local reclaimed = 0; " +
+               "for i, v in ipairs(expiredLeases) do " +
+                   "local token, permits = struct.unpack('Bc0I', v); " +
+                   "reclaimed = reclaimed + permits; " +
+               "end; " +
+               "if reclaimed > 0 then " +
+                   "redis.call('zremrangebyscore', KEYS[2], 0, " + time + "); " +
+                   "local reclaimedValue = redis.call('incrby', KEYS[1], reclaimed); " +
+                   "redis.call('publish', KEYS[3], reclaimedValue); " +
+               "end; ";
+    }
     
     public static String getChannelName(String name) {
         if (name.contains("{")) {
@@ -265,14 +291,79 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
             return new CompletableFutureWrapper<>(true);
         }
 
+        LocalPermitLease l = lease;
+        if (l != null) {
+            return l.tryAcquireAsync(permits);
+        }
+
         return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                  reclaimLeases("ARGV[2]") +
                   "local value = redis.call('get', KEYS[1]); " +
                   "if (value ~= false and tonumber(value) >= tonumber(ARGV[1])) then " +
                       "local val = redis.call('decrby', KEYS[1], ARGV[1]); " +
                       "return 1; " +
                   "end; " +
                   "return 0;",
-                  Collections.<Object>singletonList(getRawName()), permits);
+                  Arrays.asList(getRawName(), getLeasesName(), getChannelName()), permits, System.currentTimeMillis());
+    }
+
+    @Override
+    public void enableLocalLease(LocalLeaseOptions options) {
+        LocalPermitLease newLease = new LocalPermitLease(commandExecutor.getConnectionManager(), options) {
+            @Override
+            protected RFuture<Long> reserveAsync(byte[] token, long permits, long desired, double fairShare) {
+                // lease is reclaimed if it wasn't returned within two lease times
+                long now = System.currentTimeMillis();
+                long deadline = now + 2 * options.getLeaseTimeInMillis();
+                return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                        reclaimLeases("ARGV[4]") +
+                        "local value = redis.call('get', KEYS[1]); " +
+                        "if value == false or tonumber(value) < tonumber(ARGV[1]) then " +
+                            "return 0; " +
+                        "end; " +
+                        "local share = math.floor(tonumber(value) * tonumber(ARGV[3])); " +
+                        "local reserved = math.max(tonumber(ARGV[1]), math.min(tonumber(ARGV[2]), share)); " +
+                        "redis.call('decrby', KEYS[1], reserved); " +
+                        "if reserved > tonumber(ARGV[1]) then " +
+                            "redis.call('zadd', KEYS[2], ARGV[6], struct.pack('Bc0I', string.len(ARGV[5]), ARGV[5], reserved)); " +
+                            "local ttl = redis.call('pttl', KEYS[1]); " +
+                            "if ttl > 0 then " +
+                                "redis.call('pexpire', KEYS[2], ttl); " +
+                            "end; " +
+                        "end; " +
+                        "return reserved; ",
+                        Arrays.asList(getRawName(), getLeasesName(), getChannelName()),
+                        permits, desired, fairShare, now, token, deadline);
+            }
+
+            @Override
+            protected RFuture<Void> returnAsync(byte[] token, long reserved, long unused) {
+                return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                        "local removed = redis.call('zrem', KEYS[2], struct.pack('Bc0I', string.len(ARGV[1]), ARGV[1], ARGV[2])); " +
+                        "if removed == 0 or tonumber(ARGV[3]) == 0 then " +
+                            "return; " +
+                        "end; " +
+                        "local value = redis.call('incrby', KEYS[1], ARGV[3]); " +
+                        "redis.call('publish', KEYS[3], value); ",
+                        Arrays.asList(getRawName(), getLeasesName(), getChannelName()),
+                        token, reserved, unused);
+            }
+        };
+
+        LocalPermitLease oldLease = lease;
+        lease = newLease;
+        if (oldLease != null) {
+            oldLease.close();
+        }
+    }
+
+    @Override
+    public void disableLocalLease() {
+        LocalPermitLease oldLease = lease;
+        lease = null;
+        if (oldLease != null) {
+            oldLease.close();
+        }
     }
 
     @Override
@@ -470,7 +561,14 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
 
     @Override
     public RFuture<Integer> availablePermitsAsync() {
-        return commandExecutor.writeAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.GET_INTEGER, getRawName());
+        return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_INTEGER,
+                reclaimLeases("ARGV[1]") +
+                "local value = redis.call('get', KEYS[1]); " +
+                "if (value == false) then " +
+                    "return 0; " +
+                "end; " +
+                "return value;",
+                Arrays.asList(getRawName(), getLeasesName(), getChannelName()), System.currentTimeMillis());
     }
 
     @Override
@@ -519,5 +617,30 @@ public class RedissonSemaphore extends RedissonExpirable implements RSemaphore {
                 Arrays.asList(getRawName(), getChannelName()), permits);
     }
 
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        List<Object> keys = Arrays.<Object>asList(getRawName(), getLeasesName());
+        return super.sizeInMemoryAsync(keys);
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return deleteAsync(getRawName(), getLeasesName());
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return super.expireAsync(timeToLive, timeUnit, param, getRawName(), getLeasesName());
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return super.expireAtAsync(timestamp, param, getRawName(), getLeasesName());
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        return clearExpireAsync(getRawName(), getLeasesName());
+    }
 
 }
@@ -0,0 +1,451 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.api.RFuture;
+import org.redisson.api.RTopK;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.IntegerCodec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.ScoredEntry;
+import org.redisson.client.protocol.decoder.ObjectMapReplayDecoder;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.misc.Hash;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-K object based on Count-min sketch and sorted set of top elements.
+ * <p>
+ * Sorted set stored under name of this object holds at most <code>topK</code>
+ * elements scored by estimated counts. Element with the lowest score
+ * is replaced once estimated count of another element exceeds it.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> type of object
+ */
+public class RedissonTopK<V> extends RedissonExpirable implements RTopK<V> {
+
+    private static final String OBJECT_NAME = "Top-K";
+
+    private static final String CONFIG_CHECK_SCRIPT = RedissonCountMinSketch.configCheckScript(OBJECT_NAME);
+
+    private volatile int width;
+    private volatile int depth;
+
+    private String sketchName;
+    private String configName;
+
+    protected RedissonTopK(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+        this.sketchName = suffixName(getRawName(), "sketch");
+        this.configName = suffixName(getRawName(), "config");
+    }
+
+    protected RedissonTopK(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+        this.sketchName = suffixName(getRawName(), "sketch");
+        this.configName = suffixName(getRawName(), "config");
+    }
+
+    protected long getMaxSize() {
+        return Integer.MAX_VALUE*2L;
+    }
+
+    private long[] hash(Object object) {
+        ByteBuf state = encode(object);
+        try {
+            return Hash.hash128(state);
+        } finally {
+            state.release();
+        }
+    }
+
+    @Override
+    public boolean tryInit(int topK) {
+        return get(tryInitAsync(topK));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(int topK) {
+        return tryInitAsync(topK, topK * 10, 5);
+    }
+
+    @Override
+    public boolean tryInit(int topK, int width, int depth) {
+        return get(tryInitAsync(topK, width, depth));
+    }
+
+    @Override
+    public RFuture<Boolean> tryInitAsync(int topK, int width, int depth) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("Top-K amount should be greater than 0");
+        }
+        RedissonCountMinSketch.checkDimensions(width, depth, getMaxSize());
+
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(configName, StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', KEYS[1]) == 1 then " +
+                    "return 0; " +
+                "end; " +
+                "redis.call('hmset', KEYS[1], 'topK', ARGV[1], 'width', ARGV[2], 'depth', ARGV[3], 'count', 0); " +
+                "return 1; ",
+                Collections.singletonList(configName), topK, width, depth);
+        CompletionStage<Boolean> f = future.thenCompose(res -> {
+            if (!res) {
+                return readConfigAsync().thenApply(r -> false);
+            }
+
+            this.width = width;
+            this.depth = depth;
+            return CompletableFuture.completedFuture(true);
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public boolean add(V object) {
+        return incrementBy(object, 1);
+    }
+
+    @Override
+    public RFuture<Boolean> addAsync(V object) {
+        return incrementByAsync(object, 1);
+    }
+
+    @Override
+    public boolean incrementBy(V object, long increment) {
+        if (width == 0) {
+            readConfig();
+        }
+        return get(incrementByAsync(object, increment));
+    }
+
+    @Override
+    public RFuture<Boolean> incrementByAsync(V object, long increment) {
+        CompletionStage<Boolean> f = executeAsync(Collections.singletonMap(object, increment))
+                                        .thenApply(res -> (Long) res.get(0) == 1);
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public void incrementBy(Map<V, Long> increments) {
+        if (width == 0) {
+            readConfig();
+        }
+        get(incrementByAsync(increments));
+    }
+
+    @Override
+    public RFuture<Void> incrementByAsync(Map<V, Long> increments) {
+        if (increments.isEmpty()) {
+            return new CompletableFutureWrapper<>((Void) null);
+        }
+        return new CompletableFutureWrapper<>(executeAsync(increments).thenApply(res -> null));
+    }
+
+    private CompletionStage<List<Object>> executeAsync(Map<V, Long> increments) {
+        List<V> objects = new ArrayList<>(increments.keySet());
+        List<long[]> hashes = new ArrayList<>(objects.size());
+        for (V object : objects) {
+            hashes.add(hash(object));
+        }
+
+        CompletionStage<Void> configFuture = CompletableFuture.completedFuture(null);
+        if (width == 0) {
+            configFuture = readConfigAsync();
+        }
+        return configFuture.thenCompose(r -> executeScriptAsync(objects, hashes, increments));
+    }
+
+    /*
+     * Increments counters of all elements and updates top list in a single script call.
+     * Request is repeated with actual config if config has been changed.
+     */
+    private CompletionStage<List<Object>> executeScriptAsync(List<V> objects, List<long[]> hashes, Map<V, Long> increments) {
+        int width = this.width;
+        int depth = this.depth;
+
+        List<Object> params = new ArrayList<>(2 + objects.size() * (depth + 2));
+        params.add(width);
+        params.add(depth);
+        for (int i = 0; i < objects.size(); i++) {
+            V object = objects.get(i);
+            params.add(increments.get(object));
+            params.add(encode(object));
+            for (long offset : RedissonCountMinSketch.offsets(hashes.get(i), width, depth)) {
+                params.add(offset);
+            }
+        }
+
+        RFuture<List<Object>> future = commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                CONFIG_CHECK_SCRIPT +
+                "local topK = tonumber(redis.call('hget', KEYS[2], 'topK')); " +
+                "local result = {}; " +
+                "local total = 0; " +
+                "for i = 3, #ARGV, rows + 2 do " +
+                    "local offset = i + 1; " +
+                    RedissonCountMinSketch.INCREMENT_SCRIPT +
+                    "local member = ARGV[i + 1]; " +
+                    "local inTop = 1; " +
+                    "if redis.call('zscore', KEYS[3], member) ~= false " +
+                            "or redis.call('zcard', KEYS[3]) < topK then " +
+                        "redis.call('zadd', KEYS[3], estimate, member); " +
+                    "else " +
+                        "local lowest = redis.call('zrange', KEYS[3], 0, 0, 'WITHSCORES'); " +
+                        "if estimate > tonumber(lowest[2]) then " +
+                            "redis.call('zrem', KEYS[3], lowest[1]); " +
+                            "redis.call('zadd', KEYS[3], estimate, member); " +
+                        "else " +
+                            "inTop = 0; " +
+                        "end; " +
+                    "end; " +
+                    "table.insert(result, inTop); " +
+                    "total = total + tonumber(ARGV[i]); " +
+                "end; " +
+                "redis.call('hincrby', KEYS[2], 'count', total); " +
+                "return result; ",
+                Arrays.<Object>asList(sketchName, configName, getRawName()), params.toArray());
+
+        CompletableFuture<List<Object>> result = new CompletableFuture<>();
+        future.whenComplete((res, e) -> {
+            if (e == null) {
+                result.complete(res);
+                return;
+            }
+            if (!RedissonCountMinSketch.configChanged(e, OBJECT_NAME)) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            readConfigAsync()
+                    .thenCompose(r -> executeScriptAsync(objects, hashes, increments))
+                    .whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                            return;
+                        }
+                        result.complete(r);
+                    });
+        });
+        return result;
+    }
+
+    @Override
+    public boolean contains(V object) {
+        return get(containsAsync(object));
+    }
+
+    @Override
+    public RFuture<Boolean> containsAsync(V object) {
+        RFuture<Double> future = commandExecutor.readAsync(getRawName(), codec, RedisCommands.ZSCORE, getRawName(), encode(object));
+        return new CompletableFutureWrapper<>(future.thenApply(score -> score != null));
+    }
+
+    @Override
+    public long estimate(V object) {
+        if (width == 0) {
+            readConfig();
+        }
+        return get(estimateAsync(object));
+    }
+
+    @Override
+    public RFuture<Long> estimateAsync(V object) {
+        long[] hash = hash(object);
+
+        CompletionStage<Void> configFuture = CompletableFuture.completedFuture(null);
+        if (width == 0) {
+            configFuture = readConfigAsync();
+        }
+        CompletionStage<Long> f = configFuture.thenCompose(r -> {
+            List<Object> params = new ArrayList<>(depth);
+            for (long offset : RedissonCountMinSketch.offsets(hash, width, depth)) {
+                params.add(offset);
+            }
+
+            return commandExecutor.<Long, Long>evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LONG,
+                    "local args = {}; " +
+                    "for j = 1, #ARGV do " +
+                        "table.insert(args, 'GET'); " +
+                        "table.insert(args, 'i64'); " +
+                        "table.insert(args, '#' .. ARGV[j]); " +
+                    "end; " +
+                    "local values = redis.call('bitfield', KEYS[1], unpack(args)); " +
+                    "local estimate = values[1]; " +
+                    "for j = 2, #values do " +
+                        "estimate = math.min(estimate, values[j]); " +
+                    "end; " +
+                    "return estimate; ",
+                    Collections.<Object>singletonList(sketchName), params.toArray());
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public List<V> getTop() {
+        return get(getTopAsync());
+    }
+
+    @Override
+    public RFuture<List<V>> getTopAsync() {
+        return commandExecutor.readAsync(getRawName(), codec, RedisCommands.ZREVRANGE, getRawName(), 0, -1);
+    }
+
+    @Override
+    public Map<V, Long> getTopWithCounts() {
+        return get(getTopWithCountsAsync());
+    }
+
+    @Override
+    public RFuture<Map<V, Long>> getTopWithCountsAsync() {
+        RFuture<List<ScoredEntry<V>>> future = commandExecutor.readAsync(getRawName(), codec, RedisCommands.ZREVRANGE_ENTRY,
+                                                                            getRawName(), 0, -1, "WITHSCORES");
+        CompletionStage<Map<V, Long>> f = future.thenApply(entries -> {
+            Map<V, Long> result = new LinkedHashMap<>(entries.size());
+            for (ScoredEntry<V> entry : entries) {
+                result.put(entry.getValue(), entry.getScore().longValue());
+            }
+            return result;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public int getTopK() {
+        Integer result = get(commandExecutor.readAsync(configName, IntegerCodec.INSTANCE, RedisCommands.HGET, configName, "topK"));
+        return check(result);
+    }
+
+    @Override
+    public RFuture<Integer> getTopKAsync() {
+        RFuture<Integer> future = commandExecutor.readAsync(configName, IntegerCodec.INSTANCE, RedisCommands.HGET, configName, "topK");
+        return new CompletableFutureWrapper<>(future.thenApply(r -> check(r)));
+    }
+
+    private void readConfig() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        Map<String, String> config = commandExecutor.get(future);
+
+        readConfig(config);
+    }
+
+    private CompletionStage<Void> readConfigAsync() {
+        RFuture<Map<String, String>> future = commandExecutor.readAsync(configName, StringCodec.INSTANCE,
+                new RedisCommand<Map<Object, Object>>("HGETALL", new ObjectMapReplayDecoder()), configName);
+        return future.thenAccept(config -> readConfig(config));
+    }
+
+    private void readConfig(Map<String, String> config) {
+        if (config.get("width") == null
+                || config.get("depth") == null) {
+            throw new IllegalStateException("Top-K is not initialized!");
+        }
+        width = Integer.valueOf(config.get("width"));
+        depth = Integer.valueOf(config.get("depth"));
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        return deleteAsync(getRawName(), sketchName, configName);
+    }
+
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        List<Object> keys = Arrays.<Object>asList(getRawName(), sketchName, configName);
+        return super.sizeInMemoryAsync(keys);
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return super.expireAsync(timeToLive, timeUnit, param, getRawName(), sketchName, configName);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return super.expireAtAsync(timestamp, param, getRawName(), sketchName, configName);
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        return clearExpireAsync(getRawName(), sketchName, configName);
+    }
+
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        String newSketchName = suffixName(newName, "sketch");
+        String newConfigName = suffixName(newName, "config");
+        RFuture<Void> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "for i = 1, 2 do " +
+                    "if redis.call('exists', KEYS[i]) == 1 then " +
+                        "redis.call('rename', KEYS[i], ARGV[i]); " +
+                    "end; " +
+                "end; " +
+                "return redis.call('rename', KEYS[3], ARGV[3]); ",
+                Arrays.<Object>asList(getRawName(), sketchName, configName), newName, newSketchName, newConfigName);
+        CompletionStage<Void> f = future.thenApply(value -> {
+            setName(newName);
+            this.sketchName = newSketchName;
+            this.configName = newConfigName;
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        String newSketchName = suffixName(newName, "sketch");
+        String newConfigName = suffixName(newName, "config");
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('exists', ARGV[1], ARGV[2], ARGV[3]) > 0 then " +
+                    "return 0; " +
+                "end; " +
+                "for i = 1, 2 do " +
+                    "if redis.call('exists', KEYS[i]) == 1 then " +
+                        "redis.call('rename', KEYS[i], ARGV[i]); " +
+                    "end; " +
+                "end; " +
+                "redis.call('rename', KEYS[3], ARGV[3]); " +
+                "return 1; ",
+                Arrays.<Object>asList(getRawName(), sketchName, configName), newName, newSketchName, newConfigName);
+        CompletionStage<Boolean> f = future.thenApply(value -> {
+            if (value) {
+                setName(newName);
+                this.sketchName = newSketchName;
+                this.configName = newConfigName;
+            }
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private <T> T check(T result) {
+        if (result == null) {
+            throw new IllegalStateException("Top-K is not initialized!");
+        }
+        return result;
+    }
+
+}
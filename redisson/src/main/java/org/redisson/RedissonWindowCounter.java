@@ -0,0 +1,491 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson;
+
+import org.redisson.api.RFuture;
+import org.redisson.api.RWindowCounter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.WindowType;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores counter of each key as compact string in hash field:
+ * <code>window:count</code> for fixed window, <code>window:current:previous</code>
+ * for sliding window and comma separated <code>timestamp:permits</code> entries for sliding log.
+ * Sorted set scored by the time each field becomes stale is used to remove fields of idle keys.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key type
+ */
+public class RedissonWindowCounter<K> extends RedissonExpirable implements RWindowCounter<K> {
+
+    private static final class Lease {
+
+        private final AtomicLong permits;
+        private final long expireAt;
+
+        Lease(long permits, long expireAt) {
+            this.permits = new AtomicLong(permits);
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expireAt;
+        }
+
+        boolean tryAcquire(long amount) {
+            if (isExpired()) {
+                return false;
+            }
+
+            while (true) {
+                long current = permits.get();
+                if (current < amount) {
+                    return false;
+                }
+                if (permits.compareAndSet(current, current - amount)) {
+                    return true;
+                }
+            }
+        }
+
+    }
+
+    // holds lease of each key, incomplete future means reservation is in progress
+    private final Map<K, CompletableFuture<Lease>> leases = new ConcurrentHashMap<>();
+    private volatile long leasePermits;
+    private volatile long leaseTime;
+
+    private String configName;
+    private String timeoutName;
+
+    public RedissonWindowCounter(CommandAsyncExecutor commandExecutor, String name) {
+        super(commandExecutor, name);
+        this.configName = suffixName(getRawName(), "config");
+        this.timeoutName = suffixName(getRawName(), "timeout");
+    }
+
+    public RedissonWindowCounter(Codec codec, CommandAsyncExecutor commandExecutor, String name) {
+        super(codec, commandExecutor, name);
+        this.configName = suffixName(getRawName(), "config");
+        this.timeoutName = suffixName(getRawName(), "timeout");
+    }
+
+    @Override
+    public boolean trySetRate(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit) {
+        return get(trySetRateAsync(type, rate, rateInterval, rateIntervalUnit));
+    }
+
+    @Override
+    public RFuture<Boolean> trySetRateAsync(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit) {
+        checkRate(rate, rateInterval);
+        return commandExecutor.evalWriteAsync(configName, LongCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "if redis.call('hsetnx', KEYS[1], 'type', ARGV[1]) == 0 then " +
+                    "return 0; " +
+                "end; " +
+                "redis.call('hset', KEYS[1], 'rate', ARGV[2], 'interval', ARGV[3]); " +
+                "return 1; ",
+                Collections.singletonList(configName), type.name(), rate, rateIntervalUnit.toMillis(rateInterval));
+    }
+
+    @Override
+    public void setRate(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit) {
+        get(setRateAsync(type, rate, rateInterval, rateIntervalUnit));
+    }
+
+    @Override
+    public RFuture<Void> setRateAsync(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit) {
+        checkRate(rate, rateInterval);
+        leases.clear();
+        return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "redis.call('hset', KEYS[2], 'type', ARGV[1], 'rate', ARGV[2], 'interval', ARGV[3]); " +
+                "redis.call('del', KEYS[1], KEYS[3]); ",
+                Arrays.asList(getRawName(), configName, timeoutName), type.name(), rate, rateIntervalUnit.toMillis(rateInterval));
+    }
+
+    private void checkRate(long rate, long rateInterval) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate should be greater than zero");
+        }
+        if (rateInterval <= 0) {
+            throw new IllegalArgumentException("rateInterval should be greater than zero");
+        }
+    }
+
+    @Override
+    public void enableLocalLease(long permits, long leaseTime, TimeUnit unit) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits should be greater than zero");
+        }
+        if (leaseTime <= 0) {
+            throw new IllegalArgumentException("leaseTime should be greater than zero");
+        }
+        this.leaseTime = unit.toMillis(leaseTime);
+        this.leasePermits = permits;
+    }
+
+    @Override
+    public boolean tryAcquire(K key) {
+        return get(tryAcquireAsync(key));
+    }
+
+    @Override
+    public RFuture<Boolean> tryAcquireAsync(K key) {
+        return tryAcquireAsync(key, 1);
+    }
+
+    @Override
+    public boolean tryAcquire(K key, long permits) {
+        return get(tryAcquireAsync(key, permits));
+    }
+
+    @Override
+    public RFuture<Boolean> tryAcquireAsync(K key, long permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits should be greater than zero");
+        }
+
+        long reserved = leasePermits;
+        if (reserved == 0 || permits > reserved) {
+            return tryAcquireSingleAsync(key, permits);
+        }
+
+        return new CompletableFutureWrapper<>(tryAcquireLeaseAsync(key, permits, reserved));
+    }
+
+    private CompletionStage<Boolean> tryAcquireLeaseAsync(K key, long permits, long reserved) {
+        CompletableFuture<Lease> leaseFuture = leases.get(key);
+        if (leaseFuture != null) {
+            if (!leaseFuture.isDone()) {
+                // wait for reservation made by concurrent acquisition
+                return leaseFuture.thenCompose(lease -> {
+                    if (lease == null) {
+                        return tryAcquireSingleAsync(key, permits);
+                    }
+                    return tryAcquireLeaseAsync(key, permits, reserved);
+                });
+            }
+
+            Lease lease = leaseFuture.getNow(null);
+            if (lease != null && lease.tryAcquire(permits)) {
+                return CompletableFuture.completedFuture(true);
+            }
+        }
+
+        CompletableFuture<Lease> newLeaseFuture = new CompletableFuture<>();
+        boolean added;
+        if (leaseFuture == null) {
+            added = leases.putIfAbsent(key, newLeaseFuture) == null;
+        } else {
+            added = leases.replace(key, leaseFuture, newLeaseFuture);
+        }
+        if (!added) {
+            return tryAcquireLeaseAsync(key, permits, reserved);
+        }
+
+        RFuture<List<Long>> future = executeAsync("acquire", Collections.singletonMap(key, reserved), leaseTime);
+        return future.<CompletionStage<Boolean>>handle((r, e) -> {
+            if (e != null || r.get(0) == 0) {
+                leases.remove(key, newLeaseFuture);
+                newLeaseFuture.complete(null);
+                if (e != null) {
+                    throw new CompletionException(e);
+                }
+                return tryAcquireSingleAsync(key, permits);
+            }
+
+            Lease lease = new Lease(reserved - permits, r.get(1));
+            // drop lease of idle key
+            commandExecutor.getConnectionManager().newTimeout(t -> leases.remove(key, newLeaseFuture),
+                    Math.max(0, lease.expireAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            newLeaseFuture.complete(lease);
+            return CompletableFuture.completedFuture(true);
+        }).thenCompose(f -> f);
+    }
+
+    private RFuture<Boolean> tryAcquireSingleAsync(K key, long permits) {
+        RFuture<List<Long>> future = executeAsync("acquire", Collections.singletonMap(key, permits));
+        CompletionStage<Boolean> f = future.thenApply(r -> r.get(0) == 1);
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public Map<K, Boolean> tryAcquire(Map<K, Long> permits) {
+        return get(tryAcquireAsync(permits));
+    }
+
+    @Override
+    public RFuture<Map<K, Boolean>> tryAcquireAsync(Map<K, Long> permits) {
+        if (permits.isEmpty()) {
+            return new CompletableFutureWrapper<>(Collections.emptyMap());
+        }
+        for (Long value : permits.values()) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("permits should be greater than zero");
+            }
+        }
+
+        List<K> keys = new ArrayList<>(permits.keySet());
+        RFuture<List<Long>> future = executeAsync("acquire", permits);
+        CompletionStage<Map<K, Boolean>> f = future.thenApply(r -> {
+            Map<K, Boolean> result = new LinkedHashMap<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                result.put(keys.get(i), r.get(i) == 1);
+            }
+            return result;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public long availablePermits(K key) {
+        return get(availablePermitsAsync(key));
+    }
+
+    @Override
+    public RFuture<Long> availablePermitsAsync(K key) {
+        RFuture<List<Long>> future = executeAsync("available", Collections.singletonMap(key, 0L));
+        CompletionStage<Long> f = future.thenApply(r -> r.get(0));
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    private RFuture<List<Long>> executeAsync(String mode, Map<K, Long> permits) {
+        return executeAsync(mode, permits, 0);
+    }
+
+    /*
+     * Sliding log entries of leased permits are stamped with lease end time,
+     * so they are counted as long as leased permits can be spent.
+     * If lease is defined then lease end time limited by current window end is returned as last element.
+     */
+    private RFuture<List<Long>> executeAsync(String mode, Map<K, Long> permits, long lease) {
+        List<Object> args = new ArrayList<>(permits.size() * 2 + 3);
+        args.add(System.currentTimeMillis());
+        args.add(mode);
+        args.add(lease);
+        for (Map.Entry<K, Long> entry : permits.entrySet()) {
+            args.add(encodeMapKey(entry.getKey(), args));
+            args.add(entry.getValue());
+        }
+
+        String script = "local config = redis.call('hmget', KEYS[2], 'type', 'rate', 'interval'); " +
+                "assert(config[1] ~= false, 'WindowCounter is not initialized'); " +
+                "local algorithm = config[1]; " +
+                "local rate = tonumber(config[2]); " +
+                "local interval = tonumber(config[3]); " +
+                "local now = tonumber(ARGV[1]); " +
+                "local acquire = ARGV[2] == 'acquire'; " +
+                "local lease = tonumber(ARGV[3]); " +
+                "local window = math.floor(now / interval); " +
+                "local result = {}; " +
+
+                "for i = 4, #ARGV, 2 do " +
+                    "local field = ARGV[i]; " +
+                    "local permits = tonumber(ARGV[i + 1]); " +
+                    "local value = redis.call('hget', KEYS[1], field); " +
+                    "local used = 0; " +
+                    "local update; " +
+                    "local staleAt; " +
+
+                    "if algorithm == 'FIXED_WINDOW' then " +
+                        "if value then " +
+                            "local w, c = string.match(value, '^(%d+):(%d+)$'); " +
+                            "if tonumber(w) == window then " +
+                                "used = tonumber(c); " +
+                            "end; " +
+                        "end; " +
+                        "update = string.format('%d:%d', window, used + permits); " +
+                        "staleAt = (window + 1) * interval; " +
+                    "elseif algorithm == 'SLIDING_WINDOW' then " +
+                        "local current = 0; " +
+                        "local previous = 0; " +
+                        "if value then " +
+                            "local w, c, p = string.match(value, '^(%d+):(%d+):(%d+)$'); " +
+                            "w = tonumber(w); " +
+                            "if w == window then " +
+                                "current = tonumber(c); " +
+                                "previous = tonumber(p); " +
+                            "elseif w == window - 1 then " +
+                                "previous = tonumber(c); " +
+                            "end; " +
+                        "end; " +
+                        "used = math.ceil(previous * (1 - (now - window * interval) / interval) + current); " +
+                        "update = string.format('%d:%d:%d', window, current + permits, previous); " +
+                        "staleAt = (window + 2) * interval; " +
+                    "else " +
+                        "local parts = {}; " +
+                        "local last = now + lease; " +
+                        "if value then " +
+                            "for t, c in string.gmatch(value, '(%d+):(%d+)') do " +
+                                "if tonumber(t) > now - interval then " +
+                                    "used = used + tonumber(c); " +
+                                    "parts[#parts + 1] = t .. ':' .. c; " +
+                                    "last = math.max(last, tonumber(t)); " +
+                                "end; " +
+                            "end; " +
+                        "end; " +
+                        "parts[#parts + 1] = string.format('%d:%d', now + lease, permits); " +
+                        "update = table.concat(parts, ','); " +
+                        "staleAt = last + interval; " +
+                    "end; " +
+
+                    "if acquire then " +
+                        "if used + permits <= rate then " +
+                            "redis.call('hset', KEYS[1], field, update); " +
+                            "redis.call('zadd', KEYS[3], staleAt, field); " +
+                            "table.insert(result, 1); " +
+                        "else " +
+                            "table.insert(result, 0); " +
+                        "end; " +
+                    "else " +
+                        "table.insert(result, math.max(0, rate - used)); " +
+                    "end; " +
+                "end; " +
+
+                "if acquire then " +
+                    "local expired = redis.call('zrangebyscore', KEYS[3], 0, now, 'limit', 0, 100); " +
+                    "if #expired > 0 then " +
+                        "redis.call('hdel', KEYS[1], unpack(expired)); " +
+                        "redis.call('zrem', KEYS[3], unpack(expired)); " +
+                    "end; " +
+                    "redis.call('pexpire', KEYS[1], interval * 2 + lease); " +
+                    "redis.call('pexpire', KEYS[3], interval * 2 + lease); " +
+                "end; " +
+                "if lease > 0 then " +
+                    "if algorithm == 'SLIDING_LOG' then " +
+                        "table.insert(result, now + lease); " +
+                    "else " +
+                        "table.insert(result, math.min(now + lease, (window + 1) * interval)); " +
+                    "end; " +
+                "end; " +
+                "return result; ";
+
+        List<Object> keys = Arrays.asList(getRawName(), configName, timeoutName);
+        if ("acquire".equals(mode)) {
+            return commandExecutor.evalWriteAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                    script, keys, args.toArray());
+        }
+        return commandExecutor.evalReadAsync(getRawName(), LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                script, keys, args.toArray());
+    }
+
+    @Override
+    public boolean reset(K key) {
+        return get(resetAsync(key));
+    }
+
+    @Override
+    public RFuture<Boolean> resetAsync(K key) {
+        leases.remove(key);
+        RFuture<Long> future = commandExecutor.writeAsync(getRawName(), codec, RedisCommands.HDEL, getRawName(), encodeMapKey(key));
+        CompletionStage<Boolean> f = future.thenApply(r -> r > 0);
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> deleteAsync() {
+        leases.clear();
+        return deleteAsync(getRawName(), configName, timeoutName);
+    }
+
+    @Override
+    public RFuture<Long> sizeInMemoryAsync() {
+        List<Object> keys = Arrays.<Object>asList(getRawName(), configName, timeoutName);
+        return super.sizeInMemoryAsync(keys);
+    }
+
+    @Override
+    public RFuture<Boolean> expireAsync(long timeToLive, TimeUnit timeUnit, String param, String... keys) {
+        return super.expireAsync(timeToLive, timeUnit, param, getRawName(), configName, timeoutName);
+    }
+
+    @Override
+    protected RFuture<Boolean> expireAtAsync(long timestamp, String param, String... keys) {
+        return super.expireAtAsync(timestamp, param, getRawName(), configName, timeoutName);
+    }
+
+    @Override
+    public RFuture<Boolean> clearExpireAsync() {
+        return clearExpireAsync(getRawName(), configName, timeoutName);
+    }
+
+    @Override
+    public RFuture<Boolean> isExistsAsync() {
+        return commandExecutor.writeAsync(getRawName(), codec, RedisCommands.EXISTS, getRawName(), configName, timeoutName);
+    }
+
+    @Override
+    public RFuture<Void> renameAsync(String newName) {
+        String newConfigName = suffixName(newName, "config");
+        String newTimeoutName = suffixName(newName, "timeout");
+        RFuture<Void> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                     "if redis.call('exists', KEYS[1]) == 1 then " +
+                              "redis.call('rename', KEYS[1], ARGV[1]); " +
+                          "end; " +
+                          "if redis.call('exists', KEYS[3]) == 1 then " +
+                              "redis.call('rename', KEYS[3], ARGV[3]); " +
+                          "end; " +
+                          "return redis.call('rename', KEYS[2], ARGV[2]); ",
+                Arrays.<Object>asList(getRawName(), configName, timeoutName), newName, newConfigName, newTimeoutName);
+        CompletionStage<Void> f = future.thenApply(value -> {
+            setName(newName);
+            this.configName = newConfigName;
+            this.timeoutName = newTimeoutName;
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+    @Override
+    public RFuture<Boolean> renamenxAsync(String newName) {
+        String newConfigName = suffixName(newName, "config");
+        String newTimeoutName = suffixName(newName, "timeout");
+        RFuture<Boolean> future = commandExecutor.evalWriteAsync(getRawName(), StringCodec.INSTANCE, RedisCommands.EVAL_BOOLEAN,
+                "local r = redis.call('renamenx', KEYS[1], ARGV[1]); "
+                        + "if r == 0 then "
+                        + "  return 0; "
+                        + "end; "
+                        + "if redis.call('exists', KEYS[3]) == 1 then "
+                        + "  redis.call('renamenx', KEYS[3], ARGV[3]); "
+                        + "end; "
+                        + "return redis.call('renamenx', KEYS[2], ARGV[2]); ",
+                Arrays.asList(getRawName(), configName, timeoutName), newName, newConfigName, newTimeoutName);
+        CompletionStage<Boolean> f = future.thenApply(value -> {
+            if (value) {
+                setName(newName);
+                this.configName = newConfigName;
+                this.timeoutName = newTimeoutName;
+            }
+            return value;
+        });
+        return new CompletableFutureWrapper<>(f);
+    }
+
+}
@@ -73,6 +73,8 @@ public final class BatchOptions {
     private long syncTimeout;
     private int syncSlaves;
     private boolean skipResult;
+    private CommandPriority priority = CommandPriority.INTERACTIVE;
+    private long deadline;
 
     private BatchOptions() {
     }
@@ -192,6 +194,41 @@ public final class BatchOptions {
         return executionMode;
     }
 
+    /**
+     * Sets priority of batch commands.
+     * Batch with {@link CommandPriority#BULK} priority doesn't occupy connections
+     * beyond <code>bulkCommandsLimit</code> setting.
+     * <p>
+     * Default is {@link CommandPriority#INTERACTIVE}
+     *
+     * @param priority batch priority
+     * @return self instance
+     */
+    public BatchOptions priority(CommandPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+    public CommandPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Defines absolute time after which batch isn't sent to Redis or retried.
+     * Overrides {@link CommandDeadline} bound to the thread only if earlier.
+     * <p>
+     * Default is <code>0</code> which means no deadline
+     *
+     * @param deadline time in milliseconds since epoch
+     * @return self instance
+     */
+    public BatchOptions deadline(long deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+    public long getDeadline() {
+        return deadline;
+    }
+
     @Override
     public String toString() {
         return "BatchOptions [queueStore=" + executionMode + "]";
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline for Redis commands invoked by the current thread.
+ * <p>
+ * Commands aren't sent to Redis, retried or waiting for a free connection
+ * after deadline has been reached and fail with
+ * {@link org.redisson.client.RedisTimeoutException}.
+ * <p>
+ * Usage example:
+ * <pre>
+ * try (CommandDeadline deadline = CommandDeadline.within(100, TimeUnit.MILLISECONDS)) {
+ *     map.get(key);
+ * }
+ * </pre>
+ * Nested deadline can't extend deadline of enclosing one.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public final class CommandDeadline implements AutoCloseable {
+
+    private static final ThreadLocal<CommandDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadline;
+    private final CommandDeadline previous;
+
+    private CommandDeadline(long deadline, CommandDeadline previous) {
+        this.deadline = deadline;
+        this.previous = previous;
+    }
+
+    /**
+     * Binds deadline defined as absolute time to the current thread.
+     *
+     * @param deadline - time in milliseconds since epoch
+     * @return deadline object
+     */
+    public static CommandDeadline of(long deadline) {
+        CommandDeadline previous = CURRENT.get();
+        if (previous != null) {
+            deadline = Math.min(deadline, previous.deadline);
+        }
+        CommandDeadline result = new CommandDeadline(deadline, previous);
+        CURRENT.set(result);
+        return result;
+    }
+
+    /**
+     * Binds deadline defined as timeout from the current moment to the current thread.
+     *
+     * @param timeout - timeout value
+     * @param unit - timeout time unit
+     * @return deadline object
+     */
+    public static CommandDeadline within(long timeout, TimeUnit unit) {
+        return of(System.currentTimeMillis() + unit.toMillis(timeout));
+    }
+
+    /**
+     * Returns deadline bound to the current thread.
+     *
+     * @return time in milliseconds since epoch or <code>0</code> if deadline isn't defined
+     */
+    public static long current() {
+        CommandDeadline d = CURRENT.get();
+        if (d == null) {
+            return 0;
+        }
+        return d.deadline;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Unbinds this deadline and restores enclosing one.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+}
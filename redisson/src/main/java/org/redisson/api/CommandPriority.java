@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Command priority lane.
+ * <p>
+ * Amount of concurrently executed {@link #BULK} commands is limited
+ * per Redis master/slave group by <code>bulkCommandsLimit</code> setting.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public enum CommandPriority {
+
+    /**
+     * Latency-sensitive commands. Never limited.
+     * <p>
+     * Default priority
+     */
+    INTERACTIVE,
+
+    /**
+     * Throughput-oriented commands like scans, full reads of large objects
+     * or bulk loading batches.
+     */
+    BULK
+
+}
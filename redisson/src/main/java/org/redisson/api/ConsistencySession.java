@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Read-your-writes consistency session.
+ * <p>
+ * Master replication offset is recorded after each write made within the session.
+ * Reads made within the session are routed only to slaves which have already
+ * replicated this offset, or to master if there are no such slaves.
+ * <p>
+ * Session is applied to commands invoked by the thread it's bound to.
+ * The same session object could be bound to another thread later,
+ * e.g. passed as a token between requests of the same user.
+ * <p>
+ * Takes effect only if <code>readMode</code> setting isn't <code>MASTER</code>.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public interface ConsistencySession extends AutoCloseable {
+
+    /**
+     * Binds this session to the current thread.
+     * Replaces session previously bound to the current thread.
+     */
+    void bind();
+
+    /**
+     * Unbinds this session from the current thread.
+     * Recorded replication offsets are kept, so session could be bound again.
+     */
+    void unbind();
+
+    /**
+     * Unbinds this session from the current thread.
+     */
+    @Override
+    void close();
+
+}
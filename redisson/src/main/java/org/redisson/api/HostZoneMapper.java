@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import org.redisson.misc.RedisURI;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Maps Redis node address to zone using map defined in <code>zonesMap</code> setting.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class HostZoneMapper implements ZoneMapper {
+
+    private Map<String, String> zonesMap = Collections.emptyMap();
+
+    @Override
+    public String map(RedisURI uri) {
+        String zone = zonesMap.get(uri.getHost() + ":" + uri.getPort());
+        if (zone == null) {
+            return zonesMap.get(uri.getHost());
+        }
+        return zone;
+    }
+
+    /**
+     * Defines zones mapping. Host or host:port as key mapped to zone as value.
+     * Host:port entry has precedence over host entry.
+     *
+     * @param zonesMap - zones map
+     */
+    public void setZonesMap(Map<String, String> zonesMap) {
+        this.zonesMap = zonesMap;
+    }
+
+}
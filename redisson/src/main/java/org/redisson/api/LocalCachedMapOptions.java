@@ -15,6 +15,7 @@
  */
 package org.redisson.api;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
 import org.redisson.api.map.MapLoader;
@@ -55,7 +56,16 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
          * if LocalCachedMap instance has been disconnected less than 10 minutes 
          * or whole local cache will be cleaned otherwise.
          */
-        LOAD
+        LOAD,
+
+        /**
+         * Store invalidated entry hash in Redis Stream capped by {@link #updatesStreamMaxLength(int)} entries.
+         * Each LocalCachedMap instance tracks id of the last seen stream entry
+         * and removes cache keys only for invalidations missed while disconnected.
+         * If missed invalidations were trimmed from the stream then
+         * cached entries are checked against Redis in batches and only changed entries are removed.
+         */
+        STREAM
         
     }
     
@@ -94,6 +104,13 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
          * Least Frequently Used local cache eviction policy.
          */
         LFU, 
+
+        /**
+         * W-TinyLFU local cache eviction policy.
+         * Admits new values into the main region only if they're accessed more frequently
+         * than values which would be evicted. Reads are recorded without locking.
+         */
+        TINY_LFU,
         
         /**
          * Local cache  eviction policy with Soft Reference used for values.
@@ -130,6 +147,23 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
 
     }
 
+    public enum UpdateMode {
+
+        /**
+         * Broadcasts full encoded value of changed map entry.
+         */
+        FULL,
+
+        /**
+         * Broadcasts binary diff between previous and new encoded value of changed map entry
+         * if previous value is stored in local cache and diff is smaller than full value.
+         * Instance applies diff to encoded value stored in its local cache
+         * and invalidates entry if this value differs from previous value used for diff.
+         */
+        DELTA
+
+    }
+
     private ReconnectionStrategy reconnectionStrategy;
     private SyncStrategy syncStrategy;
     private EvictionPolicy evictionPolicy;
@@ -139,6 +173,13 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
     private CacheProvider cacheProvider;
     private StoreMode storeMode;
     private boolean storeCacheMiss;
+    private long invalidationBatchWindowInMillis;
+    private int invalidationBatchSize;
+    private int updatesStreamMaxLength;
+    private File snapshotDirectory;
+    private long snapshotIntervalInMillis;
+    private UpdateMode updateMode;
+    private int updateCompressionThreshold;
     
     protected LocalCachedMapOptions() {
     }
@@ -153,6 +194,13 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
         this.cacheProvider = copy.cacheProvider;
         this.storeMode = copy.storeMode;
         this.storeCacheMiss = copy.storeCacheMiss;
+        this.invalidationBatchWindowInMillis = copy.invalidationBatchWindowInMillis;
+        this.invalidationBatchSize = copy.invalidationBatchSize;
+        this.updatesStreamMaxLength = copy.updatesStreamMaxLength;
+        this.snapshotDirectory = copy.snapshotDirectory;
+        this.snapshotIntervalInMillis = copy.snapshotIntervalInMillis;
+        this.updateMode = copy.updateMode;
+        this.updateCompressionThreshold = copy.updateCompressionThreshold;
     }
     
     /**
@@ -166,7 +214,14 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
      *      .reconnectionStrategy(ReconnectionStrategy.NONE)
      *      .cacheProvider(CacheProvider.REDISSON)
      *      .syncStrategy(SyncStrategy.INVALIDATE)
-     *      .storeCacheMiss(false);
+     *      .storeCacheMiss(false)
+     *      .invalidationBatchWindow(0)
+     *      .invalidationBatchSize(1000)
+     *      .updatesStreamMaxLength(100000)
+     *      .snapshotDirectory(null)
+     *      .snapshotInterval(0)
+     *      .updateMode(UpdateMode.FULL)
+     *      .updateCompressionThreshold(0);
      * </pre>
      * 
      * @param <K> key type
@@ -183,7 +238,14 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
                     .cacheProvider(CacheProvider.REDISSON)
                     .storeMode(StoreMode.LOCALCACHE_REDIS)
                     .syncStrategy(SyncStrategy.INVALIDATE)
-                    .storeCacheMiss(false);
+                    .storeCacheMiss(false)
+                    .invalidationBatchWindow(0)
+                    .invalidationBatchSize(1000)
+                    .updatesStreamMaxLength(100000)
+                    .snapshotDirectory(null)
+                    .snapshotInterval(0)
+                    .updateMode(UpdateMode.FULL)
+                    .updateCompressionThreshold(0);
     }
 
     public CacheProvider getCacheProvider() {
@@ -231,6 +293,7 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
      * @param reconnectionStrategy
      *          <p><code>CLEAR</code> - clear local cache if map instance has been disconnected for a while.
      *          <p><code>LOAD</code> - store invalidated entry hash in invalidation log for 10 minutes. Cache keys for stored invalidated entry hashes will be removed if LocalCachedMap instance has been disconnected less than 10 minutes or whole cache will be cleaned otherwise
+     *          <p><code>STREAM</code> - store invalidated entry hash in capped Redis Stream. Only invalidations missed while disconnected are applied to local cache. Cached entries are checked against Redis if missed invalidations were trimmed from the stream
      *          <p><code>NONE</code> - Default. No reconnection handling
      * @return LocalCachedMapOptions instance
      */
@@ -267,6 +330,7 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
      * @param evictionPolicy
      *         <p><code>LRU</code> - uses local cache with LRU (least recently used) eviction policy.
      *         <p><code>LFU</code> - uses local cache with LFU (least frequently used) eviction policy.
+     *         <p><code>TINY_LFU</code> - uses local cache with W-TinyLFU eviction policy.
      *         <p><code>SOFT</code> - uses local cache with soft references. The garbage collector will evict items from the local cache when the JVM is running out of memory.
      *         <p><code>WEAK</code> - uses local cache with weak references. The garbage collector will evict items from the local cache when it became weakly reachable.
      *         <p><code>NONE</code> - doesn't use eviction policy, but timeToLive and maxIdleTime params are still working.
@@ -373,6 +437,161 @@ public class LocalCachedMapOptions<K, V> extends MapOptions<K, V> {
         return this;
     }
 
+    public long getInvalidationBatchWindowInMillis() {
+        return invalidationBatchWindowInMillis;
+    }
+
+    /**
+     * Defines time window used to coalesce invalidation messages.
+     * Keys invalidated by this instance within the window are deduplicated and
+     * published as a single message after write operations completed.
+     * Applied only with {@link SyncStrategy#INVALIDATE}.
+     * <p>
+     * If value is <code>0</code> then each write operation publishes own message.
+     *
+     * @param invalidationBatchWindowInMillis - time window in milliseconds
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> invalidationBatchWindow(long invalidationBatchWindowInMillis) {
+        this.invalidationBatchWindowInMillis = invalidationBatchWindowInMillis;
+        return this;
+    }
+
+    /**
+     * Defines time window used to coalesce invalidation messages.
+     * Keys invalidated by this instance within the window are deduplicated and
+     * published as a single message after write operations completed.
+     * Applied only with {@link SyncStrategy#INVALIDATE}.
+     * <p>
+     * If value is <code>0</code> then each write operation publishes own message.
+     *
+     * @param invalidationBatchWindow - time window
+     * @param timeUnit - time unit
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> invalidationBatchWindow(long invalidationBatchWindow, TimeUnit timeUnit) {
+        return invalidationBatchWindow(timeUnit.toMillis(invalidationBatchWindow));
+    }
+
+    public int getInvalidationBatchSize() {
+        return invalidationBatchSize;
+    }
+
+    /**
+     * Defines max amount of keys in coalesced invalidation message.
+     * Message is published before time window end once this amount of keys collected.
+     *
+     * @param invalidationBatchSize - max amount of keys per message
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> invalidationBatchSize(int invalidationBatchSize) {
+        this.invalidationBatchSize = invalidationBatchSize;
+        return this;
+    }
+
+    public int getUpdatesStreamMaxLength() {
+        return updatesStreamMaxLength;
+    }
+
+    /**
+     * Defines approximate max length of updates stream
+     * used by {@link ReconnectionStrategy#STREAM} reconnection strategy.
+     *
+     * @param updatesStreamMaxLength - max amount of stream entries
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> updatesStreamMaxLength(int updatesStreamMaxLength) {
+        this.updatesStreamMaxLength = updatesStreamMaxLength;
+        return this;
+    }
+
+    public File getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    /**
+     * Defines directory for local cache snapshot files.
+     * Snapshot is saved on map destroy and periodically if {@link #snapshotInterval(long)} is defined.
+     * Snapshot entries are loaded in background after map creation if they are equal to entries stored in Redis.
+     * <p>
+     * If value is <code>null</code> then snapshot isn't used.
+     *
+     * @param snapshotDirectory - snapshot directory
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> snapshotDirectory(File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+        return this;
+    }
+
+    public long getSnapshotIntervalInMillis() {
+        return snapshotIntervalInMillis;
+    }
+
+    /**
+     * Defines interval of periodic local cache snapshot saving.
+     * Applied only if {@link #snapshotDirectory(File)} is defined.
+     * <p>
+     * If value is <code>0</code> then snapshot is saved only on map destroy.
+     *
+     * @param snapshotIntervalInMillis - interval in milliseconds
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> snapshotInterval(long snapshotIntervalInMillis) {
+        this.snapshotIntervalInMillis = snapshotIntervalInMillis;
+        return this;
+    }
+
+    /**
+     * Defines interval of periodic local cache snapshot saving.
+     * Applied only if {@link #snapshotDirectory(File)} is defined.
+     * <p>
+     * If value is <code>0</code> then snapshot is saved only on map destroy.
+     *
+     * @param snapshotInterval - interval
+     * @param timeUnit - time unit
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> snapshotInterval(long snapshotInterval, TimeUnit timeUnit) {
+        return snapshotInterval(timeUnit.toMillis(snapshotInterval));
+    }
+
+    public UpdateMode getUpdateMode() {
+        return updateMode;
+    }
+
+    /**
+     * Defines how changed map entry value is broadcasted
+     * to other instances by {@link SyncStrategy#UPDATE} sync strategy.
+     * <p>
+     * Default is <code>FULL</code>
+     *
+     * @param updateMode - update mode
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> updateMode(UpdateMode updateMode) {
+        this.updateMode = updateMode;
+        return this;
+    }
+
+    public int getUpdateCompressionThreshold() {
+        return updateCompressionThreshold;
+    }
+
+    /**
+     * Defines size in bytes of encoded map entry value
+     * which is compressed before broadcasting by {@link SyncStrategy#UPDATE} sync strategy.
+     * <p>
+     * If value is <code>0</code> then values aren't compressed.
+     *
+     * @param updateCompressionThreshold - size in bytes
+     * @return LocalCachedMapOptions instance
+     */
+    public LocalCachedMapOptions<K, V> updateCompressionThreshold(int updateCompressionThreshold) {
+        this.updateCompressionThreshold = updateCompressionThreshold;
+        return this;
+    }
+
     @Override
     public LocalCachedMapOptions<K, V> writeBehindBatchSize(int writeBehindBatchSize) {
         return (LocalCachedMapOptions<K, V>) super.writeBehindBatchSize(writeBehindBatchSize);
@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of local cache used by {@link RLocalCachedMap}.
+ * Counters are accumulated since map instance creation.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class LocalCachedMapStats {
+
+    long hits;
+    long misses;
+    long puts;
+    long loads;
+    long totalLoadTime;
+    long sizeEvictions;
+    long expiredEvictions;
+    long collectedEvictions;
+    long invalidationsReceived;
+    long invalidationsSent;
+    long clearsReceived;
+    long invalidationBatches;
+    long invalidationBatchedKeys;
+    long invalidationRequests;
+    int size;
+    long estimatedMemory;
+
+    /**
+     * Returns amount of reads served by local cache
+     *
+     * @return amount of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * Returns amount of reads which required request to Redis or map loader
+     *
+     * @return amount of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * Returns ratio of hits to all reads.
+     *
+     * @return hit ratio or <code>0</code> if there were no reads
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        if (requests == 0) {
+            return 0;
+        }
+        return (double) hits / requests;
+    }
+
+    /**
+     * Returns amount of entries stored in local cache
+     *
+     * @return amount of puts
+     */
+    public long getPuts() {
+        return puts;
+    }
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    /**
+     * Returns amount of values loaded after cache miss
+     *
+     * @return amount of loads
+     */
+    public long getLoads() {
+        return loads;
+    }
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    /**
+     * Returns total time spent on value loading after cache miss
+     *
+     * @param unit - time unit
+     * @return total load time
+     */
+    public long getTotalLoadTime(TimeUnit unit) {
+        return unit.convert(totalLoadTime, TimeUnit.NANOSECONDS);
+    }
+    public void setTotalLoadTime(long totalLoadTime, TimeUnit unit) {
+        this.totalLoadTime = unit.toNanos(totalLoadTime);
+    }
+
+    /**
+     * Returns average time in nanoseconds spent on value loading after cache miss
+     *
+     * @return average load time in nanoseconds or <code>0</code> if there were no loads
+     */
+    public double getAverageLoadTime() {
+        if (loads == 0) {
+            return 0;
+        }
+        return (double) totalLoadTime / loads;
+    }
+
+    /**
+     * Returns total amount of evicted entries
+     *
+     * @return amount of evictions
+     */
+    public long getEvictions() {
+        return sizeEvictions + expiredEvictions + collectedEvictions;
+    }
+
+    /**
+     * Returns amount of entries evicted due to cache size limit
+     *
+     * @return amount of evictions
+     */
+    public long getSizeEvictions() {
+        return sizeEvictions;
+    }
+    public void setSizeEvictions(long sizeEvictions) {
+        this.sizeEvictions = sizeEvictions;
+    }
+
+    /**
+     * Returns amount of entries evicted due to expired time to live or max idle time
+     *
+     * @return amount of evictions
+     */
+    public long getExpiredEvictions() {
+        return expiredEvictions;
+    }
+    public void setExpiredEvictions(long expiredEvictions) {
+        this.expiredEvictions = expiredEvictions;
+    }
+
+    /**
+     * Returns amount of entries evicted because their values
+     * were reclaimed by garbage collector.
+     * Applied to <code>SOFT</code> and <code>WEAK</code> eviction policies.
+     *
+     * @return amount of evictions
+     */
+    public long getCollectedEvictions() {
+        return collectedEvictions;
+    }
+    public void setCollectedEvictions(long collectedEvictions) {
+        this.collectedEvictions = collectedEvictions;
+    }
+
+    /**
+     * Returns amount of keys invalidated or updated by other instances,
+     * including keys loaded from updates log after reconnection.
+     *
+     * @return amount of received invalidations
+     */
+    public long getInvalidationsReceived() {
+        return invalidationsReceived;
+    }
+    public void setInvalidationsReceived(long invalidationsReceived) {
+        this.invalidationsReceived = invalidationsReceived;
+    }
+
+    /**
+     * Returns amount of keys in invalidation and update messages
+     * published by this instance.
+     *
+     * @return amount of sent invalidations
+     */
+    public long getInvalidationsSent() {
+        return invalidationsSent;
+    }
+    public void setInvalidationsSent(long invalidationsSent) {
+        this.invalidationsSent = invalidationsSent;
+    }
+
+    /**
+     * Returns amount of local cache clears requested by other instances
+     *
+     * @return amount of received clears
+     */
+    public long getClearsReceived() {
+        return clearsReceived;
+    }
+    public void setClearsReceived(long clearsReceived) {
+        this.clearsReceived = clearsReceived;
+    }
+
+    /**
+     * Returns amount of invalidation messages published by invalidation batching.
+     * Applied only if invalidation batch window is set.
+     *
+     * @return amount of published messages
+     */
+    public long getInvalidationBatches() {
+        return invalidationBatches;
+    }
+    public void setInvalidationBatches(long invalidationBatches) {
+        this.invalidationBatches = invalidationBatches;
+    }
+
+    /**
+     * Returns amount of keys in invalidation messages published by invalidation batching.
+     * Applied only if invalidation batch window is set.
+     *
+     * @return amount of published keys
+     */
+    public long getInvalidationBatchedKeys() {
+        return invalidationBatchedKeys;
+    }
+    public void setInvalidationBatchedKeys(long invalidationBatchedKeys) {
+        this.invalidationBatchedKeys = invalidationBatchedKeys;
+    }
+
+    /**
+     * Returns amount of key invalidations passed to invalidation batching
+     * including repeated keys coalesced into single invalidation.
+     * Applied only if invalidation batch window is set.
+     *
+     * @return amount of invalidation requests
+     */
+    public long getInvalidationRequests() {
+        return invalidationRequests;
+    }
+    public void setInvalidationRequests(long invalidationRequests) {
+        this.invalidationRequests = invalidationRequests;
+    }
+
+    /**
+     * Returns average amount of keys per invalidation message
+     * published by invalidation batching.
+     *
+     * @return average batch size or <code>0</code> if there were no batches
+     */
+    public double getAverageInvalidationBatchSize() {
+        if (invalidationBatches == 0) {
+            return 0;
+        }
+        return (double) invalidationBatchedKeys / invalidationBatches;
+    }
+
+    /**
+     * Returns amount of entries in local cache
+     *
+     * @return amount of entries
+     */
+    public int getSize() {
+        return size;
+    }
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Returns estimated size in bytes of entries stored in local cache.
+     * Calculated using encoded size of sampled entries.
+     *
+     * @return estimated memory in bytes
+     */
+    public long getEstimatedMemory() {
+        return estimatedMemory;
+    }
+    public void setEstimatedMemory(long estimatedMemory) {
+        this.estimatedMemory = estimatedMemory;
+    }
+
+    @Override
+    public String toString() {
+        return "LocalCachedMapStats [hits=" + hits + ", misses=" + misses + ", puts=" + puts
+                + ", loads=" + loads + ", totalLoadTime=" + totalLoadTime
+                + ", sizeEvictions=" + sizeEvictions + ", expiredEvictions=" + expiredEvictions
+                + ", collectedEvictions=" + collectedEvictions + ", invalidationsReceived=" + invalidationsReceived
+                + ", invalidationsSent=" + invalidationsSent + ", clearsReceived=" + clearsReceived
+                + ", invalidationBatches=" + invalidationBatches + ", invalidationBatchedKeys=" + invalidationBatchedKeys
+                + ", invalidationRequests=" + invalidationRequests + ", size=" + size + ", estimatedMemory=" + estimatedMemory + "]";
+    }
+
+}
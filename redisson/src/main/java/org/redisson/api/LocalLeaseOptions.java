@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of local permits lease used by {@link RRateLimiter} and {@link RSemaphore} objects.
+ * <p>
+ * Lease reserves a batch of permits in Redis and serves <code>tryAcquire</code>
+ * calls from memory. Batch size adapts to consumption rate observed by previous leases.
+ * Unused permits are returned after lease expiration.
+ * <p>
+ * Permits held by a lease of {@link RSemaphore} are lost for other instances until lease is returned.
+ * If it isn't returned within twice the lease time, the whole lease is reclaimed by the semaphore.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public final class LocalLeaseOptions {
+
+    private long minPermits;
+    private long maxPermits;
+    private long leaseTimeInMillis;
+    private double fairShare;
+
+    private LocalLeaseOptions() {
+    }
+
+    /**
+     * Creates options with default values.
+     * <pre>
+     * minPermits = 1
+     * maxPermits = 100
+     * leaseTime = 1000 milliseconds
+     * fairShare = 1.0
+     * </pre>
+     *
+     * @return LocalLeaseOptions instance
+     */
+    public static LocalLeaseOptions defaults() {
+        return new LocalLeaseOptions()
+                    .minPermits(1)
+                    .maxPermits(100)
+                    .leaseTime(1000, TimeUnit.MILLISECONDS)
+                    .fairShare(1.0);
+    }
+
+    public long getMinPermits() {
+        return minPermits;
+    }
+
+    /**
+     * Defines minimal amount of permits reserved by lease.
+     *
+     * @param minPermits - minimal amount of permits
+     * @return LocalLeaseOptions instance
+     */
+    public LocalLeaseOptions minPermits(long minPermits) {
+        if (minPermits <= 0) {
+            throw new IllegalArgumentException("minPermits should be greater than zero");
+        }
+        this.minPermits = minPermits;
+        return this;
+    }
+
+    public long getMaxPermits() {
+        return maxPermits;
+    }
+
+    /**
+     * Defines maximal amount of permits reserved by lease.
+     * Limits amount of permits which might be granted to this instance
+     * but not consumed by it.
+     *
+     * @param maxPermits - maximal amount of permits
+     * @return LocalLeaseOptions instance
+     */
+    public LocalLeaseOptions maxPermits(long maxPermits) {
+        if (maxPermits <= 0) {
+            throw new IllegalArgumentException("maxPermits should be greater than zero");
+        }
+        this.maxPermits = maxPermits;
+        return this;
+    }
+
+    public long getLeaseTimeInMillis() {
+        return leaseTimeInMillis;
+    }
+
+    /**
+     * Defines lease lifetime. Unused permits are returned after it.
+     *
+     * @param leaseTime - lease lifetime
+     * @param unit - lease lifetime unit
+     * @return LocalLeaseOptions instance
+     */
+    public LocalLeaseOptions leaseTime(long leaseTime, TimeUnit unit) {
+        if (leaseTime <= 0) {
+            throw new IllegalArgumentException("leaseTime should be greater than zero");
+        }
+        this.leaseTimeInMillis = unit.toMillis(leaseTime);
+        return this;
+    }
+
+    public double getFairShare() {
+        return fairShare;
+    }
+
+    /**
+     * Defines maximal share of currently available permits
+     * which might be reserved by single lease.
+     * Lower value leaves more permits for other clients.
+     * Requested amount of permits is reserved regardless of this setting.
+     *
+     * @param fairShare - share in range (0, 1]
+     * @return LocalLeaseOptions instance
+     */
+    public LocalLeaseOptions fairShare(double fairShare) {
+        if (fairShare <= 0 || fairShare > 1) {
+            throw new IllegalArgumentException("fairShare should be in range (0, 1]");
+        }
+        this.fairShare = fairShare;
+        return this;
+    }
+
+}
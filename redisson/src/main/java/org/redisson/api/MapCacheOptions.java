@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import org.redisson.api.map.MapLoader;
+import org.redisson.api.map.MapLoaderAsync;
+import org.redisson.api.map.MapWriter;
+import org.redisson.api.map.MapWriterAsync;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for RMapCache object.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class MapCacheOptions<K, V> extends MapOptions<K, V> {
+
+    private long loaderTimeToLiveInMillis;
+    private long refreshAheadWindowInMillis;
+    private long loadingLeaseTimeInMillis;
+
+    protected MapCacheOptions() {
+    }
+
+    /**
+     * Creates a new instance of MapCacheOptions with default options.
+     * <p>
+     * This is equivalent to:
+     * <pre>
+     *     new MapCacheOptions()
+     *      .writer(null, null).loader(null)
+     *      .loaderTimeToLive(0)
+     *      .refreshAheadWindow(0)
+     *      .loadingLeaseTime(30000);
+     * </pre>
+     *
+     * @param <K> key type
+     * @param <V> value type
+     *
+     * @return MapCacheOptions instance
+     *
+     */
+    public static <K, V> MapCacheOptions<K, V> defaults() {
+        return new MapCacheOptions<K, V>()
+                    .loaderTimeToLive(0)
+                    .refreshAheadWindow(0)
+                    .loadingLeaseTime(30000);
+    }
+
+    public long getLoaderTimeToLiveInMillis() {
+        return loaderTimeToLiveInMillis;
+    }
+
+    /**
+     * Defines time to live of map entries loaded by {@link MapLoader} or {@link MapLoaderAsync}.
+     * <p>
+     * If value is <code>0</code> then loaded entries are stored without time to live.
+     *
+     * @param loaderTimeToLiveInMillis - time to live in milliseconds
+     * @return MapCacheOptions instance
+     */
+    public MapCacheOptions<K, V> loaderTimeToLive(long loaderTimeToLiveInMillis) {
+        this.loaderTimeToLiveInMillis = loaderTimeToLiveInMillis;
+        return this;
+    }
+
+    /**
+     * Defines time to live of map entries loaded by {@link MapLoader} or {@link MapLoaderAsync}.
+     * <p>
+     * If value is <code>0</code> then loaded entries are stored without time to live.
+     *
+     * @param loaderTimeToLive - time to live
+     * @param timeUnit - time unit
+     * @return MapCacheOptions instance
+     */
+    public MapCacheOptions<K, V> loaderTimeToLive(long loaderTimeToLive, TimeUnit timeUnit) {
+        return loaderTimeToLive(timeUnit.toMillis(loaderTimeToLive));
+    }
+
+    public long getRefreshAheadWindowInMillis() {
+        return refreshAheadWindowInMillis;
+    }
+
+    /**
+     * Defines period before map entry expiration when read of this entry
+     * triggers asynchronous value reload by {@link MapLoader} or {@link MapLoaderAsync}.
+     * Readers get current value while it's reloaded.
+     * Value is reloaded only by instance which acquired loading lease for the key.
+     * <p>
+     * If value is <code>0</code> then values are loaded only after expiration.
+     *
+     * @param refreshAheadWindowInMillis - period in milliseconds
+     * @return MapCacheOptions instance
+     */
+    public MapCacheOptions<K, V> refreshAheadWindow(long refreshAheadWindowInMillis) {
+        this.refreshAheadWindowInMillis = refreshAheadWindowInMillis;
+        return this;
+    }
+
+    /**
+     * Defines period before map entry expiration when read of this entry
+     * triggers asynchronous value reload by {@link MapLoader} or {@link MapLoaderAsync}.
+     * Readers get current value while it's reloaded.
+     * Value is reloaded only by instance which acquired loading lease for the key.
+     * <p>
+     * If value is <code>0</code> then values are loaded only after expiration.
+     *
+     * @param refreshAheadWindow - period
+     * @param timeUnit - time unit
+     * @return MapCacheOptions instance
+     */
+    public MapCacheOptions<K, V> refreshAheadWindow(long refreshAheadWindow, TimeUnit timeUnit) {
+        return refreshAheadWindow(timeUnit.toMillis(refreshAheadWindow));
+    }
+
+    public long getLoadingLeaseTimeInMillis() {
+        return loadingLeaseTimeInMillis;
+    }
+
+    /**
+     * Defines max time of value reload triggered by {@link #refreshAheadWindow(long)}.
+     * Loading lease for the key is released after this time
+     * even if instance which acquired it failed to reload value.
+     * <p>
+     * Default is <code>30000</code> milliseconds
+     *
+     * @param loadingLeaseTimeInMillis - lease time in milliseconds
+     * @return MapCacheOptions instance
+     */
+    public MapCacheOptions<K, V> loadingLeaseTime(long loadingLeaseTimeInMillis) {
+        this.loadingLeaseTimeInMillis = loadingLeaseTimeInMillis;
+        return this;
+    }
+
+    /**
+     * Defines max time of value reload triggered by {@link #refreshAheadWindow(long)}.
+     * Loading lease for the key is released after this time
+     * even if instance which acquired it failed to reload value.
+     * <p>
+     * Default is <code>30000</code> milliseconds
+     *
+     * @param loadingLeaseTime - lease time
+     * @param timeUnit - time unit
+     * @return MapCacheOptions instance
+     */
+    public MapCacheOptions<K, V> loadingLeaseTime(long loadingLeaseTime, TimeUnit timeUnit) {
+        return loadingLeaseTime(timeUnit.toMillis(loadingLeaseTime));
+    }
+
+    @Override
+    public MapCacheOptions<K, V> writeBehindBatchSize(int writeBehindBatchSize) {
+        return (MapCacheOptions<K, V>) super.writeBehindBatchSize(writeBehindBatchSize);
+    }
+
+    @Override
+    public MapCacheOptions<K, V> writeBehindDelay(int writeBehindDelay) {
+        return (MapCacheOptions<K, V>) super.writeBehindDelay(writeBehindDelay);
+    }
+
+    @Override
+    public MapCacheOptions<K, V> writer(MapWriter<K, V> writer) {
+        return (MapCacheOptions<K, V>) super.writer(writer);
+    }
+
+    @Override
+    public MapCacheOptions<K, V> writerAsync(MapWriterAsync<K, V> writer) {
+        return (MapCacheOptions<K, V>) super.writerAsync(writer);
+    }
+
+    @Override
+    public MapCacheOptions<K, V> writeMode(WriteMode writeMode) {
+        return (MapCacheOptions<K, V>) super.writeMode(writeMode);
+    }
+
+    @Override
+    public MapCacheOptions<K, V> loader(MapLoader<K, V> loader) {
+        return (MapCacheOptions<K, V>) super.loader(loader);
+    }
+
+    @Override
+    public MapCacheOptions<K, V> loaderAsync(MapLoaderAsync<K, V> loaderAsync) {
+        return (MapCacheOptions<K, V>) super.loaderAsync(loaderAsync);
+    }
+
+}
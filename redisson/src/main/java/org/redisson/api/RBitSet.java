@@ -15,6 +15,7 @@
  */
 package org.redisson.api;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 
 /**
@@ -313,6 +314,53 @@ public interface RBitSet extends RExpirable, RBitSetAsync {
 
     BitSet asBitSet();
 
+    /**
+     * Returns values of bits at specified <code>bitIndexes</code>.
+     * Bits are read with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return values of bits
+     */
+    boolean[] get(long... bitIndexes);
+
+    /**
+     * Set bits to one at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     */
+    void set(long[] bitIndexes);
+
+    /**
+     * Set bits to <code>value</code> at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @param value true = 1, false = 0
+     */
+    void set(long[] bitIndexes, boolean value);
+
+    /**
+     * Set bits to zero at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     */
+    void clear(long[] bitIndexes);
+
+    /**
+     * Returns content of this object as read-only buffer.
+     * Content is read by GETRANGE commands in chunks of 1 MB. Chunks following the first one
+     * are read in parallel, so result isn't an atomic snapshot if object is modified concurrently.
+     *
+     * @return buffer with content
+     */
+    ByteBuffer asByteBuffer();
+
     /**
      * Executes OR operation over this object and specified bitsets.
      * Stores result into this object.
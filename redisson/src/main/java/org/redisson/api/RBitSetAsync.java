@@ -15,6 +15,7 @@
  */
 package org.redisson.api;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 
 /**
@@ -207,6 +208,56 @@ public interface RBitSetAsync extends RExpirableAsync {
 
     RFuture<byte[]> toByteArrayAsync();
 
+    /**
+     * Returns values of bits at specified <code>bitIndexes</code>.
+     * Bits are read with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return values of bits
+     */
+    RFuture<boolean[]> getAsync(long... bitIndexes);
+
+    /**
+     * Set bits to one at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return void
+     */
+    RFuture<Void> setAsync(long[] bitIndexes);
+
+    /**
+     * Set bits to <code>value</code> at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @param value true = 1, false = 0
+     * @return void
+     */
+    RFuture<Void> setAsync(long[] bitIndexes, boolean value);
+
+    /**
+     * Set bits to zero at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return void
+     */
+    RFuture<Void> clearAsync(long[] bitIndexes);
+
+    /**
+     * Returns content of this object as read-only buffer.
+     * Content is read by GETRANGE commands in chunks of 1 MB. Chunks following the first one
+     * are read in parallel, so result isn't an atomic snapshot if object is modified concurrently.
+     *
+     * @return buffer with content
+     */
+    RFuture<ByteBuffer> asByteBufferAsync();
+
     /**
      * Returns "logical size" = index of highest set bit plus one.
      * Returns zero if there are no any set bit.
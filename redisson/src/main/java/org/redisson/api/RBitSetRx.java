@@ -18,6 +18,7 @@ package org.redisson.api;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 
 
@@ -211,6 +212,56 @@ public interface RBitSetRx extends RExpirableRx {
     
     Single<byte[]> toByteArray();
 
+    /**
+     * Returns values of bits at specified <code>bitIndexes</code>.
+     * Bits are read with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return values of bits
+     */
+    Single<boolean[]> get(long... bitIndexes);
+
+    /**
+     * Set bits to one at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return void
+     */
+    Completable set(long[] bitIndexes);
+
+    /**
+     * Set bits to <code>value</code> at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @param value true = 1, false = 0
+     * @return void
+     */
+    Completable set(long[] bitIndexes, boolean value);
+
+    /**
+     * Set bits to zero at specified <code>bitIndexes</code>.
+     * Bits are written with BITFIELD commands, each of them
+     * handles up to 1000 bits.
+     *
+     * @param bitIndexes - indexes of bits
+     * @return void
+     */
+    Completable clear(long[] bitIndexes);
+
+    /**
+     * Returns content of this object as read-only buffer.
+     * Content is read by GETRANGE commands in chunks of 1 MB. Chunks following the first one
+     * are read in parallel, so result isn't an atomic snapshot if object is modified concurrently.
+     *
+     * @return buffer with content
+     */
+    Single<ByteBuffer> asByteBuffer();
+
     /**
      * Returns "logical size" = index of highest set bit plus one.
      * Returns zero if there are no any set bit.
@@ -15,6 +15,8 @@
  */
 package org.redisson.api;
 
+import java.util.Collection;
+
 /**
  * Distributed implementation of Bloom filter based on Highway 128-bit hash.
  *
@@ -22,7 +24,7 @@ package org.redisson.api;
  *
  * @param <T> - type of object
  */
-public interface RBloomFilter<T> extends RExpirable {
+public interface RBloomFilter<T> extends RExpirable, RBloomFilterAsync<T> {
 
     /**
      * Adds element
@@ -33,6 +35,14 @@ public interface RBloomFilter<T> extends RExpirable {
      */
     boolean add(T object);
 
+    /**
+     * Adds elements in a single request
+     *
+     * @param objects - elements to add
+     * @return amount of added elements
+     */
+    long add(Collection<T> objects);
+
     /**
      * Check for element present
      * 
@@ -42,6 +52,14 @@ public interface RBloomFilter<T> extends RExpirable {
      */
     boolean contains(T object);
 
+    /**
+     * Checks for elements presence in a single request
+     *
+     * @param objects - elements
+     * @return amount of present elements
+     */
+    long contains(Collection<T> objects);
+
     /**
      * Initializes Bloom filter params (size and hashIterations)
      * calculated from <code>expectedInsertions</code> and <code>falseProbability</code>
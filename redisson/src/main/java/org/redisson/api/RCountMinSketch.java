@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Count-min sketch which estimates counts of elements
+ * using fixed amount of memory. Estimated count is never less than actual count.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> type of object
+ */
+public interface RCountMinSketch<V> extends RExpirable, RCountMinSketchAsync<V> {
+
+    /**
+     * Initializes Count-min sketch with defined dimensions.
+     * Stores config to Redis server.
+     *
+     * @param width - amount of counters per row
+     * @param depth - amount of rows
+     * @return <code>true</code> if Count-min sketch initialized
+     *         <code>false</code> if Count-min sketch already has been initialized
+     */
+    boolean tryInit(int width, int depth);
+
+    /**
+     * Initializes Count-min sketch with dimensions calculated
+     * from <code>error</code> and <code>probability</code>.
+     * Estimated count exceeds actual count by no more than
+     * <code>error * count()</code> with probability <code>1 - probability</code>.
+     * Stores config to Redis server.
+     *
+     * @param error - estimate error relative to total count
+     * @param probability - probability of estimate error excess
+     * @return <code>true</code> if Count-min sketch initialized
+     *         <code>false</code> if Count-min sketch already has been initialized
+     */
+    boolean tryInitByProbability(double error, double probability);
+
+    /**
+     * Increments count of element by 1.
+     *
+     * @param object - element
+     * @return estimated count of element
+     */
+    long add(V object);
+
+    /**
+     * Increments count of element by defined <code>increment</code>.
+     *
+     * @param object - element
+     * @param increment - increment value
+     * @return estimated count of element
+     */
+    long incrementBy(V object, long increment);
+
+    /**
+     * Increments counts of elements in a single request.
+     *
+     * @param increments - increment value mapped by element
+     * @return estimated count mapped by element
+     */
+    Map<V, Long> incrementBy(Map<V, Long> increments);
+
+    /**
+     * Returns estimated count of element.
+     *
+     * @param object - element
+     * @return estimated count of element
+     */
+    long estimate(V object);
+
+    /**
+     * Returns estimated counts of elements in a single request.
+     *
+     * @param objects - elements
+     * @return estimated count mapped by element
+     */
+    Map<V, Long> estimate(Collection<V> objects);
+
+    /**
+     * Merges counters of Count-min sketches defined by <code>sketchNames</code>
+     * into this instance. Merged instances should have the same dimensions
+     * and be stored in the same Redis cluster slot.
+     *
+     * @param sketchNames - names of Count-min sketches
+     */
+    void mergeWith(String... sketchNames);
+
+    /**
+     * Returns total amount of increments.
+     *
+     * @return total amount of increments
+     */
+    long count();
+
+    /**
+     * Returns amount of counters per row.
+     *
+     * @return amount of counters per row
+     */
+    int getWidth();
+
+    /**
+     * Returns amount of rows.
+     *
+     * @return amount of rows
+     */
+    int getDepth();
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Collection;
+
+/**
+ * Distributed implementation of Cuckoo filter based on Highway 128-bit hash.
+ * Unlike Bloom filter it supports removal of elements.
+ * Failed insertion throws exception once filter capacity is exhausted.
+ * Asynchronous interface.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> - type of object
+ */
+public interface RCuckooFilterAsync<T> extends RExpirableAsync {
+
+    /**
+     * Initializes Cuckoo filter params (buckets amount and fingerprint size)
+     * calculated from <code>expectedInsertions</code> and <code>falseProbability</code>
+     * Stores config to Redis server.
+     *
+     * @param expectedInsertions - expected amount of insertions per element
+     * @param falseProbability - expected false probability
+     * @return <code>true</code> if Cuckoo filter initialized
+     *         <code>false</code> if Cuckoo filter already has been initialized
+     */
+    RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability);
+
+    /**
+     * Adds element if it's not present
+     *
+     * @param object - element to add
+     * @return <code>true</code> if element has been added successfully
+     *         <code>false</code> if element is already present
+     */
+    RFuture<Boolean> addAsync(T object);
+
+    /**
+     * Adds elements which aren't present in a single request
+     *
+     * @param objects - elements to add
+     * @return amount of added elements
+     */
+    RFuture<Long> addAsync(Collection<T> objects);
+
+    /**
+     * Check for element present
+     *
+     * @param object - element
+     * @return <code>true</code> if element is present
+     *         <code>false</code> if element is not present
+     */
+    RFuture<Boolean> containsAsync(T object);
+
+    /**
+     * Checks for elements presence in a single request
+     *
+     * @param objects - elements
+     * @return amount of present elements
+     */
+    RFuture<Long> containsAsync(Collection<T> objects);
+
+    /**
+     * Removes element.
+     * Only elements added to this filter should be removed,
+     * otherwise another element with the same fingerprint could be removed.
+     *
+     * @param object - element to remove
+     * @return <code>true</code> if element has been removed
+     *         <code>false</code> if element is not present
+     */
+    RFuture<Boolean> removeAsync(T object);
+
+    /**
+     * Removes elements in a single request.
+     * Only elements added to this filter should be removed,
+     * otherwise another element with the same fingerprint could be removed.
+     *
+     * @param objects - elements to remove
+     * @return amount of removed elements
+     */
+    RFuture<Long> removeAsync(Collection<T> objects);
+
+    /**
+     * Returns amount of elements stored in this filter.
+     *
+     * @return amount of elements
+     */
+    RFuture<Long> countAsync();
+
+    /**
+     * Returns expected amount of insertions per element.
+     * Defined during cuckoo filter initialization.
+     *
+     * @return expected amount of insertions per element
+     */
+    RFuture<Long> getExpectedInsertionsAsync();
+
+    /**
+     * Returns false probability of element presence.
+     * Defined during cuckoo filter initialization.
+     *
+     * @return false probability of element presence
+     */
+    RFuture<Double> getFalseProbabilityAsync();
+
+    /**
+     * Returns number of bits in Redis memory required by this instance
+     *
+     * @return number of bits
+     */
+    RFuture<Long> getSizeAsync();
+
+}
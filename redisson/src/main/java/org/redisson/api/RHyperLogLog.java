@@ -16,6 +16,7 @@
 package org.redisson.api;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Probabilistic data structure that lets you maintain counts of millions of items with extreme space efficiency.
@@ -67,4 +68,18 @@ public interface RHyperLogLog<V> extends RExpirable, RHyperLogLogAsync<V> {
      */
     void mergeWith(String... otherLogNames);
 
+    /**
+     * Creates client-side accumulator bound to this object.
+     * Accumulator keeps HyperLogLog registers locally and merges them
+     * into this object with single command per flush.
+     * <p>
+     * Periodic flush is disabled if <code>flushInterval</code> is <code>0</code>.
+     * Accumulator should be destroyed via {@link RHyperLogLogAccumulator#destroy()} method.
+     *
+     * @param flushInterval - interval between flushes
+     * @param unit - time unit
+     * @return accumulator object
+     */
+    RHyperLogLogAccumulator<V> createAccumulator(long flushInterval, TimeUnit unit);
+
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Collection;
+
+/**
+ * Client-side accumulator of {@link RHyperLogLog} object.
+ * <p>
+ * Elements are hashed into local HyperLogLog registers without
+ * any Redis command. Registers are merged into bound {@link RHyperLogLog} object
+ * with single command per flush, either periodically or through {@link #flush()} method.
+ * Flush is skipped if local registers haven't been changed since previous flush.
+ * <p>
+ * Local registers aren't cleared after flush, since merge of the same registers
+ * doesn't change HyperLogLog object. Accumulator should be recreated
+ * if bound object was deleted.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> type of stored values
+ */
+public interface RHyperLogLogAccumulator<V> extends RDestroyable {
+
+    /**
+     * Adds element into local registers.
+     *
+     * @param obj - element to add
+     * @return <code>true</code> if local registers have been changed
+     *          or <code>false</code> otherwise
+     */
+    boolean add(V obj);
+
+    /**
+     * Adds all elements contained in <code>objects</code> collection into local registers.
+     *
+     * @param objects - elements to add
+     * @return <code>true</code> if local registers have been changed
+     *          or <code>false</code> otherwise
+     */
+    boolean addAll(Collection<V> objects);
+
+    /**
+     * Merges local registers into bound {@link RHyperLogLog} object.
+     */
+    void flush();
+
+    /**
+     * Merges local registers into bound {@link RHyperLogLog} object.
+     *
+     * @return void
+     */
+    RFuture<Void> flushAsync();
+
+    /**
+     * Returns amount of flushes sent to Redis.
+     *
+     * @return amount of flushes
+     */
+    long getFlushes();
+
+    /**
+     * Flushes local registers and stops periodic flush.
+     */
+    @Override
+    void destroy();
+
+}
@@ -41,4 +41,18 @@ public interface RIdGenerator extends RExpirable, RIdGeneratorAsync {
      */
     long nextId();
 
+    /**
+     * Enables asynchronous prefetch of the next values range.
+     * Prefetch starts once amount of remaining values in the current range
+     * falls to <code>lowWaterMark</code> share of range size.
+     * <p>
+     * Size of prefetched range adapts to consumption rate observed in the current range.
+     * It's not less than allocation size defined through {@link #tryInit(long, long)} method
+     * and not greater than <code>maxAllocationSize</code>.
+     *
+     * @param lowWaterMark - share of range size in range [0, 1)
+     * @param maxAllocationSize - maximal values range allocation size
+     */
+    void enablePrefetch(double lowWaterMark, long maxAllocationSize);
+
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * JSON Data Type (RedisJSON) object with local cache of read documents and paths.
+ * <p>
+ * Change of a path invalidates cached values of this path,
+ * its parent paths and its nested paths across all instances.
+ * Values of other paths remain cached.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> the type of object
+ */
+public interface RLocalCachedJsonBucket<V> extends RJsonBucket<V>, RDestroyable {
+
+    /**
+     * Clears local cache across all instances
+     *
+     * @return void
+     */
+    RFuture<Void> clearLocalCacheAsync();
+
+    /**
+     * Clears local cache across all instances
+     */
+    void clearLocalCache();
+
+}
@@ -60,6 +60,13 @@ public interface RLocalCachedMap<K, V> extends RMap<K, V> {
      */
     void clearLocalCache();
     
+    /**
+     * Saves local cache snapshot to file in directory defined by
+     * {@link LocalCachedMapOptions#snapshotDirectory(java.io.File)}.
+     * Snapshot is also saved on {@link #destroy()} invocation.
+     */
+    void saveCacheSnapshot();
+
     /**
      * Returns all keys stored in local cache
      *
@@ -87,5 +94,14 @@ public interface RLocalCachedMap<K, V> extends RMap<K, V> {
      * @return map
      */
     Map<K, V> getCachedMap();
+
+    /**
+     * Returns statistics of local cache.
+     * Includes hits, misses, load time, evictions by cause,
+     * received and sent invalidations and estimated memory usage.
+     *
+     * @return statistics
+     */
+    LocalCachedMapStats getCacheStats();
     
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Set-based cache with local cache of {@link #contains(Object)} results.
+ * <p>
+ * Local entries expire according to ttl of Redis entries.
+ * Entries changed by other instances are invalidated through topic.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> value
+ */
+public interface RLocalCachedSetCache<V> extends RSetCache<V> {
+
+    /**
+     * Clears local cache across all instances
+     *
+     * @return void
+     */
+    RFuture<Void> clearLocalCacheAsync();
+
+    /**
+     * Clears local cache across all instances
+     */
+    void clearLocalCache();
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Bloom filter which bit space is split across partitions.
+ * Each partition is stored in a separate Redis key distributed across Redis cluster slots.
+ * Each element hashes to a single partition.
+ * <p>
+ * Amount of partitions is equal to amount of master nodes
+ * if Bloom filter initialized by {@link #tryInit(long, double)} method.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> - type of object
+ */
+public interface RPartitionedBloomFilter<T> extends RBloomFilter<T>, RPartitionedBloomFilterAsync<T> {
+
+    /**
+     * Initializes Bloom filter params (size and hashIterations) of each partition
+     * calculated from <code>expectedInsertions</code>, <code>falseProbability</code>
+     * and amount of <code>partitions</code>.
+     * Stores config to Redis server.
+     *
+     * @param expectedInsertions - expected amount of insertions per element
+     * @param falseProbability - expected false probability
+     * @param partitions - amount of partitions
+     * @return <code>true</code> if Bloom filter initialized
+     *         <code>false</code> if Bloom filter already has been initialized
+     */
+    boolean tryInit(long expectedInsertions, double falseProbability, int partitions);
+
+    /**
+     * Returns amount of partitions.
+     * Defined during bloom filter initialization.
+     *
+     * @return amount of partitions
+     */
+    int getPartitions();
+
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Bloom filter which bit space is split across partitions.
+ * Each partition is stored in a separate Redis key distributed across Redis cluster slots.
+ * Each element hashes to a single partition.
+ * Asynchronous interface.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> - type of object
+ */
+public interface RPartitionedBloomFilterAsync<T> extends RBloomFilterAsync<T> {
+
+    /**
+     * Initializes Bloom filter params (size and hashIterations) of each partition
+     * calculated from <code>expectedInsertions</code>, <code>falseProbability</code>
+     * and amount of <code>partitions</code>.
+     * Stores config to Redis server.
+     *
+     * @param expectedInsertions - expected amount of insertions per element
+     * @param falseProbability - expected false probability
+     * @param partitions - amount of partitions
+     * @return <code>true</code> if Bloom filter initialized
+     *         <code>false</code> if Bloom filter already has been initialized
+     */
+    RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability, int partitions);
+
+    /**
+     * Returns amount of partitions.
+     * Defined during bloom filter initialization.
+     *
+     * @return amount of partitions
+     */
+    RFuture<Integer> getPartitionsAsync();
+
+}
@@ -165,4 +165,22 @@ public interface RRateLimiter extends RRateLimiterAsync, RExpirable {
      */
     long availablePermits();
 
+    /**
+     * Enables local lease of permits for this instance.
+     * <p>
+     * {@link #tryAcquire()} and {@link #tryAcquire(long)} methods reserve a batch of permits at once
+     * and serve following calls from memory. Batch size adapts to consumption rate
+     * and is bounded by <code>options</code>. Unused permits are returned after lease expiration.
+     * Lease lifetime is limited by rate interval.
+     * Other methods aren't affected.
+     *
+     * @param options - lease options
+     */
+    void enableLocalLease(LocalLeaseOptions options);
+
+    /**
+     * Disables local lease of permits and returns unused permits.
+     */
+    void disableLocalLease();
+
 }
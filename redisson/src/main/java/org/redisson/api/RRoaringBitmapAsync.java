@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Compressed bitmap of unsigned 32-bit values based on Roaring containers.
+ * Values are split into chunks of 65536 values. Each chunk is stored
+ * as a separate field of Redis hash either as sorted array
+ * or as bitmap depending on amount of values in it.
+ * Asynchronous interface.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public interface RRoaringBitmapAsync extends RExpirableAsync {
+
+    /**
+     * Adds value to this bitmap.
+     *
+     * @param value - value in range from 0 to 4294967295
+     * @return <code>true</code> if value has been added
+     *         <code>false</code> if it was already added
+     */
+    RFuture<Boolean> addAsync(long value);
+
+    /**
+     * Adds all values to this bitmap.
+     * Values are grouped by chunks and each chunk is merged with single operation.
+     *
+     * @param values - values in range from 0 to 4294967295
+     * @return amount of added values
+     */
+    RFuture<Long> addAllAsync(long... values);
+
+    /**
+     * Removes value from this bitmap.
+     *
+     * @param value - value in range from 0 to 4294967295
+     * @return <code>true</code> if value has been removed
+     *         <code>false</code> if it wasn't added
+     */
+    RFuture<Boolean> removeAsync(long value);
+
+    /**
+     * Removes all values from this bitmap.
+     *
+     * @param values - values in range from 0 to 4294967295
+     * @return amount of removed values
+     */
+    RFuture<Long> removeAllAsync(long... values);
+
+    /**
+     * Checks if this bitmap contains value.
+     *
+     * @param value - value in range from 0 to 4294967295
+     * @return <code>true</code> if value exists
+     *         <code>false</code> if it doesn't
+     */
+    RFuture<Boolean> containsAsync(long value);
+
+    /**
+     * Returns amount of values in this bitmap.
+     *
+     * @return amount of values
+     */
+    RFuture<Long> cardinalityAsync();
+
+    /**
+     * Returns amount of values in this bitmap
+     * which are less than or equal to <code>value</code>.
+     *
+     * @param value - value in range from 0 to 4294967295
+     * @return amount of values
+     */
+    RFuture<Long> rankAsync(long value);
+
+    /**
+     * Executes AND operation over this object and specified bitmaps.
+     * Stores result into this object.
+     *
+     * @param bitmapNames - name of stored bitmaps
+     * @return void
+     */
+    RFuture<Void> andAsync(String... bitmapNames);
+
+    /**
+     * Executes OR operation over this object and specified bitmaps.
+     * Stores result into this object.
+     *
+     * @param bitmapNames - name of stored bitmaps
+     * @return void
+     */
+    RFuture<Void> orAsync(String... bitmapNames);
+
+    /**
+     * Executes AND NOT operation over this object and specified bitmaps.
+     * Stores result into this object.
+     *
+     * @param bitmapNames - name of stored bitmaps
+     * @return void
+     */
+    RFuture<Void> andNotAsync(String... bitmapNames);
+
+    /**
+     * Returns all values of this bitmap in ascending order.
+     *
+     * @return array of values
+     */
+    RFuture<long[]> toArrayAsync();
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Collection;
+
+/**
+ * Scalable Bloom filter which consists of stacked Bloom filters.
+ * New filter is added once amount of insertions into the last filter
+ * reaches its capacity. Each filter is stored in a separate Redis key
+ * and all keys are stored in the same Redis cluster slot.
+ * Asynchronous interface.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <T> - type of object
+ */
+public interface RScalableBloomFilterAsync<T> extends RExpirableAsync {
+
+    /**
+     * Initializes params of the first Bloom filter
+     * calculated from <code>expectedInsertions</code> and <code>falseProbability</code>.
+     * Each next filter has twice bigger capacity and twice lower false probability
+     * so overall false probability doesn't exceed <code>falseProbability</code>.
+     * Stores config to Redis server.
+     *
+     * @param expectedInsertions - expected amount of insertions into the first filter
+     * @param falseProbability - expected overall false probability
+     * @return <code>true</code> if Bloom filter initialized
+     *         <code>false</code> if Bloom filter already has been initialized
+     */
+    RFuture<Boolean> tryInitAsync(long expectedInsertions, double falseProbability);
+
+    /**
+     * Adds element
+     *
+     * @param object - element to add
+     * @return <code>true</code> if element has been added successfully
+     *         <code>false</code> if element is already present
+     */
+    RFuture<Boolean> addAsync(T object);
+
+    /**
+     * Adds elements in a single request
+     *
+     * @param objects - elements to add
+     * @return amount of added elements
+     */
+    RFuture<Long> addAsync(Collection<T> objects);
+
+    /**
+     * Check for element present
+     *
+     * @param object - element
+     * @return <code>true</code> if element is present
+     *         <code>false</code> if element is not present
+     */
+    RFuture<Boolean> containsAsync(T object);
+
+    /**
+     * Checks for elements presence in a single request
+     *
+     * @param objects - elements
+     * @return amount of present elements
+     */
+    RFuture<Long> containsAsync(Collection<T> objects);
+
+    /**
+     * Returns amount of elements added to this Bloom filter.
+     * Elements considered as already present aren't counted.
+     *
+     * @return amount of added elements
+     */
+    RFuture<Long> countAsync();
+
+    /**
+     * Returns expected amount of insertions into the first filter.
+     *
+     * @return expected amount of insertions
+     */
+    RFuture<Long> getExpectedInsertionsAsync();
+
+    /**
+     * Returns overall false probability of element presence.
+     *
+     * @return false probability of element presence
+     */
+    RFuture<Double> getFalseProbabilityAsync();
+
+    /**
+     * Returns amount of stacked filters.
+     *
+     * @return amount of filters
+     */
+    RFuture<Integer> getFiltersAsync();
+
+    /**
+     * Returns number of bits in Redis memory required by all stacked filters.
+     *
+     * @return number of bits
+     */
+    RFuture<Long> getSizeAsync();
+
+}
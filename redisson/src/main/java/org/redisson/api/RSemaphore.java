@@ -131,5 +131,25 @@ public interface RSemaphore extends RExpirable, RSemaphoreAsync {
      */
     void addPermits(int permits);
 
+    /**
+     * Enables local lease of permits for this instance.
+     * <p>
+     * {@link #tryAcquire()} and {@link #tryAcquire(int)} methods reserve a batch of permits at once
+     * and serve following calls from memory. Batch size adapts to consumption rate
+     * and is bounded by <code>options</code>. Unused permits are returned after lease expiration.
+     * Other methods aren't affected.
+     * <p>
+     * Each batch is recorded in Redis. If it isn't returned within twice the lease time,
+     * e.g. because this instance crashed, the whole batch, including permits already acquired from it,
+     * is added back to the semaphore by the next {@link #tryAcquire()} or {@link #availablePermits()} call.
+     *
+     * @param options - lease options
+     */
+    void enableLocalLease(LocalLeaseOptions options);
+
+    /**
+     * Disables local lease of permits and returns unused permits.
+     */
+    void disableLocalLease();
 
 }
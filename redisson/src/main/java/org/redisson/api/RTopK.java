@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-K object which tracks elements with the highest counts
+ * using fixed amount of memory. Counts are estimated by Count-min sketch.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <V> type of object
+ */
+public interface RTopK<V> extends RExpirable, RTopKAsync<V> {
+
+    /**
+     * Initializes Top-K object which tracks <code>topK</code> elements
+     * with the highest counts. Counts are estimated by Count-min sketch
+     * with width equal to <code>topK * 10</code> and depth equal to 5.
+     * Stores config to Redis server.
+     *
+     * @param topK - amount of tracked elements
+     * @return <code>true</code> if Top-K initialized
+     *         <code>false</code> if Top-K already has been initialized
+     */
+    boolean tryInit(int topK);
+
+    /**
+     * Initializes Top-K object which tracks <code>topK</code> elements
+     * with the highest counts. Counts are estimated by Count-min sketch
+     * with defined dimensions.
+     * Stores config to Redis server.
+     *
+     * @param topK - amount of tracked elements
+     * @param width - amount of counters per sketch row
+     * @param depth - amount of sketch rows
+     * @return <code>true</code> if Top-K initialized
+     *         <code>false</code> if Top-K already has been initialized
+     */
+    boolean tryInit(int topK, int width, int depth);
+
+    /**
+     * Increments count of element by 1.
+     *
+     * @param object - element
+     * @return <code>true</code> if element is in top list
+     *         <code>false</code> if it isn't
+     */
+    boolean add(V object);
+
+    /**
+     * Increments count of element by defined <code>increment</code>.
+     *
+     * @param object - element
+     * @param increment - increment value
+     * @return <code>true</code> if element is in top list
+     *         <code>false</code> if it isn't
+     */
+    boolean incrementBy(V object, long increment);
+
+    /**
+     * Increments counts of elements in a single request.
+     *
+     * @param increments - increment value mapped by element
+     */
+    void incrementBy(Map<V, Long> increments);
+
+    /**
+     * Returns <code>true</code> if element is in top list.
+     *
+     * @param object - element
+     * @return <code>true</code> if element is in top list
+     *         <code>false</code> if it isn't
+     */
+    boolean contains(V object);
+
+    /**
+     * Returns estimated count of element.
+     *
+     * @param object - element
+     * @return estimated count of element
+     */
+    long estimate(V object);
+
+    /**
+     * Returns elements of top list ordered by count in descending order.
+     *
+     * @return elements
+     */
+    List<V> getTop();
+
+    /**
+     * Returns elements of top list with estimated counts
+     * ordered by count in descending order.
+     *
+     * @return estimated count mapped by element
+     */
+    Map<V, Long> getTopWithCounts();
+
+    /**
+     * Returns amount of tracked elements.
+     *
+     * @return amount of tracked elements
+     */
+    int getTopK();
+
+}
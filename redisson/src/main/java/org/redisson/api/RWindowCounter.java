@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Windowed rate counter which limits amount of acquired permits
+ * per key within time window. Counters of all keys are stored in single Redis hash
+ * which expires after two idle windows.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> type of key
+ */
+public interface RWindowCounter<K> extends RExpirable, RWindowCounterAsync<K> {
+
+    /**
+     * Initializes counter parameters only if they haven't been set before.
+     *
+     * @param type - window algorithm
+     * @param rate - amount of permits per key within window
+     * @param rateInterval - window size
+     * @param rateIntervalUnit - window size unit
+     * @return <code>true</code> if parameters have been set
+     *         <code>false</code> if they were already set
+     */
+    boolean trySetRate(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit);
+
+    /**
+     * Updates counter parameters and resets counters of all keys.
+     *
+     * @param type - window algorithm
+     * @param rate - amount of permits per key within window
+     * @param rateInterval - window size
+     * @param rateIntervalUnit - window size unit
+     */
+    void setRate(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit);
+
+    /**
+     * Acquires a permit for defined <code>key</code> only if it's available.
+     *
+     * @param key - key
+     * @return <code>true</code> if permit has been acquired
+     *         <code>false</code> otherwise
+     */
+    boolean tryAcquire(K key);
+
+    /**
+     * Acquires defined amount of <code>permits</code> for defined <code>key</code>
+     * only if all of them are available.
+     *
+     * @param key - key
+     * @param permits - amount of permits
+     * @return <code>true</code> if permits have been acquired
+     *         <code>false</code> otherwise
+     */
+    boolean tryAcquire(K key, long permits);
+
+    /**
+     * Acquires permits for multiple keys with single script call.
+     * Each key is acquired independently from others.
+     *
+     * @param permits - amount of permits mapped by key
+     * @return acquisition result mapped by key
+     */
+    Map<K, Boolean> tryAcquire(Map<K, Long> permits);
+
+    /**
+     * Returns amount of available permits for defined <code>key</code>
+     * within current window.
+     *
+     * @param key - key
+     * @return amount of available permits
+     */
+    long availablePermits(K key);
+
+    /**
+     * Resets counter of defined <code>key</code>.
+     *
+     * @param key - key
+     * @return <code>true</code> if counter existed
+     *         <code>false</code> otherwise
+     */
+    boolean reset(K key);
+
+    /**
+     * Enables local lease of permits for this instance.
+     * <p>
+     * Single key acquisition reserves <code>permits</code> in Redis at once
+     * and serves following acquisitions of the same key from memory
+     * until reserved permits are exhausted or <code>leaseTime</code> elapsed.
+     * For fixed and sliding window lease also ends with current window.
+     * For sliding log reserved permits are counted until <code>leaseTime</code>
+     * plus rate interval elapsed.
+     * Unused permits aren't returned, so limit is never exceeded
+     * but may be reached earlier.
+     *
+     * @param permits - amount of permits reserved per key
+     * @param leaseTime - lease lifetime
+     * @param unit - lease lifetime unit
+     */
+    void enableLocalLease(long permits, long leaseTime, TimeUnit unit);
+
+}
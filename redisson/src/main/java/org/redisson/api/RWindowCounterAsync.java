@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import java.util.Map;
+
+/**
+ * Windowed rate counter which limits amount of acquired permits
+ * per key within time window. Counters of all keys are stored in single Redis hash.
+ * Asynchronous interface.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> type of key
+ */
+public interface RWindowCounterAsync<K> extends RExpirableAsync {
+
+    /**
+     * Initializes counter parameters only if they haven't been set before.
+     *
+     * @param type - window algorithm
+     * @param rate - amount of permits per key within window
+     * @param rateInterval - window size
+     * @param rateIntervalUnit - window size unit
+     * @return <code>true</code> if parameters have been set
+     *         <code>false</code> if they were already set
+     */
+    RFuture<Boolean> trySetRateAsync(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit);
+
+    /**
+     * Updates counter parameters and resets counters of all keys.
+     *
+     * @param type - window algorithm
+     * @param rate - amount of permits per key within window
+     * @param rateInterval - window size
+     * @param rateIntervalUnit - window size unit
+     * @return void
+     */
+    RFuture<Void> setRateAsync(WindowType type, long rate, long rateInterval, RateIntervalUnit rateIntervalUnit);
+
+    /**
+     * Acquires a permit for defined <code>key</code> only if it's available.
+     *
+     * @param key - key
+     * @return <code>true</code> if permit has been acquired
+     *         <code>false</code> otherwise
+     */
+    RFuture<Boolean> tryAcquireAsync(K key);
+
+    /**
+     * Acquires defined amount of <code>permits</code> for defined <code>key</code>
+     * only if all of them are available.
+     *
+     * @param key - key
+     * @param permits - amount of permits
+     * @return <code>true</code> if permits have been acquired
+     *         <code>false</code> otherwise
+     */
+    RFuture<Boolean> tryAcquireAsync(K key, long permits);
+
+    /**
+     * Acquires permits for multiple keys with single script call.
+     * Each key is acquired independently from others.
+     *
+     * @param permits - amount of permits mapped by key
+     * @return acquisition result mapped by key
+     */
+    RFuture<Map<K, Boolean>> tryAcquireAsync(Map<K, Long> permits);
+
+    /**
+     * Returns amount of available permits for defined <code>key</code>
+     * within current window.
+     *
+     * @param key - key
+     * @return amount of available permits
+     */
+    RFuture<Long> availablePermitsAsync(K key);
+
+    /**
+     * Resets counter of defined <code>key</code>.
+     *
+     * @param key - key
+     * @return <code>true</code> if counter existed
+     *         <code>false</code> otherwise
+     */
+    RFuture<Boolean> resetAsync(K key);
+
+}
@@ -362,6 +362,70 @@ public interface RedissonClient {
      * @return LocalCachedMap object
      */
     <K, V> RLocalCachedMap<K, V> getLocalCachedMap(String name, Codec codec, LocalCachedMapOptions<K, V> options);
+
+    /**
+     * Returns local cached map cache instance by name.
+     * Configured by parameters of options-object.
+     * Local entries expire according to ttl and maxIdle of map entries.
+     *
+     * @param <K> type of key
+     * @param <V> type of value
+     * @param name - name of object
+     * @param options - local map options
+     * @return LocalCachedMapCache object
+     */
+    <K, V> RLocalCachedMapCache<K, V> getLocalCachedMapCache(String name, LocalCachedMapOptions<K, V> options);
+
+    /**
+     * Returns local cached map cache instance by name
+     * using provided codec. Configured by parameters of options-object.
+     * Local entries expire according to ttl and maxIdle of map entries.
+     *
+     * @param <K> type of key
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for keys and values
+     * @param options - local map options
+     * @return LocalCachedMapCache object
+     */
+    <K, V> RLocalCachedMapCache<K, V> getLocalCachedMapCache(String name, Codec codec, LocalCachedMapOptions<K, V> options);
+
+    /**
+     * Returns local cached set cache instance by name.
+     * Configured by parameters of options-object.
+     * Local entries expire according to ttl of set entries.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param options - local cache options
+     * @return LocalCachedSetCache object
+     */
+    <V> RLocalCachedSetCache<V> getLocalCachedSetCache(String name, LocalCachedMapOptions<?, ?> options);
+
+    /**
+     * Returns local cached set cache instance by name
+     * using provided codec. Configured by parameters of options-object.
+     * Local entries expire according to ttl of set entries.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @param options - local cache options
+     * @return LocalCachedSetCache object
+     */
+    <V> RLocalCachedSetCache<V> getLocalCachedSetCache(String name, Codec codec, LocalCachedMapOptions<?, ?> options);
+
+    /**
+     * Returns local cached JSON data holder instance by name using provided codec.
+     * Configured by parameters of options-object.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @param options - local cache options
+     * @return LocalCachedJsonBucket object
+     */
+    <V> RLocalCachedJsonBucket<V> getLocalCachedJsonBucket(String name, JsonCodec<V> codec, LocalCachedMapOptions<?, ?> options);
     
     /**
      * Returns map instance by name.
@@ -1032,6 +1096,134 @@ public interface RedissonClient {
      */
     <V> RBloomFilter<V> getBloomFilter(String name, Codec codec);
 
+    /**
+     * Returns partitioned bloom filter instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return PartitionedBloomFilter object
+     */
+    <V> RPartitionedBloomFilter<V> getPartitionedBloomFilter(String name);
+
+    /**
+     * Returns partitioned bloom filter instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return PartitionedBloomFilter object
+     */
+    <V> RPartitionedBloomFilter<V> getPartitionedBloomFilter(String name, Codec codec);
+
+    /**
+     * Returns scalable bloom filter instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return ScalableBloomFilter object
+     */
+    <V> RScalableBloomFilter<V> getScalableBloomFilter(String name);
+
+    /**
+     * Returns scalable bloom filter instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return ScalableBloomFilter object
+     */
+    <V> RScalableBloomFilter<V> getScalableBloomFilter(String name, Codec codec);
+
+    /**
+     * Returns cuckoo filter instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return CuckooFilter object
+     */
+    <V> RCuckooFilter<V> getCuckooFilter(String name);
+
+    /**
+     * Returns cuckoo filter instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return CuckooFilter object
+     */
+    <V> RCuckooFilter<V> getCuckooFilter(String name, Codec codec);
+
+    /**
+     * Returns count-min sketch instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return CountMinSketch object
+     */
+    <V> RCountMinSketch<V> getCountMinSketch(String name);
+
+    /**
+     * Returns count-min sketch instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return CountMinSketch object
+     */
+    <V> RCountMinSketch<V> getCountMinSketch(String name, Codec codec);
+
+    /**
+     * Returns top-k instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return TopK object
+     */
+    <V> RTopK<V> getTopK(String name);
+
+    /**
+     * Returns top-k instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return TopK object
+     */
+    <V> RTopK<V> getTopK(String name, Codec codec);
+
+    /**
+     * Returns roaring bitmap instance by name.
+     *
+     * @param name - name of object
+     * @return RoaringBitmap object
+     */
+    RRoaringBitmap getRoaringBitmap(String name);
+
+    /**
+     * Returns windowed rate counter instance by name.
+     *
+     * @param <K> type of key
+     * @param name - name of object
+     * @return WindowCounter object
+     */
+    <K> RWindowCounter<K> getWindowCounter(String name);
+
+    /**
+     * Returns windowed rate counter instance by name
+     * using provided codec for keys.
+     *
+     * @param <K> type of key
+     * @param name - name of object
+     * @param codec - codec for keys
+     * @return WindowCounter object
+     */
+    <K> RWindowCounter<K> getWindowCounter(String name, Codec codec);
+
     /**
      * Returns id generator by name.
      *
@@ -1171,6 +1363,25 @@ public interface RedissonClient {
      * @return Batch object
      */
     RBatch createBatch();
+
+    /**
+     * Creates read-your-writes consistency session and binds it to the current thread.
+     * <p>
+     * Reads made within the session are routed only to slaves which
+     * have already replicated writes made within the session,
+     * or to master if there are no such slaves.
+     * <p>
+     * Usage example:
+     * <pre>
+     * try (ConsistencySession session = redisson.createConsistencySession()) {
+     *     map.put("key", "value");
+     *     map.get("key");
+     * }
+     * </pre>
+     *
+     * @return consistency session object
+     */
+    ConsistencySession createConsistencySession();
     
     /**
      * Returns interface with methods for Redis keys.
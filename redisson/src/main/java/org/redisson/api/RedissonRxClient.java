@@ -862,6 +862,46 @@ public interface RedissonRxClient {
      */
     RBitSetRx getBitSet(String name);
 
+    /**
+     * Returns bloom filter instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return BloomFilter object
+     */
+    <V> RBloomFilterRx<V> getBloomFilter(String name);
+
+    /**
+     * Returns bloom filter instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return BloomFilter object
+     */
+    <V> RBloomFilterRx<V> getBloomFilter(String name, Codec codec);
+
+    /**
+     * Returns cuckoo filter instance by name.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @return CuckooFilter object
+     */
+    <V> RCuckooFilterRx<V> getCuckooFilter(String name);
+
+    /**
+     * Returns cuckoo filter instance by name
+     * using provided codec for objects.
+     *
+     * @param <V> type of value
+     * @param name - name of object
+     * @param codec - codec for values
+     * @return CuckooFilter object
+     */
+    <V> RCuckooFilterRx<V> getCuckooFilter(String name, Codec codec);
+
     /**
      * Returns interface for Redis Function feature
      *
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+/**
+ * Algorithm used by {@link RWindowCounter} object.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public enum WindowType {
+
+    /**
+     * Counts permits within fixed time windows.
+     * Requires single counter per key but allows
+     * up to twice the rate around window boundary.
+     */
+    FIXED_WINDOW,
+
+    /**
+     * Counts permits within current and previous fixed time windows.
+     * Permits of previous window are weighted by its overlap with sliding window.
+     * Requires two counters per key.
+     */
+    SLIDING_WINDOW,
+
+    /**
+     * Stores timestamp of each acquisition and counts permits within sliding window exactly.
+     * Requires memory proportional to the amount of acquisitions per window.
+     */
+    SLIDING_LOG
+
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.api;
+
+import org.redisson.misc.RedisURI;
+
+/**
+ * Maps Redis node address to availability zone (or rack) it's located in.
+ *
+ * @author Nikita Koksharov
+ *
+ * @see HostZoneMapper
+ * @see org.redisson.connection.balancer.ZoneAwareLoadBalancer
+ */
+@FunctionalInterface
+public interface ZoneMapper {
+
+    /**
+     * Returns zone of Redis node with defined <code>uri</code>
+     *
+     * @param uri - Redis node address
+     * @return zone name or <code>null</code> if zone is unknown
+     */
+    String map(RedisURI uri);
+
+    /**
+     * Returns <code>null</code> zone for any node. Used by default
+     *
+     * @return ZoneMapper instance which doesn't define zones
+     */
+    static ZoneMapper none() {
+        return uri -> null;
+    }
+
+}
@@ -20,6 +20,7 @@ import java.util.AbstractMap.SimpleEntry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 
@@ -34,7 +35,11 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
     final ConcurrentMap<K, CachedValue<K, V>> map = new ConcurrentHashMap<>();
     private final long timeToLiveInMillis;
     private final long maxIdleInMillis;
+    private final ExpirationQueue<K, V> expirationQueue;
 
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder collectedEvictions = new LongAdder();
 
     public AbstractCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
         if (size < 0) {
@@ -43,6 +48,11 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
         this.size = size;
         this.maxIdleInMillis = maxIdleInMillis;
         this.timeToLiveInMillis = timeToLiveInMillis;
+        if (timeToLiveInMillis != 0 || maxIdleInMillis != 0) {
+            this.expirationQueue = new ExpirationQueue<>(timeToLiveInMillis, maxIdleInMillis);
+        } else {
+            this.expirationQueue = null;
+        }
     }
 
     protected void onValueRead(CachedValue<K, V> value) {
@@ -53,6 +63,24 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
         
     }
 
+    private void valueCreated(CachedValue<K, V> value) {
+        if (expirationQueue != null) {
+            expirationQueue.add(value);
+        }
+        onValueCreate(value);
+    }
+
+    private void valueRemoved(CachedValue<K, V> value) {
+        removeFromExpirationQueue(value);
+        onValueRemove(value);
+    }
+
+    private void removeFromExpirationQueue(CachedValue<K, V> value) {
+        if (expirationQueue != null) {
+            expirationQueue.remove(value);
+        }
+    }
+
     
     /*
      * (non-Javadoc)
@@ -88,7 +116,8 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
         }
         if (isValueExpired(entry)) {
             if (map.remove(key, entry)) {
-                onValueRemove(entry);
+                valueRemoved(entry);
+                expiredEvictions.increment();
                 return false;
             }
             return containsKey(key);
@@ -123,7 +152,8 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
             if (cachedValue.getValue().equals(value)) {
                 if (isValueExpired(cachedValue)) {
                     if (map.remove(cachedValue.getKey(), cachedValue)) {
-                        onValueRemove(cachedValue);
+                        valueRemoved(cachedValue);
+                        expiredEvictions.increment();
                     }
                 } else {
                     readValue(cachedValue);
@@ -150,7 +180,8 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
         }
         if (isValueExpired(entry)) {
             if (map.remove(key, entry)) {
-                onValueRemove(entry);
+                valueRemoved(entry);
+                expiredEvictions.increment();
                 return null;
             }
             return get(key);
@@ -179,10 +210,10 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                 onMapFull();
             }
         }
-        onValueCreate(entry);
+        valueCreated(entry);
         CachedValue<K, V> prevCachedValue = map.put(key, entry);
         if (prevCachedValue != null) {
-            onValueRemove(prevCachedValue);
+            valueRemoved(prevCachedValue);
             if (!isValueExpired(prevCachedValue)) {
                 return (V) prevCachedValue.getValue();
             }
@@ -198,18 +229,16 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
     }
 
     protected boolean removeExpiredEntries() {
-        if (timeToLiveInMillis == 0 && maxIdleInMillis == 0) {
+        if (expirationQueue == null) {
             return false;
         }
 
         boolean removed = false;
-        // TODO optimize
-        for (CachedValue<K, V> value : map.values()) {
-            if (isValueExpired(value)) {
-                if (map.remove(value.getKey(), value)) {
-                    onValueRemove(value);                    
-                    removed = true;
-                }
+        for (CachedValue<K, V> value : expirationQueue.pollExpired()) {
+            if (map.remove(value.getKey(), value)) {
+                onValueRemove(value);
+                expiredEvictions.increment();
+                removed = true;
             }
         }
         return removed;
@@ -217,6 +246,63 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
 
     protected abstract void onMapFull();
 
+    /**
+     * Removes entry evicted due to cache size limit.
+     *
+     * @param value - evicted entry
+     * @return <code>true</code> if entry was removed
+     */
+    protected boolean evict(CachedValue<K, V> value) {
+        if (map.remove(value.getKey(), value)) {
+            removeFromExpirationQueue(value);
+            sizeEvictions.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes entry which value was reclaimed by garbage collector.
+     *
+     * @param value - collected entry
+     * @return <code>true</code> if entry was removed
+     */
+    protected boolean collect(CachedValue<K, V> value) {
+        if (map.remove(value.getKey(), value)) {
+            removeFromExpirationQueue(value);
+            collectedEvictions.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns amount of entries evicted due to cache size limit
+     *
+     * @return amount of evictions
+     */
+    public long getSizeEvictions() {
+        return sizeEvictions.sum();
+    }
+
+    /**
+     * Returns amount of entries evicted due to expired time to live or max idle time
+     *
+     * @return amount of evictions
+     */
+    public long getExpiredEvictions() {
+        return expiredEvictions.sum();
+    }
+
+    /**
+     * Returns amount of entries evicted because their values were reclaimed by garbage collector
+     *
+     * @return amount of evictions
+     */
+    public long getCollectedEvictions() {
+        return collectedEvictions.sum();
+    }
+
     protected boolean isFull(K key) {
         if (size == 0) {
             return false;
@@ -235,7 +321,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
     public V remove(Object key) {
         CachedValue<K, V> entry = map.remove(key);
         if (entry != null) {
-            onValueRemove(entry);
+            valueRemoved(entry);
             if (!isValueExpired(entry)) {
                 return (V) entry.getValue();
             }
@@ -262,6 +348,9 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
     @Override
     public void clear() {
         map.clear();
+        if (expirationQueue != null) {
+            expirationQueue.clear();
+        }
     }
 
     /*
@@ -340,7 +429,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     if (mapEntry == null) {
                         throw new IllegalStateException();
                     }
-                    map.remove(mapEntry.getKey());
+                    AbstractCacheMap.this.remove(mapEntry.getKey());
                     mapEntry = null;
                 }
             };
@@ -389,7 +478,9 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     if (mapEntry == null) {
                         throw new IllegalStateException();
                     }
-                    map.remove(mapEntry.getKey(), mapEntry.getValue());
+                    if (map.remove(mapEntry.getKey(), mapEntry.getValue())) {
+                        valueRemoved(mapEntry.getValue());
+                    }
                     mapEntry = null;
                 }
             };
@@ -432,7 +523,9 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     if (mapEntry == null) {
                         throw new IllegalStateException();
                     }
-                    map.remove(mapEntry.getKey(), mapEntry.getValue());
+                    if (map.remove(mapEntry.getKey(), mapEntry.getValue())) {
+                        valueRemoved(mapEntry.getValue());
+                    }
                     mapEntry = null;
                 }
             };
@@ -480,7 +573,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                 onMapFull();
             }
         }
-        onValueCreate(entry);
+        valueCreated(entry);
         return null;
     }
 
@@ -497,7 +590,7 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
             }
         }
         if (e != null) {
-            onValueRemove(e);
+            valueRemoved(e);
             return true;
         }
         return false;
@@ -513,11 +606,12 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                         && !isValueExpired(entry)) {
                 CachedValue<K, V> newEntry = create(key, newValue, timeToLiveInMillis, maxIdleInMillis);
                 map.put(key, newEntry);
+                valueCreated(newEntry);
                 e = entry;
             }
         }
         if (e != null) {
-            onValueRemove(e);
+            valueRemoved(e);
             return true;
         }
         return false;
@@ -532,11 +626,12 @@ public abstract class AbstractCacheMap<K, V> implements Cache<K, V> {
                     && !isValueExpired(entry)) {
                 CachedValue<K, V> newEntry = create(key, value, timeToLiveInMillis, maxIdleInMillis);
                 map.put(key, newEntry);
+                valueCreated(newEntry);
                 e = entry;
             }
         }
         if (e != null) {
-            onValueRemove(e);
+            valueRemoved(e);
             return e.getValue();
         }
         return null;
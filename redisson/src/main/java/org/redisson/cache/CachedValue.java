@@ -23,4 +23,12 @@ public interface CachedValue<K, V> extends ExpirableValue {
     K getKey();
 
     V getValue();
+
+    /**
+     * Returns time of last {@link #getValue()} invocation or creation time.
+     *
+     * @return time in milliseconds
+     */
+    long getLastAccess();
+
 }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+/**
+ * Cached value with expiration time defined by Redis entry.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+@SuppressWarnings("EqualsHashCode")
+public class ExpirableCacheValue extends CacheValue implements ExpirableValue {
+
+    private final long expireTime;
+
+    /**
+     * Creates cached value.
+     *
+     * @param key - key
+     * @param value - value
+     * @param expireTime - expiration time in milliseconds or <code>0</code> if value doesn't expire
+     */
+    public ExpirableCacheValue(Object key, Object value, long expireTime) {
+        super(key, value);
+        this.expireTime = expireTime;
+    }
+
+    public long getExpireTime() {
+        return expireTime;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return expireTime > 0 && expireTime <= System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "ExpirableCacheValue [key=" + getKey() + ", value=" + getValue() + ", expireTime=" + expireTime + "]";
+    }
+
+}
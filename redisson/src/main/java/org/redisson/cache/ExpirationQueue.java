@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expiration ordered queues of cached values.
+ * <p>
+ * Values are ordered by insertion in time to live queue
+ * and by last access time in max idle queue. Expired values are always
+ * at the head of queues, so they are found in amortized O(1) time
+ * instead of full cache scan.
+ * <p>
+ * Queues are concurrent skip lists, so writers don't block each other.
+ * Reads don't reorder max idle queue. Value is requeued by its last access time
+ * only once it reaches the head and has been accessed since it was queued.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class ExpirationQueue<K, V> {
+
+    static final class Node<K, V> implements Comparable<Node<K, V>> {
+
+        private final CachedValue<K, V> value;
+        private final long time;
+        private final long sequence;
+
+        Node(CachedValue<K, V> value, long time, long sequence) {
+            this.value = value;
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Node<K, V> o) {
+            int result = Long.compare(time, o.time);
+            if (result == 0) {
+                result = Long.compare(sequence, o.sequence);
+            }
+            return result;
+        }
+
+    }
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentMap<CachedValue<K, V>, Node<K, V>> timeToLiveNodes;
+    private final NavigableSet<Node<K, V>> timeToLiveQueue;
+    // nodes are ordered by last access time at the moment of queueing
+    private final ConcurrentMap<CachedValue<K, V>, Node<K, V>> maxIdleNodes;
+    private final NavigableSet<Node<K, V>> maxIdleQueue;
+
+    public ExpirationQueue(long timeToLiveInMillis, long maxIdleInMillis) {
+        if (timeToLiveInMillis != 0) {
+            timeToLiveNodes = new ConcurrentHashMap<>();
+            timeToLiveQueue = new ConcurrentSkipListSet<>();
+        } else {
+            timeToLiveNodes = null;
+            timeToLiveQueue = null;
+        }
+        if (maxIdleInMillis != 0) {
+            maxIdleNodes = new ConcurrentHashMap<>();
+            maxIdleQueue = new ConcurrentSkipListSet<>();
+        } else {
+            maxIdleNodes = null;
+            maxIdleQueue = null;
+        }
+    }
+
+    public void add(CachedValue<K, V> value) {
+        if (timeToLiveQueue != null) {
+            Node<K, V> node = new Node<>(value, 0, sequence.incrementAndGet());
+            timeToLiveNodes.put(value, node);
+            timeToLiveQueue.add(node);
+        }
+        if (maxIdleQueue != null) {
+            Node<K, V> node = new Node<>(value, value.getLastAccess(), sequence.incrementAndGet());
+            maxIdleNodes.put(value, node);
+            maxIdleQueue.add(node);
+        }
+    }
+
+    public void remove(CachedValue<K, V> value) {
+        if (timeToLiveQueue != null) {
+            remove(timeToLiveNodes, timeToLiveQueue, value);
+        }
+        if (maxIdleQueue != null) {
+            remove(maxIdleNodes, maxIdleQueue, value);
+        }
+    }
+
+    private void remove(ConcurrentMap<CachedValue<K, V>, Node<K, V>> nodes, NavigableSet<Node<K, V>> queue,
+                        CachedValue<K, V> value) {
+        Node<K, V> node = nodes.remove(value);
+        if (node != null) {
+            queue.remove(node);
+        }
+    }
+
+    /*
+     * Node is stale if its value was removed or requeued
+     * while node was being added to queue.
+     */
+    private boolean isStale(ConcurrentMap<CachedValue<K, V>, Node<K, V>> nodes, Node<K, V> node) {
+        return nodes.get(node.value) != node;
+    }
+
+    /**
+     * Removes expired values from queues.
+     *
+     * @return expired values
+     */
+    public List<CachedValue<K, V>> pollExpired() {
+        List<CachedValue<K, V>> result = pollTimeToLiveExpired();
+        return pollMaxIdleExpired(result);
+    }
+
+    private List<CachedValue<K, V>> pollTimeToLiveExpired() {
+        List<CachedValue<K, V>> result = Collections.emptyList();
+        if (timeToLiveQueue == null) {
+            return result;
+        }
+
+        for (Node<K, V> node : timeToLiveQueue) {
+            if (isStale(timeToLiveNodes, node)) {
+                timeToLiveQueue.remove(node);
+                continue;
+            }
+
+            CachedValue<K, V> value = node.value;
+            if (!value.isExpired()) {
+                break;
+            }
+
+            if (!timeToLiveQueue.remove(node)) {
+                continue;
+            }
+            timeToLiveNodes.remove(value, node);
+            if (maxIdleQueue != null) {
+                remove(maxIdleNodes, maxIdleQueue, value);
+            }
+            if (result.isEmpty()) {
+                result = new ArrayList<>();
+            }
+            result.add(value);
+        }
+        return result;
+    }
+
+    private List<CachedValue<K, V>> pollMaxIdleExpired(List<CachedValue<K, V>> result) {
+        if (maxIdleQueue == null) {
+            return result;
+        }
+
+        for (Node<K, V> node : maxIdleQueue) {
+            if (isStale(maxIdleNodes, node)) {
+                maxIdleQueue.remove(node);
+                continue;
+            }
+
+            CachedValue<K, V> value = node.value;
+            if (value.isExpired()) {
+                if (!maxIdleQueue.remove(node)) {
+                    continue;
+                }
+                maxIdleNodes.remove(value, node);
+                if (timeToLiveQueue != null) {
+                    remove(timeToLiveNodes, timeToLiveQueue, value);
+                }
+                if (result.isEmpty()) {
+                    result = new ArrayList<>();
+                }
+                result.add(value);
+                continue;
+            }
+
+            long lastAccess = value.getLastAccess();
+            if (lastAccess == node.time) {
+                // head value isn't idle and others were accessed at the same time or later
+                break;
+            }
+
+            Node<K, V> newNode = new Node<>(value, lastAccess, sequence.incrementAndGet());
+            if (maxIdleNodes.replace(value, node, newNode)) {
+                maxIdleQueue.add(newNode);
+            }
+            maxIdleQueue.remove(node);
+        }
+        return result;
+    }
+
+    public void clear() {
+        if (timeToLiveQueue != null) {
+            timeToLiveNodes.clear();
+            timeToLiveQueue.clear();
+        }
+        if (maxIdleQueue != null) {
+            maxIdleNodes.clear();
+            maxIdleQueue.clear();
+        }
+    }
+
+}
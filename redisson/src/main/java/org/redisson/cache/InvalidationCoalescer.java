@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import io.netty.util.Timeout;
+import org.redisson.connection.ConnectionManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects invalidated key hashes of local cached map
+ * and publishes them as a single message per time window.
+ * Repeated keys within the window are published once.
+ * Batch is published earlier if amount of collected keys reaches batch size.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public abstract class InvalidationCoalescer {
+
+    private final ConnectionManager connectionManager;
+    private final long window;
+    private final int batchSize;
+
+    private Set<CacheKey> pending = new LinkedHashSet<>();
+    private Timeout timeout;
+
+    private final AtomicLong publishedMessages = new AtomicLong();
+    private final AtomicLong publishedKeys = new AtomicLong();
+    private final AtomicLong invalidatedKeys = new AtomicLong();
+
+    public InvalidationCoalescer(ConnectionManager connectionManager, long window, int batchSize) {
+        this.connectionManager = connectionManager;
+        this.window = window;
+        this.batchSize = batchSize;
+    }
+
+    public void add(byte[]... keyHashes) {
+        List<Set<CacheKey>> batches = Collections.emptyList();
+        synchronized (this) {
+            for (byte[] keyHash : keyHashes) {
+                invalidatedKeys.incrementAndGet();
+                pending.add(new CacheKey(keyHash));
+                if (pending.size() >= batchSize) {
+                    if (batches.isEmpty()) {
+                        batches = new ArrayList<>();
+                    }
+                    batches.add(poll());
+                }
+            }
+
+            if (!pending.isEmpty() && timeout == null) {
+                timeout = connectionManager.newTimeout(t -> flush(), window, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        for (Set<CacheKey> keys : batches) {
+            publishKeys(keys);
+        }
+    }
+
+    public void flush() {
+        Set<CacheKey> keys;
+        synchronized (this) {
+            keys = poll();
+        }
+        if (!keys.isEmpty()) {
+            publishKeys(keys);
+        }
+    }
+
+    private Set<CacheKey> poll() {
+        Set<CacheKey> keys = pending;
+        pending = new LinkedHashSet<>();
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+        return keys;
+    }
+
+    private void publishKeys(Set<CacheKey> keys) {
+        byte[][] keyHashes = new byte[keys.size()][];
+        int i = 0;
+        for (CacheKey key : keys) {
+            keyHashes[i++] = key.getKeyHash();
+        }
+
+        publishedMessages.incrementAndGet();
+        publishedKeys.addAndGet(keyHashes.length);
+        publish(keyHashes);
+    }
+
+    protected abstract void publish(byte[][] keyHashes);
+
+    /**
+     * Returns amount of published invalidation messages
+     *
+     * @return amount of messages
+     */
+    public long getPublishedMessages() {
+        return publishedMessages.get();
+    }
+
+    /**
+     * Returns amount of key hashes in published invalidation messages
+     *
+     * @return amount of keys
+     */
+    public long getPublishedKeys() {
+        return publishedKeys.get();
+    }
+
+    /**
+     * Returns amount of key invalidations passed to this coalescer
+     * including repeated keys.
+     *
+     * @return amount of invalidations
+     */
+    public long getInvalidatedKeys() {
+        return invalidatedKeys.get();
+    }
+
+    /**
+     * Returns average amount of keys per published invalidation message.
+     *
+     * @return average batch size
+     */
+    public double getAverageBatchSize() {
+        long messages = publishedMessages.get();
+        if (messages == 0) {
+            return 0;
+        }
+        return (double) publishedKeys.get() / messages;
+    }
+
+}
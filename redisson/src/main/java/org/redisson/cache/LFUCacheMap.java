@@ -135,7 +135,7 @@ public class LFUCacheMap<K, V> extends AbstractCacheMap<K, V> {
         if (entry == null) {
             return;
         }
-        map.remove(entry.getValue().getKey(), entry.getValue());
+        evict((CachedValue) entry.getValue());
         
         if (entry.getValue().accessCount == 0) {
             return;
@@ -89,7 +89,7 @@ public class LRUCacheMap<K, V> extends AbstractCacheMap<K, V> {
             }
 
             if (removedValue != null) {
-                map.remove(removedValue.getKey(), removedValue);
+                evict(removedValue);
                 return;
             }
         }
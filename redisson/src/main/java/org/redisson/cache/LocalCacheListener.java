@@ -28,14 +28,20 @@ import org.redisson.api.listener.BaseStatusListener;
 import org.redisson.api.listener.MessageListener;
 import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.client.protocol.RedisCommands;
 import org.redisson.command.CommandAsyncExecutor;
 import org.redisson.misc.CompletableFutureWrapper;
+import org.redisson.misc.Hash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 
@@ -51,6 +57,10 @@ public abstract class LocalCacheListener {
     private ConcurrentMap<CacheKey, String> disabledKeys = new ConcurrentHashMap<CacheKey, String>();
     
     private static final Logger log = LoggerFactory.getLogger(LocalCacheListener.class);
+
+    private static final int UPDATES_STREAM_BATCH_SIZE = 1000;
+    private static final int VERSION_CHECK_BATCH_SIZE = 500;
+    private static final long STREAM_POSITION_UPDATE_INTERVAL = 1000;
     
     private String name;
     private CommandAsyncExecutor commandExecutor;
@@ -62,9 +72,15 @@ public abstract class LocalCacheListener {
     
     private long cacheUpdateLogTime;
     private volatile long lastInvalidate;
+    private volatile StreamMessageId lastStreamId;
+    private volatile long lastStreamIdUpdate;
     private RTopic invalidationTopic;
     private int syncListenerId;
     private int reconnectionListenerId;
+
+    private final LongAdder invalidationsReceived = new LongAdder();
+    private final LongAdder invalidationsSent = new LongAdder();
+    private final LongAdder clearsReceived = new LongAdder();
     
     public LocalCacheListener(String name, CommandAsyncExecutor commandExecutor,
             RObject object, Codec codec, LocalCachedMapOptions<?, ?> options, long cacheUpdateLogTime) {
@@ -119,6 +135,9 @@ public abstract class LocalCacheListener {
         if (options.getEvictionPolicy() == EvictionPolicy.LFU) {
             return new LFUCacheMap<>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
         }
+        if (options.getEvictionPolicy() == EvictionPolicy.TINY_LFU) {
+            return new TinyLFUCacheMap<>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+        }
         if (options.getEvictionPolicy() == EvictionPolicy.SOFT) {
             return ReferenceCacheMap.soft(options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
         }
@@ -142,7 +161,7 @@ public abstract class LocalCacheListener {
                 @Override
                 public void onSubscribe(String channel) {
                     if (options.getReconnectionStrategy() == ReconnectionStrategy.CLEAR) {
-                        cache.clear();
+                        clearCache();
                     }
                     if (options.getReconnectionStrategy() == ReconnectionStrategy.LOAD
                             // check if instance has already been used
@@ -150,6 +169,9 @@ public abstract class LocalCacheListener {
 
                         loadAfterReconnection();
                     }
+                    if (options.getReconnectionStrategy() == ReconnectionStrategy.STREAM) {
+                        loadFromUpdatesStream();
+                    }
                 }
             });
         }
@@ -185,7 +207,8 @@ public abstract class LocalCacheListener {
                     if (msg instanceof LocalCachedMapClear) {
                         LocalCachedMapClear clearMsg = (LocalCachedMapClear) msg;
                         if (!Arrays.equals(clearMsg.getExcludedId(), instanceId)) {
-                            cache.clear();
+                            clearsReceived.increment();
+                            clearCache();
 
                             if (clearMsg.isReleaseSemaphore()) {
                                 RSemaphore semaphore = getClearSemaphore(clearMsg.getRequestId());
@@ -197,10 +220,13 @@ public abstract class LocalCacheListener {
                     if (msg instanceof LocalCachedMapInvalidate) {
                         LocalCachedMapInvalidate invalidateMsg = (LocalCachedMapInvalidate) msg;
                         if (!Arrays.equals(invalidateMsg.getExcludedId(), instanceId)) {
+                            invalidationsReceived.add(invalidateMsg.getKeyHashes().length);
                             for (byte[] keyHash : invalidateMsg.getKeyHashes()) {
                                 CacheKey key = new CacheKey(keyHash);
-                                cache.remove(key);
+                                invalidate(key);
                             }
+                        } else {
+                            invalidationsSent.add(invalidateMsg.getKeyHashes().length);
                         }
                     }
                     
@@ -208,24 +234,22 @@ public abstract class LocalCacheListener {
                         LocalCachedMapUpdate updateMsg = (LocalCachedMapUpdate) msg;
 
                         if (!Arrays.equals(updateMsg.getExcludedId(), instanceId)) {
+                            invalidationsReceived.add(updateMsg.getEntries().size());
                             for (LocalCachedMapUpdate.Entry entry : updateMsg.getEntries()) {
-                                ByteBuf keyBuf = Unpooled.wrappedBuffer(entry.getKey());
-                                ByteBuf valueBuf = Unpooled.wrappedBuffer(entry.getValue());
-                                try {
-                                    updateCache(keyBuf, valueBuf);
-                                } catch (IOException e) {
-                                    log.error("Can't decode map entry", e);
-                                } finally {
-                                    keyBuf.release();
-                                    valueBuf.release();
-                                }
+                                applyUpdate(entry);
                             }
+                        } else {
+                            invalidationsSent.add(updateMsg.getEntries().size());
                         }
                     }
                     
                     if (options.getReconnectionStrategy() == ReconnectionStrategy.LOAD) {
                         lastInvalidate = System.currentTimeMillis();
                     }
+                    if (options.getReconnectionStrategy() == ReconnectionStrategy.STREAM
+                            && System.currentTimeMillis() - lastStreamIdUpdate > STREAM_POSITION_UPDATE_INTERVAL) {
+                        updateStreamPosition();
+                    }
                 }
 
             });
@@ -246,7 +270,7 @@ public abstract class LocalCacheListener {
     }
     
     public RFuture<Void> clearLocalCacheAsync() {
-        cache.clear();
+        clearCache();
         if (syncListenerId == 0) {
             return new CompletableFutureWrapper<>((Void) null);
         }
@@ -276,11 +300,163 @@ public abstract class LocalCacheListener {
     }
 
     protected abstract void updateCache(ByteBuf keyBuf, ByteBuf valueBuf) throws IOException;
+
+    /**
+     * Returns encoded value stored in local cache.
+     * Used to apply diff received from other instance.
+     *
+     * @param key - encoded key
+     * @return encoded value or <code>null</code> if value isn't cached
+     */
+    protected byte[] getCachedValueState(byte[] key) {
+        return null;
+    }
+
+    private void applyUpdate(LocalCachedMapUpdate.Entry entry) {
+        byte[] value;
+        try {
+            byte[] cachedValue = null;
+            if (entry.getValueType() == LocalCachedMapUpdate.ValueType.DIFF) {
+                cachedValue = getCachedValueState(entry.getKey());
+            }
+            value = LocalCachedMapDelta.getValue(entry, cachedValue);
+        } catch (IOException e) {
+            log.error("Can't decode map entry value", e);
+            value = null;
+        }
+
+        ByteBuf keyBuf = Unpooled.wrappedBuffer(entry.getKey());
+        if (value == null) {
+            // base value differs or missing
+            invalidate(new CacheKey(Hash.hash128toArray(keyBuf)));
+            keyBuf.release();
+            return;
+        }
+
+        ByteBuf valueBuf = Unpooled.wrappedBuffer(value);
+        try {
+            updateCache(keyBuf, valueBuf);
+        } catch (IOException e) {
+            log.error("Can't decode map entry", e);
+        } finally {
+            keyBuf.release();
+            valueBuf.release();
+        }
+    }
+
+    /**
+     * Removes cached entry invalidated by other instance.
+     *
+     * @param key - invalidated key
+     */
+    protected void invalidate(CacheKey key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Returns amount of keys invalidated or updated by other instances
+     * including keys loaded from updates log
+     *
+     * @return amount of keys
+     */
+    public long getInvalidationsReceived() {
+        return invalidationsReceived.sum();
+    }
+
+    /**
+     * Returns amount of keys in invalidation and update messages
+     * published by this instance
+     *
+     * @return amount of keys
+     */
+    public long getInvalidationsSent() {
+        return invalidationsSent.sum();
+    }
+
+    /**
+     * Returns amount of local cache clears requested by other instances
+     *
+     * @return amount of clears
+     */
+    public long getClearsReceived() {
+        return clearsReceived.sum();
+    }
+
+    /**
+     * Publishes invalidation message for defined key hashes.
+     * Also writes them to updates log or stream if
+     * reconnection strategy is <code>LOAD</code> or <code>STREAM</code>.
+     *
+     * @param keyHashes - key hashes
+     * @return void
+     */
+    public RFuture<Void> publishInvalidation(byte[][] keyHashes) {
+        LocalCachedMapInvalidate msg = new LocalCachedMapInvalidate(instanceId, keyHashes);
+        if (options.getReconnectionStrategy() != ReconnectionStrategy.LOAD
+                && options.getReconnectionStrategy() != ReconnectionStrategy.STREAM) {
+            return new CompletableFutureWrapper<>(invalidationTopic.publishAsync(msg).thenApply(r -> null));
+        }
+
+        ByteBuf msgEncoded;
+        try {
+            msgEncoded = LocalCachedMessageCodec.INSTANCE.getValueEncoder().encode(msg);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        List<Object> params = new ArrayList<>(keyHashes.length*2 + 2);
+        params.add(msgEncoded);
+        if (options.getReconnectionStrategy() == ReconnectionStrategy.LOAD) {
+            params.add(2);
+        } else {
+            params.add(3);
+        }
+        for (byte[] keyHash : keyHashes) {
+            if (options.getReconnectionStrategy() == ReconnectionStrategy.LOAD) {
+                params.add(System.currentTimeMillis());
+            } else {
+                params.add(options.getUpdatesStreamMaxLength());
+            }
+            params.add(generateLogEntryId(keyHash));
+        }
+
+        return commandExecutor.evalWriteAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_VOID,
+                "if ARGV[2] == '2' then "
+                    + "for i = 3, #ARGV, 5000 do "
+                        + "redis.call('zadd', KEYS[3], unpack(ARGV, i, math.min(i+4999, #ARGV))); "
+                    + "end; "
+                + "else "
+                    + "for i = 3, #ARGV, 2 do "
+                        + "redis.call('xadd', KEYS[3], 'MAXLEN', '~', ARGV[i], '*', 'h', ARGV[i+1]); "
+                    + "end; "
+                + "end; "
+                + "redis.call('publish', KEYS[2], ARGV[1]); ",
+                Arrays.<Object>asList(name, getInvalidationTopicName(), getUpdatesLogName()),
+                params.toArray());
+    }
+
+    public static byte[] generateLogEntryId(byte[] keyHash) {
+        byte[] result = new byte[keyHash.length + 1 + 8];
+        result[16] = ':';
+        byte[] id = new byte[8];
+        ThreadLocalRandom.current().nextBytes(id);
+
+        System.arraycopy(keyHash, 0, result, 0, keyHash.length);
+        System.arraycopy(id, 0, result, 17, id.length);
+        return result;
+    }
     
     private void disableKeys(final String requestId, final Set<CacheKey> keys, long timeout) {
         for (CacheKey key : keys) {
             disabledKeys.put(key, requestId);
-            cache.remove(key);
+            invalidate(key);
         }
         
         commandExecutor.getConnectionManager().getGroup().schedule(new Runnable() {
@@ -305,12 +481,15 @@ public abstract class LocalCacheListener {
     }
 
     public String getUpdatesLogName() {
+        if (options.getReconnectionStrategy() == ReconnectionStrategy.STREAM) {
+            return RedissonObject.prefixName("redisson__cache_updates_stream", name);
+        }
         return RedissonObject.prefixName("redisson__cache_updates_log", name);
     }
 
     private void loadAfterReconnection() {
         if (System.currentTimeMillis() - lastInvalidate > cacheUpdateLogTime) {
-            cache.clear();
+            clearCache();
             return;
         }
         
@@ -321,7 +500,7 @@ public abstract class LocalCacheListener {
             }
 
             if (!res) {                                        
-                cache.clear();
+                clearCache();
                 return;
             }
             
@@ -333,15 +512,199 @@ public abstract class LocalCacheListener {
                     return;
                 }
                 
+                invalidationsReceived.add(r.size());
                 for (byte[] entry : r) {
                     byte[] keyHash = Arrays.copyOf(entry, 16);
                     CacheKey key = new CacheKey(keyHash);
-                    cache.remove(key);
+                    invalidate(key);
+                }
+            });
+        });
+    }
+
+    private RStream<byte[], byte[]> getUpdatesStream() {
+        return new RedissonStream<>(ByteArrayCodec.INSTANCE, commandExecutor, getUpdatesLogName());
+    }
+
+    /*
+     * Stores id of the last updates stream entry. Stream entry of received invalidation message
+     * is always equal or lower than this id, because entry is added along with message publishing.
+     */
+    private void updateStreamPosition() {
+        lastStreamIdUpdate = System.currentTimeMillis();
+        getUpdatesStream().rangeReversedAsync(1, StreamMessageId.MAX, StreamMessageId.MIN).whenComplete((r, e) -> {
+            if (e != null) {
+                log.error("Can't read updates stream position", e);
+                return;
+            }
+
+            if (r.isEmpty()) {
+                if (lastStreamId == null) {
+                    lastStreamId = new StreamMessageId(0, 0);
+                }
+                return;
+            }
+            lastStreamId = r.keySet().iterator().next();
+        });
+    }
+
+    private void loadFromUpdatesStream() {
+        StreamMessageId lastId = lastStreamId;
+        if (lastId == null) {
+            // first subscription
+            updateStreamPosition();
+            return;
+        }
+
+        object.isExistsAsync().whenComplete((res, e) -> {
+            if (e != null) {
+                log.error("Can't check existance", e);
+                return;
+            }
+
+            if (!res) {
+                clearCache();
+                return;
+            }
+
+            // pubsub message may be delivered later than position has been read
+            StreamMessageId startId = new StreamMessageId(Math.max(0, lastId.getId0() - STREAM_POSITION_UPDATE_INTERVAL), 0);
+            RStream<byte[], byte[]> stream = getUpdatesStream();
+            RFuture<Long> sizeFuture = stream.sizeAsync();
+            RFuture<Map<StreamMessageId, Map<byte[], byte[]>>> firstFuture = stream.rangeAsync(1, StreamMessageId.MIN, StreamMessageId.MAX);
+            sizeFuture.thenCombine(firstFuture, (size, first) -> {
+                // stream isn't trimmed yet
+                if (size < options.getUpdatesStreamMaxLength()) {
+                    return true;
+                }
+                return !first.isEmpty() && compare(first.keySet().iterator().next(), startId) <= 0;
+            }).whenComplete((complete, ex) -> {
+                if (ex != null) {
+                    log.error("Can't read updates stream", ex);
+                    return;
+                }
+
+                if (complete) {
+                    loadFromUpdatesStream(stream, startId);
+                } else {
+                    List<Map.Entry<CacheKey, CacheValue>> entries = new ArrayList<>(cache.size());
+                    for (Map.Entry<?, ?> entry : cache.entrySet()) {
+                        entries.add(new AbstractMap.SimpleEntry<>((CacheKey) entry.getKey(), (CacheValue) entry.getValue()));
+                    }
+                    checkCachedEntries(entries);
                 }
             });
         });
     }
 
+    private void loadFromUpdatesStream(RStream<byte[], byte[]> stream, StreamMessageId startId) {
+        stream.rangeAsync(UPDATES_STREAM_BATCH_SIZE, startId, StreamMessageId.MAX).whenComplete((r, e) -> {
+            if (e != null) {
+                log.error("Can't load updates stream", e);
+                return;
+            }
+
+            StreamMessageId lastId = null;
+            for (Map.Entry<StreamMessageId, Map<byte[], byte[]>> entry : r.entrySet()) {
+                for (byte[] value : entry.getValue().values()) {
+                    byte[] keyHash = Arrays.copyOf(value, 16);
+                    invalidationsReceived.increment();
+                    invalidate(new CacheKey(keyHash));
+                }
+                lastId = entry.getKey();
+            }
+
+            if (lastId == null) {
+                return;
+            }
+
+            if (compare(lastId, lastStreamId) > 0) {
+                lastStreamId = lastId;
+            }
+            if (r.size() == UPDATES_STREAM_BATCH_SIZE) {
+                loadFromUpdatesStream(stream, new StreamMessageId(lastId.getId0(), lastId.getId1() + 1));
+            }
+        });
+    }
+
+    /**
+     * Checks cached entries if updates stream has been trimmed
+     * and doesn't contain all changes made during disconnection.
+     * Compares digest of cached value with digest of map value stored in Redis
+     * and removes only changed entries.
+     *
+     * @param entries - cached entries
+     */
+    protected void checkCachedEntries(List<Map.Entry<CacheKey, CacheValue>> entries) {
+        checkCachedEntries(entries, 0);
+    }
+
+    private void checkCachedEntries(List<Map.Entry<CacheKey, CacheValue>> entries, int offset) {
+        if (offset >= entries.size()) {
+            return;
+        }
+
+        int end = Math.min(offset + VERSION_CHECK_BATCH_SIZE, entries.size());
+        List<Object> params = new ArrayList<>((end - offset) * 2);
+        for (int i = offset; i < end; i++) {
+            CacheValue value = entries.get(i).getValue();
+            params.add(commandExecutor.encodeMapKey(codec, value.getKey()));
+            params.add(digest(value.getValue()));
+        }
+
+        RFuture<List<Object>> future = commandExecutor.evalReadAsync(name, LongCodec.INSTANCE, RedisCommands.EVAL_LIST,
+                "local result = {}; "
+              + "for i = 1, #ARGV, 2 do "
+                  + "local v = redis.call('hget', KEYS[1], ARGV[i]); "
+                  + "local digest = ''; "
+                  + "if v ~= false then "
+                      + "digest = redis.sha1hex(v); "
+                  + "end; "
+                  + "if digest ~= ARGV[i+1] then "
+                      + "table.insert(result, (i + 1) / 2); "
+                  + "end; "
+              + "end; "
+              + "return result;",
+                Collections.singletonList(name), params.toArray());
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                log.error("Can't check cached entries", e);
+                return;
+            }
+
+            for (Object index : r) {
+                Map.Entry<CacheKey, CacheValue> entry = entries.get(offset + ((Number) index).intValue() - 1);
+                cache.remove(entry.getKey(), entry.getValue());
+            }
+            checkCachedEntries(entries, end);
+        });
+    }
+
+    private String digest(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        ByteBuf encoded = commandExecutor.encodeMapValue(codec, value);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(encoded.nioBuffer());
+            return ByteBufUtil.hexDump(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    private static int compare(StreamMessageId id1, StreamMessageId id2) {
+        int res = Long.compare(id1.getId0(), id2.getId0());
+        if (res != 0) {
+            return res;
+        }
+        return Long.compare(id1.getId1(), id2.getId1());
+    }
+
     private RSemaphore getClearSemaphore(byte[] requestId) {
         String id = ByteBufUtil.hexDump(requestId);
         RSemaphore semaphore = new RedissonSemaphore(commandExecutor, name + ":clear:" + id);
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.io.*;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local cache snapshot stored in file as encoded keys and values.
+ * Snapshot header contains format version and codec name,
+ * snapshot written by other format or codec is ignored.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public final class LocalCacheSnapshot {
+
+    private static final int MAGIC = 0x524C4353;
+    private static final int VERSION = 1;
+
+    public static final class Entry {
+
+        private final byte[] key;
+        private final byte[] value;
+
+        public Entry(byte[] key, byte[] value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public byte[] getKey() {
+            return key;
+        }
+
+        public byte[] getValue() {
+            return value;
+        }
+
+    }
+
+    private final long timestamp;
+    private final List<Entry> entries;
+
+    public LocalCacheSnapshot(long timestamp, List<Entry> entries) {
+        this.timestamp = timestamp;
+        this.entries = entries;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public static File getFile(File directory, String name) {
+        try {
+            return new File(directory, URLEncoder.encode(name, "UTF-8") + ".snapshot");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes snapshot to temporary file and replaces defined file by it.
+     *
+     * @param file - snapshot file
+     * @param codecName - name of codec used to encode entries
+     * @throws IOException if snapshot can't be written
+     */
+    public void write(File file, String codecName) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(dir.toPath());
+        File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                byte[] name = codecName.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+                out.writeLong(timestamp);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeInt(entry.getKey().length);
+                    out.write(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    /**
+     * Reads snapshot from memory mapped file.
+     *
+     * @param file - snapshot file
+     * @param codecName - name of codec used to decode entries
+     * @return snapshot or <code>null</code> if file doesn't exist
+     *          or was written by other format version or codec
+     * @throws IOException if snapshot can't be read
+     */
+    public static LocalCacheSnapshot read(File file, String codecName) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.remaining() < 8
+                    || buf.getInt() != MAGIC
+                        || buf.getInt() != VERSION) {
+                return null;
+            }
+
+            String name = new String(readBytes(buf), StandardCharsets.UTF_8);
+            if (!codecName.equals(name)) {
+                return null;
+            }
+
+            long timestamp = buf.getLong();
+            int size = buf.getInt();
+            List<Entry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(new Entry(readBytes(buf), readBytes(buf)));
+            }
+            return new LocalCacheSnapshot(timestamp, entries);
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot file " + file + " is corrupted", e);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buf) {
+        byte[] result = new byte[buf.getInt()];
+        buf.get(result);
+        return result;
+    }
+
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import io.netty.buffer.ByteBuf;
+import org.redisson.RedissonObject;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
+import org.redisson.api.LocalCachedMapOptions.SyncStrategy;
+import org.redisson.api.RFuture;
+import org.redisson.command.CommandAsyncExecutor;
+import org.redisson.eviction.EvictionScheduler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local cache of Redis object which entries have own expiration time.
+ * Entries changed by other instances are invalidated through {@link LocalCacheListener}.
+ * <p>
+ * Only invalidation messages are published, so <code>UPDATE</code>
+ * synchronization strategy is handled as <code>INVALIDATE</code>.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LocalCacheSupport<K, V> {
+
+    private static final long CACHE_UPDATE_LOG_TIME = TimeUnit.MINUTES.toMillis(10);
+
+    private final LocalCacheView<K, V> localCacheView;
+    private final ConcurrentMap<CacheKey, CacheValue> cache;
+    private final LocalCacheListener listener;
+    private final SyncStrategy syncStrategy;
+    private InvalidationCoalescer invalidationCoalescer;
+
+    public LocalCacheSupport(RedissonObject object, CommandAsyncExecutor commandExecutor,
+                             LocalCachedMapOptions<?, ?> options, EvictionScheduler evictionScheduler) {
+        this.syncStrategy = options.getSyncStrategy();
+        this.localCacheView = new LocalCacheView<>(options, object);
+        this.cache = localCacheView.getCache();
+        this.listener = new LocalCacheListener(object.getRawName(), commandExecutor, object,
+                                                    object.getCodec(), options, CACHE_UPDATE_LOG_TIME) {
+
+            @Override
+            protected void updateCache(ByteBuf keyBuf, ByteBuf valueBuf) {
+                // only invalidation messages are published
+            }
+
+            @Override
+            protected void invalidate(CacheKey key) {
+                LocalCacheSupport.this.invalidate(key);
+            }
+
+            @Override
+            protected void checkCachedEntries(List<Map.Entry<CacheKey, CacheValue>> entries) {
+                // entries aren't stored in hash
+                cache.clear();
+            }
+
+        };
+        listener.add(cache);
+
+        if (options.getReconnectionStrategy() == ReconnectionStrategy.LOAD) {
+            evictionScheduler.schedule(listener.getUpdatesLogName(), CACHE_UPDATE_LOG_TIME + TimeUnit.MINUTES.toMillis(1));
+        }
+        if (syncStrategy != SyncStrategy.NONE
+                && options.getInvalidationBatchWindowInMillis() > 0) {
+            invalidationCoalescer = new InvalidationCoalescer(commandExecutor.getConnectionManager(),
+                                            options.getInvalidationBatchWindowInMillis(), options.getInvalidationBatchSize()) {
+                @Override
+                protected void publish(byte[][] keyHashes) {
+                    listener.publishInvalidation(keyHashes);
+                }
+            };
+        }
+    }
+
+    public CacheKey toCacheKey(Object key) {
+        return localCacheView.toCacheKey(key);
+    }
+
+    public CacheKey toCacheKey(ByteBuf encodedKey) {
+        return localCacheView.toCacheKey(encodedKey);
+    }
+
+    /**
+     * Returns cached value or <code>null</code> if value isn't cached or expired.
+     *
+     * @param key - cache key
+     * @return cached value
+     */
+    public CacheValue get(CacheKey key) {
+        CacheValue value = cache.get(key);
+        if (value instanceof ExpirableValue
+                && ((ExpirableValue) value).isExpired()) {
+            cache.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Stores value in local cache.
+     *
+     * @param key - cache key
+     * @param k - object key
+     * @param v - object value
+     * @param expireTime - expiration time in milliseconds or <code>0</code> if value doesn't expire
+     */
+    public void put(CacheKey key, Object k, Object v, long expireTime) {
+        if (listener.isDisabled(key)) {
+            return;
+        }
+        if (expireTime > 0 && expireTime <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(key, new ExpirableCacheValue(k, v, expireTime));
+    }
+
+    /**
+     * Removes entries from local cache before and after write operation
+     * and invalidates them in other instances once operation completed.
+     *
+     * @param future - write operation
+     * @param keys - cache keys
+     * @param <T> result type
+     * @return write operation
+     */
+    public <T> RFuture<T> invalidate(RFuture<T> future, CacheKey... keys) {
+        for (CacheKey key : keys) {
+            invalidate(key);
+        }
+
+        future.whenComplete((r, e) -> {
+            for (CacheKey key : keys) {
+                invalidate(key);
+            }
+            if (e != null || syncStrategy == SyncStrategy.NONE || keys.length == 0) {
+                return;
+            }
+
+            byte[][] keyHashes = new byte[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                keyHashes[i] = keys[i].getKeyHash();
+            }
+            if (invalidationCoalescer != null) {
+                invalidationCoalescer.add(keyHashes);
+            } else {
+                listener.publishInvalidation(keyHashes);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Clears local cache before and after write operation
+     * and clears local cache of other instances once operation completed.
+     *
+     * @param future - write operation
+     * @param <T> result type
+     * @return write operation
+     */
+    public <T> RFuture<T> clear(RFuture<T> future) {
+        cache.clear();
+
+        future.whenComplete((r, e) -> {
+            cache.clear();
+            if (e != null || syncStrategy == SyncStrategy.NONE) {
+                return;
+            }
+
+            LocalCachedMapClear msg = new LocalCachedMapClear(listener.getInstanceId(), listener.generateId(), false);
+            listener.getInvalidationTopic().publishAsync(msg);
+        });
+        return future;
+    }
+
+    /**
+     * Removes entry from local cache.
+     * Invoked for entries changed by this instance and invalidated by other instances.
+     *
+     * @param key - cache key
+     */
+    protected void invalidate(CacheKey key) {
+        cache.remove(key);
+    }
+
+    public RFuture<Void> clearLocalCacheAsync() {
+        return listener.clearLocalCacheAsync();
+    }
+
+    public LocalCacheView<K, V> getLocalCacheView() {
+        return localCacheView;
+    }
+
+    public ConcurrentMap<CacheKey, CacheValue> getCache() {
+        return cache;
+    }
+
+    public InvalidationCoalescer getInvalidationCoalescer() {
+        return invalidationCoalescer;
+    }
+
+    public void destroy() {
+        if (invalidationCoalescer != null) {
+            invalidationCoalescer.flush();
+        }
+        cache.clear();
+        listener.remove();
+    }
+
+}
@@ -15,20 +15,21 @@
  */
 package org.redisson.cache;
 
-import java.util.AbstractCollection;
-import java.util.AbstractMap;
-import java.util.AbstractSet;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
 import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
 import org.redisson.RedissonObject;
 import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.LocalCachedMapStats;
 import org.redisson.misc.Hash;
 
 import io.netty.buffer.ByteBuf;
@@ -42,12 +43,34 @@ import io.netty.buffer.ByteBuf;
  */
 public class LocalCacheView<K, V> {
 
+    private static final int DEFAULT_KEY_INDEX_SIZE = 65536;
+
+    private static final Set<Class<?>> IMMUTABLE_KEY_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Long.class, Integer.class, Short.class, Byte.class, Character.class,
+            Boolean.class, Double.class, Float.class, BigInteger.class, BigDecimal.class, UUID.class));
+
     private final RedissonObject object;
     private final ConcurrentMap<CacheKey, CacheValue> cache;
+    private final ConcurrentMap<Object, CacheKey> keyIndex = new ConcurrentHashMap<>();
+    private final int keyIndexSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder collectedEvictions = new LongAdder();
     
     public LocalCacheView(LocalCachedMapOptions<?, ?> options, RedissonObject object) {
         this.cache = createCache(options);
         this.object = object;
+        if (options.getCacheSize() > 0) {
+            this.keyIndexSize = options.getCacheSize() * 2;
+        } else {
+            this.keyIndexSize = DEFAULT_KEY_INDEX_SIZE;
+        }
     }
 
     public Set<K> cachedKeySet() {
@@ -247,13 +270,43 @@ public class LocalCacheView<K, V> {
 
     }
     
+    /**
+     * Returns cache key for defined map key.
+     * Cache keys of immutable map keys are indexed by map key itself,
+     * so map key is encoded and hashed only once.
+     *
+     * @param key - map key
+     * @return cache key
+     */
     public CacheKey toCacheKey(Object key) {
+        boolean immutable = isImmutable(key);
+        if (immutable) {
+            CacheKey cacheKey = keyIndex.get(key);
+            if (cacheKey != null) {
+                return cacheKey;
+            }
+        }
+
         ByteBuf encoded = object.encodeMapKey(key);
+        CacheKey cacheKey;
         try {
-            return toCacheKey(encoded);
+            cacheKey = toCacheKey(encoded);
         } finally {
             encoded.release();
         }
+
+        if (immutable) {
+            if (keyIndex.size() >= keyIndexSize) {
+                keyIndex.clear();
+            }
+            keyIndex.put(key, cacheKey);
+        }
+        return cacheKey;
+    }
+
+    private boolean isImmutable(Object key) {
+        return IMMUTABLE_KEY_TYPES.contains(key.getClass())
+                    || key instanceof Enum;
     }
 
     public CacheKey toCacheKey(ByteBuf encodedKey) {
@@ -282,7 +335,16 @@ public class LocalCacheView<K, V> {
             if (options.getEvictionPolicy() == LocalCachedMapOptions.EvictionPolicy.WEAK) {
                 caffeineBuilder.weakValues();
             }
-            return caffeineBuilder.<CacheKey, CacheValue>build().asMap();
+            RemovalListener<CacheKey, CacheValue> removalListener = (key, value, cause) -> {
+                if (cause == RemovalCause.SIZE) {
+                    sizeEvictions.increment();
+                } else if (cause == RemovalCause.EXPIRED) {
+                    expiredEvictions.increment();
+                } else if (cause == RemovalCause.COLLECTED) {
+                    collectedEvictions.increment();
+                }
+            };
+            return caffeineBuilder.removalListener(removalListener).build().asMap();
         }
 
         if (options.getEvictionPolicy() == LocalCachedMapOptions.EvictionPolicy.NONE) {
@@ -294,6 +356,9 @@ public class LocalCacheView<K, V> {
         if (options.getEvictionPolicy() == LocalCachedMapOptions.EvictionPolicy.LFU) {
             return new LFUCacheMap<>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
         }
+        if (options.getEvictionPolicy() == LocalCachedMapOptions.EvictionPolicy.TINY_LFU) {
+            return new TinyLFUCacheMap<>(options.getCacheSize(), options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
+        }
         if (options.getEvictionPolicy() == LocalCachedMapOptions.EvictionPolicy.SOFT) {
             return ReferenceCacheMap.soft(options.getTimeToLiveInMillis(), options.getMaxIdleInMillis());
         }
@@ -303,5 +368,82 @@ public class LocalCacheView<K, V> {
         throw new IllegalArgumentException("Invalid eviction policy: " + options.getEvictionPolicy());
     }
 
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordPut() {
+        puts.increment();
+    }
+
+    public void recordLoad(long loadTimeInNanos) {
+        loads.increment();
+        totalLoadTime.add(loadTimeInNanos);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getTotalLoadTime(TimeUnit unit) {
+        return unit.convert(totalLoadTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getSizeEvictions() {
+        if (cache instanceof AbstractCacheMap) {
+            return ((AbstractCacheMap<?, ?>) cache).getSizeEvictions();
+        }
+        return sizeEvictions.sum();
+    }
+
+    public long getExpiredEvictions() {
+        if (cache instanceof AbstractCacheMap) {
+            return ((AbstractCacheMap<?, ?>) cache).getExpiredEvictions();
+        }
+        return expiredEvictions.sum();
+    }
+
+    public long getCollectedEvictions() {
+        if (cache instanceof AbstractCacheMap) {
+            return ((AbstractCacheMap<?, ?>) cache).getCollectedEvictions();
+        }
+        return collectedEvictions.sum();
+    }
+
+    /**
+     * Returns statistics of local cache.
+     * Estimated memory isn't calculated by this method.
+     *
+     * @return statistics
+     */
+    public LocalCachedMapStats getStats() {
+        LocalCachedMapStats stats = new LocalCachedMapStats();
+        stats.setHits(getHits());
+        stats.setMisses(getMisses());
+        stats.setPuts(getPuts());
+        stats.setLoads(getLoads());
+        stats.setTotalLoadTime(getTotalLoadTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        stats.setSizeEvictions(getSizeEvictions());
+        stats.setExpiredEvictions(getExpiredEvictions());
+        stats.setCollectedEvictions(getCollectedEvictions());
+        stats.setSize(cache.size());
+        return stats;
+    }
 
 }
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.redisson.misc.Hash;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Creates and applies compressed values and binary diffs
+ * broadcasted by {@link LocalCachedMapUpdate} message.
+ * <p>
+ * Diff consists of lengths of common prefix and common suffix
+ * of previous and new encoded value followed by changed bytes between them.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public final class LocalCachedMapDelta {
+
+    private static final int DIFF_HEADER_SIZE = 8;
+
+    private LocalCachedMapDelta() {
+    }
+
+    /**
+     * Creates update entry with the smallest representation of encoded value.
+     *
+     * @param key - encoded key
+     * @param value - encoded value
+     * @param prevValue - previous encoded value or <code>null</code> if diff shouldn't be used
+     * @param compressionThreshold - min size of value to compress or <code>0</code> if compression isn't used
+     * @return update entry
+     */
+    public static LocalCachedMapUpdate.Entry createEntry(ByteBuf key, ByteBuf value, ByteBuf prevValue, int compressionThreshold) {
+        byte[] keyBytes = ByteBufUtil.getBytes(key);
+        byte[] valueBytes = ByteBufUtil.getBytes(value);
+
+        byte[] data = valueBytes;
+        LocalCachedMapUpdate.ValueType valueType = LocalCachedMapUpdate.ValueType.VALUE;
+        long baseHash = 0;
+        if (compressionThreshold > 0 && valueBytes.length >= compressionThreshold) {
+            byte[] compressed = compress(valueBytes);
+            if (compressed.length < data.length) {
+                data = compressed;
+                valueType = LocalCachedMapUpdate.ValueType.COMPRESSED;
+            }
+        }
+        if (prevValue != null) {
+            byte[] prevBytes = ByteBufUtil.getBytes(prevValue);
+            byte[] diff = diff(prevBytes, valueBytes);
+            if (diff.length < data.length) {
+                data = diff;
+                valueType = LocalCachedMapUpdate.ValueType.DIFF;
+                baseHash = hash(prevBytes);
+            }
+        }
+        return new LocalCachedMapUpdate.Entry(keyBytes, data, valueType, baseHash);
+    }
+
+    /**
+     * Returns encoded value of update entry.
+     *
+     * @param entry - update entry
+     * @param cachedValue - encoded value stored in local cache or <code>null</code>
+     * @return encoded value or <code>null</code> if diff can't be applied to cached value
+     * @throws IOException if compressed value can't be decompressed
+     */
+    public static byte[] getValue(LocalCachedMapUpdate.Entry entry, byte[] cachedValue) throws IOException {
+        if (entry.getValueType() == LocalCachedMapUpdate.ValueType.COMPRESSED) {
+            return decompress(entry.getValue());
+        }
+        if (entry.getValueType() == LocalCachedMapUpdate.ValueType.DIFF) {
+            if (cachedValue == null
+                    || hash(cachedValue) != entry.getBaseHash()) {
+                return null;
+            }
+            return patch(cachedValue, entry.getValue());
+        }
+        return entry.getValue();
+    }
+
+    static long hash(byte[] value) {
+        return Hash.hash64(Unpooled.wrappedBuffer(value));
+    }
+
+    static byte[] diff(byte[] base, byte[] value) {
+        int maxLength = Math.min(base.length, value.length);
+        int prefix = 0;
+        while (prefix < maxLength && base[prefix] == value[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxLength - prefix
+                && base[base.length - 1 - suffix] == value[value.length - 1 - suffix]) {
+            suffix++;
+        }
+
+        int changedLength = value.length - prefix - suffix;
+        ByteBuffer diff = ByteBuffer.allocate(DIFF_HEADER_SIZE + changedLength);
+        diff.putInt(prefix);
+        diff.putInt(suffix);
+        diff.put(value, prefix, changedLength);
+        return diff.array();
+    }
+
+    static byte[] patch(byte[] base, byte[] diff) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(diff);
+        int prefix = buf.getInt();
+        int suffix = buf.getInt();
+        if (prefix + suffix > base.length) {
+            throw new IOException("Diff doesn't match base value");
+        }
+
+        int changedLength = buf.remaining();
+        byte[] value = new byte[prefix + changedLength + suffix];
+        System.arraycopy(base, 0, value, 0, prefix);
+        buf.get(value, prefix, changedLength);
+        System.arraycopy(base, base.length - suffix, value, prefix + changedLength, suffix);
+        return value;
+    }
+
+    static byte[] compress(byte[] value) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(value);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(value.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int len = deflater.deflate(buffer);
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decompress(byte[] value) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(value);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(value.length * 2);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int len = inflater.inflate(buffer);
+                if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Compressed value is truncated");
+                }
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
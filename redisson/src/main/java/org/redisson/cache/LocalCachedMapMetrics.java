@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.redisson.RedissonLocalCachedMap;
+import org.redisson.api.RLocalCachedMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics of {@link RLocalCachedMap} local cache.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class LocalCachedMapMetrics extends CacheMeterBinder {
+
+    private final RLocalCachedMap<?, ?> map;
+    private final LocalCacheView<?, ?> view;
+    private final LocalCacheListener listener;
+
+    public LocalCachedMapMetrics(RLocalCachedMap<?, ?> map, Iterable<Tag> tags) {
+        super(map, map.getName(), tags);
+        if (!(map instanceof RedissonLocalCachedMap)) {
+            throw new IllegalArgumentException("Metrics are supported only by RedissonLocalCachedMap instance");
+        }
+        this.map = map;
+        this.view = ((RedissonLocalCachedMap<?, ?>) map).getLocalCacheView();
+        this.listener = ((RedissonLocalCachedMap<?, ?>) map).getLocalCacheListener();
+    }
+
+    /**
+     * Record metrics of local cache used by Redisson local cached map.
+     *
+     * @param registry - registry to bind metrics to
+     * @param map - local cached map to instrument
+     * @param tags - tags to apply to all recorded metrics
+     * @param <M> - map type
+     * @return map
+     */
+    public static <M extends RLocalCachedMap<?, ?>> M monitor(MeterRegistry registry, M map, Iterable<Tag> tags) {
+        new LocalCachedMapMetrics(map, tags).bindTo(registry);
+        return map;
+    }
+
+    @Override
+    protected Long size() {
+        return (long) map.cachedKeySet().size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return view.getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return view.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return view.getSizeEvictions() + view.getExpiredEvictions() + view.getCollectedEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return view.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.evictions.cause", view, LocalCacheView::getSizeEvictions)
+                .tags(getTagsWithCacheName()).tag("cause", "size")
+                .description("Cache entries evicted due to cache size limit")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions.cause", view, LocalCacheView::getExpiredEvictions)
+                .tags(getTagsWithCacheName()).tag("cause", "expired")
+                .description("Cache entries evicted due to expired time to live or max idle time")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions.cause", view, LocalCacheView::getCollectedEvictions)
+                .tags(getTagsWithCacheName()).tag("cause", "collected")
+                .description("Cache entries evicted because their values were reclaimed by garbage collector")
+                .register(registry);
+
+        FunctionCounter.builder("cache.invalidations", listener, LocalCacheListener::getInvalidationsReceived)
+                .tags(getTagsWithCacheName()).tag("direction", "received")
+                .description("Keys invalidated or updated by other instances")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", listener, LocalCacheListener::getInvalidationsSent)
+                .tags(getTagsWithCacheName()).tag("direction", "sent")
+                .description("Keys in invalidation or update messages published by this instance")
+                .register(registry);
+        FunctionCounter.builder("cache.clears", listener, LocalCacheListener::getClearsReceived)
+                .tags(getTagsWithCacheName())
+                .description("Cache clears requested by other instances")
+                .register(registry);
+
+        FunctionCounter.builder("cache.loads", view, LocalCacheView::getLoads)
+                .tags(getTagsWithCacheName())
+                .description("Values loaded after cache miss")
+                .register(registry);
+        TimeGauge.builder("cache.load.duration", view, TimeUnit.NANOSECONDS,
+                            v -> v.getTotalLoadTime(TimeUnit.NANOSECONDS))
+                .tags(getTagsWithCacheName())
+                .description("Total time spent on value loading after cache miss")
+                .register(registry);
+
+        // memory estimation encodes sampled entries, so it's calculated only by this gauge
+        Gauge.builder("cache.memory", map, m -> m.getCacheStats().getEstimatedMemory())
+                .tags(getTagsWithCacheName())
+                .description("Estimated size in bytes of entries stored in local cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+}
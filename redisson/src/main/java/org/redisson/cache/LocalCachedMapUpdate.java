@@ -31,14 +31,41 @@ import io.netty.buffer.ByteBuf;
 @SuppressWarnings("serial")
 public class LocalCachedMapUpdate implements Serializable {
 
+    public enum ValueType {
+
+        /**
+         * Encoded value
+         */
+        VALUE,
+
+        /**
+         * Compressed encoded value
+         */
+        COMPRESSED,
+
+        /**
+         * Binary diff applied to previous encoded value
+         */
+        DIFF
+
+    }
+
     public static class Entry {
         
         private final byte[] key;
         private final byte[] value;
+        private final ValueType valueType;
+        private final long baseHash;
         
         public Entry(byte[] key, byte[] value) {
+            this(key, value, ValueType.VALUE, 0);
+        }
+
+        public Entry(byte[] key, byte[] value, ValueType valueType, long baseHash) {
             this.key = key;
             this.value = value;
+            this.valueType = valueType;
+            this.baseHash = baseHash;
         }
         
         public Entry(ByteBuf keyBuf, ByteBuf valueBuf) {
@@ -47,6 +74,8 @@ public class LocalCachedMapUpdate implements Serializable {
             
             value = new byte[valueBuf.readableBytes()];
             valueBuf.getBytes(valueBuf.readerIndex(), value);
+            valueType = ValueType.VALUE;
+            baseHash = 0;
         }
 
         public byte[] getKey() {
@@ -56,6 +85,19 @@ public class LocalCachedMapUpdate implements Serializable {
         public byte[] getValue() {
             return value;
         }
+
+        public ValueType getValueType() {
+            return valueType;
+        }
+
+        /**
+         * Returns hash of previous encoded value used for diff
+         *
+         * @return hash
+         */
+        public long getBaseHash() {
+            return baseHash;
+        }
         
     }
     
@@ -82,6 +124,11 @@ public class LocalCachedMapUpdate implements Serializable {
         entries = Collections.singletonList(new Entry(key, value));
     }
     
+    public LocalCachedMapUpdate(byte[] excludedId, Entry entry) {
+        this.excludedId = excludedId;
+        this.entries = Collections.singletonList(entry);
+    }
+
     public LocalCachedMapUpdate(byte[] key, byte[] value) {
         entries = Collections.singletonList(new Entry(key, value));
     }
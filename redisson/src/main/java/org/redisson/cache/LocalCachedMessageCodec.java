@@ -78,6 +78,24 @@ public class LocalCachedMessageCodec extends BaseCodec {
             return new LocalCachedMapUpdate(excludedId, entries);
         }
 
+        if (type == 0x6) {
+            byte[] excludedId = new byte[16];
+            buf.readBytes(excludedId);
+            List<LocalCachedMapUpdate.Entry> entries = new ArrayList<LocalCachedMapUpdate.Entry>();
+            while (buf.isReadable()) {
+                int keyLen = buf.readInt();
+                byte[] key = new byte[keyLen];
+                buf.readBytes(key);
+                LocalCachedMapUpdate.ValueType valueType = LocalCachedMapUpdate.ValueType.values()[buf.readByte()];
+                long baseHash = buf.readLong();
+                int valueLen = buf.readInt();
+                byte[] value = new byte[valueLen];
+                buf.readBytes(value);
+                entries.add(new LocalCachedMapUpdate.Entry(key, value, valueType, baseHash));
+            }
+            return new LocalCachedMapUpdate(excludedId, entries);
+        }
+
         if (type == 0x3) {
             byte len = buf.readByte();
             CharSequence requestId = buf.readCharSequence(len, CharsetUtil.US_ASCII);
@@ -135,6 +153,24 @@ public class LocalCachedMessageCodec extends BaseCodec {
             return result;
         }
 
+        if (in instanceof LocalCachedMapUpdate
+                && hasEncodedValues((LocalCachedMapUpdate) in)) {
+            LocalCachedMapUpdate li = (LocalCachedMapUpdate) in;
+            ByteBuf result = ByteBufAllocator.DEFAULT.buffer();
+            result.writeByte(0x6);
+
+            result.writeBytes(li.getExcludedId());
+            for (LocalCachedMapUpdate.Entry e : li.getEntries()) {
+                result.writeInt(e.getKey().length);
+                result.writeBytes(e.getKey());
+                result.writeByte(e.getValueType().ordinal());
+                result.writeLong(e.getBaseHash());
+                result.writeInt(e.getValue().length);
+                result.writeBytes(e.getValue());
+            }
+            return result;
+        }
+
         if (in instanceof LocalCachedMapUpdate) {
             LocalCachedMapUpdate li = (LocalCachedMapUpdate) in;
             ByteBuf result = ByteBufAllocator.DEFAULT.buffer();
@@ -192,6 +228,19 @@ public class LocalCachedMessageCodec extends BaseCodec {
     public LocalCachedMessageCodec() {
     }
 
+    /*
+     * Compressed values and diffs are written using separate message type,
+     * plain values are written using message type compatible with previous versions.
+     */
+    private static boolean hasEncodedValues(LocalCachedMapUpdate update) {
+        for (LocalCachedMapUpdate.Entry e : update.getEntries()) {
+            if (e.getValueType() != LocalCachedMapUpdate.ValueType.VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public Decoder<Object> getValueDecoder() {
         return decoder;
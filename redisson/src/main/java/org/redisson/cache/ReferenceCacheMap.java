@@ -62,7 +62,7 @@ public class ReferenceCacheMap<K, V> extends AbstractCacheMap<K, V> {
             if (value == null) {
                 break;
             }
-            map.remove(value.getOwner().getKey(), value.getOwner());
+            collect((CachedValue<K, V>) value.getOwner());
         }
         return super.removeExpiredEntries();
     }
@@ -28,7 +28,7 @@ public class StdCachedValue<K, V> implements CachedValue<K, V> {
     private long maxIdleTime;
 
     private long creationTime;
-    private long lastAccess;
+    private volatile long lastAccess;
 
     public StdCachedValue(K key, V value, long ttl, long maxIdleTime) {
         this.value = value;
@@ -68,6 +68,11 @@ public class StdCachedValue<K, V> implements CachedValue<K, V> {
         return value;
     }
 
+    @Override
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
     @Override
     public String toString() {
         return "CachedValue [key=" + key + ", value=" + value + "]";
@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * W-TinyLFU cache.
+ * <p>
+ * New values are placed into small LRU window region. Values evicted from window
+ * compete with the least recently used values of main region by access frequency
+ * estimated with {@link FrequencySketch}. Main region is segmented into probation
+ * and protected parts, values accessed in probation part are promoted to protected part.
+ * <p>
+ * Reads are recorded into lossy striped buffers without locking
+ * and applied in batches.
+ *
+ * @author Nikita Koksharov
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class TinyLFUCacheMap<K, V> extends AbstractCacheMap<K, V> {
+
+    enum Region {WINDOW, PROBATION, PROTECTED}
+
+    static final class TinyLFUCachedValue<K, V> extends StdCachedValue<K, V> {
+
+        Region region;
+        boolean removed;
+        TinyLFUCachedValue<K, V> prev;
+        TinyLFUCachedValue<K, V> next;
+
+        TinyLFUCachedValue(K key, V value, long ttl, long maxIdleTime) {
+            super(key, value, ttl, maxIdleTime);
+        }
+
+    }
+
+    static final class AccessOrderQueue<K, V> {
+
+        private final Region region;
+        private TinyLFUCachedValue<K, V> head;
+        private TinyLFUCachedValue<K, V> tail;
+        private int size;
+
+        AccessOrderQueue(Region region) {
+            this.region = region;
+        }
+
+        void add(TinyLFUCachedValue<K, V> value) {
+            value.region = region;
+            value.prev = tail;
+            value.next = null;
+            if (tail == null) {
+                head = value;
+            } else {
+                tail.next = value;
+            }
+            tail = value;
+            size++;
+        }
+
+        void remove(TinyLFUCachedValue<K, V> value) {
+            if (value.prev == null) {
+                head = value.next;
+            } else {
+                value.prev.next = value.next;
+            }
+            if (value.next == null) {
+                tail = value.prev;
+            } else {
+                value.next.prev = value.prev;
+            }
+            value.prev = null;
+            value.next = null;
+            value.region = null;
+            size--;
+        }
+
+        void moveToTail(TinyLFUCachedValue<K, V> value) {
+            if (tail != value) {
+                remove(value);
+                add(value);
+            }
+        }
+
+        TinyLFUCachedValue<K, V> peek() {
+            return head;
+        }
+
+        TinyLFUCachedValue<K, V> poll() {
+            TinyLFUCachedValue<K, V> value = head;
+            if (value != null) {
+                remove(value);
+            }
+            return value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            TinyLFUCachedValue<K, V> value = head;
+            while (value != null) {
+                TinyLFUCachedValue<K, V> next = value.next;
+                value.prev = null;
+                value.next = null;
+                value.region = null;
+                value.removed = true;
+                value = next;
+            }
+            head = null;
+            tail = null;
+            size = 0;
+        }
+
+    }
+
+    static final class ReadBuffer<E> {
+
+        private static final int BUFFER_SIZE = 64;
+        private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+        private static final int DRAIN_THRESHOLD = BUFFER_SIZE / 2;
+
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        /**
+         * Records element. Element is dropped if buffer is full or contended.
+         *
+         * @return <code>true</code> if buffer should be drained
+         */
+        boolean offer(E e) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long size = tail - head;
+            if (size >= BUFFER_SIZE) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & BUFFER_MASK), e);
+                return size + 1 >= DRAIN_THRESHOLD;
+            }
+            return false;
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & BUFFER_MASK);
+                E e = buffer.get(index);
+                if (e == null) {
+                    // element isn't published yet
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(e);
+            }
+            readCounter = head;
+        }
+
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final ReadBuffer<TinyLFUCachedValue<K, V>>[] readBuffers;
+
+    private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>(Region.WINDOW);
+    private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>(Region.PROBATION);
+    private final AccessOrderQueue<K, V> protectedQueue = new AccessOrderQueue<>(Region.PROTECTED);
+
+    private final int maxWindowSize;
+    private final int maxProtectedSize;
+
+    public TinyLFUCacheMap(int size, long timeToLiveInMillis, long maxIdleInMillis) {
+        super(size, timeToLiveInMillis, maxIdleInMillis);
+
+        maxWindowSize = Math.max(1, size / 100);
+        maxProtectedSize = (int) ((size - maxWindowSize) * 0.8);
+        sketch = new FrequencySketch(size);
+
+        int buffers = FrequencySketch.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+        readBuffers = new ReadBuffer[buffers];
+        for (int i = 0; i < buffers; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    @Override
+    protected CachedValue<K, V> create(K key, V value, long ttl, long maxIdleTime) {
+        return new TinyLFUCachedValue<>(key, value, ttl, maxIdleTime);
+    }
+
+    @Override
+    protected void onValueCreate(CachedValue<K, V> value) {
+        TinyLFUCachedValue<K, V> v = (TinyLFUCachedValue<K, V>) value;
+        lock.lock();
+        try {
+            drainReadBuffers();
+            if (v.removed) {
+                return;
+            }
+
+            sketch.increment(v.getKey());
+            window.add(v);
+            if (window.size() > maxWindowSize) {
+                probation.add(window.poll());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void onValueRead(CachedValue<K, V> value) {
+        int index = (int) Thread.currentThread().getId() & (readBuffers.length - 1);
+        if (readBuffers[index].offer((TinyLFUCachedValue<K, V>) value)
+                && lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    protected void onValueRemove(CachedValue<K, V> value) {
+        TinyLFUCachedValue<K, V> v = (TinyLFUCachedValue<K, V>) value;
+        lock.lock();
+        try {
+            v.removed = true;
+            unlink(v);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void onMapFull() {
+        TinyLFUCachedValue<K, V> evicted;
+        lock.lock();
+        try {
+            drainReadBuffers();
+            evicted = selectVictim();
+            if (evicted == null) {
+                return;
+            }
+            evicted.removed = true;
+            unlink(evicted);
+        } finally {
+            lock.unlock();
+        }
+        evict(evicted);
+    }
+
+    private TinyLFUCachedValue<K, V> selectVictim() {
+        TinyLFUCachedValue<K, V> victim = probation.peek();
+        if (victim == null) {
+            victim = protectedQueue.peek();
+        }
+
+        // window head is moved to main region once new value is added
+        TinyLFUCachedValue<K, V> candidate = null;
+        if (window.size() >= maxWindowSize) {
+            candidate = window.peek();
+        }
+
+        if (victim == null) {
+            return window.peek();
+        }
+        if (candidate == null) {
+            return victim;
+        }
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            return victim;
+        }
+        return candidate;
+    }
+
+    private void unlink(TinyLFUCachedValue<K, V> value) {
+        if (value.region == Region.WINDOW) {
+            window.remove(value);
+        } else if (value.region == Region.PROBATION) {
+            probation.remove(value);
+        } else if (value.region == Region.PROTECTED) {
+            protectedQueue.remove(value);
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer<TinyLFUCachedValue<K, V>> buffer : readBuffers) {
+            buffer.drainTo(this::onAccess);
+        }
+    }
+
+    private void onAccess(TinyLFUCachedValue<K, V> value) {
+        if (value.removed) {
+            return;
+        }
+
+        sketch.increment(value.getKey());
+        if (value.region == Region.WINDOW) {
+            window.moveToTail(value);
+        } else if (value.region == Region.PROBATION) {
+            probation.remove(value);
+            protectedQueue.add(value);
+            if (protectedQueue.size() > maxProtectedSize) {
+                probation.add(protectedQueue.poll());
+            }
+        } else if (value.region == Region.PROTECTED) {
+            protectedQueue.moveToTail(value);
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+        } finally {
+            lock.unlock();
+        }
+        super.clear();
+    }
+
+}
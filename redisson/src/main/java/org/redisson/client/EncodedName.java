@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.client;
+
+import io.netty.util.CharsetUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Redis key name with cached UTF-8 bytes and cluster slot.
+ * Written by encoder as is without per-command encoding.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public final class EncodedName implements CharSequence {
+
+    private final String name;
+    private final byte[] bytes;
+    private final int slot;
+
+    private volatile Map<String, EncodedName> derivedNames;
+
+    public EncodedName(String name, int slot) {
+        this.name = name;
+        this.bytes = name.getBytes(CharsetUtil.UTF_8);
+        this.slot = slot;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns cached name derived from this name.
+     * Derived name should be mapped to the same slot, like
+     * names with the same hash tag.
+     *
+     * @param id - derived name id
+     * @param mapper - function which creates derived name from this name
+     * @return derived name
+     */
+    public EncodedName derive(String id, UnaryOperator<String> mapper) {
+        Map<String, EncodedName> names = derivedNames;
+        if (names == null) {
+            synchronized (this) {
+                names = derivedNames;
+                if (names == null) {
+                    names = new ConcurrentHashMap<>(4);
+                    derivedNames = names;
+                }
+            }
+        }
+        return names.computeIfAbsent(id, k -> new EncodedName(mapper.apply(name), slot));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof CharSequence) {
+            return name.equals(obj.toString());
+        }
+        return false;
+    }
+
+    @Override
+    public int length() {
+        return name.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return name.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return name.subSequence(start, end);
+    }
+
+}
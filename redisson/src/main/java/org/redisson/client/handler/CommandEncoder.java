@@ -41,6 +41,7 @@ import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.util.CharsetUtil;
 import org.redisson.client.ChannelName;
+import org.redisson.client.EncodedName;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.RedisCommands;
 import org.slf4j.Logger;
@@ -96,6 +97,10 @@ public class CommandEncoder extends MessageToByteEncoder<CommandData<?, ?>> {
             }
 
             for (Object param : msg.getParams()) {
+                if (param instanceof EncodedName) {
+                    writeArgument(out, ((EncodedName) param).getBytes());
+                    continue;
+                }
                 ByteBuf buf = encode(param);
                 writeArgument(out, buf);
                 if (!(param instanceof ByteBuf)) {
@@ -61,6 +61,7 @@ public interface RedisCommands {
                                                     new ListFirstObjectDecoder(), new ByteReplayConvertor());
     RedisStrictCommand<Object> BITFIELD_SHORT = new RedisStrictCommand<>("BITFIELD", null,
                                                     new ListFirstObjectDecoder(), new ShortReplayConvertor());
+    RedisCommand<List<Long>> BITFIELD_LONGS = new RedisCommand<>("BITFIELD", new ObjectListReplayDecoder<Long>());
 
     RedisStrictCommand<Boolean> GETBIT = new RedisStrictCommand<Boolean>("GETBIT", new BooleanReplayConvertor());
     RedisStrictCommand<Long> BITS_SIZE = new RedisStrictCommand<Long>("STRLEN", new BitsSizeReplayConvertor());
@@ -617,6 +618,10 @@ public interface RedisCommands {
     Set<String> SCAN_COMMANDS = new HashSet<String>(
             Arrays.asList(HSCAN.getName(), SCAN.getName(), ZSCAN.getName(), SSCAN.getName()));
 
+    Set<String> BULK_COMMANDS = new HashSet<String>(
+            Arrays.asList(HSCAN.getName(), SCAN.getName(), ZSCAN.getName(), SSCAN.getName(), KEYS.getName(),
+                            HGETALL.getName(), HKEYS.getName(), HVALS.getName(), SMEMBERS.getName()));
+
     RedisStrictCommand<List<ClusterNodeInfo>> CLUSTER_NODES = new RedisStrictCommand<List<ClusterNodeInfo>>("CLUSTER", "NODES",
             new ObjectDecoder(new ClusterNodesDecoder(false)));
     RedisStrictCommand<List<ClusterNodeInfo>> CLUSTER_NODES_SSL = new RedisStrictCommand<List<ClusterNodeInfo>>("CLUSTER", "NODES",
@@ -16,6 +16,7 @@
 package org.redisson.command;
 
 import org.redisson.api.BatchOptions;
+import org.redisson.api.CommandPriority;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.BatchCommandData;
 import org.redisson.client.protocol.RedisCommand;
@@ -72,6 +73,9 @@ public class BaseRedisBatchExecutor<V, R> extends RedisExecutor<V, R> {
         if (options.getSyncSlaves() > 0) {
             this.responseTimeout += options.getSyncTimeout();
         }
+        // batch priority and deadline are applied by RedisCommonBatchExecutor
+        this.priority = CommandPriority.INTERACTIVE;
+        this.deadline = 0;
     }
 
     protected final MasterSlaveEntry getEntry(NodeSource source) {
@@ -18,6 +18,7 @@ package org.redisson.command;
 import io.netty.buffer.ByteBuf;
 import org.redisson.SlotCallback;
 import org.redisson.api.RFuture;
+import org.redisson.client.EncodedName;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisException;
 import org.redisson.client.codec.Codec;
@@ -96,6 +97,10 @@ public interface CommandAsyncExecutor {
 
     <T, R> RFuture<R> writeAsync(String key, Codec codec, RedisCommand<T> command, Object... params);
 
+    <T, R> RFuture<R> readAsync(EncodedName key, Codec codec, RedisCommand<T> command, Object... params);
+
+    <T, R> RFuture<R> writeAsync(EncodedName key, Codec codec, RedisCommand<T> command, Object... params);
+
     <T> RFuture<Void> writeAllVoidAsync(RedisCommand<T> command, Object... params);
 
     <T, R> RFuture<R> writeAsync(String key, RedisCommand<T> command, Object... params);
@@ -24,15 +24,19 @@ import org.redisson.SlotCallback;
 import org.redisson.api.NodeType;
 import org.redisson.api.RFuture;
 import org.redisson.cache.LRUCacheMap;
+import org.redisson.client.EncodedName;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisException;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.config.ReadMode;
+import org.redisson.connection.ClientConnectionsEntry;
 import org.redisson.connection.ConnectionManager;
 import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.connection.NodeSource;
+import org.redisson.connection.ReplicaConsistencySession;
 import org.redisson.liveobject.core.RedissonObjectBuilder;
 import org.redisson.misc.CompletableFutureWrapper;
 import org.slf4j.Logger;
@@ -48,6 +52,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -298,6 +303,11 @@ public class CommandAsyncService implements CommandAsyncExecutor {
         return async(true, source, codec, command, params, false, false);
     }
 
+    @Override
+    public <T, R> RFuture<R> readAsync(EncodedName key, Codec codec, RedisCommand<T> command, Object... params) {
+        return async(true, new NodeSource(key.getSlot()), codec, command, params, false, false);
+    }
+
     public <T, R> RFuture<R> readAsync(MasterSlaveEntry entry, Codec codec, RedisCommand<T> command, Object... params) {
         return async(true, new NodeSource(entry), codec, command, params, false, false);
     }
@@ -407,70 +417,10 @@ public class CommandAsyncService implements CommandAsyncExecutor {
     private <T, R> RFuture<R> evalAsync(NodeSource nodeSource, boolean readOnlyMode, Codec codec, RedisCommand<T> evalCommandType,
                                         String script, List<Object> keys, boolean noRetry, Object... params) {
         if (isEvalCacheActive() && evalCommandType.getName().equals("EVAL")) {
-            CompletableFuture<R> mainPromise = new CompletableFuture<>();
-            
-            Object[] pps = copy(params);
-
-            CompletableFuture<R> promise = new CompletableFuture<>();
-            String sha1 = calcSHA(script);
-            RedisCommand cmd;
-            if (readOnlyMode && evalShaROSupported.get()) {
-                cmd = new RedisCommand(evalCommandType, "EVALSHA_RO");
-            } else {
-                cmd = new RedisCommand(evalCommandType, "EVALSHA");
-            }
-            List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
-            args.add(sha1);
-            args.add(keys.size());
-            args.addAll(keys);
-            args.addAll(Arrays.asList(params));
-
-            RedisExecutor<T, R> executor = new RedisExecutor<>(readOnlyMode, nodeSource, codec, cmd,
-                                                        args.toArray(), promise, false,
-                                                        connectionManager, objectBuilder, referenceType, noRetry);
-            executor.execute();
-
-            promise.whenComplete((res, e) -> {
-                if (e != null) {
-                    if (e.getMessage().startsWith("ERR unknown command")) {
-                        evalShaROSupported.set(false);
-                        RFuture<R> future = evalAsync(nodeSource, readOnlyMode, codec, evalCommandType, script, keys, noRetry, pps);
-                        transfer(future.toCompletableFuture(), mainPromise);
-                    } else if (e.getMessage().startsWith("NOSCRIPT")) {
-                        RFuture<String> loadFuture = loadScript(executor.getRedisClient(), script);
-                        loadFuture.whenComplete((r, ex) -> {
-                            if (ex != null) {
-                                free(pps);
-                                mainPromise.completeExceptionally(ex);
-                                return;
-                            }
-
-                            List<Object> newargs = new ArrayList<Object>(2 + keys.size() + params.length);
-                            newargs.add(sha1);
-                            newargs.add(keys.size());
-                            newargs.addAll(keys);
-                            newargs.addAll(Arrays.asList(pps));
-
-                            NodeSource ns = nodeSource;
-                            if (ns.getRedisClient() == null) {
-                                ns = new NodeSource(nodeSource, executor.getRedisClient());
-                            }
-
-                            RFuture<R> future = async(readOnlyMode, ns, codec, cmd, newargs.toArray(), false, noRetry);
-                            transfer(future.toCompletableFuture(), mainPromise);
-                        });
-                    } else {
-                        free(pps);
-                        mainPromise.completeExceptionally(e);
-                    }
-                    return;
-                }
-                free(pps);
-                mainPromise.complete(res);
-            });
-            return new CompletableFutureWrapper<>(mainPromise);
+            return executeInSession(readOnlyMode, nodeSource, (readOnly, source) ->
+                        evalShaAsync(source, readOnly, codec, evalCommandType, script, keys, noRetry, params));
         }
-        
+
         List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
         args.add(script);
         args.add(keys.size());
@@ -479,6 +429,72 @@ public class CommandAsyncService implements CommandAsyncExecutor {
         return async(readOnlyMode, nodeSource, codec, evalCommandType, args.toArray(), false, noRetry);
     }
 
+    private <T, R> RFuture<R> evalShaAsync(NodeSource nodeSource, boolean readOnlyMode, Codec codec, RedisCommand<T> evalCommandType,
+                                        String script, List<Object> keys, boolean noRetry, Object... params) {
+        CompletableFuture<R> mainPromise = new CompletableFuture<>();
+        
+        Object[] pps = copy(params);
+
+        CompletableFuture<R> promise = new CompletableFuture<>();
+        String sha1 = calcSHA(script);
+        RedisCommand cmd;
+        if (readOnlyMode && evalShaROSupported.get()) {
+            cmd = new RedisCommand(evalCommandType, "EVALSHA_RO");
+        } else {
+            cmd = new RedisCommand(evalCommandType, "EVALSHA");
+        }
+        List<Object> args = new ArrayList<Object>(2 + keys.size() + params.length);
+        args.add(sha1);
+        args.add(keys.size());
+        args.addAll(keys);
+        args.addAll(Arrays.asList(params));
+
+        RedisExecutor<T, R> executor = new RedisExecutor<>(readOnlyMode, nodeSource, codec, cmd,
+                                                    args.toArray(), promise, false,
+                                                    connectionManager, objectBuilder, referenceType, noRetry);
+        executor.execute();
+
+        promise.whenComplete((res, e) -> {
+            if (e != null) {
+                if (e.getMessage().startsWith("ERR unknown command")) {
+                    evalShaROSupported.set(false);
+                    RFuture<R> future = evalAsync(nodeSource, readOnlyMode, codec, evalCommandType, script, keys, noRetry, pps);
+                    transfer(future.toCompletableFuture(), mainPromise);
+                } else if (e.getMessage().startsWith("NOSCRIPT")) {
+                    RFuture<String> loadFuture = loadScript(executor.getRedisClient(), script);
+                    loadFuture.whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            free(pps);
+                            mainPromise.completeExceptionally(ex);
+                            return;
+                        }
+
+                        List<Object> newargs = new ArrayList<Object>(2 + keys.size() + params.length);
+                        newargs.add(sha1);
+                        newargs.add(keys.size());
+                        newargs.addAll(keys);
+                        newargs.addAll(Arrays.asList(pps));
+
+                        NodeSource ns = nodeSource;
+                        if (ns.getRedisClient() == null) {
+                            ns = new NodeSource(nodeSource, executor.getRedisClient());
+                        }
+
+                        RFuture<R> future = async(readOnlyMode, ns, codec, cmd, newargs.toArray(), false, noRetry);
+                        transfer(future.toCompletableFuture(), mainPromise);
+                    });
+                } else {
+                    free(pps);
+                    mainPromise.completeExceptionally(e);
+                }
+                return;
+            }
+            free(pps);
+            mainPromise.complete(res);
+        });
+        return new CompletableFutureWrapper<>(mainPromise);
+    }
+
     @Override
     public <T, R> RFuture<R> writeAsync(String key, RedisCommand<T> command, Object... params) {
         return writeAsync(key, connectionManager.getCodec(), command, params);
@@ -490,6 +506,11 @@ public class CommandAsyncService implements CommandAsyncExecutor {
         return async(false, source, codec, command, params, false, false);
     }
 
+    @Override
+    public <T, R> RFuture<R> writeAsync(EncodedName key, Codec codec, RedisCommand<T> command, Object... params) {
+        return async(false, new NodeSource(key.getSlot()), codec, command, params, false, false);
+    }
+
     public <T, R> RFuture<R> writeAsync(byte[] key, Codec codec, RedisCommand<T> command, Object... params) {
         NodeSource source = getNodeSource(key);
         return async(false, source, codec, command, params, false, false);
@@ -499,6 +520,51 @@ public class CommandAsyncService implements CommandAsyncExecutor {
     
     public <V, R> RFuture<R> async(boolean readOnlyMode, NodeSource source, Codec codec,
             RedisCommand<V> command, Object[] params, boolean ignoreRedirect, boolean noRetry) {
+        return executeInSession(readOnlyMode, source, (readOnly, nodeSource) ->
+                    sendAsync(readOnly, nodeSource, codec, command, params, ignoreRedirect, noRetry));
+    }
+
+    private <R> RFuture<R> executeInSession(boolean readOnlyMode, NodeSource source,
+                                            BiFunction<Boolean, NodeSource, RFuture<R>> function) {
+        ReplicaConsistencySession session = ReplicaConsistencySession.getCurrent();
+        if (session == null
+                || connectionManager.getConfig().getReadMode() == ReadMode.MASTER
+                    || source.getRedirect() != null
+                        || source.getRedisClient() != null) {
+            return function.apply(readOnlyMode, source);
+        }
+
+        MasterSlaveEntry entry = source.getEntry();
+        if (entry == null && source.getSlot() != null) {
+            entry = connectionManager.getEntry(source.getSlot());
+        }
+        if (entry == null) {
+            return function.apply(readOnlyMode, source);
+        }
+
+        if (!readOnlyMode) {
+            RFuture<R> result = function.apply(false, source);
+            session.onWrite(entry, result);
+            return result;
+        }
+
+        Long offset = session.getReplicationOffset(entry);
+        if (offset == null) {
+            return function.apply(true, source);
+        }
+        if (offset >= 0) {
+            ClientConnectionsEntry slaveEntry = entry.getSlaveEntry(offset);
+            if (slaveEntry != null) {
+                return function.apply(true, new NodeSource(entry, slaveEntry.getClient()));
+            }
+            entry.updateSlaveReplicationOffsets();
+        }
+        // slaves haven't replicated session writes yet
+        return function.apply(false, source);
+    }
+
+    private <V, R> RFuture<R> sendAsync(boolean readOnlyMode, NodeSource source, Codec codec,
+            RedisCommand<V> command, Object[] params, boolean ignoreRedirect, boolean noRetry) {
         if (readOnlyMode && command.getName().equals("SORT") && !sortRoSupported.get()) {
             readOnlyMode = false;
         } else if (readOnlyMode && command.getName().equals("SORT") && sortRoSupported.get()) {
@@ -511,7 +577,7 @@ public class CommandAsyncService implements CommandAsyncExecutor {
             mainPromise.whenComplete((r, e) -> {
                 if (e != null && e.getMessage().startsWith("ERR unknown command")) {
                     sortRoSupported.set(false);
-                    RFuture<R> future = async(false, source, codec, command, params, ignoreRedirect, noRetry);
+                    RFuture<R> future = sendAsync(false, source, codec, command, params, ignoreRedirect, noRetry);
                     transfer(future.toCompletableFuture(), result);
                     return;
                 }
@@ -73,6 +73,11 @@ public class RedisCommonBatchExecutor extends RedisExecutor<Object, Void> {
         if (options.getSyncSlaves() > 0) {
             this.responseTimeout += options.getSyncTimeout();
         }
+        this.priority = options.getPriority();
+        if (options.getDeadline() > 0
+                && (this.deadline == 0 || options.getDeadline() < this.deadline)) {
+            this.deadline = options.getDeadline();
+        }
     }
 
     @Override
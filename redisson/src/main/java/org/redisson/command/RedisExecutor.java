@@ -23,6 +23,8 @@ import io.netty.util.TimerTask;
 import io.netty.util.concurrent.FutureListener;
 import org.redisson.RedissonShutdownException;
 import org.redisson.ScanResult;
+import org.redisson.api.CommandDeadline;
+import org.redisson.api.CommandPriority;
 import org.redisson.cache.LRUCacheMap;
 import org.redisson.client.*;
 import org.redisson.client.codec.BaseCodec;
@@ -32,6 +34,7 @@ import org.redisson.client.protocol.CommandsData;
 import org.redisson.client.protocol.RedisCommand;
 import org.redisson.client.protocol.RedisCommands;
 import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.MasterSlaveEntry;
 import org.redisson.connection.NodeSource;
 import org.redisson.connection.NodeSource.Redirect;
 import org.redisson.liveobject.core.RedissonObjectBuilder;
@@ -84,6 +87,9 @@ public class RedisExecutor<V, R> {
     int attempts;
     long retryInterval;
     long responseTimeout;
+    CommandPriority priority;
+    boolean bulkPermitAcquired;
+    long deadline;
 
     public RedisExecutor(boolean readOnlyMode, NodeSource source, Codec codec, RedisCommand<V> command,
                          Object[] params, CompletableFuture<R> mainPromise, boolean ignoreRedirect,
@@ -105,6 +111,13 @@ public class RedisExecutor<V, R> {
         this.retryInterval = connectionManager.getConfig().getRetryInterval();
         this.responseTimeout = connectionManager.getConfig().getTimeout();
         this.referenceType = referenceType;
+
+        if (command != null && RedisCommands.BULK_COMMANDS.contains(command.getName())) {
+            this.priority = CommandPriority.BULK;
+        } else {
+            this.priority = CommandPriority.INTERACTIVE;
+        }
+        this.deadline = CommandDeadline.current();
     }
 
     public void execute() {
@@ -113,6 +126,30 @@ public class RedisExecutor<V, R> {
             return;
         }
 
+        if (priority == CommandPriority.BULK && !bulkPermitAcquired) {
+            bulkPermitAcquired = true;
+            MasterSlaveEntry entry = connectionManager.getEntry(source);
+            CompletableFuture<Void> permitFuture = null;
+            if (entry != null) {
+                permitFuture = entry.acquireBulkPermit(deadline);
+            }
+            if (permitFuture != null) {
+                permitFuture.whenComplete((r, e) -> {
+                    if (e == null) {
+                        mainPromise.whenComplete((res, ex) -> entry.releaseBulkPermit());
+                    }
+                    execute();
+                });
+                return;
+            }
+        }
+
+        if (isDeadlineExceeded()) {
+            free();
+            mainPromise.completeExceptionally(createDeadlineException());
+            return;
+        }
+
         if (!connectionManager.getShutdownLatch().acquire()) {
             free();
             mainPromise.completeExceptionally(new RedissonShutdownException("Redisson is shutdown"));
@@ -146,6 +183,8 @@ public class RedisExecutor<V, R> {
 
         scheduleConnectionTimeout(attemptPromise, connectionFuture);
 
+        Optional<Timeout> deadlineTimeout = scheduleDeadlineTimeout(attemptPromise, connectionFuture);
+
         connectionFuture.whenComplete((connection, e) -> {
             if (connectionFuture.isCancelled()) {
                 connectionManager.getShutdownLatch().release();
@@ -171,12 +210,40 @@ public class RedisExecutor<V, R> {
         });
 
         attemptPromise.whenComplete((r, e) -> {
+            deadlineTimeout.ifPresent(Timeout::cancel);
             releaseConnection(attemptPromise, connectionFuture);
 
             checkAttemptPromise(attemptPromise, connectionFuture);
         });
     }
 
+    private boolean isDeadlineExceeded() {
+        return deadline > 0 && System.currentTimeMillis() >= deadline;
+    }
+
+    private RedisTimeoutException createDeadlineException() {
+        return new RedisTimeoutException("Command deadline exceeded! "
+                + "Node source: " + source
+                + ", command: " + LogHelper.toString(command, params)
+                + " after " + attempt + " retry attempts");
+    }
+
+    private Optional<Timeout> scheduleDeadlineTimeout(CompletableFuture<R> attemptPromise, CompletableFuture<RedisConnection> connectionFuture) {
+        if (deadline == 0) {
+            return Optional.empty();
+        }
+
+        TimerTask task = timeout -> {
+            if (connectionFuture.cancel(false)) {
+                exception = createDeadlineException();
+                attemptPromise.completeExceptionally(exception);
+            }
+        };
+
+        long delay = Math.max(0, deadline - System.currentTimeMillis());
+        return Optional.of(connectionManager.newTimeout(task, delay, TimeUnit.MILLISECONDS));
+    }
+
     private void scheduleConnectionTimeout(CompletableFuture<R> attemptPromise, CompletableFuture<RedisConnection> connectionFuture) {
         if (retryInterval > 0 && attempts > 0) {
             return;
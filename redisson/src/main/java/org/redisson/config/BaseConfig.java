@@ -97,6 +97,8 @@ public class BaseConfig<T extends BaseConfig<T>> {
 
     private NameMapper nameMapper = NameMapper.direct();
 
+    private int bulkCommandsLimit;
+
     
     BaseConfig() {
     }
@@ -122,6 +124,7 @@ public class BaseConfig<T extends BaseConfig<T>> {
         setKeepAlive(config.isKeepAlive());
         setTcpNoDelay(config.isTcpNoDelay());
         setNameMapper(config.getNameMapper());
+        setBulkCommandsLimit(config.getBulkCommandsLimit());
     }
 
     /**
@@ -442,6 +445,27 @@ public class BaseConfig<T extends BaseConfig<T>> {
         return (T) this;
     }
 
+    public int getBulkCommandsLimit() {
+        return bulkCommandsLimit;
+    }
+
+    /**
+     * Defines maximum amount of concurrently executed commands with
+     * {@link org.redisson.api.CommandPriority#BULK} priority per Redis master and its slaves.
+     * Scan commands, full reads of hashes and sets and batches with BULK priority
+     * wait for a free slot and don't occupy connections required by interactive commands.
+     * <code>0</code> means no limit.
+     * <p>
+     * Default is <code>0</code>
+     *
+     * @param bulkCommandsLimit - commands amount
+     * @return config
+     */
+    public T setBulkCommandsLimit(int bulkCommandsLimit) {
+        this.bulkCommandsLimit = bulkCommandsLimit;
+        return (T) this;
+    }
+
     public boolean isTcpNoDelay() {
         return tcpNoDelay;
     }
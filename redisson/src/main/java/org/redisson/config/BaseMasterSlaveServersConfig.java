@@ -15,6 +15,7 @@
  */
 package org.redisson.config;
 
+import org.redisson.api.ZoneMapper;
 import org.redisson.connection.balancer.LoadBalancer;
 import org.redisson.connection.balancer.RoundRobinLoadBalancer;
 
@@ -31,6 +32,8 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
      */
     private LoadBalancer loadBalancer = new RoundRobinLoadBalancer();
 
+    private ZoneMapper zoneMapper = ZoneMapper.none();
+
     /**
      * Redis 'slave' node minimum idle connection amount for <b>each</b> slave node
      */
@@ -77,6 +80,7 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
     BaseMasterSlaveServersConfig(T config) {
         super(config);
         setLoadBalancer(config.getLoadBalancer());
+        setZoneMapper(config.getZoneMapper());
         setMasterConnectionPoolSize(config.getMasterConnectionPoolSize());
         setSlaveConnectionPoolSize(config.getSlaveConnectionPoolSize());
         setSubscriptionConnectionPoolSize(config.getSubscriptionConnectionPoolSize());
@@ -178,6 +182,7 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
      * @see org.redisson.connection.balancer.RandomLoadBalancer
      * @see org.redisson.connection.balancer.RoundRobinLoadBalancer
      * @see org.redisson.connection.balancer.WeightedRoundRobinBalancer
+     * @see org.redisson.connection.balancer.ZoneAwareLoadBalancer
      */
     public T setLoadBalancer(LoadBalancer loadBalancer) {
         this.loadBalancer = loadBalancer;
@@ -187,6 +192,26 @@ public class BaseMasterSlaveServersConfig<T extends BaseMasterSlaveServersConfig
         return loadBalancer;
     }
 
+    /**
+     * Defines zone mapper which maps Redis node address to zone it's located in.
+     * Used by {@link org.redisson.connection.balancer.ZoneAwareLoadBalancer}.
+     * Applied to node address after NAT mapping.
+     * <p>
+     * Default is <code>ZoneMapper.none()</code>
+     *
+     * @see org.redisson.api.HostZoneMapper
+     *
+     * @param zoneMapper - zone mapper object
+     * @return config
+     */
+    public T setZoneMapper(ZoneMapper zoneMapper) {
+        this.zoneMapper = zoneMapper;
+        return (T) this;
+    }
+    public ZoneMapper getZoneMapper() {
+        return zoneMapper;
+    }
+
     /**
      * Maximum connection pool size for subscription (pub/sub) channels
      * <p>
@@ -30,6 +30,7 @@ import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.redisson.api.NameMapper;
 import org.redisson.api.NatMapper;
+import org.redisson.api.ZoneMapper;
 import org.redisson.api.RedissonNodeInitializer;
 import org.redisson.client.NettyHook;
 import org.redisson.client.codec.Codec;
@@ -232,6 +233,7 @@ public class ConfigSupport {
         mapper.addMixIn(RedissonNodeInitializer.class, ClassMixIn.class);
         mapper.addMixIn(LoadBalancer.class, ClassMixIn.class);
         mapper.addMixIn(NatMapper.class, ClassMixIn.class);
+        mapper.addMixIn(ZoneMapper.class, ClassMixIn.class);
         mapper.addMixIn(NameMapper.class, ClassMixIn.class);
         mapper.addMixIn(NettyHook.class, ClassMixIn.class);
 
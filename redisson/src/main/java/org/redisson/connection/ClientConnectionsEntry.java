@@ -59,6 +59,10 @@ public class ClientConnectionsEntry {
 
     private volatile boolean initialized = false;
 
+    private volatile long replicationOffset = -1;
+
+    private volatile String zone;
+
     public ClientConnectionsEntry(RedisClient client, int poolMinSize, int poolMaxSize, int subscribePoolMinSize, int subscribePoolMaxSize,
             ConnectionManager connectionManager, NodeType nodeType) {
         this.client = client;
@@ -101,6 +105,22 @@ public class ClientConnectionsEntry {
         return nodeType;
     }
 
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public long getReplicationOffset() {
+        return replicationOffset;
+    }
+
+    public void setReplicationOffset(long replicationOffset) {
+        this.replicationOffset = replicationOffset;
+    }
+
     public void resetFirstFail() {
         client.resetFirstFail();
     }
@@ -274,7 +294,7 @@ public class ClientConnectionsEntry {
                 + ", freeSubscribeConnectionsCounter=" + freeSubscribeConnectionsCounter
                 + ", freeConnectionsAmount=" + freeConnections.size() + ", freeConnectionsCounter="
                 + freeConnectionsCounter + ", freezeReason=" + freezeReason
-                + ", client=" + client + ", nodeType=" + nodeType + ", firstFail=" + client.getFirstFailTime()
+                + ", client=" + client + ", nodeType=" + nodeType + ", zone=" + zone + ", firstFail=" + client.getFirstFailTime()
                 + "]";
     }
 
@@ -84,6 +84,8 @@ public interface ConnectionManager {
     MasterSlaveEntry getEntry(String name);
 
     MasterSlaveEntry getEntry(int slot);
+
+    MasterSlaveEntry getEntry(NodeSource source);
     
     MasterSlaveEntry getEntry(InetSocketAddress address);
     
@@ -369,6 +369,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         MasterSlaveServersConfig c = new MasterSlaveServersConfig();
 
         c.setPingConnectionInterval(cfg.getPingConnectionInterval());
+        c.setBulkCommandsLimit(cfg.getBulkCommandsLimit());
         c.setSslEnableEndpointIdentification(cfg.isSslEnableEndpointIdentification());
         c.setSslProvider(cfg.getSslProvider());
         c.setSslTruststore(cfg.getSslTruststore());
@@ -381,6 +382,7 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         c.setRetryAttempts(cfg.getRetryAttempts());
         c.setTimeout(cfg.getTimeout());
         c.setLoadBalancer(cfg.getLoadBalancer());
+        c.setZoneMapper(cfg.getZoneMapper());
         c.setPassword(cfg.getPassword());
         c.setUsername(cfg.getUsername());
         c.setClientName(cfg.getClientName());
@@ -522,7 +524,8 @@ public class MasterSlaveConnectionManager implements ConnectionManager {
         return entry.connectionWriteOp(command);
     }
 
-    private MasterSlaveEntry getEntry(NodeSource source) {
+    @Override
+    public MasterSlaveEntry getEntry(NodeSource source) {
         if (source.getRedirect() != null) {
             return getEntry(source.getAddr());
         }
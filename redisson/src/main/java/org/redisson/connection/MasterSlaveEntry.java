@@ -16,12 +16,15 @@
 package org.redisson.connection;
 
 import io.netty.channel.ChannelFuture;
+import io.netty.util.Timeout;
 import org.redisson.api.NodeType;
+import org.redisson.api.RFuture;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisConnection;
 import org.redisson.client.RedisPubSubConnection;
 import org.redisson.client.protocol.CommandData;
 import org.redisson.client.protocol.RedisCommand;
+import org.redisson.client.protocol.RedisCommands;
 import org.redisson.config.MasterSlaveServersConfig;
 import org.redisson.config.ReadMode;
 import org.redisson.config.SubscriptionMode;
@@ -29,6 +32,7 @@ import org.redisson.connection.ClientConnectionsEntry.FreezeReason;
 import org.redisson.connection.balancer.LoadBalancerManager;
 import org.redisson.connection.pool.MasterConnectionPool;
 import org.redisson.connection.pool.MasterPubSubConnectionPool;
+import org.redisson.misc.AsyncSemaphore;
 import org.redisson.misc.RedisURI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +41,7 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -63,6 +68,13 @@ public class MasterSlaveEntry {
     final MasterPubSubConnectionPool pubSubConnectionPool;
 
     final AtomicBoolean active = new AtomicBoolean(true);
+
+    private final Object replicationOffsetLock = new Object();
+    private CompletableFuture<Long> replicationOffsetFuture;
+    private CompletableFuture<Long> nextReplicationOffsetFuture;
+    private final AtomicBoolean slaveOffsetsUpdating = new AtomicBoolean();
+
+    private final AsyncSemaphore bulkCommandsSemaphore;
     
     public MasterSlaveEntry(ConnectionManager connectionManager, MasterSlaveServersConfig config) {
         this.connectionManager = connectionManager;
@@ -71,6 +83,11 @@ public class MasterSlaveEntry {
         slaveBalancer = new LoadBalancerManager(config, connectionManager, this);
         writeConnectionPool = new MasterConnectionPool(config, connectionManager, this);
         pubSubConnectionPool = new MasterPubSubConnectionPool(config, connectionManager, this);
+        if (config.getBulkCommandsLimit() > 0) {
+            bulkCommandsSemaphore = new AsyncSemaphore(config.getBulkCommandsLimit());
+        } else {
+            bulkCommandsSemaphore = null;
+        }
     }
 
     public MasterSlaveServersConfig getConfig() {
@@ -277,12 +294,12 @@ public class MasterSlaveEntry {
         for (int i = 0; i < commandData.getParams().length; i++) {
             Object param = commandData.getParams()[i];
             if ("STREAMS".equals(param)) {
-                key = (String) commandData.getParams()[i+1];
+                key = String.valueOf(commandData.getParams()[i+1]);
                 break;
             }
         }
         if (key == null) {
-            key = (String) commandData.getParams()[0];
+            key = String.valueOf(commandData.getParams()[0]);
         }
 
         MasterSlaveEntry entry = connectionManager.getEntry(key);
@@ -364,6 +381,9 @@ public class MasterSlaveEntry {
                     config.getSlaveConnectionPoolSize(),
                     config.getSubscriptionConnectionMinimumIdleSize(),
                     config.getSubscriptionConnectionPoolSize(), connectionManager, nodeType);
+            if (client.getConfig().getAddress() != null) {
+                entry.setZone(config.getZoneMapper().map(client.getConfig().getAddress()));
+            }
             if (freezed) {
                 synchronized (entry) {
                     entry.setFreezeReason(FreezeReason.SYSTEM);
@@ -539,6 +559,10 @@ public class MasterSlaveEntry {
 
             slaveBalancer.changeType(oldMaster.getClient().getAddr(), NodeType.SLAVE);
             slaveBalancer.changeType(newMasterClient.getAddr(), NodeType.MASTER);
+            // offsets of new master replication stream are not comparable with old ones
+            for (ClientConnectionsEntry entry : slaveBalancer.getEntries()) {
+                entry.setReplicationOffset(-1);
+            }
             // freeze in slaveBalancer
             slaveDown(oldMaster.getClient().getAddr(), FreezeReason.MANAGER);
 
@@ -591,6 +615,149 @@ public class MasterSlaveEntry {
         return slaveBalancer.getConnection(command, client);
     }
 
+    /**
+     * Returns available slave which has replicated data up to defined <code>offset</code>.
+     *
+     * @param offset - master replication offset
+     * @return slave entry or <code>null</code> if there is no such slave
+     */
+    public ClientConnectionsEntry getSlaveEntry(long offset) {
+        List<ClientConnectionsEntry> entries = new ArrayList<>();
+        for (ClientConnectionsEntry entry : slaveBalancer.getEntries()) {
+            if (entry.getNodeType() == NodeType.SLAVE
+                    && !entry.isFreezed()
+                        && entry.getReplicationOffset() >= offset) {
+                entries.add(entry);
+            }
+        }
+        if (entries.isEmpty()) {
+            return null;
+        }
+        return config.getLoadBalancer().getEntry(entries);
+    }
+
+    /**
+     * Requests master replication offset.
+     * Requests made while INFO command is in progress are coalesced into
+     * a single subsequent INFO command. So returned offset is never lower
+     * than offset of writes completed before this method invocation.
+     *
+     * @return master replication offset
+     */
+    public CompletableFuture<Long> requestReplicationOffset() {
+        synchronized (replicationOffsetLock) {
+            if (replicationOffsetFuture == null) {
+                replicationOffsetFuture = new CompletableFuture<>();
+                CompletableFuture<Long> result = replicationOffsetFuture;
+                fetchReplicationOffset(result);
+                return result;
+            }
+            if (nextReplicationOffsetFuture == null) {
+                nextReplicationOffsetFuture = new CompletableFuture<>();
+            }
+            return nextReplicationOffsetFuture;
+        }
+    }
+
+    private void fetchReplicationOffset(CompletableFuture<Long> result) {
+        CompletableFuture<RedisConnection> connectionFuture = connectionWriteOp(RedisCommands.INFO_REPLICATION);
+        connectionFuture.thenCompose(connection -> {
+            RFuture<Map<String, String>> f = connection.async(RedisCommands.INFO_REPLICATION);
+            return f.whenComplete((r, e) -> releaseWrite(connection));
+        }).whenComplete((info, e) -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                updateSlaveOffsets(info);
+                result.complete(Long.valueOf(info.get("master_repl_offset")));
+            }
+
+            CompletableFuture<Long> next;
+            synchronized (replicationOffsetLock) {
+                replicationOffsetFuture = nextReplicationOffsetFuture;
+                nextReplicationOffsetFuture = null;
+                next = replicationOffsetFuture;
+            }
+            if (next != null) {
+                fetchReplicationOffset(next);
+            }
+        });
+    }
+
+    // slave offsets reported by master are updated once per second through REPLCONF ACK
+    private void updateSlaveOffsets(Map<String, String> info) {
+        for (Map.Entry<String, String> e : info.entrySet()) {
+            if (!e.getKey().startsWith("slave")
+                    || !Character.isDigit(e.getKey().charAt(e.getKey().length() - 1))) {
+                continue;
+            }
+
+            String ip = null;
+            int port = -1;
+            long offset = -1;
+            for (String param : e.getValue().split(",")) {
+                String[] parts = param.split("=");
+                if (parts.length != 2) {
+                    continue;
+                }
+                if ("ip".equals(parts[0])) {
+                    ip = parts[1];
+                } else if ("port".equals(parts[0])) {
+                    port = Integer.parseInt(parts[1]);
+                } else if ("offset".equals(parts[0])) {
+                    offset = Long.parseLong(parts[1]);
+                }
+            }
+
+            for (ClientConnectionsEntry entry : slaveBalancer.getEntries()) {
+                InetSocketAddress addr = entry.getClient().getAddr();
+                if (addr.getPort() == port
+                        && addr.getAddress().getHostAddress().equals(ip)
+                            && entry.getReplicationOffset() < offset) {
+                    entry.setReplicationOffset(offset);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates replication offsets of available slaves using
+     * <code>slave_repl_offset</code> reported by each slave.
+     * Invocations made while update is in progress are ignored.
+     */
+    public void updateSlaveReplicationOffsets() {
+        if (!slaveOffsetsUpdating.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (ClientConnectionsEntry entry : slaveBalancer.getEntries()) {
+            if (entry.getNodeType() != NodeType.SLAVE || entry.isFreezed()) {
+                continue;
+            }
+
+            CompletableFuture<RedisConnection> connectionFuture = slaveBalancer.getConnection(RedisCommands.INFO_REPLICATION, entry.getClient());
+            CompletableFuture<Void> f = connectionFuture.thenCompose(connection -> {
+                RFuture<Map<String, String>> infoFuture = connection.async(RedisCommands.INFO_REPLICATION);
+                return infoFuture.whenComplete((r, e) -> slaveBalancer.returnConnection(connection));
+            }).thenAccept(info -> {
+                String offset = info.get("slave_repl_offset");
+                if (offset != null) {
+                    entry.setReplicationOffset(Long.parseLong(offset));
+                }
+            });
+            futures.add(f);
+        }
+
+        CompletableFuture<Void> future = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        future.whenComplete((r, e) -> {
+            slaveOffsetsUpdating.set(false);
+            if (e != null) {
+                log.debug("Unable to update slaves replication offset", e);
+            }
+        });
+    }
+
     public CompletableFuture<RedisPubSubConnection> nextPubSubConnection() {
         if (config.getSubscriptionMode() == SubscriptionMode.MASTER) {
             return pubSubConnectionPool.get();
@@ -607,6 +774,31 @@ public class MasterSlaveEntry {
         slaveBalancer.returnPubSubConnection(connection);
     }
 
+    /**
+     * Acquires execution slot for command with BULK priority.
+     *
+     * @param deadline - command deadline in milliseconds since epoch, <code>0</code> means no deadline
+     * @return <code>null</code> if amount of BULK commands isn't limited
+     */
+    public CompletableFuture<Void> acquireBulkPermit(long deadline) {
+        if (bulkCommandsSemaphore == null) {
+            return null;
+        }
+        CompletableFuture<Void> future = bulkCommandsSemaphore.acquire(deadline);
+        if (deadline == 0 || future.isDone()) {
+            return future;
+        }
+
+        long delay = Math.max(deadline - System.currentTimeMillis(), 0);
+        Timeout timeout = connectionManager.newTimeout(t -> bulkCommandsSemaphore.expire(future), delay, TimeUnit.MILLISECONDS);
+        future.whenComplete((r, e) -> timeout.cancel());
+        return future;
+    }
+
+    public void releaseBulkPermit() {
+        bulkCommandsSemaphore.release();
+    }
+
     public void releaseWrite(RedisConnection connection) {
         writeConnectionPool.returnConnection(masterEntry, connection);
     }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection;
+
+import org.redisson.api.ConsistencySession;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks master replication offsets of writes made within the session
+ * per {@link MasterSlaveEntry}.
+ *
+ * @author Nikita Koksharov
+ *
+ */
+public class ReplicaConsistencySession implements ConsistencySession {
+
+    private static final ThreadLocal<ReplicaConsistencySession> CURRENT = new ThreadLocal<>();
+
+    private final Map<MasterSlaveEntry, CompletableFuture<Long>> offsets = new ConcurrentHashMap<>();
+
+    public static ReplicaConsistencySession getCurrent() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    @Override
+    public void unbind() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public void close() {
+        unbind();
+    }
+
+    /**
+     * Registers write operation. Offset is requested from master once write completed
+     * and combined with offsets of previous writes, because writes may complete out of order.
+     *
+     * @param entry - master/slave entry
+     * @param writeFuture - write operation future
+     */
+    public void onWrite(MasterSlaveEntry entry, CompletionStage<?> writeFuture) {
+        CompletableFuture<Long> offsetFuture = writeFuture
+                                                .handle((r, e) -> null)
+                                                .thenCompose(r -> entry.requestReplicationOffset())
+                                                .toCompletableFuture();
+        offsets.compute(entry, (k, prev) -> {
+            if (prev == null) {
+                return offsetFuture;
+            }
+            CompletableFuture<Long> prevOffset = prev.exceptionally(e -> -1L);
+            return offsetFuture.thenCombine(prevOffset, Math::max);
+        });
+    }
+
+    /**
+     * Returns replication offset required for reads from slaves of defined entry.
+     * Failed offset request is retried, since all session writes preceding it are already completed.
+     *
+     * @param entry - master/slave entry
+     * @return <code>null</code> if there were no writes to this entry,
+     *         <code>-1</code> if offset isn't available yet and read should be made from master
+     */
+    public Long getReplicationOffset(MasterSlaveEntry entry) {
+        CompletableFuture<Long> future = offsets.get(entry);
+        if (future == null) {
+            return null;
+        }
+        if (future.isCompletedExceptionally()) {
+            offsets.computeIfPresent(entry, (k, prev) -> {
+                if (prev != future) {
+                    return prev;
+                }
+                return entry.requestReplicationOffset();
+            });
+            return -1L;
+        }
+        if (!future.isDone()) {
+            return -1L;
+        }
+        return future.join();
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicaConsistencySession [offsets=" + offsets + "]";
+    }
+
+}
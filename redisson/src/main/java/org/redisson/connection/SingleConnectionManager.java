@@ -34,6 +34,7 @@ public class SingleConnectionManager extends MasterSlaveConnectionManager {
         MasterSlaveServersConfig newconfig = new MasterSlaveServersConfig();
         
         newconfig.setPingConnectionInterval(cfg.getPingConnectionInterval());
+        newconfig.setBulkCommandsLimit(cfg.getBulkCommandsLimit());
         newconfig.setSslEnableEndpointIdentification(cfg.isSslEnableEndpointIdentification());
         newconfig.setSslProvider(cfg.getSslProvider());
         newconfig.setSslTruststore(cfg.getSslTruststore());
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2013-2022 Nikita Koksharov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.redisson.connection.balancer;
+
+import org.redisson.connection.ClientConnectionsEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load balancer which uses slaves located in the same zone as Redisson instance.
+ * Slaves from other zones are used only if there are no available slaves in the same zone,
+ * e.g. all of them were disconnected or excluded after failed health checks.
+ * <p>
+ * Zone of each node is defined by <code>zoneMapper</code> setting.
+ * Zone of Redisson instance is defined by <code>zone</code> setting.
+ *
+ * @author Nikita Koksharov
+ *
+ * @see org.redisson.api.ZoneMapper
+ */
+public class ZoneAwareLoadBalancer implements LoadBalancer {
+
+    private String zone;
+    private LoadBalancer loadBalancer = new RoundRobinLoadBalancer();
+
+    public ZoneAwareLoadBalancer() {
+    }
+
+    public ZoneAwareLoadBalancer(String zone) {
+        this.zone = zone;
+    }
+
+    @Override
+    public ClientConnectionsEntry getEntry(List<ClientConnectionsEntry> clientsCopy) {
+        List<ClientConnectionsEntry> localEntries = new ArrayList<>(clientsCopy.size());
+        for (ClientConnectionsEntry entry : clientsCopy) {
+            if (zone != null && zone.equals(entry.getZone())) {
+                localEntries.add(entry);
+            }
+        }
+
+        if (localEntries.isEmpty()) {
+            return loadBalancer.getEntry(clientsCopy);
+        }
+        return loadBalancer.getEntry(localEntries);
+    }
+
+    /**
+     * Defines zone of this Redisson instance.
+     *
+     * @param zone - zone name
+     */
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    /**
+     * Defines load balancer used to select entry among slaves of the same zone.
+     * Uses Round-robin algorithm by default
+     *
+     * @param loadBalancer - load balancer object
+     */
+    public void setLoadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+}
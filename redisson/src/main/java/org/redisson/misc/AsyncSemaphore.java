@@ -63,6 +63,39 @@ public class AsyncSemaphore {
         return future;
     }
 
+    /**
+     * Acquires permit unless deadline has been reached while waiting in queue.
+     * Expired waiter doesn't consume permit and its future fails with {@link TimeoutException}.
+     *
+     * @param deadline - time in milliseconds since epoch, <code>0</code> means no deadline
+     * @return future
+     */
+    public CompletableFuture<Void> acquire(long deadline) {
+        if (deadline == 0) {
+            return acquire();
+        }
+        CompletableFuture<Void> future = new DeadlineFuture(deadline);
+        listeners.add(future);
+        tryRun();
+        return future;
+    }
+
+    /**
+     * Fails waiter with {@link TimeoutException} and removes it from queue
+     * if it hasn't acquired permit yet. Supposed to be invoked once deadline
+     * passed to {@link #acquire(long)} has been reached.
+     *
+     * @param future - future returned by {@link #acquire(long)}
+     * @return <code>true</code> if waiter has been expired
+     */
+    public boolean expire(CompletableFuture<Void> future) {
+        if (!future.completeExceptionally(new TimeoutException("Deadline has been reached while waiting for permit"))) {
+            return false;
+        }
+        listeners.remove(future);
+        return true;
+    }
+
     public void acquire(Runnable listener) {
         acquire().thenAccept(r -> listener.run());
     }
@@ -76,7 +109,7 @@ public class AsyncSemaphore {
                     return;
                 }
 
-                if (future.complete(null)) {
+                if (!isExpired(future) && future.complete(null)) {
                     return;
                 }
             }
@@ -87,6 +120,17 @@ public class AsyncSemaphore {
         }
     }
 
+    private boolean isExpired(CompletableFuture<Void> future) {
+        if (!(future instanceof DeadlineFuture)) {
+            return false;
+        }
+        long deadline = ((DeadlineFuture) future).deadline;
+        if (System.currentTimeMillis() < deadline) {
+            return false;
+        }
+        return expire(future);
+    }
+
     public int getCounter() {
         return counter.get();
     }
@@ -100,6 +144,16 @@ public class AsyncSemaphore {
     public String toString() {
         return "value:" + counter + ":queue:" + queueSize();
     }
+
+    private static final class DeadlineFuture extends CompletableFuture<Void> {
+
+        final long deadline;
+
+        DeadlineFuture(long deadline) {
+            this.deadline = deadline;
+        }
+
+    }
     
     
     
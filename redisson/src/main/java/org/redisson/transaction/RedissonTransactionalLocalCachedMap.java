@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.redisson.api.LocalCachedMapStats;
 import org.redisson.api.RFuture;
 import org.redisson.api.RLocalCachedMap;
 import org.redisson.command.CommandAsyncExecutor;
@@ -65,6 +66,11 @@ public class RedissonTransactionalLocalCachedMap<K, V> extends RedissonTransacti
         throw new UnsupportedOperationException("clearLocalCache method is not supported in transaction");
     }
 
+    @Override
+    public void saveCacheSnapshot() {
+        throw new UnsupportedOperationException("saveCacheSnapshot method is not supported in transaction");
+    }
+
     @Override
     public Set<K> cachedKeySet() {
         throw new UnsupportedOperationException("cachedKeySet method is not supported in transaction");
@@ -85,4 +91,9 @@ public class RedissonTransactionalLocalCachedMap<K, V> extends RedissonTransacti
         throw new UnsupportedOperationException("getCachedMap method is not supported in transaction");
     }
 
+    @Override
+    public LocalCachedMapStats getCacheStats() {
+        throw new UnsupportedOperationException("getCacheStats method is not supported in transaction");
+    }
+
 }
@@ -0,0 +1,65 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.LocalLeaseOptions;
+import org.redisson.api.RFuture;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalPermitLeaseTest extends BaseTest {
+
+    @Test
+    public void testConcurrentReservation() throws Exception {
+        ConnectionManager connectionManager = ((Redisson) redisson).getConnectionManager();
+        AtomicInteger reservations = new AtomicInteger();
+        AtomicInteger returned = new AtomicInteger();
+        LocalPermitLease lease = new LocalPermitLease(connectionManager, LocalLeaseOptions.defaults()
+                                                                            .minPermits(100)
+                                                                            .maxPermits(100)
+                                                                            .leaseTime(1, TimeUnit.MINUTES)) {
+            @Override
+            protected RFuture<Long> reserveAsync(byte[] token, long permits, long desired, double fairShare) {
+                reservations.incrementAndGet();
+                CompletableFuture<Long> f = new CompletableFuture<>();
+                connectionManager.newTimeout(t -> f.complete(desired), 10, TimeUnit.MILLISECONDS);
+                return new CompletableFutureWrapper<>(f);
+            }
+
+            @Override
+            protected RFuture<Void> returnAsync(byte[] token, long reserved, long unused) {
+                returned.addAndGet((int) unused);
+                return new CompletableFutureWrapper<>((Void) null);
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 50; j++) {
+                    assertThat(lease.tryAcquireAsync(1).toCompletableFuture().join()).isTrue();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(reservations.get()).isEqualTo(8);
+        assertThat(returned.get()).isZero();
+        lease.close();
+    }
+
+}
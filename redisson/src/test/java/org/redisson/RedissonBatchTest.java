@@ -325,6 +325,38 @@ public class RedissonBatchTest extends BaseTest {
         redisson.shutdown();
     }
     
+    @Test
+    public void testBulkPriority() {
+        Config config = createConfig();
+        config.useSingleServer()
+                .setBulkCommandsLimit(1)
+                .setConnectionMinimumIdleSize(2).setConnectionPoolSize(2);
+
+        RedissonClient redisson = Redisson.create(config);
+
+        List<RFuture<BatchResult<?>>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            RBatch batch = redisson.createBatch(BatchOptions.defaults().priority(CommandPriority.BULK));
+            for (int j = 0; j < 1000; j++) {
+                batch.getMap("map" + i).fastPutAsync("key" + j, j);
+            }
+            futures.add(batch.executeAsync());
+        }
+
+        RMap<String, Integer> map = redisson.getMap("test");
+        map.put("1", 2);
+        assertThat(map.readAllMap()).containsEntry("1", 2);
+
+        for (RFuture<BatchResult<?>> future : futures) {
+            assertThat(future.toCompletableFuture().join().getResponses()).hasSize(1000);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(redisson.getMap("map" + i).size()).isEqualTo(1000);
+        }
+
+        redisson.shutdown();
+    }
+
     @ParameterizedTest
     @MethodSource("data")
     public void testBigRequestAtomic(BatchOptions batchOptions) {
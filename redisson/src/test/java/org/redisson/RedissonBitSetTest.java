@@ -3,6 +3,7 @@ package org.redisson;
 import org.junit.jupiter.api.Test;
 import org.redisson.api.RBitSet;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -185,5 +186,56 @@ public class RedissonBitSetTest extends BaseTest {
         assertThat(bs1.size()).isEqualTo(16);
     }
 
+    @Test
+    public void testBulkSetGet() {
+        RBitSet bs = redisson.getBitSet("testbitset");
+        long[] indexes = new long[2500];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i * 3L;
+        }
+        bs.set(indexes);
+        assertThat(bs.cardinality()).isEqualTo(2500);
+        assertThat(bs.get(0, 1, 3, 7497, 7498)).containsExactly(true, false, true, true, false);
+
+        boolean[] values = bs.get(indexes);
+        assertThat(values).hasSize(2500).doesNotContain(false);
+
+        bs.clear(new long[] {0, 3, 6});
+        assertThat(bs.cardinality()).isEqualTo(2497);
+        assertThat(bs.get(0, 3, 6, 9)).containsExactly(false, false, false, true);
+
+        bs.set(new long[] {1, 2}, true);
+        assertThat(bs.get(1, 2)).containsExactly(true, true);
+        assertThat(bs.get(new long[0])).isEmpty();
+    }
+
+    @Test
+    public void testAsByteBuffer() {
+        RBitSet bs = redisson.getBitSet("testbitset");
+        assertThat(bs.asByteBuffer().remaining()).isZero();
+        assertThat(bs.asBitSet()).isEmpty();
+
+        bs.set(new long[] {1, 10, 3 * 1024 * 1024 * 8 + 5});
+        ByteBuffer buffer = bs.asByteBuffer();
+        assertThat(buffer.remaining()).isEqualTo(3 * 1024 * 1024 + 1);
+        assertThat(buffer.get(0)).isEqualTo((byte) 0b01000000);
+        assertThat(buffer.get(1)).isEqualTo((byte) 0b00100000);
+        assertThat(buffer.get(3 * 1024 * 1024)).isEqualTo((byte) 0b00000100);
+
+        BitSet bitSet = bs.asBitSet();
+        assertThat(bitSet.cardinality()).isEqualTo(3);
+        assertThat(bitSet.get(1)).isTrue();
+        assertThat(bitSet.get(10)).isTrue();
+        assertThat(bitSet.get(3 * 1024 * 1024 * 8 + 5)).isTrue();
+    }
+
+    @Test
+    public void testAsByteBufferChunkSize() {
+        RBitSet bs = redisson.getBitSet("testbitset");
+        bs.set(1024 * 1024 * 8 - 1);
+        ByteBuffer buffer = bs.asByteBuffer();
+        assertThat(buffer.remaining()).isEqualTo(1024 * 1024);
+        assertThat(buffer.get(1024 * 1024 - 1)).isEqualTo((byte) 0b00000001);
+    }
 
 }
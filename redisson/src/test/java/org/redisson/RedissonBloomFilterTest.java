@@ -5,6 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.redisson.api.RBloomFilter;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -120,6 +124,28 @@ public class RedissonBloomFilterTest extends BaseTest {
         assertThat(filter.count()).isEqualTo(2);
     }
 
+    @Test
+    public void testBulk() {
+        RBloomFilter<String> filter = redisson.getBloomFilter("filter");
+        filter.tryInit(100000L, 0.01);
+
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            elements.add("element" + i);
+        }
+
+        assertThat(filter.contains(elements)).isZero();
+        assertThat(filter.add(elements)).isEqualTo(1000);
+        assertThat(filter.add(elements)).isZero();
+        assertThat(filter.contains(elements)).isEqualTo(1000);
+        assertThat(filter.count()).isBetween(990L, 1010L);
+
+        assertThat(filter.add(Arrays.asList("element1", "new1", "new2", "new2"))).isEqualTo(2);
+        assertThat(filter.addAsync("new3").toCompletableFuture().join()).isTrue();
+        assertThat(filter.containsAsync(Arrays.asList("new1", "new3", "missing")).toCompletableFuture().join()).isEqualTo(2);
+        assertThat(filter.add(Collections.emptyList())).isZero();
+    }
+
     @Test
     public void testRename() {
         RBloomFilter<String> filter = redisson.getBloomFilter("filter");
@@ -25,6 +25,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class RedissonBucketTest extends BaseTest {
 
+    @Test
+    public void testSetAfterRename() {
+        RBucket<String> bucket = redisson.getBucket("test1");
+        bucket.set("1");
+        bucket.rename("test2");
+        bucket.set("2");
+
+        assertThat(redisson.getBucket("test1").isExists()).isFalse();
+        assertThat(redisson.<String>getBucket("test2").get()).isEqualTo("2");
+        assertThat(bucket.get()).isEqualTo("2");
+    }
+
     @Test
     public void testGetAndClearExpire() {
         Assumptions.assumeTrue(RedisRunner.getDefaultRedisServerInstance().getRedisVersion().compareTo("6.2.0") > 0);
@@ -0,0 +1,79 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RCountMinSketch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonCountMinSketchTest extends BaseTest {
+
+    @Test
+    public void testNotInitialized() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            RCountMinSketch<String> sketch = redisson.getCountMinSketch("sketch");
+            sketch.add("1");
+        });
+    }
+
+    @Test
+    public void testInit() {
+        RCountMinSketch<String> sketch = redisson.getCountMinSketch("sketch");
+        assertThat(sketch.tryInitByProbability(0.001, 0.01)).isTrue();
+        assertThat(sketch.tryInit(100, 3)).isFalse();
+        assertThat(sketch.getWidth()).isEqualTo(2719);
+        assertThat(sketch.getDepth()).isEqualTo(5);
+    }
+
+    @Test
+    public void testIncrement() {
+        RCountMinSketch<String> sketch = redisson.getCountMinSketch("sketch");
+        sketch.tryInit(1000, 5);
+
+        assertThat(sketch.add("a")).isEqualTo(1);
+        assertThat(sketch.incrementBy("a", 10)).isEqualTo(11);
+        assertThat(sketch.estimate("a")).isEqualTo(11);
+        assertThat(sketch.estimate("b")).isZero();
+
+        Map<String, Long> increments = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            increments.put("key" + i, (long) i);
+        }
+        Map<String, Long> estimates = sketch.incrementBy(increments);
+        assertThat(estimates).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(estimates.get("key" + i)).isGreaterThanOrEqualTo(i);
+        }
+
+        Map<String, Long> result = sketch.estimate(Arrays.asList("a", "key99"));
+        assertThat(result.get("a")).isGreaterThanOrEqualTo(11);
+        assertThat(result.get("key99")).isGreaterThanOrEqualTo(99);
+        assertThat(sketch.count()).isEqualTo(11 + 4950);
+    }
+
+    @Test
+    public void testMerge() {
+        RCountMinSketch<String> sketch1 = redisson.getCountMinSketch("{sketch}1");
+        sketch1.tryInit(100, 3);
+        sketch1.incrementBy("a", 5);
+
+        RCountMinSketch<String> sketch2 = redisson.getCountMinSketch("{sketch}2");
+        sketch2.tryInit(100, 3);
+        sketch2.incrementBy("a", 7);
+        sketch2.incrementBy("b", 2);
+
+        sketch1.mergeWith("{sketch}2");
+        assertThat(sketch1.estimate("a")).isEqualTo(12);
+        assertThat(sketch1.estimate("b")).isGreaterThanOrEqualTo(2);
+        assertThat(sketch1.count()).isEqualTo(14);
+
+        RCountMinSketch<String> sketch3 = redisson.getCountMinSketch("{sketch}3");
+        sketch3.tryInit(200, 3);
+        Assertions.assertThrows(Exception.class, () -> sketch1.mergeWith("{sketch}3"));
+    }
+
+}
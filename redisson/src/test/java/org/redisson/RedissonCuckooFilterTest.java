@@ -0,0 +1,99 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RCuckooFilter;
+import org.redisson.client.RedisException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonCuckooFilterTest extends BaseTest {
+
+    @Test
+    public void testFalseProbability() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            RCuckooFilter<String> filter = redisson.getCuckooFilter("filter");
+            filter.tryInit(1, 2);
+        });
+    }
+
+    @Test
+    public void testNotInitialized() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            RCuckooFilter<String> filter = redisson.getCuckooFilter("filter");
+            filter.add("123");
+        });
+    }
+
+    @Test
+    public void testInit() {
+        RCuckooFilter<String> filter = redisson.getCuckooFilter("filter");
+        assertThat(filter.tryInit(1000, 0.01)).isTrue();
+        assertThat(filter.tryInit(2000, 0.01)).isFalse();
+        assertThat(filter.getExpectedInsertions()).isEqualTo(1000);
+        assertThat(filter.getFalseProbability()).isEqualTo(0.01);
+        // 512 buckets with 4 slots of 10 bits
+        assertThat(filter.getSize()).isEqualTo(512 * 4 * 10);
+    }
+
+    @Test
+    public void testAddContainsRemove() {
+        RCuckooFilter<String> filter = redisson.getCuckooFilter("filter");
+        filter.tryInit(1000, 0.01);
+
+        assertThat(filter.contains("123")).isFalse();
+        assertThat(filter.add("123")).isTrue();
+        assertThat(filter.add("123")).isFalse();
+        assertThat(filter.contains("123")).isTrue();
+        assertThat(filter.count()).isEqualTo(1);
+
+        assertThat(filter.remove("123")).isTrue();
+        assertThat(filter.contains("123")).isFalse();
+        assertThat(filter.remove("123")).isFalse();
+        assertThat(filter.count()).isZero();
+    }
+
+    @Test
+    public void testBulk() {
+        RCuckooFilter<String> filter = redisson.getCuckooFilter("filter");
+        filter.tryInit(10000, 0.01);
+
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < 9000; i++) {
+            elements.add("element" + i);
+        }
+
+        long added = filter.add(elements);
+        assertThat(added).isBetween(8950L, 9000L);
+        assertThat(filter.count()).isEqualTo(added);
+        assertThat(filter.contains(elements)).isEqualTo(9000);
+
+        List<String> removed = elements.subList(0, 4500);
+        assertThat(filter.remove(removed)).isGreaterThanOrEqualTo(4450);
+        assertThat(filter.contains(elements.subList(4500, 9000))).isGreaterThan(4450);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter.contains("missing" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(30);
+    }
+
+    @Test
+    public void testFull() {
+        RCuckooFilter<Integer> filter = redisson.getCuckooFilter("filter");
+        filter.tryInit(10, 0.01);
+
+        Assertions.assertThrows(RedisException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                filter.add(i);
+            }
+        });
+    }
+
+}
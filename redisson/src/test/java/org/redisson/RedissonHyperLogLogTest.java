@@ -3,8 +3,12 @@ package org.redisson;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.redisson.api.RHyperLogLog;
+import org.redisson.api.RHyperLogLogAccumulator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class RedissonHyperLogLogTest extends BaseTest {
 
@@ -48,4 +52,48 @@ public class RedissonHyperLogLogTest extends BaseTest {
     }
 
 
+    @Test
+    public void testAccumulator() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add("value" + i);
+        }
+
+        RHyperLogLog<String> expected = redisson.getHyperLogLog("expected");
+        expected.addAll(values);
+
+        RHyperLogLog<String> log = redisson.getHyperLogLog("log");
+        log.add("value0");
+        RHyperLogLogAccumulator<String> accumulator = log.createAccumulator(0, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(accumulator.addAll(values));
+        Assertions.assertFalse(accumulator.addAll(values));
+        Assertions.assertEquals(1L, log.count());
+
+        accumulator.flush();
+        Assertions.assertEquals(expected.count(), log.count());
+        Assertions.assertEquals(1L, accumulator.getFlushes());
+
+        accumulator.flush();
+        Assertions.assertEquals(1L, accumulator.getFlushes());
+        Assertions.assertEquals(expected.count(), log.count());
+        accumulator.destroy();
+    }
+
+    @Test
+    public void testAccumulatorPeriodicFlush() throws InterruptedException {
+        RHyperLogLog<Integer> log = redisson.getHyperLogLog("log");
+        RHyperLogLogAccumulator<Integer> accumulator = log.createAccumulator(100, TimeUnit.MILLISECONDS);
+        accumulator.add(1);
+        accumulator.add(2);
+        accumulator.add(3);
+
+        Thread.sleep(300);
+        Assertions.assertEquals(3L, log.count());
+        Assertions.assertEquals(1L, accumulator.getFlushes());
+
+        accumulator.add(4);
+        accumulator.destroy();
+        Assertions.assertEquals(4L, log.count());
+    }
+
 }
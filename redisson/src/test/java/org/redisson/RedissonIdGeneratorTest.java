@@ -1,8 +1,16 @@
 package org.redisson;
 
+import org.awaitility.Awaitility;
+import org.awaitility.Durations;
 import org.junit.jupiter.api.Test;
 import org.redisson.api.RIdGenerator;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -31,4 +39,45 @@ public class RedissonIdGeneratorTest extends BaseTest {
         }
     }
 
+    @Test
+    public void testPrefetch() {
+        RIdGenerator generator = redisson.getIdGenerator("test");
+        assertThat(generator.tryInit(1, 100)).isTrue();
+        generator.enablePrefetch(0.5, 10000);
+
+        for (int i = 1; i <= 50; i++) {
+            assertThat(generator.nextId()).isEqualTo(i);
+        }
+
+        // next range is allocated before current one is exhausted
+        Awaitility.await().atMost(Durations.ONE_SECOND)
+                .untilAsserted(() -> assertThat(redisson.getAtomicLong("test").get()).isGreaterThan(101));
+        long end = redisson.getAtomicLong("test").get();
+        assertThat(end).isLessThanOrEqualTo(101 + 10000);
+
+        for (int i = 51; i < end; i++) {
+            assertThat(generator.nextId()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testConcurrentPrefetch() throws InterruptedException {
+        RIdGenerator generator = redisson.getIdGenerator("test");
+        generator.tryInit(1, 100);
+        generator.enablePrefetch(0.3, 1000);
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(ids).hasSize(80000);
+    }
+
 }
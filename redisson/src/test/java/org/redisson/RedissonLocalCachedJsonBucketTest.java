@@ -0,0 +1,75 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.RedissonJsonBucketTest.NestedType;
+import org.redisson.RedissonJsonBucketTest.TestType;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RJsonBucket;
+import org.redisson.api.RLocalCachedJsonBucket;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.JacksonCodec;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonLocalCachedJsonBucketTest extends BaseTest {
+
+    @Test
+    public void testParsePath() {
+        assertThat(RedissonLocalCachedJsonBucket.parsePath("$")).isEmpty();
+        assertThat(RedissonLocalCachedJsonBucket.parsePath(".")).isEmpty();
+        assertThat(RedissonLocalCachedJsonBucket.parsePath("$.type.value")).containsExactly("type", "value");
+        assertThat(RedissonLocalCachedJsonBucket.parsePath("type.value")).containsExactly("type", "value");
+        assertThat(RedissonLocalCachedJsonBucket.parsePath("$.type.values[0]")).containsExactly("type");
+        assertThat(RedissonLocalCachedJsonBucket.parsePath("$..value")).isEmpty();
+        assertThat(RedissonLocalCachedJsonBucket.parsePath("$.*.value")).isEmpty();
+    }
+
+    @Test
+    public void testPathInvalidation() throws InterruptedException {
+        RLocalCachedJsonBucket<TestType> b1 = redisson.getLocalCachedJsonBucket("test",
+                                                    new JacksonCodec<>(TestType.class), LocalCachedMapOptions.defaults());
+        RLocalCachedJsonBucket<TestType> b2 = redisson.getLocalCachedJsonBucket("test",
+                                                    new JacksonCodec<>(TestType.class), LocalCachedMapOptions.defaults());
+        TestType t = new TestType();
+        t.setName("name1");
+        NestedType nt = new NestedType();
+        nt.setValue(1);
+        nt.setValues(Arrays.asList("t1", "t2"));
+        t.setType(nt);
+        b2.set(t);
+
+        assertThat(b1.get(StringCodec.INSTANCE, "$.name")).isEqualTo("[\"name1\"]");
+        assertThat(b1.get(StringCodec.INSTANCE, "$.type.value")).isEqualTo("[1]");
+        assertThat(b1.get(StringCodec.INSTANCE, "$.type.values")).isEqualTo("[[\"t1\",\"t2\"]]");
+        assertThat(b1.get().getName()).isEqualTo("name1");
+
+        // changed without invalidation
+        RJsonBucket<TestType> bucket = redisson.getJsonBucket("test", new JacksonCodec<>(TestType.class));
+        bucket.set("$.name", "name2");
+
+        b2.set("$.type.value", 2);
+        Thread.sleep(100);
+
+        // unrelated path remains cached
+        assertThat(b1.get(StringCodec.INSTANCE, "$.name")).isEqualTo("[\"name1\"]");
+        assertThat(b1.get(StringCodec.INSTANCE, "$.type.values")).isEqualTo("[[\"t1\",\"t2\"]]");
+        // changed and parent paths are invalidated
+        assertThat(b1.get(StringCodec.INSTANCE, "$.type.value")).isEqualTo("[2]");
+        assertThat(b1.get().getName()).isEqualTo("name2");
+
+        b2.set("$.type", Collections.singletonMap("value", 3));
+        Thread.sleep(100);
+        // nested paths are invalidated
+        assertThat(b1.get(StringCodec.INSTANCE, "$.type.value")).isEqualTo("[3]");
+        assertThat(b1.get(StringCodec.INSTANCE, "$.type.values")).isEqualTo("[]");
+        assertThat(b1.get(StringCodec.INSTANCE, "$.name")).isEqualTo("[\"name1\"]");
+
+        b2.delete();
+        Thread.sleep(100);
+        assertThat(b1.get()).isNull();
+    }
+
+}
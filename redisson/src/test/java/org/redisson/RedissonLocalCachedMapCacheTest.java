@@ -0,0 +1,96 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RLocalCachedMapCache;
+import org.redisson.api.RMapCache;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonLocalCachedMapCacheTest extends BaseTest {
+
+    @Test
+    public void testTTL() throws InterruptedException {
+        RLocalCachedMapCache<String, Integer> map = redisson.getLocalCachedMapCache("test", LocalCachedMapOptions.defaults());
+        map.put("1", 1, 500, TimeUnit.MILLISECONDS);
+        map.put("2", 2);
+
+        assertThat(map.get("1")).isEqualTo(1);
+        assertThat(map.get("2")).isEqualTo(2);
+        assertThat(map.getCachedMap()).hasSize(2);
+
+        Thread.sleep(600);
+
+        assertThat(map.get("1")).isNull();
+        assertThat(map.get("2")).isEqualTo(2);
+        assertThat(map.containsKey("1")).isFalse();
+    }
+
+    @Test
+    public void testMaxIdle() throws InterruptedException {
+        RLocalCachedMapCache<String, Integer> map = redisson.getLocalCachedMapCache("test", LocalCachedMapOptions.defaults());
+        map.put("1", 1, 0, null, 500, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(300);
+        assertThat(map.get("1")).isEqualTo(1);
+        Thread.sleep(300);
+        // read above prolonged idle timeout
+        assertThat(map.get("1")).isEqualTo(1);
+        Thread.sleep(600);
+        assertThat(map.get("1")).isNull();
+    }
+
+    @Test
+    public void testMapExpire() throws InterruptedException {
+        RLocalCachedMapCache<String, Integer> map = redisson.getLocalCachedMapCache("test", LocalCachedMapOptions.defaults());
+        map.put("1", 1);
+        map.expire(500, TimeUnit.MILLISECONDS);
+        assertThat(map.get("1")).isEqualTo(1);
+
+        Thread.sleep(600);
+        assertThat(map.get("1")).isNull();
+    }
+
+    @Test
+    public void testInvalidation() throws InterruptedException {
+        RLocalCachedMapCache<String, Integer> map1 = redisson.getLocalCachedMapCache("test", LocalCachedMapOptions.defaults());
+        RLocalCachedMapCache<String, Integer> map2 = redisson.getLocalCachedMapCache("test", LocalCachedMapOptions.defaults());
+        map1.put("1", 1, 10, TimeUnit.SECONDS);
+        map1.put("2", 2);
+
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(map2.getCachedMap()).hasSize(2);
+
+        map1.put("1", 3, 10, TimeUnit.SECONDS);
+        map1.fastRemove("2");
+        Thread.sleep(100);
+
+        assertThat(map2.getCachedMap()).isEmpty();
+        assertThat(map2.get("1")).isEqualTo(3);
+        assertThat(map2.get("2")).isNull();
+
+        map1.delete();
+        Thread.sleep(100);
+        assertThat(map2.getCachedMap()).isEmpty();
+        assertThat(map2.get("1")).isNull();
+    }
+
+    @Test
+    public void testLocalRead() {
+        RLocalCachedMapCache<String, Integer> map = redisson.getLocalCachedMapCache("test", LocalCachedMapOptions.defaults());
+        map.put("1", 1, 10, TimeUnit.SECONDS);
+        assertThat(map.get("1")).isEqualTo(1);
+
+        // changed without invalidation
+        RMapCache<String, Integer> mapCache = redisson.getMapCache("test");
+        mapCache.put("1", 2, 10, TimeUnit.SECONDS);
+
+        assertThat(map.get("1")).isEqualTo(1);
+        map.clearLocalCache();
+        assertThat(map.get("1")).isEqualTo(2);
+    }
+
+}
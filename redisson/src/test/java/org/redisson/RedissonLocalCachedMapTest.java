@@ -12,21 +12,33 @@ import org.redisson.api.LocalCachedMapOptions.ReconnectionStrategy;
 import org.redisson.api.LocalCachedMapOptions.SyncStrategy;
 import org.redisson.api.MapOptions.WriteMode;
 import org.redisson.api.map.MapLoader;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.TrimStrategy;
+import org.redisson.cache.CacheKey;
+import org.redisson.cache.LocalCacheListener;
+import org.redisson.cache.LocalCacheSnapshot;
+import org.redisson.cache.LocalCacheView;
 import org.redisson.client.RedisClient;
 import org.redisson.client.RedisClientConfig;
 import org.redisson.client.RedisConnection;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.DoubleCodec;
 import org.redisson.client.codec.IntegerCodec;
 import org.redisson.client.codec.StringCodec;
 import org.redisson.client.protocol.RedisCommands;
+import org.redisson.client.protocol.RedisStrictCommand;
 import org.redisson.codec.CompositeCodec;
 import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.codec.TypedJsonJacksonCodec;
 import org.redisson.config.Config;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -109,6 +121,39 @@ public class RedissonLocalCachedMapTest extends BaseMapTest {
         assertThat(cachedMap.containsKey("a")).isFalse();
     }
 
+    @Test
+    public void testUpdateDelta() {
+        LocalCachedMapOptions<String, String> options = LocalCachedMapOptions.<String, String>defaults()
+                .syncStrategy(SyncStrategy.UPDATE)
+                .updateMode(LocalCachedMapOptions.UpdateMode.DELTA)
+                .updateCompressionThreshold(1024);
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append("value").append(i).append(";");
+        }
+        String value1 = value.toString();
+        value.replace(5000, 5010, "0123456789");
+        String value2 = value.toString();
+
+        RLocalCachedMap<String, String> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, String> map2 = redisson.getLocalCachedMap("test", options);
+        map1.put("1", value1);
+        Awaitility.await().atMost(Durations.ONE_SECOND)
+                .untilAsserted(() -> assertThat(map2.getCachedMap()).containsEntry("1", value1));
+
+        RLocalCachedMap<String, String> map3 = redisson.getLocalCachedMap("test", options);
+        map1.put("1", value2);
+        Awaitility.await().atMost(Durations.ONE_SECOND)
+                .untilAsserted(() -> assertThat(map2.getCachedMap()).containsEntry("1", value2));
+        assertThat(map3.getCachedMap()).doesNotContainKey("1");
+        assertThat(map3.get("1")).isEqualTo(value2);
+
+        map1.destroy();
+        map2.destroy();
+        map3.destroy();
+    }
+
     @Test
     public void testPutAfterDelete() {
         RMap<String, String> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
@@ -607,6 +652,263 @@ public class RedissonLocalCachedMapTest extends BaseMapTest {
         }.execute();
     }
     
+    @Test
+    public void testCoalescedInvalidation() throws InterruptedException {
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults()
+                .invalidationBatchWindow(100, TimeUnit.MILLISECONDS);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        Map<String, Integer> cache1 = map1.getCachedMap();
+
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Map<String, Integer> cache2 = map2.getCachedMap();
+
+        for (int i = 0; i < 10; i++) {
+            map1.put("" + i, i);
+        }
+        Thread.sleep(200);
+        for (int i = 0; i < 10; i++) {
+            assertThat(map2.get("" + i)).isEqualTo(i);
+        }
+        assertThat(cache2).hasSize(10);
+
+        long messages = map1.getCacheStats().getInvalidationBatches();
+
+        for (int j = 0; j < 3; j++) {
+            for (int i = 0; i < 10; i++) {
+                map1.fastPut("" + i, i + j);
+            }
+        }
+        map1.fastRemove("0");
+        Thread.sleep(200);
+
+        assertThat(cache1).hasSize(9);
+        assertThat(cache2).isEmpty();
+        LocalCachedMapStats stats = map1.getCacheStats();
+        assertThat(stats.getInvalidationBatches() - messages).isEqualTo(1);
+        assertThat(stats.getAverageInvalidationBatchSize()).isGreaterThan(1);
+        assertThat(stats.getInvalidationRequests()).isGreaterThan(stats.getInvalidationBatchedKeys());
+    }
+
+    @Test
+    public void testStreamReconnectionStrategy() throws InterruptedException {
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults()
+                .reconnectionStrategy(ReconnectionStrategy.STREAM)
+                .updatesStreamMaxLength(1000);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Map<String, Integer> cache2 = map2.getCachedMap();
+
+        map1.put("1", 1);
+        map1.put("2", 2);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(cache2).hasSize(2);
+
+        map1.put("1", 3);
+        Thread.sleep(50);
+        assertThat(cache2).containsOnlyKeys("2");
+
+        Map<String, Integer> values = new HashMap<>();
+        values.put("3", 3);
+        values.put("4", 4);
+        map1.putAll(values);
+        map1.fastRemove("2");
+        Thread.sleep(50);
+        assertThat(cache2).isEmpty();
+
+        RStream<Object, Object> stream = redisson.getStream(RedissonObject.prefixName("redisson__cache_updates_stream", "test"));
+        assertThat(stream.size()).isEqualTo(6);
+    }
+
+    @Test
+    public void testStreamReconnectionReplay() {
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults()
+                .reconnectionStrategy(ReconnectionStrategy.STREAM)
+                .updatesStreamMaxLength(1000);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Map<String, Integer> cache2 = map2.getCachedMap();
+
+        map1.put("1", 1);
+        map1.put("2", 2);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(cache2).hasSize(2);
+
+        // change missed by disconnected instance
+        redisson.getMap("test").put("1", 10);
+        addUpdate(map1, "1");
+
+        killPubSubConnections();
+        Awaitility.await().atMost(Durations.FIVE_SECONDS)
+                .untilAsserted(() -> assertThat(cache2).containsOnlyKeys("2"));
+        assertThat(map2.get("1")).isEqualTo(10);
+    }
+
+    @Test
+    public void testStreamReconnectionTrimmed() throws InterruptedException {
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults()
+                .reconnectionStrategy(ReconnectionStrategy.STREAM)
+                .updatesStreamMaxLength(10);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Map<String, Integer> cache2 = map2.getCachedMap();
+
+        map1.put("1", 1);
+        map1.put("2", 2);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(2);
+        assertThat(cache2).hasSize(2);
+
+        Thread.sleep(1100);
+
+        // change missed by disconnected instance and trimmed from updates stream
+        redisson.getMap("test").put("1", 10);
+        for (int i = 0; i < 10; i++) {
+            addUpdate(map1, "key" + i);
+        }
+        RStream<byte[], byte[]> stream = getUpdatesStream();
+        stream.trim(TrimStrategy.MAXLEN, 10);
+        assertThat(stream.size()).isEqualTo(10);
+
+        killPubSubConnections();
+        Awaitility.await().atMost(Durations.FIVE_SECONDS)
+                .untilAsserted(() -> assertThat(cache2).containsOnlyKeys("2"));
+        assertThat(map2.get("1")).isEqualTo(10);
+        assertThat(map2.get("2")).isEqualTo(2);
+    }
+
+    private RStream<byte[], byte[]> getUpdatesStream() {
+        return redisson.getStream(RedissonObject.prefixName("redisson__cache_updates_stream", "test"), ByteArrayCodec.INSTANCE);
+    }
+
+    private void addUpdate(RLocalCachedMap<String, Integer> map, String key) {
+        LocalCacheView<String, Integer> view = ((RedissonLocalCachedMap<String, Integer>) map).getLocalCacheView();
+        byte[] entryId = LocalCacheListener.generateLogEntryId(view.toCacheKey(key).getKeyHash());
+        getUpdatesStream().add(StreamAddArgs.entry("h".getBytes(), entryId));
+    }
+
+    private void killPubSubConnections() {
+        RedisClientConfig config = new RedisClientConfig();
+        config.setAddress(RedisRunner.getDefaultRedisServerBindAddressAndPort());
+        RedisClient client = RedisClient.create(config);
+        RedisConnection connection = client.connect();
+        connection.sync(new RedisStrictCommand<Long>("CLIENT", "KILL"), "TYPE", "pubsub");
+        client.shutdown();
+    }
+
+    @Test
+    public void testCacheKeyIndex() {
+        RLocalCachedMap<Object, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        LocalCacheView<Object, Integer> view = ((RedissonLocalCachedMap<Object, Integer>) map).getLocalCacheView();
+
+        CacheKey key = view.toCacheKey("1");
+        assertThat(view.toCacheKey(new String("1"))).isSameAs(key);
+
+        List<Integer> mutableKey = new ArrayList<>(Arrays.asList(1, 2));
+        CacheKey listKey = view.toCacheKey(mutableKey);
+        assertThat(view.toCacheKey(mutableKey)).isNotSameAs(listKey).isEqualTo(listKey);
+
+        map.put("1", 1);
+        map.put(mutableKey, 2);
+        assertThat(map.get("1")).isEqualTo(1);
+        assertThat(map.get(Arrays.asList(1, 2))).isEqualTo(2);
+        assertThat(map.getCachedMap()).hasSize(2);
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        File dir = Files.createTempDirectory("snapshot").toFile();
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults().snapshotDirectory(dir);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        map1.put("1", 1);
+        map1.put("2", 2);
+        map1.put("3", 3);
+        map1.destroy();
+
+        assertThat(LocalCacheSnapshot.getFile(dir, "test")).exists();
+
+        // changed without invalidation
+        redisson.getMap("test").put("2", 20);
+        redisson.getMap("test").remove("3");
+
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        Awaitility.await().atMost(Durations.ONE_SECOND)
+                .untilAsserted(() -> assertThat(map2.getCachedMap()).containsOnlyKeys("1"));
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("2")).isEqualTo(20);
+        assertThat(map2.get("3")).isNull();
+        map2.destroy();
+    }
+
+    @Test
+    public void testSnapshotInvalidation() throws IOException {
+        File dir = Files.createTempDirectory("snapshot").toFile();
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults().snapshotDirectory(dir);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        Map<String, Integer> values = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            values.put(String.valueOf(i), i);
+        }
+        map1.putAll(values);
+        map1.destroy();
+
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", options);
+        RLocalCachedMap<String, Integer> map3 = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        // invalidations are received while snapshot entries are validated
+        for (int i = 0; i < 5000; i++) {
+            map3.fastPut(String.valueOf(i), -i);
+        }
+
+        Awaitility.await().atMost(Durations.FIVE_SECONDS).pollDelay(Durations.ONE_SECOND).untilAsserted(() -> {
+            for (Map.Entry<String, Integer> entry : map2.getCachedMap().entrySet()) {
+                assertThat(entry.getValue()).isEqualTo(-Integer.parseInt(entry.getKey()));
+            }
+        });
+        for (int i = 0; i < 5000; i++) {
+            assertThat(map2.get(String.valueOf(i))).isEqualTo(-i);
+        }
+        map2.destroy();
+    }
+
+    @Test
+    public void testCacheStats() {
+        LocalCachedMapOptions<String, Integer> options = LocalCachedMapOptions.<String, Integer>defaults()
+                .cacheSize(2).evictionPolicy(EvictionPolicy.LRU);
+        RLocalCachedMap<String, Integer> map1 = redisson.getLocalCachedMap("test", options);
+        map1.put("1", 1);
+        map1.put("2", 2);
+        map1.put("3", 3);
+
+        LocalCachedMapStats stats1 = map1.getCacheStats();
+        assertThat(stats1.getPuts()).isEqualTo(3);
+        assertThat(stats1.getSizeEvictions()).isEqualTo(1);
+        assertThat(stats1.getSize()).isEqualTo(2);
+        assertThat(stats1.getEstimatedMemory()).isPositive();
+
+        RLocalCachedMap<String, Integer> map2 = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("1")).isEqualTo(1);
+        assertThat(map2.get("4")).isNull();
+
+        LocalCachedMapStats stats2 = map2.getCacheStats();
+        assertThat(stats2.getHits()).isEqualTo(1);
+        assertThat(stats2.getMisses()).isEqualTo(2);
+        assertThat(stats2.getHitRatio()).isEqualTo(1.0 / 3);
+        assertThat(stats2.getLoads()).isEqualTo(2);
+        assertThat(stats2.getTotalLoadTime(TimeUnit.NANOSECONDS)).isPositive();
+
+        map1.put("1", 10);
+        Awaitility.await().atMost(Durations.ONE_SECOND).untilAsserted(() -> {
+            assertThat(map2.getCacheStats().getInvalidationsReceived()).isEqualTo(1);
+            assertThat(map1.getCacheStats().getInvalidationsSent()).isEqualTo(4);
+        });
+        assertThat(map2.getCachedMap()).isEmpty();
+
+        map1.destroy();
+        map2.destroy();
+    }
+
     @Test
     public void testPutGetCache() {
         RLocalCachedMap<String, Integer> map = redisson.getLocalCachedMap("test", LocalCachedMapOptions.defaults());
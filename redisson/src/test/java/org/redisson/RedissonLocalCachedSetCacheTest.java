@@ -0,0 +1,65 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RLocalCachedSetCache;
+import org.redisson.api.RSetCache;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonLocalCachedSetCacheTest extends BaseTest {
+
+    @Test
+    public void testContains() {
+        RLocalCachedSetCache<String> set = redisson.getLocalCachedSetCache("test",
+                                                    LocalCachedMapOptions.defaults().storeCacheMiss(true));
+        set.add("1");
+        assertThat(set.contains("1")).isTrue();
+        assertThat(set.contains("2")).isFalse();
+
+        // changed without invalidation
+        RSetCache<String> setCache = redisson.getSetCache("test");
+        setCache.remove("1");
+        setCache.add("2");
+
+        assertThat(set.contains("1")).isTrue();
+        assertThat(set.contains("2")).isFalse();
+
+        set.clearLocalCache();
+        assertThat(set.contains("1")).isFalse();
+        assertThat(set.contains("2")).isTrue();
+    }
+
+    @Test
+    public void testTTL() throws InterruptedException {
+        RLocalCachedSetCache<String> set = redisson.getLocalCachedSetCache("test", LocalCachedMapOptions.defaults());
+        set.add("1", 500, TimeUnit.MILLISECONDS);
+        assertThat(set.contains("1")).isTrue();
+
+        Thread.sleep(600);
+        assertThat(set.contains("1")).isFalse();
+    }
+
+    @Test
+    public void testInvalidation() throws InterruptedException {
+        RLocalCachedSetCache<String> set1 = redisson.getLocalCachedSetCache("test", LocalCachedMapOptions.defaults());
+        RLocalCachedSetCache<String> set2 = redisson.getLocalCachedSetCache("test", LocalCachedMapOptions.defaults());
+        set1.addAll(Arrays.asList("1", "2"));
+
+        assertThat(set2.contains("1")).isTrue();
+        assertThat(set2.contains("2")).isTrue();
+
+        set1.remove("1");
+        Thread.sleep(100);
+        assertThat(set2.contains("1")).isFalse();
+        assertThat(set2.contains("2")).isTrue();
+
+        set1.delete();
+        Thread.sleep(100);
+        assertThat(set2.contains("2")).isFalse();
+    }
+
+}
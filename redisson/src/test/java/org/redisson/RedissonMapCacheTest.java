@@ -6,6 +6,7 @@ import static org.awaitility.Awaitility.await;
 import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -24,6 +25,7 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.redisson.api.*;
 import org.redisson.api.MapOptions.WriteMode;
+import org.redisson.api.map.MapLoader;
 import org.redisson.api.map.event.EntryCreatedListener;
 import org.redisson.api.map.event.EntryEvent;
 import org.redisson.api.map.event.EntryExpiredListener;
@@ -50,6 +52,78 @@ public class RedissonMapCacheTest extends BaseMapTest {
         assertThat(cache.getWithTTLOnly(1)).isNull();
     }
 
+    @Test
+    public void testLoaderTimeToLiveAndRefreshAhead() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        MapLoader<Integer, Integer> loader = new MapLoader<Integer, Integer>() {
+            @Override
+            public Integer load(Integer key) {
+                return key * 10 + loads.incrementAndGet();
+            }
+
+            @Override
+            public Iterable<Integer> loadAllKeys() {
+                return Collections.emptyList();
+            }
+        };
+
+        MapCacheOptions<Integer, Integer> options = MapCacheOptions.<Integer, Integer>defaults()
+                .loader(loader)
+                .loaderTimeToLive(3, TimeUnit.SECONDS)
+                .refreshAheadWindow(2, TimeUnit.SECONDS);
+        RMapCache<Integer, Integer> cache = redisson.getMapCache("testRefreshAhead", options);
+
+        assertThat(cache.get(1)).isEqualTo(11);
+        assertThat(cache.remainTimeToLive(1)).isBetween(2000L, 3000L);
+        assertThat(cache.get(1)).isEqualTo(11);
+        assertThat(loads.get()).isEqualTo(1);
+
+        Thread.sleep(1500);
+        // stale value is returned while it's refreshed in background
+        assertThat(cache.get(1)).isEqualTo(11);
+        await().atMost(Duration.ofSeconds(1)).until(() -> loads.get() == 2);
+        await().atMost(Duration.ofSeconds(1)).until(() -> cache.get(1) == 12);
+        assertThat(cache.remainTimeToLive(1)).isGreaterThan(2000L);
+        cache.destroy();
+    }
+
+    @Test
+    public void testRefreshAheadKeyLock() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        MapLoader<Integer, Integer> loader = new MapLoader<Integer, Integer>() {
+            @Override
+            public Integer load(Integer key) {
+                return key * 10 + loads.incrementAndGet();
+            }
+
+            @Override
+            public Iterable<Integer> loadAllKeys() {
+                return Collections.emptyList();
+            }
+        };
+
+        MapCacheOptions<Integer, Integer> options = MapCacheOptions.<Integer, Integer>defaults()
+                .loader(loader)
+                .loaderTimeToLive(3, TimeUnit.SECONDS)
+                .refreshAheadWindow(2, TimeUnit.SECONDS);
+        RMapCache<Integer, Integer> cache = redisson.getMapCache("testRefreshAhead", options);
+        assertThat(cache.get(1)).isEqualTo(11);
+
+        // key lock is held by another thread
+        RLock lock = cache.getLock(1);
+        lock.lockAsync(-1L).toCompletableFuture().join();
+
+        Thread.sleep(1500);
+        assertThat(cache.get(1)).isEqualTo(11);
+        Thread.sleep(500);
+        assertThat(loads.get()).isEqualTo(1);
+
+        lock.unlockAsync(-1L).toCompletableFuture().join();
+        await().atMost(Duration.ofSeconds(1)).until(() -> loads.get() == 2);
+        await().atMost(Duration.ofSeconds(1)).until(() -> cache.get(1) == 12);
+        cache.destroy();
+    }
+
     @Test
     public void testUpdateEntryExpiration() throws InterruptedException {
         RMapCache<Integer, Integer> cache = redisson.getMapCache("testUpdateEntryExpiration");
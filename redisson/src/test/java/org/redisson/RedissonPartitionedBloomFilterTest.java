@@ -0,0 +1,95 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RPartitionedBloomFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonPartitionedBloomFilterTest extends BaseTest {
+
+    @Test
+    public void testNotInitialized() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            RPartitionedBloomFilter<String> filter = redisson.getPartitionedBloomFilter("filter");
+            filter.add("123");
+        });
+    }
+
+    @Test
+    public void testInit() {
+        RPartitionedBloomFilter<String> filter = redisson.getPartitionedBloomFilter("filter");
+        assertThat(filter.tryInit(100000L, 0.01, 4)).isTrue();
+        assertThat(filter.tryInit(200000L, 0.01, 8)).isFalse();
+
+        RPartitionedBloomFilter<String> filter2 = redisson.getPartitionedBloomFilter("filter");
+        assertThat(filter2.getPartitions()).isEqualTo(4);
+        assertThat(filter2.getExpectedInsertions()).isEqualTo(100000L);
+        assertThat(filter2.getFalseProbability()).isEqualTo(0.01);
+        assertThat(filter2.getSize()).isEqualTo(4 * redisson.getBloomFilter("filter:0").getSize());
+    }
+
+    @Test
+    public void testAddContains() {
+        RPartitionedBloomFilter<String> filter = redisson.getPartitionedBloomFilter("filter");
+        filter.tryInit(100000L, 0.01, 4);
+
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            elements.add("element" + i);
+        }
+
+        assertThat(filter.contains(elements)).isZero();
+        assertThat(filter.add(elements)).isEqualTo(1000);
+        assertThat(filter.add(elements)).isZero();
+        assertThat(filter.contains(elements)).isEqualTo(1000);
+        assertThat(filter.count()).isBetween(990L, 1010L);
+
+        assertThat(filter.add("new")).isTrue();
+        assertThat(filter.contains("new")).isTrue();
+        assertThat(filter.add("new")).isFalse();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(redisson.getBloomFilter("filter:" + i).count()).isGreaterThan(0);
+        }
+
+        assertThat(filter.delete()).isTrue();
+        assertThat(redisson.getKeys().count()).isZero();
+    }
+
+    @Test
+    public void testRename() {
+        RPartitionedBloomFilter<String> filter = redisson.getPartitionedBloomFilter("filter");
+        filter.tryInit(1000L, 0.01, 4);
+        assertThat(filter.add("123")).isTrue();
+
+        filter.rename("new_filter");
+        assertThat(filter.contains("123")).isTrue();
+        assertThat(redisson.getKeys().countExists("filter", "filter:0")).isZero();
+
+        RPartitionedBloomFilter<String> filter2 = redisson.getPartitionedBloomFilter("new_filter");
+        assertThat(filter2.getPartitions()).isEqualTo(4);
+        assertThat(filter2.contains("123")).isTrue();
+    }
+
+    @Test
+    public void testRenamenx() {
+        RPartitionedBloomFilter<String> filter = redisson.getPartitionedBloomFilter("filter");
+        filter.tryInit(1000L, 0.01, 4);
+        filter.add("123");
+
+        RPartitionedBloomFilter<String> filter2 = redisson.getPartitionedBloomFilter("filter2");
+        filter2.tryInit(1000L, 0.01, 2);
+
+        assertThat(filter.renamenx("filter2")).isFalse();
+        assertThat(filter.contains("123")).isTrue();
+
+        assertThat(filter.renamenx("new_filter")).isTrue();
+        assertThat(redisson.<String>getPartitionedBloomFilter("new_filter").contains("123")).isTrue();
+        assertThat(redisson.getKeys().countExists("filter", "filter:0")).isZero();
+    }
+
+}
@@ -2,6 +2,7 @@ package org.redisson;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.redisson.api.LocalLeaseOptions;
 import org.redisson.api.RRateLimiter;
 import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RateIntervalUnit;
@@ -314,5 +315,50 @@ public class RedissonRateLimiterTest extends BaseTest {
             count++;
         }
     }
+
+    @Test
+    public void testLocalLease() throws InterruptedException {
+        RRateLimiter rr = redisson.getRateLimiter("test");
+        rr.trySetRate(RateType.OVERALL, 100, 2, RateIntervalUnit.SECONDS);
+        rr.enableLocalLease(LocalLeaseOptions.defaults()
+                                .minPermits(10)
+                                .maxPermits(10)
+                                .leaseTime(1, TimeUnit.MINUTES));
+
+        assertThat(rr.tryAcquire()).isTrue();
+        assertThat(rr.availablePermits()).isEqualTo(90);
+        for (int i = 0; i < 9; i++) {
+            assertThat(rr.tryAcquire()).isTrue();
+        }
+        assertThat(rr.availablePermits()).isEqualTo(90);
+
+        assertThat(rr.tryAcquire()).isTrue();
+        assertThat(rr.availablePermits()).isEqualTo(80);
+
+        rr.disableLocalLease();
+        Thread.sleep(200);
+        assertThat(rr.availablePermits()).isEqualTo(89);
+
+        Thread.sleep(2000);
+        assertThat(rr.availablePermits()).isEqualTo(100);
+    }
+
+    @Test
+    public void testLocalLeaseInterval() throws InterruptedException {
+        RRateLimiter rr = redisson.getRateLimiter("test");
+        rr.trySetRate(RateType.OVERALL, 100, 1, RateIntervalUnit.SECONDS);
+        rr.enableLocalLease(LocalLeaseOptions.defaults()
+                                .minPermits(10)
+                                .maxPermits(10)
+                                .leaseTime(1, TimeUnit.MINUTES));
+
+        assertThat(rr.tryAcquire()).isTrue();
+        assertThat(rr.availablePermits()).isEqualTo(90);
+
+        Thread.sleep(1100);
+        assertThat(rr.tryAcquire()).isTrue();
+        assertThat(rr.availablePermits()).isEqualTo(90);
+        rr.disableLocalLease();
+    }
     
 }
@@ -0,0 +1,108 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RRoaringBitmap;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RedissonRoaringBitmapTest extends BaseTest {
+
+    @Test
+    public void testAddRemove() {
+        RRoaringBitmap bitmap = redisson.getRoaringBitmap("bitmap");
+        assertThat(bitmap.add(1)).isTrue();
+        assertThat(bitmap.add(1)).isFalse();
+        assertThat(bitmap.add(4000000000L)).isTrue();
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(2)).isFalse();
+        assertThat(bitmap.contains(4000000000L)).isTrue();
+        assertThat(bitmap.cardinality()).isEqualTo(2);
+        assertThat(bitmap.toArray()).containsExactly(1, 4000000000L);
+
+        assertThat(bitmap.remove(1)).isTrue();
+        assertThat(bitmap.remove(1)).isFalse();
+        assertThat(bitmap.contains(1)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(1);
+
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.add(4294967296L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testBitmapContainer() {
+        RRoaringBitmap bitmap = redisson.getRoaringBitmap("bitmap");
+        long[] values = LongStream.range(65536, 65536 + 10000).map(v -> v * 2 - 65536).toArray();
+        assertThat(bitmap.addAll(values)).isEqualTo(10000);
+        assertThat(bitmap.addAll(values)).isEqualTo(0);
+        assertThat(bitmap.cardinality()).isEqualTo(10000);
+        assertThat(bitmap.contains(65536)).isTrue();
+        assertThat(bitmap.contains(65537)).isFalse();
+        assertThat(bitmap.rank(65536 + 99)).isEqualTo(50);
+        assertThat(bitmap.toArray()).containsExactly(values);
+
+        long[] removed = LongStream.of(values).limit(8000).toArray();
+        assertThat(bitmap.removeAll(removed)).isEqualTo(8000);
+        assertThat(bitmap.cardinality()).isEqualTo(2000);
+        assertThat(bitmap.contains(values[8000])).isTrue();
+        assertThat(bitmap.contains(values[0])).isFalse();
+        assertThat(bitmap.rank(values[8010])).isEqualTo(11);
+    }
+
+    @Test
+    public void testContainerConversion() {
+        RRoaringBitmap bitmap = redisson.getRoaringBitmap("bitmap");
+        long[] values = LongStream.range(0, 4095).map(v -> v * 3).toArray();
+        assertThat(bitmap.addAll(values)).isEqualTo(4095);
+        assertThat(bitmap.add(1)).isTrue();
+        assertThat(bitmap.add(1)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(4096);
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.rank(3)).isEqualTo(3);
+
+        assertThat(bitmap.remove(1)).isTrue();
+        assertThat(bitmap.remove(1)).isFalse();
+        assertThat(bitmap.removeAll(LongStream.of(values).limit(2100).toArray())).isEqualTo(2100);
+        assertThat(bitmap.cardinality()).isEqualTo(1995);
+        assertThat(bitmap.contains(values[2100])).isTrue();
+        assertThat(bitmap.contains(values[2099])).isFalse();
+        assertThat(bitmap.toArray()).containsExactly(LongStream.of(values).skip(2100).toArray());
+
+        assertThat(bitmap.add(values[0])).isTrue();
+        assertThat(bitmap.toArray()).startsWith(values[0], values[2100]);
+    }
+
+    @Test
+    public void testRank() {
+        RRoaringBitmap bitmap = redisson.getRoaringBitmap("bitmap");
+        bitmap.addAll(1, 5, 70000, 3000000000L);
+        assertThat(bitmap.rank(0)).isEqualTo(0);
+        assertThat(bitmap.rank(5)).isEqualTo(2);
+        assertThat(bitmap.rank(69999)).isEqualTo(2);
+        assertThat(bitmap.rank(4294967295L)).isEqualTo(4);
+    }
+
+    @Test
+    public void testOperations() {
+        RRoaringBitmap bitmap1 = redisson.getRoaringBitmap("{bitmap}1");
+        bitmap1.addAll(1, 2, 3, 100000);
+        RRoaringBitmap bitmap2 = redisson.getRoaringBitmap("{bitmap}2");
+        bitmap2.addAll(2, 3, 4, 200000);
+
+        RRoaringBitmap result = redisson.getRoaringBitmap("{bitmap}3");
+        result.or("{bitmap}1", "{bitmap}2");
+        assertThat(result.toArray()).containsExactly(1, 2, 3, 4, 100000, 200000);
+
+        result.and("{bitmap}1");
+        assertThat(result.toArray()).containsExactly(1, 2, 3, 100000);
+
+        result.andNot("{bitmap}2");
+        assertThat(result.toArray()).containsExactly(1, 100000);
+
+        result.and("{bitmap}2");
+        assertThat(result.isExists()).isFalse();
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RScalableBloomFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonScalableBloomFilterTest extends BaseTest {
+
+    @Test
+    public void testNotInitialized() {
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            RScalableBloomFilter<String> filter = redisson.getScalableBloomFilter("filter");
+            filter.contains("123");
+        });
+    }
+
+    @Test
+    public void testGrowth() {
+        RScalableBloomFilter<String> filter = redisson.getScalableBloomFilter("filter");
+        assertThat(filter.tryInit(100, 0.01)).isTrue();
+        assertThat(filter.tryInit(1000, 0.01)).isFalse();
+        assertThat(filter.getFilters()).isEqualTo(1);
+
+        List<String> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            elements.add("element" + i);
+            if (elements.size() == 50) {
+                filter.add(elements);
+                elements.clear();
+            }
+        }
+
+        assertThat(filter.count()).isBetween(990L, 1000L);
+        // capacities are 100, 200, 400, 800
+        assertThat(filter.getFilters()).isEqualTo(4);
+
+        for (int i = 0; i < 1000; i++) {
+            elements.add("element" + i);
+        }
+        assertThat(filter.contains(elements)).isEqualTo(1000);
+        assertThat(filter.add(elements)).isZero();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (filter.contains("missing" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(30);
+    }
+
+    @Test
+    public void testDelete() {
+        RScalableBloomFilter<String> filter = redisson.getScalableBloomFilter("filter");
+        filter.tryInit(10, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.add("element" + i);
+        }
+        assertThat(filter.getFilters()).isGreaterThan(1);
+        assertThat(filter.delete()).isTrue();
+        assertThat(redisson.getKeys().count()).isZero();
+    }
+
+    @Test
+    public void testRename() {
+        RScalableBloomFilter<String> filter = redisson.getScalableBloomFilter("filter");
+        filter.tryInit(10, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.add("element" + i);
+        }
+        int filters = filter.getFilters();
+
+        filter.rename("new_filter");
+        assertThat(filter.contains("element1")).isTrue();
+
+        RScalableBloomFilter<String> filter2 = redisson.getScalableBloomFilter("new_filter");
+        assertThat(filter2.getFilters()).isEqualTo(filters);
+        assertThat(filter2.contains("element99")).isTrue();
+        assertThat(redisson.getKeys().countExists("filter")).isZero();
+        assertThat(redisson.getKeys().getKeysStreamByPattern("{filter}*")).isEmpty();
+    }
+
+    @Test
+    public void testRenamenx() {
+        RScalableBloomFilter<String> filter = redisson.getScalableBloomFilter("filter");
+        filter.tryInit(100, 0.01);
+        filter.add("123");
+
+        RScalableBloomFilter<String> filter2 = redisson.getScalableBloomFilter("filter2");
+        filter2.tryInit(100, 0.01);
+
+        assertThat(filter.renamenx("filter2")).isFalse();
+        assertThat(filter.contains("123")).isTrue();
+
+        assertThat(filter.renamenx("new_filter")).isTrue();
+        assertThat(redisson.<String>getScalableBloomFilter("new_filter").contains("123")).isTrue();
+        assertThat(redisson.getKeys().countExists("filter")).isZero();
+    }
+
+}
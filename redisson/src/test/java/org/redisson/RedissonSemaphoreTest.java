@@ -11,7 +11,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
+import org.redisson.api.LocalLeaseOptions;
 import org.redisson.api.RSemaphore;
+import org.redisson.api.RedissonClient;
 
 public class RedissonSemaphoreTest extends BaseConcurrentTest {
 
@@ -342,4 +344,62 @@ public class RedissonSemaphoreTest extends BaseConcurrentTest {
         assertThat(lockedCounter.get()).isEqualTo(iterations);
     }
 
+    @Test
+    public void testLocalLease() {
+        RSemaphore s = redisson.getSemaphore("test");
+        s.trySetPermits(100);
+        s.enableLocalLease(LocalLeaseOptions.defaults()
+                                .minPermits(10)
+                                .maxPermits(10)
+                                .leaseTime(1, TimeUnit.MINUTES));
+
+        assertThat(s.tryAcquire()).isTrue();
+        assertThat(s.availablePermits()).isEqualTo(90);
+        for (int i = 0; i < 9; i++) {
+            assertThat(s.tryAcquire()).isTrue();
+        }
+        assertThat(s.availablePermits()).isEqualTo(90);
+
+        assertThat(s.tryAcquire(2)).isTrue();
+        assertThat(s.availablePermits()).isEqualTo(80);
+
+        s.disableLocalLease();
+        Awaitility.await().atMost(Duration.ofSeconds(1)).until(() -> s.availablePermits() == 88);
+        assertThat(s.tryAcquire()).isTrue();
+        assertThat(s.availablePermits()).isEqualTo(87);
+    }
+
+    @Test
+    public void testLocalLeaseReclaim() {
+        RedissonClient client = createInstance();
+        RSemaphore s1 = client.getSemaphore("test");
+        s1.trySetPermits(100);
+        s1.enableLocalLease(LocalLeaseOptions.defaults()
+                                .minPermits(10)
+                                .maxPermits(10)
+                                .leaseTime(500, TimeUnit.MILLISECONDS));
+        assertThat(s1.tryAcquire()).isTrue();
+        // lease is never returned
+        client.shutdown();
+
+        RSemaphore s2 = redisson.getSemaphore("test");
+        assertThat(s2.availablePermits()).isEqualTo(90);
+        Awaitility.await().atMost(Duration.ofSeconds(2)).until(() -> s2.availablePermits() == 100);
+    }
+
+    @Test
+    public void testLocalLeaseFairShare() {
+        RSemaphore s = redisson.getSemaphore("test");
+        s.trySetPermits(10);
+        s.enableLocalLease(LocalLeaseOptions.defaults()
+                                .minPermits(100)
+                                .maxPermits(100)
+                                .fairShare(0.5));
+
+        assertThat(s.tryAcquire()).isTrue();
+        assertThat(s.availablePermits()).isEqualTo(5);
+        assertThat(s.tryAcquire(11)).isFalse();
+        s.disableLocalLease();
+    }
+
 }
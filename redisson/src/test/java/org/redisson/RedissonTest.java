@@ -981,6 +981,68 @@ public class RedissonTest extends BaseTest {
         assertThat(c.toYAML()).isEqualTo(t);
     }
 
+    @Test
+    public void testCommandDeadline() {
+        Config config = createConfig();
+        config.useSingleServer()
+                .setConnectionMinimumIdleSize(1)
+                .setConnectionPoolSize(1);
+        RedissonClient r = Redisson.create(config);
+
+        RBucket<String> bucket = r.getBucket("test");
+        try (CommandDeadline deadline = CommandDeadline.of(System.currentTimeMillis() - 1)) {
+            Assertions.assertThrows(RedisTimeoutException.class, () -> bucket.set("1"));
+        }
+        assertThat(bucket.isExists()).isFalse();
+
+        RBlockingQueue<String> queue = r.getBlockingQueue("queue");
+        RFuture<String> pollFuture = queue.pollAsync(3, TimeUnit.SECONDS);
+
+        long start = System.currentTimeMillis();
+        try (CommandDeadline deadline = CommandDeadline.within(300, TimeUnit.MILLISECONDS)) {
+            Assertions.assertThrows(RedisTimeoutException.class, () -> bucket.set("2"));
+        }
+        assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+
+        pollFuture.toCompletableFuture().join();
+        assertThat(bucket.isExists()).isFalse();
+
+        r.shutdown();
+    }
+
+    @Test
+    public void testConsistencySession() throws IOException, InterruptedException {
+        RedisProcess master = new RedisRunner()
+                .nosave()
+                .randomDir()
+                .run();
+        RedisProcess slave = new RedisRunner()
+                .port(6380)
+                .nosave()
+                .randomDir()
+                .slaveof("127.0.0.1", 6379)
+                .run();
+
+        Config config = new Config();
+        config.useMasterSlaveServers()
+                .setReadMode(ReadMode.SLAVE)
+                .setMasterAddress(master.getRedisServerAddressAndPort())
+                .addSlaveAddress(slave.getRedisServerAddressAndPort());
+        RedissonClient r = Redisson.create(config);
+
+        try (ConsistencySession session = r.createConsistencySession()) {
+            for (int i = 0; i < 1000; i++) {
+                RBucket<Integer> bucket = r.getBucket("test" + i);
+                bucket.set(i);
+                assertThat(bucket.get()).isEqualTo(i);
+            }
+        }
+
+        r.shutdown();
+        slave.stop();
+        master.stop();
+    }
+
     @Test
     public void testEvalCache() throws InterruptedException, IOException {
         RedisRunner master1 = new RedisRunner().port(6896).randomDir().nosave();
@@ -0,0 +1,80 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopK;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RedissonTopKTest extends BaseTest {
+
+    @Test
+    public void testTop() {
+        RTopK<String> topK = redisson.getTopK("topk");
+        assertThat(topK.tryInit(3, 1000, 5)).isTrue();
+        assertThat(topK.tryInit(5)).isFalse();
+        assertThat(topK.getTopK()).isEqualTo(3);
+
+        assertThat(topK.add("a")).isTrue();
+        assertThat(topK.incrementBy("b", 5)).isTrue();
+        assertThat(topK.incrementBy("c", 10)).isTrue();
+        assertThat(topK.add("d")).isFalse();
+        assertThat(topK.contains("d")).isFalse();
+
+        assertThat(topK.incrementBy("d", 2)).isTrue();
+        assertThat(topK.contains("a")).isFalse();
+        assertThat(topK.getTop()).containsExactly("c", "b", "d");
+        assertThat(topK.estimate("c")).isEqualTo(10);
+    }
+
+    @Test
+    public void testBulk() {
+        RTopK<String> topK = redisson.getTopK("topk");
+        topK.tryInit(5, 10000, 5);
+
+        Map<String, Long> increments = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            increments.put("key" + i, (long) i);
+        }
+        topK.incrementBy(increments);
+
+        Map<String, Long> top = topK.getTopWithCounts();
+        assertThat(top.keySet()).containsExactly("key99", "key98", "key97", "key96", "key95");
+        assertThat(top.get("key99")).isGreaterThanOrEqualTo(99);
+    }
+
+    @Test
+    public void testRename() {
+        RTopK<String> topK = redisson.getTopK("topk");
+        topK.tryInit(3, 1000, 5);
+        topK.incrementBy("a", 5);
+
+        topK.rename("topk2");
+        assertThat(topK.estimate("a")).isEqualTo(5);
+        assertThat(topK.getTop()).containsExactly("a");
+        assertThat(redisson.getKeys().countExists("topk", "{topk}:sketch", "{topk}:config")).isZero();
+
+        RTopK<String> topK2 = redisson.getTopK("topk2");
+        assertThat(topK2.getTopK()).isEqualTo(3);
+        assertThat(topK2.estimate("a")).isEqualTo(5);
+    }
+
+    @Test
+    public void testRenamenx() {
+        RTopK<String> topK = redisson.getTopK("topk");
+        topK.tryInit(3, 1000, 5);
+        topK.add("a");
+        RTopK<String> topK2 = redisson.getTopK("topk2");
+        topK2.tryInit(3);
+
+        assertThat(topK.renamenx("topk2")).isFalse();
+        assertThat(topK.contains("a")).isTrue();
+
+        assertThat(topK.renamenx("topk3")).isTrue();
+        assertThat(topK.contains("a")).isTrue();
+        assertThat(redisson.<String>getTopK("topk3").getTop()).containsExactly("a");
+    }
+
+}
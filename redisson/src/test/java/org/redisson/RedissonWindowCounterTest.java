@@ -0,0 +1,140 @@
+package org.redisson;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RFuture;
+import org.redisson.api.RWindowCounter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.WindowType;
+import org.redisson.client.RedisException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RedissonWindowCounterTest extends BaseTest {
+
+    @Test
+    public void testNotInitialized() {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        assertThatThrownBy(() -> counter.tryAcquire("key")).isInstanceOf(RedisException.class);
+    }
+
+    @Test
+    public void testFixedWindow() throws InterruptedException {
+        testWindow(WindowType.FIXED_WINDOW);
+    }
+
+    @Test
+    public void testSlidingWindow() throws InterruptedException {
+        testWindow(WindowType.SLIDING_WINDOW);
+    }
+
+    @Test
+    public void testSlidingLog() throws InterruptedException {
+        testWindow(WindowType.SLIDING_LOG);
+    }
+
+    private void testWindow(WindowType type) throws InterruptedException {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        assertThat(counter.trySetRate(type, 5, 2, RateIntervalUnit.SECONDS)).isTrue();
+        assertThat(counter.trySetRate(type, 10, 2, RateIntervalUnit.SECONDS)).isFalse();
+
+        assertThat(counter.tryAcquire("user1", 3)).isTrue();
+        assertThat(counter.availablePermits("user1")).isEqualTo(2);
+        assertThat(counter.tryAcquire("user1", 3)).isFalse();
+        assertThat(counter.tryAcquire("user1", 2)).isTrue();
+        assertThat(counter.tryAcquire("user1")).isFalse();
+        assertThat(counter.availablePermits("user2")).isEqualTo(5);
+
+        Thread.sleep(4100);
+        assertThat(counter.availablePermits("user1")).isEqualTo(5);
+        assertThat(counter.tryAcquire("user1")).isTrue();
+
+        assertThat(counter.reset("user1")).isTrue();
+        assertThat(counter.availablePermits("user1")).isEqualTo(5);
+    }
+
+    @Test
+    public void testIdleKeysRemoved() throws InterruptedException {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        counter.trySetRate(WindowType.SLIDING_WINDOW, 5, 1, RateIntervalUnit.SECONDS);
+        assertThat(counter.tryAcquire("user1")).isTrue();
+
+        Thread.sleep(2100);
+        assertThat(counter.tryAcquire("user2")).isTrue();
+        assertThat(counter.reset("user1")).isFalse();
+        assertThat(counter.reset("user2")).isTrue();
+    }
+
+    @Test
+    public void testBulk() {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        counter.trySetRate(WindowType.SLIDING_LOG, 10, 1, RateIntervalUnit.MINUTES);
+        counter.tryAcquire("user2", 8);
+
+        Map<String, Long> permits = new HashMap<>();
+        permits.put("user1", 5L);
+        permits.put("user2", 5L);
+        permits.put("user3", 11L);
+        Map<String, Boolean> result = counter.tryAcquire(permits);
+        assertThat(result).containsEntry("user1", true)
+                            .containsEntry("user2", false)
+                            .containsEntry("user3", false);
+        assertThat(counter.availablePermits("user1")).isEqualTo(5);
+        assertThat(counter.availablePermits("user2")).isEqualTo(2);
+    }
+
+    @Test
+    public void testLocalLease() {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        counter.trySetRate(WindowType.FIXED_WINDOW, 12, 1, RateIntervalUnit.MINUTES);
+        counter.enableLocalLease(5, 1, TimeUnit.MINUTES);
+
+        assertThat(counter.tryAcquire("user1")).isTrue();
+        assertThat(counter.availablePermits("user1")).isEqualTo(7);
+        for (int i = 0; i < 4; i++) {
+            assertThat(counter.tryAcquire("user1")).isTrue();
+        }
+        assertThat(counter.availablePermits("user1")).isEqualTo(7);
+
+        for (int i = 0; i < 7; i++) {
+            assertThat(counter.tryAcquire("user1")).isTrue();
+        }
+        assertThat(counter.tryAcquire("user1")).isFalse();
+        assertThat(counter.availablePermits("user1")).isZero();
+    }
+
+    @Test
+    public void testLocalLeaseConcurrent() {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        counter.trySetRate(WindowType.FIXED_WINDOW, 100, 1, RateIntervalUnit.MINUTES);
+        counter.enableLocalLease(10, 1, TimeUnit.MINUTES);
+
+        List<RFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(counter.tryAcquireAsync("user1"));
+        }
+        for (RFuture<Boolean> future : futures) {
+            assertThat(future.toCompletableFuture().join()).isTrue();
+        }
+        assertThat(counter.availablePermits("user1")).isEqualTo(90);
+    }
+
+    @Test
+    public void testLocalLeaseWindowEnd() throws InterruptedException {
+        RWindowCounter<String> counter = redisson.getWindowCounter("counter");
+        counter.trySetRate(WindowType.FIXED_WINDOW, 10, 1, RateIntervalUnit.SECONDS);
+        counter.enableLocalLease(5, 1, TimeUnit.MINUTES);
+
+        assertThat(counter.tryAcquire("user1")).isTrue();
+        Thread.sleep(1100);
+        assertThat(counter.tryAcquire("user1")).isTrue();
+        assertThat(counter.availablePermits("user1")).isEqualTo(5);
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.redisson.connection.balancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.RedisRunner;
+import org.redisson.RedisRunner.RedisProcess;
+import org.redisson.Redisson;
+import org.redisson.api.HostZoneMapper;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.redisson.config.ReadMode;
+
+public class ZoneAwareLoadBalancerTest {
+
+    @Test
+    public void testLocalZoneSlaveUsed() throws IOException, InterruptedException {
+        RedisProcess master = redisTestInstance();
+        RedisProcess slave1 = redisTestInstance();
+        RedisProcess slave2 = redisTestInstance();
+
+        setValue(slave1, "zone-a");
+        setValue(slave2, "zone-b");
+
+        Map<String, String> zones = new HashMap<>();
+        zones.put(slave1.getRedisServerBindAddress() + ":" + slave1.getRedisServerPort(), "zone-a");
+        zones.put(slave2.getRedisServerBindAddress() + ":" + slave2.getRedisServerPort(), "zone-b");
+        HostZoneMapper zoneMapper = new HostZoneMapper();
+        zoneMapper.setZonesMap(zones);
+
+        Config config = new Config();
+        config.useMasterSlaveServers()
+                .setReadMode(ReadMode.SLAVE)
+                .setMasterAddress(master.getRedisServerAddressAndPort())
+                .addSlaveAddress(slave1.getRedisServerAddressAndPort(), slave2.getRedisServerAddressAndPort())
+                .setZoneMapper(zoneMapper)
+                .setLoadBalancer(new ZoneAwareLoadBalancer("zone-b"));
+        RedissonClient client = Redisson.create(config);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(client.getBucket("zone", StringCodec.INSTANCE).get()).isEqualTo("zone-b");
+        }
+
+        client.shutdown();
+        master.stop();
+        slave1.stop();
+        slave2.stop();
+    }
+
+    private void setValue(RedisProcess process, String value) {
+        Config config = new Config();
+        config.useSingleServer().setAddress(process.getRedisServerAddressAndPort());
+        RedissonClient client = Redisson.create(config);
+        client.getBucket("zone", StringCodec.INSTANCE).set(value);
+        client.shutdown();
+    }
+
+    private RedisProcess redisTestInstance() throws IOException, InterruptedException {
+        return new RedisRunner()
+                .nosave()
+                .randomDir()
+                .randomPort()
+                .run();
+    }
+}
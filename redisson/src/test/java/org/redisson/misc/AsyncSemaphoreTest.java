@@ -0,0 +1,52 @@
+package org.redisson.misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncSemaphoreTest {
+
+    @Test
+    public void testDeadline() throws InterruptedException {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        CompletableFuture<Void> f1 = semaphore.acquire();
+        assertThat(f1).isDone();
+
+        CompletableFuture<Void> f2 = semaphore.acquire(System.currentTimeMillis() + 50);
+        CompletableFuture<Void> f3 = semaphore.acquire();
+        assertThat(f2).isNotDone();
+
+        Thread.sleep(100);
+        semaphore.release();
+
+        assertThatThrownBy(f2::join).isInstanceOf(CompletionException.class)
+                                    .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(f3).isDone();
+        assertThat(semaphore.getCounter()).isZero();
+
+        semaphore.release();
+        assertThat(semaphore.getCounter()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExpire() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        CompletableFuture<Void> f1 = semaphore.acquire();
+        CompletableFuture<Void> f2 = semaphore.acquire(System.currentTimeMillis() + 50);
+
+        assertThat(semaphore.expire(f2)).isTrue();
+        assertThatThrownBy(f2::join).isInstanceOf(CompletionException.class)
+                                    .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(semaphore.queueSize()).isZero();
+        assertThat(semaphore.expire(f1)).isFalse();
+
+        semaphore.release();
+        assertThat(semaphore.getCounter()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.redisson.misc;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.cache.CachedValue;
+import org.redisson.cache.ExpirationQueue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpirationQueueTest {
+
+    private static final long MAX_IDLE = 10;
+
+    private long time;
+
+    private class TestValue implements CachedValue<Integer, Integer> {
+
+        private final int key;
+        private long lastAccess = time;
+
+        TestValue(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return lastAccess + MAX_IDLE < time;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Integer getValue() {
+            lastAccess = time;
+            return key;
+        }
+
+        @Override
+        public long getLastAccess() {
+            return lastAccess;
+        }
+
+    }
+
+    private List<Integer> pollExpired(ExpirationQueue<Integer, Integer> queue) {
+        return queue.pollExpired().stream().map(CachedValue::getKey).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testMaxIdleOrder() {
+        ExpirationQueue<Integer, Integer> queue = new ExpirationQueue<>(0, MAX_IDLE);
+        TestValue value1 = new TestValue(1);
+        queue.add(value1);
+
+        time = 5;
+        value1.getValue();
+        time = 7;
+        queue.add(new TestValue(2));
+
+        time = 8;
+        assertThat(pollExpired(queue)).isEmpty();
+
+        // value 1 was accessed before value 2 was added
+        time = 16;
+        assertThat(pollExpired(queue)).containsExactly(1);
+        time = 18;
+        assertThat(pollExpired(queue)).containsExactly(2);
+        assertThat(pollExpired(queue)).isEmpty();
+    }
+
+    @Test
+    public void testRemove() {
+        ExpirationQueue<Integer, Integer> queue = new ExpirationQueue<>(MAX_IDLE, MAX_IDLE);
+        TestValue value1 = new TestValue(1);
+        TestValue value2 = new TestValue(2);
+        queue.add(value1);
+        queue.add(value2);
+        queue.remove(value1);
+
+        time = 11;
+        assertThat(pollExpired(queue)).containsExactly(2);
+        assertThat(pollExpired(queue)).isEmpty();
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.redisson.misc;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.cache.Cache;
+import org.redisson.cache.TinyLFUCacheMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TinyLFUCacheMapTest {
+
+    @Test
+    public void testMaxIdleTimeEviction() throws InterruptedException {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(2, 0, 400);
+        map.put(1, 0);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(200);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(200);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(410);
+        assertThat(map.keySet()).isEmpty();
+    }
+
+    @Test
+    public void testTTLEviction() throws InterruptedException {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(2, 500, 0);
+        map.put(1, 0);
+        assertThat(map.get(1)).isEqualTo(0);
+        Thread.sleep(100);
+        assertThat(map.keySet()).containsOnly(1);
+        Thread.sleep(500);
+        assertThat(map.keySet()).isEmpty();
+    }
+
+    @Test
+    public void testSizeEviction() {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(2, 0, 0);
+        map.put(1, 0);
+        map.put(2, 0);
+
+        assertThat(map.keySet()).containsOnly(1, 2);
+
+        for (int i = 3; i < 10; i++) {
+            map.put(i, 0);
+            assertThat(map.keySet()).contains(i).hasSize(2);
+        }
+    }
+
+    @Test
+    public void testFrequentValuesSurviveScan() {
+        Cache<Integer, Integer> map = new TinyLFUCacheMap<Integer, Integer>(10, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        for (int j = 0; j < 10; j++) {
+            for (int i = 0; i < 5; i++) {
+                assertThat(map.get(i)).isEqualTo(i);
+            }
+        }
+
+        for (int i = 100; i < 200; i++) {
+            map.put(i, i);
+        }
+
+        assertThat(map.keySet()).contains(0, 1, 2, 3, 4).hasSize(10);
+    }
+
+}